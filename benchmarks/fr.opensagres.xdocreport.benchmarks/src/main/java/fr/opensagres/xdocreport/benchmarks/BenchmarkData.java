@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.template.IContext;
+
+/**
+ * Java model merged with the synthetic templates.
+ */
+public class BenchmarkData
+{
+
+    /**
+     * Create a context for the given report filled with a project and with the rows of the given template shape.
+     * 
+     * @param report
+     * @param shape
+     * @return
+     * @throws XDocReportException
+     */
+    public static IContext createContext( IXDocReport report, TemplateShape shape )
+        throws XDocReportException
+    {
+        IContext context = report.createContext();
+        context.put( "project", createProject() );
+        context.put( "rows", createRows( shape.getRows() ) );
+        return context;
+    }
+
+    public static Map<String, Object> createProject()
+    {
+        Map<String, Object> project = new HashMap<String, Object>();
+        project.put( "name", "XDocReport" );
+        project.put( "version", "2.0.2" );
+        return project;
+    }
+
+    public static List<Map<String, Object>> createRows( int size )
+    {
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            Map<String, Object> row = new HashMap<String, Object>();
+            row.put( "name", "Name " + i );
+            row.put( "description", "Description of the row " + i + " with <special> & \"escaped\" characters" );
+            row.put( "amount", String.valueOf( i * 10 ) );
+            rows.add( row );
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import fr.opensagres.xdocreport.core.document.DocumentKind;
+import fr.opensagres.xdocreport.core.io.CountingOutputStream;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
+import fr.opensagres.xdocreport.template.IContext;
+import fr.opensagres.xdocreport.template.TemplateEngineKind;
+
+/**
+ * Benchmark of concurrent merges of a report cached in the {@link XDocReportRegistry}, so the templates are taken
+ * from the template engine cache. Use "-t" to change the number of threads.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Threads( 4 )
+public class CachedProcessBenchmark
+{
+
+    @Param( { "DOCX", "ODT" } )
+    public DocumentKind kind;
+
+    @Param( { "Freemarker", "Velocity" } )
+    public TemplateEngineKind templateEngineKind;
+
+    @Param( { "SIMPLE", "LARGE_TABLE" } )
+    public TemplateShape shape;
+
+    private IXDocReport report;
+
+    /**
+     * The context is filled by the merge, so each thread uses its own context.
+     */
+    @State( Scope.Thread )
+    public static class ThreadContext
+    {
+
+        private IContext context;
+
+        @Setup
+        public void setup( CachedProcessBenchmark benchmark )
+            throws Exception
+        {
+            context = BenchmarkData.createContext( benchmark.report, benchmark.shape );
+        }
+    }
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        byte[] template = SyntheticTemplates.createTemplate( kind, templateEngineKind, shape );
+        report =
+            XDocReportRegistry.getRegistry().loadReport( new ByteArrayInputStream( template ), templateEngineKind,
+                                                         true );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        XDocReportRegistry.getRegistry().unregisterReport( report );
+    }
+
+    @Benchmark
+    public long process( ThreadContext threadContext )
+        throws Exception
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        report.process( threadContext.context, out );
+        return out.getCount();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import fr.opensagres.xdocreport.converter.ConverterRegistry;
+import fr.opensagres.xdocreport.converter.ConverterTypeTo;
+import fr.opensagres.xdocreport.converter.ConverterTypeVia;
+import fr.opensagres.xdocreport.converter.IConverter;
+import fr.opensagres.xdocreport.converter.Options;
+import fr.opensagres.xdocreport.core.document.DocumentKind;
+import fr.opensagres.xdocreport.core.io.CountingOutputStream;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
+import fr.opensagres.xdocreport.template.TemplateEngineKind;
+
+/**
+ * Benchmark of the conversion of a merged document to PDF or XHTML with the XWPF (docx) and ODFDOM (odt) converters.
+ * The document is merged in the setup.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+public class ConvertBenchmark
+{
+
+    @Param( { "DOCX", "ODT" } )
+    public DocumentKind kind;
+
+    @Param( { "PDF", "XHTML" } )
+    public ConverterTypeTo to;
+
+    @Param( { "SIMPLE", "LARGE_TABLE", "MANY_IMAGES", "HEAVY_STYLING" } )
+    public TemplateShape shape;
+
+    private byte[] document;
+
+    private IConverter converter;
+
+    private Options options;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        byte[] template = SyntheticTemplates.createTemplate( kind, TemplateEngineKind.Freemarker, shape );
+        IXDocReport report =
+            XDocReportRegistry.getRegistry().loadReport( new ByteArrayInputStream( template ),
+                                                         TemplateEngineKind.Freemarker, false );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.process( BenchmarkData.createContext( report, shape ), out );
+        document = out.toByteArray();
+
+        options = getOptions( kind, to );
+        converter = ConverterRegistry.getRegistry().getConverter( options );
+    }
+
+    @Benchmark
+    public long convert()
+        throws Exception
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        converter.convert( new ByteArrayInputStream( document ), out, options );
+        return out.getCount();
+    }
+
+    static Options getOptions( DocumentKind kind, ConverterTypeTo to )
+    {
+        ConverterTypeVia via = kind == DocumentKind.DOCX ? ConverterTypeVia.XWPF : ConverterTypeVia.ODFDOM;
+        return Options.getFrom( kind ).to( to ).via( via );
+    }
+}
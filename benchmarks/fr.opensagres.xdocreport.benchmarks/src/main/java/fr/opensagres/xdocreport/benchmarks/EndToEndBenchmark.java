@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import fr.opensagres.xdocreport.converter.ConverterTypeTo;
+import fr.opensagres.xdocreport.core.document.DocumentKind;
+import fr.opensagres.xdocreport.core.io.CountingOutputStream;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
+import fr.opensagres.xdocreport.template.TemplateEngineKind;
+
+/**
+ * End to end benchmark : load + preprocess + merge (+ convert) of a template.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+public class EndToEndBenchmark
+{
+
+    @Param( { "DOCX", "ODT" } )
+    public DocumentKind kind;
+
+    @Param( { "PDF", "XHTML" } )
+    public ConverterTypeTo to;
+
+    @Param( { "SIMPLE", "LARGE_TABLE", "MANY_IMAGES", "HEAVY_STYLING" } )
+    public TemplateShape shape;
+
+    private byte[] template;
+
+    @Setup
+    public void setup()
+        throws Exception
+    {
+        template = SyntheticTemplates.createTemplate( kind, TemplateEngineKind.Freemarker, shape );
+    }
+
+    @Benchmark
+    public long process()
+        throws Exception
+    {
+        IXDocReport report = loadReport();
+        CountingOutputStream out = new CountingOutputStream();
+        report.process( BenchmarkData.createContext( report, shape ), out );
+        return out.getCount();
+    }
+
+    @Benchmark
+    public long convert()
+        throws Exception
+    {
+        IXDocReport report = loadReport();
+        CountingOutputStream out = new CountingOutputStream();
+        report.convert( BenchmarkData.createContext( report, shape ), ConvertBenchmark.getOptions( kind, to ), out );
+        return out.getCount();
+    }
+
+    private IXDocReport loadReport()
+        throws Exception
+    {
+        return XDocReportRegistry.getRegistry().loadReport( new ByteArrayInputStream( template ),
+                                                            TemplateEngineKind.Freemarker, false );
+    }
+}
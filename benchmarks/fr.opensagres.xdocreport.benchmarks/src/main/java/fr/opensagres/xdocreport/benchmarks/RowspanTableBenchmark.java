@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+
+import fr.opensagres.xdocreport.itext.extension.ExtendedPdfPTable;
+
+/**
+ * Benchmark of the layout (computation of the row heights) of a table with heavy rowspans, like the vertically merged
+ * cells of generated invoices and schedules : the first column is merged on the whole table or on blocks of rows, the
+ * second column on blocks of 10 rows. The time must be linear with the number of rows.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class RowspanTableBenchmark
+{
+
+    @Param( { "1000", "10000" } )
+    public int rows;
+
+    @Param( { "100", "10000" } )
+    public int span;
+
+    @Setup
+    public void setup()
+    {
+        // check the table can be created.
+        createTable();
+    }
+
+    @Benchmark
+    public float layout()
+    {
+        ExtendedPdfPTable table = createTable();
+        // compute the widths and the heights of all rows.
+        table.setTotalWidth( 500f );
+        float height = 0;
+        for ( int i = 0; i < rows; i++ )
+        {
+            height += table.getRowHeight( i );
+        }
+        return height;
+    }
+
+    private ExtendedPdfPTable createTable()
+    {
+        ExtendedPdfPTable table = new ExtendedPdfPTable( 4 );
+        for ( int i = 0; i < rows; i++ )
+        {
+            if ( i % span == 0 )
+            {
+                table.addCell( createCell( "Block " + i, Math.min( span, rows - i ) ) );
+            }
+            if ( i % 10 == 0 )
+            {
+                table.addCell( createCell( "Group " + i, Math.min( 10, rows - i ) ) );
+            }
+            table.addCell( createCell( "Item " + i, 1 ) );
+            table.addCell( createCell( String.valueOf( i ), 1 ) );
+        }
+        return table;
+    }
+
+    private static PdfPCell createCell( String text, int rowspan )
+    {
+        PdfPCell cell = new PdfPCell( new Phrase( text ) );
+        cell.setRowspan( rowspan );
+        return cell;
+    }
+}
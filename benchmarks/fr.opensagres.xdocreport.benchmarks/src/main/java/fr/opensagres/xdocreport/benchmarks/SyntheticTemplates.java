@@ -0,0 +1,547 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.util.Units;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFPictureData;
+import org.apache.poi.xslf.usermodel.XSLFPictureShape;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.apache.poi.xslf.usermodel.XSLFTextBox;
+import org.apache.poi.xslf.usermodel.XSLFTextParagraph;
+import org.apache.poi.xslf.usermodel.XSLFTextRun;
+import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageSz;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSimpleField;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGrid;
+
+import fr.opensagres.xdocreport.core.document.DocumentKind;
+import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.template.TemplateEngineKind;
+
+/**
+ * Generates synthetic docx, odt and pptx templates (fields, static and dynamic tables, images, styled text) with the
+ * syntax of the Freemarker or Velocity template engine.
+ */
+public class SyntheticTemplates
+{
+
+    private static final int IMAGE_WIDTH = 640;
+
+    private static final int IMAGE_HEIGHT = 480;
+
+    private static final String[] COLORS = { "C00000", "0070C0", "00B050", "7030A0" };
+
+    private static final String[] FONTS = { "Arial", "Times New Roman", "Courier New" };
+
+    public static byte[] createTemplate( DocumentKind kind, TemplateEngineKind templateEngineKind, TemplateShape shape )
+        throws Exception
+    {
+        switch ( kind )
+        {
+            case DOCX:
+                return createDocx( templateEngineKind, shape );
+            case ODT:
+                return createODT( templateEngineKind, shape );
+            case PPTX:
+                return createPPTX( templateEngineKind, shape );
+            default:
+                throw new IllegalArgumentException( "Unsupported document kind " + kind );
+        }
+    }
+
+    // ------------------------ docx
+
+    public static byte[] createDocx( TemplateEngineKind templateEngineKind, TemplateShape shape )
+        throws Exception
+    {
+        Syntax syntax = new Syntax( templateEngineKind );
+        XWPFDocument document = new XWPFDocument();
+        // the XWPF converters require a styles part.
+        document.createStyles();
+
+        // Title
+        XWPFParagraph title = document.createParagraph();
+        addMergeField( title, syntax.field( "project.name" ) );
+        XWPFRun run = title.createRun();
+        run.setText( " version " );
+        addMergeField( title, syntax.field( "project.version" ) );
+
+        // Styled text
+        for ( int i = 0; i < shape.getStyledParagraphs(); i++ )
+        {
+            XWPFParagraph paragraph = document.createParagraph();
+            for ( int j = 0; j < 4; j++ )
+            {
+                run = paragraph.createRun();
+                run.setText( "Styled text " + i + "." + j + " " );
+                run.setBold( j % 2 == 0 );
+                run.setItalic( j % 3 == 0 );
+                if ( j == 1 )
+                {
+                    run.setUnderline( UnderlinePatterns.SINGLE );
+                }
+                run.setColor( COLORS[( i + j ) % COLORS.length] );
+                run.setFontFamily( FONTS[( i + j ) % FONTS.length] );
+                run.setFontSize( 9 + ( i + j ) % 6 );
+            }
+            addMergeField( paragraph, syntax.field( "project.name" ) );
+        }
+
+        // Dynamic table
+        XWPFTable table = createTable( document, 2, 3 );
+        XWPFTableRow header = table.getRow( 0 );
+        header.getCell( 0 ).setText( "Name" );
+        header.getCell( 1 ).setText( "Description" );
+        header.getCell( 2 ).setText( "Amount" );
+        XWPFTableRow row = table.getRow( 1 );
+        XWPFParagraph cell = row.getCell( 0 ).getParagraphs().get( 0 );
+        addMergeField( cell, syntax.beforeRow() );
+        addMergeField( cell, syntax.field( "row.name" ) );
+        addMergeField( row.getCell( 1 ).getParagraphs().get( 0 ), syntax.field( "row.description" ) );
+        cell = row.getCell( 2 ).getParagraphs().get( 0 );
+        addMergeField( cell, syntax.field( "row.amount" ) );
+        addMergeField( cell, syntax.afterRow() );
+
+        // Static table
+        if ( shape.getStaticRows() > 0 )
+        {
+            table = createTable( document, shape.getStaticRows(), 4 );
+            for ( int i = 0; i < shape.getStaticRows(); i++ )
+            {
+                row = table.getRow( i );
+                for ( int j = 0; j < 4; j++ )
+                {
+                    row.getCell( j ).setText( "Cell " + i + "." + j );
+                }
+            }
+        }
+
+        // Images
+        for ( int i = 0; i < shape.getImages(); i++ )
+        {
+            XWPFParagraph paragraph = document.createParagraph();
+            run = paragraph.createRun();
+            run.addPicture( new ByteArrayInputStream( createImage( i ) ), XWPFDocument.PICTURE_TYPE_PNG, "image" + i
+                + ".png", Units.toEMU( 240 ), Units.toEMU( 180 ) );
+        }
+
+        // A4 page (in twips), the XWPF converters require a section.
+        CTSectPr sectPr = document.getDocument().getBody().addNewSectPr();
+        CTPageSz pageSize = sectPr.addNewPgSz();
+        pageSize.setW( BigInteger.valueOf( 11906 ) );
+        pageSize.setH( BigInteger.valueOf( 16838 ) );
+        CTPageMar pageMargin = sectPr.addNewPgMar();
+        pageMargin.setTop( BigInteger.valueOf( 1417 ) );
+        pageMargin.setBottom( BigInteger.valueOf( 1417 ) );
+        pageMargin.setLeft( BigInteger.valueOf( 1417 ) );
+        pageMargin.setRight( BigInteger.valueOf( 1417 ) );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.write( out );
+        return out.toByteArray();
+    }
+
+    private static XWPFTable createTable( XWPFDocument document, int rows, int cols )
+    {
+        XWPFTable table = document.createTable( rows, cols );
+        // POI doesn't generate the w:tblGrid which is required by the XWPF converters.
+        CTTblGrid grid = table.getCTTbl().addNewTblGrid();
+        for ( int i = 0; i < cols; i++ )
+        {
+            grid.addNewGridCol().setW( BigInteger.valueOf( 9000 / cols ) );
+        }
+        return table;
+    }
+
+    private static void addMergeField( XWPFParagraph paragraph, String fieldName )
+    {
+        CTSimpleField field = paragraph.getCTP().addNewFldSimple();
+        field.setInstr( " MERGEFIELD " + fieldName + " \\* MERGEFORMAT " );
+        CTR run = field.addNewR();
+        run.addNewT().setStringValue( "«" + fieldName + "»" );
+    }
+
+    // ------------------------ odt
+
+    public static byte[] createODT( TemplateEngineKind templateEngineKind, TemplateShape shape )
+        throws Exception
+    {
+        Syntax syntax = new Syntax( templateEngineKind );
+        StringBuilder content = new StringBuilder();
+        content.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" );
+        content.append( "<office:document-content" );
+        content.append( " xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\"" );
+        content.append( " xmlns:style=\"urn:oasis:names:tc:opendocument:xmlns:style:1.0\"" );
+        content.append( " xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\"" );
+        content.append( " xmlns:table=\"urn:oasis:names:tc:opendocument:xmlns:table:1.0\"" );
+        content.append( " xmlns:draw=\"urn:oasis:names:tc:opendocument:xmlns:drawing:1.0\"" );
+        content.append( " xmlns:fo=\"urn:oasis:names:tc:opendocument:xmlns:xsl-fo-compatible:1.0\"" );
+        content.append( " xmlns:xlink=\"http://www.w3.org/1999/xlink\"" );
+        content.append( " xmlns:svg=\"urn:oasis:names:tc:opendocument:xmlns:svg-compatible:1.0\"" );
+        content.append( " office:version=\"1.2\">" );
+
+        // Styles
+        content.append( "<office:automatic-styles>" );
+        for ( int i = 0; i < COLORS.length; i++ )
+        {
+            content.append( "<style:style style:name=\"T" ).append( i ).append( "\" style:family=\"text\">" );
+            content.append( "<style:text-properties fo:color=\"#" ).append( COLORS[i] ).append( "\"" );
+            content.append( " fo:font-family=\"" ).append( FONTS[i % FONTS.length] ).append( "\"" );
+            content.append( " fo:font-size=\"" ).append( 9 + i * 2 ).append( "pt\"" );
+            if ( i % 2 == 0 )
+            {
+                content.append( " fo:font-weight=\"bold\"" );
+            }
+            if ( i % 3 == 0 )
+            {
+                content.append( " fo:font-style=\"italic\"" );
+            }
+            if ( i == 1 )
+            {
+                content.append( " style:text-underline-style=\"solid\" style:text-underline-width=\"auto\" style:text-underline-color=\"font-color\"" );
+            }
+            content.append( "/></style:style>" );
+        }
+        content.append( "<style:style style:name=\"Table\" style:family=\"table\"><style:table-properties style:width=\"17cm\" table:align=\"margins\"/></style:style>" );
+        content.append( "<style:style style:name=\"Table.A\" style:family=\"table-column\"><style:table-column-properties style:column-width=\"4.25cm\"/></style:style>" );
+        content.append( "<style:style style:name=\"Table.A1\" style:family=\"table-cell\"><style:table-cell-properties fo:padding=\"0.1cm\" fo:border=\"0.5pt solid #000000\"/></style:style>" );
+        content.append( "<style:style style:name=\"fr1\" style:family=\"graphic\"><style:graphic-properties style:wrap=\"none\" style:vertical-pos=\"top\" style:vertical-rel=\"baseline\"/></style:style>" );
+        content.append( "</office:automatic-styles>" );
+
+        content.append( "<office:body><office:text>" );
+
+        // Title
+        content.append( "<text:p>" );
+        appendTextInput( content, syntax.field( "project.name" ) );
+        content.append( " version " );
+        appendTextInput( content, syntax.field( "project.version" ) );
+        content.append( "</text:p>" );
+
+        // Styled text
+        for ( int i = 0; i < shape.getStyledParagraphs(); i++ )
+        {
+            content.append( "<text:p>" );
+            for ( int j = 0; j < 4; j++ )
+            {
+                content.append( "<text:span text:style-name=\"T" ).append( ( i + j ) % COLORS.length ).append( "\">" );
+                content.append( "Styled text " ).append( i ).append( '.' ).append( j ).append( ' ' );
+                content.append( "</text:span>" );
+            }
+            appendTextInput( content, syntax.field( "project.name" ) );
+            content.append( "</text:p>" );
+        }
+
+        // Dynamic table
+        content.append( "<table:table table:name=\"Dynamic\" table:style-name=\"Table\">" );
+        content.append( "<table:table-column table:style-name=\"Table.A\" table:number-columns-repeated=\"3\"/>" );
+        content.append( "<table:table-row>" );
+        appendCell( content, "Name" );
+        appendCell( content, "Description" );
+        appendCell( content, "Amount" );
+        content.append( "</table:table-row>" );
+        content.append( "<table:table-row>" );
+        content.append( "<table:table-cell table:style-name=\"Table.A1\" office:value-type=\"string\"><text:p>" );
+        appendTextInput( content, syntax.beforeRow() );
+        appendTextInput( content, syntax.field( "row.name" ) );
+        content.append( "</text:p></table:table-cell>" );
+        content.append( "<table:table-cell table:style-name=\"Table.A1\" office:value-type=\"string\"><text:p>" );
+        appendTextInput( content, syntax.field( "row.description" ) );
+        content.append( "</text:p></table:table-cell>" );
+        content.append( "<table:table-cell table:style-name=\"Table.A1\" office:value-type=\"string\"><text:p>" );
+        appendTextInput( content, syntax.field( "row.amount" ) );
+        appendTextInput( content, syntax.afterRow() );
+        content.append( "</text:p></table:table-cell>" );
+        content.append( "</table:table-row>" );
+        content.append( "</table:table>" );
+
+        // Static table
+        if ( shape.getStaticRows() > 0 )
+        {
+            content.append( "<table:table table:name=\"Static\" table:style-name=\"Table\">" );
+            content.append( "<table:table-column table:style-name=\"Table.A\" table:number-columns-repeated=\"4\"/>" );
+            for ( int i = 0; i < shape.getStaticRows(); i++ )
+            {
+                content.append( "<table:table-row>" );
+                for ( int j = 0; j < 4; j++ )
+                {
+                    appendCell( content, "Cell " + i + "." + j );
+                }
+                content.append( "</table:table-row>" );
+            }
+            content.append( "</table:table>" );
+        }
+
+        // Images
+        for ( int i = 0; i < shape.getImages(); i++ )
+        {
+            content.append( "<text:p><draw:frame draw:style-name=\"fr1\" draw:name=\"image" ).append( i );
+            content.append( "\" text:anchor-type=\"as-char\" svg:width=\"6.35cm\" svg:height=\"4.76cm\" draw:z-index=\"0\">" );
+            content.append( "<draw:image xlink:href=\"Pictures/image" ).append( i );
+            content.append( ".png\" xlink:type=\"simple\" xlink:show=\"embed\" xlink:actuate=\"onLoad\"/>" );
+            content.append( "</draw:frame></text:p>" );
+        }
+
+        content.append( "</office:text></office:body></office:document-content>" );
+
+        // Use an empty ODF text document to have valid styles, meta... entries and replace the content.
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        OdfTextDocument.newTextDocument().save( empty );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream( out );
+        ZipInputStream in = new ZipInputStream( new ByteArrayInputStream( empty.toByteArray() ) );
+        try
+        {
+            ZipEntry entry = null;
+            while ( ( entry = in.getNextEntry() ) != null )
+            {
+                String name = entry.getName();
+                if ( "content.xml".equals( name ) )
+                {
+                    putEntry( zip, name, content.toString().getBytes( "UTF-8" ), false );
+                }
+                else if ( "META-INF/manifest.xml".equals( name ) )
+                {
+                    String manifest = IOUtils.toString( in, "UTF-8" );
+                    StringBuilder pictures = new StringBuilder();
+                    for ( int i = 0; i < shape.getImages(); i++ )
+                    {
+                        pictures.append( "<manifest:file-entry manifest:media-type=\"image/png\" manifest:full-path=\"Pictures/image" );
+                        pictures.append( i ).append( ".png\"/>" );
+                    }
+                    manifest = manifest.replace( "</manifest:manifest>", pictures + "</manifest:manifest>" );
+                    putEntry( zip, name, manifest.getBytes( "UTF-8" ), false );
+                }
+                else if ( !name.startsWith( "Thumbnails/" ) )
+                {
+                    putEntry( zip, name, IOUtils.toByteArray( in ), "mimetype".equals( name ) );
+                }
+            }
+            for ( int i = 0; i < shape.getImages(); i++ )
+            {
+                putEntry( zip, "Pictures/image" + i + ".png", createImage( i ), false );
+            }
+        }
+        finally
+        {
+            in.close();
+            zip.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static void appendTextInput( StringBuilder content, String field )
+    {
+        content.append( "<text:text-input text:description=\"\">" );
+        content.append( field.replace( "&", "&amp;" ).replace( "<", "&lt;" ) );
+        content.append( "</text:text-input>" );
+    }
+
+    private static void appendCell( StringBuilder content, String text )
+    {
+        content.append( "<table:table-cell table:style-name=\"Table.A1\" office:value-type=\"string\"><text:p>" );
+        content.append( text );
+        content.append( "</text:p></table:table-cell>" );
+    }
+
+    private static void putEntry( ZipOutputStream zip, String name, byte[] data, boolean stored )
+        throws IOException
+    {
+        ZipEntry entry = new ZipEntry( name );
+        if ( stored )
+        {
+            CRC32 crc = new CRC32();
+            crc.update( data );
+            entry.setMethod( ZipEntry.STORED );
+            entry.setSize( data.length );
+            entry.setCompressedSize( data.length );
+            entry.setCrc( crc.getValue() );
+        }
+        zip.putNextEntry( entry );
+        zip.write( data );
+        zip.closeEntry();
+    }
+
+    // ------------------------ pptx
+
+    public static byte[] createPPTX( TemplateEngineKind templateEngineKind, TemplateShape shape )
+        throws Exception
+    {
+        Syntax syntax = new Syntax( templateEngineKind );
+        XMLSlideShow slideShow = new XMLSlideShow();
+
+        // Title slide
+        XSLFSlide slide = slideShow.createSlide();
+        XSLFTextBox title = slide.createTextBox();
+        title.setAnchor( new Rectangle2D.Double( 50, 50, 600, 50 ) );
+        title.addNewTextParagraph().addNewTextRun().setText( syntax.field( "project.name" ) + " version "
+            + syntax.field( "project.version" ) );
+
+        // Styled text : 20 paragraphs per slide
+        XSLFTextBox textBox = null;
+        for ( int i = 0; i < shape.getStyledParagraphs(); i++ )
+        {
+            if ( i % 20 == 0 )
+            {
+                slide = slideShow.createSlide();
+                textBox = slide.createTextBox();
+                textBox.setAnchor( new Rectangle2D.Double( 20, 20, 680, 500 ) );
+            }
+            XSLFTextParagraph paragraph = textBox.addNewTextParagraph();
+            for ( int j = 0; j < 4; j++ )
+            {
+                XSLFTextRun run = paragraph.addNewTextRun();
+                run.setText( "Styled text " + i + "." + j + " " );
+                run.setBold( j % 2 == 0 );
+                run.setItalic( j % 3 == 0 );
+                run.setUnderlined( j == 1 );
+                run.setFontColor( Color.decode( "#" + COLORS[( i + j ) % COLORS.length] ) );
+                run.setFontFamily( FONTS[( i + j ) % FONTS.length] );
+                run.setFontSize( (double) ( 9 + ( i + j ) % 6 ) );
+            }
+            paragraph.addNewTextRun().setText( syntax.field( "project.name" ) );
+        }
+
+        // Static rows as text
+        for ( int i = 0; i < shape.getStaticRows(); i++ )
+        {
+            if ( i % 20 == 0 )
+            {
+                slide = slideShow.createSlide();
+                textBox = slide.createTextBox();
+                textBox.setAnchor( new Rectangle2D.Double( 20, 20, 680, 500 ) );
+            }
+            textBox.addNewTextParagraph().addNewTextRun().setText( "Cell " + i + ".0 | Cell " + i + ".1 | Cell " + i
+                                                                       + ".2 | Cell " + i + ".3" );
+        }
+
+        // Images : one image per slide
+        for ( int i = 0; i < shape.getImages(); i++ )
+        {
+            slide = slideShow.createSlide();
+            XSLFPictureData pictureData = slideShow.addPicture( createImage( i ), PictureType.PNG );
+            XSLFPictureShape picture = slide.createPicture( pictureData );
+            picture.setAnchor( new Rectangle2D.Double( 40, 40, 480, 360 ) );
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        slideShow.write( out );
+        return out.toByteArray();
+    }
+
+    // ------------------------ images
+
+    /**
+     * Create a PNG image. Each index gives a different image to avoid that images are shared.
+     * 
+     * @param index
+     * @return
+     * @throws IOException
+     */
+    public static byte[] createImage( int index )
+        throws IOException
+    {
+        BufferedImage image = new BufferedImage( IMAGE_WIDTH, IMAGE_HEIGHT, BufferedImage.TYPE_INT_RGB );
+        Graphics2D g = image.createGraphics();
+        try
+        {
+            Color from = Color.decode( "#" + COLORS[index % COLORS.length] );
+            g.setPaint( new GradientPaint( 0, 0, from, IMAGE_WIDTH, IMAGE_HEIGHT, Color.WHITE ) );
+            g.fillRect( 0, 0, IMAGE_WIDTH, IMAGE_HEIGHT );
+            g.setColor( Color.BLACK );
+            g.drawString( "Image " + index, 20, 40 );
+            // add some noise to have a realistic compression ratio
+            for ( int i = 0; i < 2000; i++ )
+            {
+                int x = ( i * 7919 + index * 31 ) % IMAGE_WIDTH;
+                int y = ( i * 104729 + index * 17 ) % IMAGE_HEIGHT;
+                image.setRGB( x, y, ( i + index ) % 2 == 0 ? 0x333333 : 0xCCCCCC );
+            }
+        }
+        finally
+        {
+            g.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write( image, "png", out );
+        return out.toByteArray();
+    }
+
+    /**
+     * Syntax of fields and loops of the template engine.
+     */
+    private static class Syntax
+    {
+
+        private final boolean freemarker;
+
+        public Syntax( TemplateEngineKind templateEngineKind )
+        {
+            this.freemarker = templateEngineKind == TemplateEngineKind.Freemarker;
+        }
+
+        public String field( String name )
+        {
+            return freemarker ? "${" + name + "}" : "$" + name;
+        }
+
+        public String beforeRow()
+        {
+            return freemarker ? "@before-row[#list rows as row]" : "@before-row#foreach($row in $rows)";
+        }
+
+        public String afterRow()
+        {
+            return freemarker ? "@after-row[/#list]" : "@after-row#end";
+        }
+    }
+}
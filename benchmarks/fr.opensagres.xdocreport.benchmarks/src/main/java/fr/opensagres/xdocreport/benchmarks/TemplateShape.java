@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.benchmarks;
+
+/**
+ * Shape of the synthetic templates used by the benchmarks.
+ */
+public enum TemplateShape
+{
+
+    /**
+     * Small document with few fields.
+     */
+    SIMPLE( 10, 0, 0, 5 ),
+
+    /**
+     * Large dynamic table (rows of the context) and large static table.
+     */
+    LARGE_TABLE( 5000, 500, 0, 5 ),
+
+    /**
+     * Document with a lot of images.
+     */
+    MANY_IMAGES( 10, 0, 50, 5 ),
+
+    /**
+     * Document with a lot of styled text.
+     */
+    HEAVY_STYLING( 10, 0, 0, 2000 );
+
+    private final int rows;
+
+    private final int staticRows;
+
+    private final int images;
+
+    private final int styledParagraphs;
+
+    private TemplateShape( int rows, int staticRows, int images, int styledParagraphs )
+    {
+        this.rows = rows;
+        this.staticRows = staticRows;
+        this.images = images;
+        this.styledParagraphs = styledParagraphs;
+    }
+
+    /**
+     * Returns the number of rows of the list which is merged in the dynamic table.
+     * 
+     * @return
+     */
+    public int getRows()
+    {
+        return rows;
+    }
+
+    /**
+     * Returns the number of rows of the static table of the template.
+     * 
+     * @return
+     */
+    public int getStaticRows()
+    {
+        return staticRows;
+    }
+
+    /**
+     * Returns the number of images of the template.
+     * 
+     * @return
+     */
+    public int getImages()
+    {
+        return images;
+    }
+
+    /**
+     * Returns the number of paragraphs with styled text.
+     * 
+     * @return
+     */
+    public int getStyledParagraphs()
+    {
+        return styledParagraphs;
+    }
+}
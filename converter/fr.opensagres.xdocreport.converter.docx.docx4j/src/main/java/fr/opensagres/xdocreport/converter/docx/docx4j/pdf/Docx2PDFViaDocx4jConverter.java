@@ -61,7 +61,9 @@ public class Docx2PDFViaDocx4jConverter
         try
         {
             // 1) load docx with docx4j
-            WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.load( in );            
+            WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.load( in );
+            // reuse the font mapper (and physical fonts) shared by all conversions.
+            Docx4jFontMapperRegistry.getRegistry().setFontMapper( wordMLPackage, toFontOptions( options ) );
             // 2) convert it to PDF
             org.docx4j.convert.out.pdf.PdfConversion c
             // = new org.docx4j.convert.out.pdf.viaHTML.Conversion(wordMLPackage);
@@ -93,6 +95,20 @@ public class Docx2PDFViaDocx4jConverter
        return new PdfSettings();
     }
 
+    public Docx4jFontOptions toFontOptions( Options options )
+    {
+        if ( options == null )
+        {
+            return null;
+        }
+        Object value = options.getSubOptions( Docx4jFontOptions.class );
+        if ( value instanceof Docx4jFontOptions )
+        {
+            return (Docx4jFontOptions) value;
+        }
+        return null;
+    }
+
     public MimeMapping getMimeMapping()
     {
 
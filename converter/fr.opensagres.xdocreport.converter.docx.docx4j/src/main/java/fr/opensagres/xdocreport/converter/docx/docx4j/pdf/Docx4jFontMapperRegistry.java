@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.converter.docx.docx4j.pdf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.docx4j.fonts.BestMatchingMapper;
+import org.docx4j.fonts.IdentityPlusMapper;
+import org.docx4j.fonts.Mapper;
+import org.docx4j.fonts.PhysicalFont;
+import org.docx4j.fonts.PhysicalFonts;
+import org.docx4j.fonts.fop.fonts.FontCache;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.wml.Fonts;
+
+import fr.opensagres.xdocreport.core.logging.LogUtils;
+
+/**
+ * Registry of the docx4j font {@link Mapper} shared by the DOCX->PDF conversions.
+ * <p>
+ * By default, docx4j creates a new mapper for each document. The registry builds the mapper once (which discovers the
+ * physical fonts of the system) and uses it to map the fonts used by each {@link WordprocessingMLPackage}. Each package
+ * gets its own copy of the font mappings, so the conversions of several documents can run at the same time. The
+ * physical fonts index can be persisted with {@link Docx4jFontOptions#fontCacheFile(File)}.
+ * </p>
+ */
+public class Docx4jFontMapperRegistry
+{
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger LOGGER = LogUtils.getLogger( Docx4jFontMapperRegistry.class.getName() );
+
+    private static final Docx4jFontMapperRegistry INSTANCE = new Docx4jFontMapperRegistry();
+
+    private volatile Mapper fontMapper;
+
+    public static Docx4jFontMapperRegistry getRegistry()
+    {
+        return INSTANCE;
+    }
+
+    protected Docx4jFontMapperRegistry()
+    {
+    }
+
+    /**
+     * Returns the shared font mapper and builds it with the given options if it doesn't exist.
+     * 
+     * @param options the font options used to build the mapper, or null.
+     * @return
+     * @throws Exception
+     */
+    public Mapper getFontMapper( Docx4jFontOptions options )
+        throws Exception
+    {
+        Mapper mapper = fontMapper;
+        if ( mapper == null )
+        {
+            synchronized ( this )
+            {
+                mapper = fontMapper;
+                if ( mapper == null )
+                {
+                    mapper = createFontMapper( options );
+                    fontMapper = mapper;
+                }
+            }
+        }
+        return mapper;
+    }
+
+    /**
+     * Maps the fonts used by the given package with the shared font mapper and sets to the package a mapper which owns
+     * a copy of the resulting font mappings.
+     * 
+     * @param wordMLPackage
+     * @param options the font options used to build the mapper, or null.
+     * @throws Exception
+     */
+    public void setFontMapper( WordprocessingMLPackage wordMLPackage, Docx4jFontOptions options )
+        throws Exception
+    {
+        Mapper mapper = getFontMapper( options );
+        Map<String, PhysicalFont> fontMappings;
+        // docx4j stores the font mappings of all mappers in a static map, populate it one document at a time and copy
+        // the mappings of the document before the next one changes them.
+        synchronized ( mapper )
+        {
+            wordMLPackage.setFontMapper( mapper );
+            fontMappings = DocumentFontMapper.copyFontMappings( mapper );
+        }
+        wordMLPackage.setFontMapper( new DocumentFontMapper( fontMappings ) );
+    }
+
+    protected Mapper createFontMapper( Docx4jFontOptions options )
+        throws Exception
+    {
+        File fontCacheFile = options != null ? options.getFontCacheFile() : null;
+        // the physical fonts are discovered when the mapper class is initialized, configure them before.
+        if ( options != null && options.getFontRegex() != null )
+        {
+            PhysicalFonts.setRegex( options.getFontRegex() );
+        }
+        if ( fontCacheFile != null )
+        {
+            FontCacheSupport.loadFrom( fontCacheFile );
+        }
+        Mapper mapper =
+            options != null && options.isBestMatching() ? new BestMatchingMapper() : new IdentityPlusMapper();
+        if ( fontCacheFile != null )
+        {
+            try
+            {
+                FontCacheSupport.saveTo( fontCacheFile );
+            }
+            catch ( Exception e )
+            {
+                LOGGER.log( Level.WARNING, "Cannot save the docx4j font cache to " + fontCacheFile, e );
+            }
+        }
+        return mapper;
+    }
+
+    /**
+     * Font mapper of one document which owns its font mappings (the mappings of the docx4j mappers are static).
+     */
+    private static class DocumentFontMapper
+        extends Mapper
+    {
+
+        private final Map<String, PhysicalFont> documentFontMappings;
+
+        DocumentFontMapper( Map<String, PhysicalFont> documentFontMappings )
+        {
+            this.documentFontMappings = documentFontMappings;
+        }
+
+        static Map<String, PhysicalFont> copyFontMappings( Mapper mapper )
+        {
+            Map<String, PhysicalFont> mappings = mapper.getFontMappings();
+            // the map is a synchronized map, which must be locked to be iterated.
+            synchronized ( mappings )
+            {
+                return new HashMap<String, PhysicalFont>( mappings );
+            }
+        }
+
+        @Override
+        public Map<String, PhysicalFont> getFontMappings()
+        {
+            return documentFontMappings;
+        }
+
+        @Override
+        public void populateFontMappings( Map documentFontNames, Fonts wmlFonts )
+            throws Exception
+        {
+            // the font mappings are computed by the shared mapper.
+        }
+
+        @Override
+        public String getSubstituteFontXsltExtension( String documentStyleId, String bolditalic, boolean fieldResult )
+        {
+            // same as Mapper#getSubstituteFontXsltExtension, with the mappings of the document.
+            if ( documentStyleId == null )
+            {
+                return "nullInputToExtension";
+            }
+            PhysicalFont physicalFont = documentFontMappings.get( documentStyleId );
+            if ( physicalFont == null )
+            {
+                return "Times New Roman";
+            }
+            String physicalFontName = physicalFont.getName();
+            if ( physicalFontName.startsWith( "Britannic" ) )
+            {
+                return physicalFontName;
+            }
+            physicalFontName = removeSuffix( physicalFontName, " Demibold" );
+            physicalFontName = removeSuffix( physicalFontName, " Oblique" );
+            physicalFontName = removeSuffix( physicalFontName, " Italic" );
+            return removeSuffix( physicalFontName, " Bold" );
+        }
+
+        private static String removeSuffix( String name, String suffix )
+        {
+            return name.endsWith( suffix ) ? name.substring( 0, name.length() - suffix.length() ) : name;
+        }
+    }
+
+    /**
+     * Access to the font cache used by {@link PhysicalFonts} to avoid parsing again the known font files.
+     */
+    private static class FontCacheSupport
+        extends PhysicalFonts
+    {
+
+        static void loadFrom( File file )
+        {
+            if ( file.exists() )
+            {
+                FontCache cache = FontCache.loadFrom( file );
+                if ( cache != null )
+                {
+                    fontCache = cache;
+                }
+            }
+        }
+
+        static void saveTo( File file )
+            throws IOException
+        {
+            if ( fontCache != null )
+            {
+                File dir = file.getParentFile();
+                if ( dir != null )
+                {
+                    dir.mkdirs();
+                }
+                // FontCache#saveTo(File) does nothing once the cache has been saved to the default file by the
+                // discovery, so serialize it directly (which is the format read by FontCache#loadFrom(File)).
+                ObjectOutputStream out =
+                    new ObjectOutputStream( new BufferedOutputStream( new FileOutputStream( file ) ) );
+                try
+                {
+                    out.writeObject( fontCache );
+                }
+                finally
+                {
+                    out.close();
+                }
+            }
+        }
+    }
+}
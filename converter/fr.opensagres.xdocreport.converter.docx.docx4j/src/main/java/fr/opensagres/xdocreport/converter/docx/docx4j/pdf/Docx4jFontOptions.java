@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.converter.docx.docx4j.pdf;
+
+import java.io.File;
+
+/**
+ * Options to customize the docx4j font mapper shared by the DOCX->PDF conversions (see
+ * {@link Docx4jFontMapperRegistry}), set with
+ * <code>options.subOptions(Docx4jFontOptions.create().fontCacheFile(file))</code>.
+ * <p>
+ * docx4j discovers the physical fonts once per JVM, so those options are only taken into account by the first
+ * conversion.
+ * </p>
+ */
+public class Docx4jFontOptions
+{
+
+    private File fontCacheFile;
+
+    private String fontRegex;
+
+    private boolean bestMatching;
+
+    private Docx4jFontOptions()
+    {
+    }
+
+    /**
+     * Create an instance of docx4j font options.
+     * 
+     * @return
+     */
+    public static Docx4jFontOptions create()
+    {
+        return new Docx4jFontOptions();
+    }
+
+    /**
+     * Returns the file where the physical fonts index is loaded from and saved to, or null to use the docx4j default
+     * one.
+     * 
+     * @return
+     */
+    public File getFontCacheFile()
+    {
+        return fontCacheFile;
+    }
+
+    /**
+     * Set the file where the physical fonts index is loaded from and saved to, so that the next JVM doesn't parse
+     * again the font files.
+     * 
+     * @param fontCacheFile
+     * @return
+     */
+    public Docx4jFontOptions fontCacheFile( File fontCacheFile )
+    {
+        this.fontCacheFile = fontCacheFile;
+        return this;
+    }
+
+    /**
+     * Returns the regular expression which filters the font files to discover, or null to discover all fonts.
+     * 
+     * @return
+     */
+    public String getFontRegex()
+    {
+        return fontRegex;
+    }
+
+    /**
+     * Set the regular expression which filters the font files to discover (see PhysicalFonts#setRegex(String)).
+     * 
+     * @param fontRegex
+     * @return
+     */
+    public Docx4jFontOptions fontRegex( String fontRegex )
+    {
+        this.fontRegex = fontRegex;
+        return this;
+    }
+
+    /**
+     * Returns true if the BestMatchingMapper must be used and false for the IdentityPlusMapper.
+     * 
+     * @return
+     */
+    public boolean isBestMatching()
+    {
+        return bestMatching;
+    }
+
+    /**
+     * Set true to use the BestMatchingMapper (substitutes fonts which are not installed) instead of the
+     * IdentityPlusMapper.
+     * 
+     * @param bestMatching
+     * @return
+     */
+    public Docx4jFontOptions bestMatching( boolean bestMatching )
+    {
+        this.bestMatching = bestMatching;
+        return this;
+    }
+}
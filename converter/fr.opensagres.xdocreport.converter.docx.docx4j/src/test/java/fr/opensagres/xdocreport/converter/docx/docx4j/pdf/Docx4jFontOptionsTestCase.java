@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.converter.docx.docx4j.pdf;
+
+import java.io.File;
+
+import org.docx4j.fonts.Mapper;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.converter.Options;
+
+public class Docx4jFontOptionsTestCase
+{
+
+    @Test
+    public void testNullOptions()
+        throws Exception
+    {
+        Options options = null;
+        Docx4jFontOptions fontOptions = Docx2PDFViaDocx4jConverter.getInstance().toFontOptions( options );
+        Assert.assertNull( fontOptions );
+    }
+
+    @Test
+    public void testSubOptions()
+        throws Exception
+    {
+        Docx4jFontOptions expected = Docx4jFontOptions.create().fontRegex( ".*(Arial|Times).*" );
+        Options options = Options.getFrom( "DOCX" ).subOptions( expected );
+        Docx4jFontOptions fontOptions = Docx2PDFViaDocx4jConverter.getInstance().toFontOptions( options );
+        Assert.assertSame( expected, fontOptions );
+    }
+
+    @Test
+    public void testSharedFontMapper()
+        throws Exception
+    {
+        File fontCacheFile = new File( "target/fonts/docx4j-fonts.cache" );
+        fontCacheFile.delete();
+        Docx4jFontOptions options = Docx4jFontOptions.create().fontCacheFile( fontCacheFile );
+
+        Mapper mapper = Docx4jFontMapperRegistry.getRegistry().getFontMapper( options );
+        Assert.assertNotNull( mapper );
+        Assert.assertSame( mapper, Docx4jFontMapperRegistry.getRegistry().getFontMapper( null ) );
+        Assert.assertTrue( fontCacheFile.exists() );
+    }
+
+    @Test
+    public void testDocumentFontMappings()
+        throws Exception
+    {
+        Mapper mapper = Docx4jFontMapperRegistry.getRegistry().getFontMapper( null );
+        WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+        Docx4jFontMapperRegistry.getRegistry().setFontMapper( wordMLPackage, null );
+
+        // the package owns a copy of the mappings computed by the shared mapper.
+        Mapper documentMapper = wordMLPackage.getFontMapper();
+        Assert.assertNotSame( mapper, documentMapper );
+        Assert.assertNotSame( mapper.getFontMappings(), documentMapper.getFontMappings() );
+        for ( String fontName : documentMapper.getFontMappings().keySet() )
+        {
+            Assert.assertSame( mapper.getFontMappings().get( fontName ), documentMapper.getFontMappings().get( fontName ) );
+        }
+    }
+}
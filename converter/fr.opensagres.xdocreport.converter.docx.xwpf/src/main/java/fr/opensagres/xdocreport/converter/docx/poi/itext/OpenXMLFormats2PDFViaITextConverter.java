@@ -39,10 +39,13 @@ import fr.opensagres.xdocreport.converter.XDocConverterException;
 import fr.opensagres.xdocreport.converter.internal.AbstractConverterEntriesSupport;
 import fr.opensagres.xdocreport.core.io.IEntryInputStreamProvider;
 import fr.opensagres.xdocreport.core.logging.LogUtils;
+import fr.opensagres.xdocreport.core.registry.IWarmUp;
 import fr.opensagres.xdocreport.core.utils.StringUtils;
+import fr.opensagres.xdocreport.itext.extension.font.ITextFontRegistry;
 
 public class OpenXMLFormats2PDFViaITextConverter
     extends AbstractConverterEntriesSupport
+    implements IWarmUp
 {
 
     private static final OpenXMLFormats2PDFViaITextConverter INSTANCE = new OpenXMLFormats2PDFViaITextConverter();
@@ -108,4 +111,11 @@ public class OpenXMLFormats2PDFViaITextConverter
         return MimeMappingConstants.PDF_MIME_MAPPING;
     }
 
+    /**
+     * Register the system fonts used by the default font provider of the PDF converter.
+     */
+    public void warmUp()
+    {
+        ITextFontRegistry.getRegistry().initialize();
+    }
 }
@@ -39,10 +39,13 @@ import fr.opensagres.xdocreport.converter.OptionsHelper;
 import fr.opensagres.xdocreport.converter.XDocConverterException;
 import fr.opensagres.xdocreport.converter.internal.AbstractConverterNoEntriesSupport;
 import fr.opensagres.xdocreport.core.logging.LogUtils;
+import fr.opensagres.xdocreport.core.registry.IWarmUp;
 import fr.opensagres.xdocreport.core.utils.StringUtils;
+import fr.opensagres.xdocreport.itext.extension.font.ITextFontRegistry;
 
 public class XWPF2PDFViaITextConverter
     extends AbstractConverterNoEntriesSupport
+    implements IWarmUp
 {
 
     private static final XWPF2PDFViaITextConverter INSTANCE = new XWPF2PDFViaITextConverter();
@@ -105,4 +108,12 @@ public class XWPF2PDFViaITextConverter
     {
         return true;
     }
+
+    /**
+     * Register the system fonts used by the default font provider of the PDF converter.
+     */
+    public void warmUp()
+    {
+        ITextFontRegistry.getRegistry().initialize();
+    }
 }
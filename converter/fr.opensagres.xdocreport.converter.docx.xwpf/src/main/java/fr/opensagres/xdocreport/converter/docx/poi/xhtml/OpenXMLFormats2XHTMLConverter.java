@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.converter.docx.poi.xhtml;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.logging.Logger;
+
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.AbstractOpenXMLFormatsPartProvider;
+import fr.opensagres.poi.xwpf.converter.xhtml.FastXHTMLConverter;
+import fr.opensagres.xdocreport.converter.MimeMapping;
+import fr.opensagres.xdocreport.converter.MimeMappingConstants;
+import fr.opensagres.xdocreport.converter.Options;
+import fr.opensagres.xdocreport.converter.XDocConverterException;
+import fr.opensagres.xdocreport.converter.internal.AbstractConverterEntriesSupport;
+import fr.opensagres.xdocreport.core.io.IEntryInputStreamProvider;
+import fr.opensagres.xdocreport.core.logging.LogUtils;
+
+/**
+ * Converts a docx to XHTML by reading directly its XML entries, without loading the POI XWPFDocument (see
+ * {@link FastXHTMLConverter}).
+ */
+public class OpenXMLFormats2XHTMLConverter
+    extends AbstractConverterEntriesSupport
+    implements MimeMappingConstants
+{
+
+    private static final OpenXMLFormats2XHTMLConverter INSTANCE = new OpenXMLFormats2XHTMLConverter();
+
+    /**
+     * Logger for this class
+     */
+    private static final Logger LOGGER = LogUtils.getLogger( OpenXMLFormats2XHTMLConverter.class.getName() );
+
+    public static OpenXMLFormats2XHTMLConverter getInstance()
+    {
+        return INSTANCE;
+    }
+
+    public void convert( final IEntryInputStreamProvider inProvider, OutputStream out, Options options )
+        throws XDocConverterException
+    {
+        try
+        {
+            fr.opensagres.poi.xwpf.converter.core.openxmlformats.IOpenXMLFormatsPartProvider provider =
+                new AbstractOpenXMLFormatsPartProvider()
+                {
+
+                    public InputStream getEntryInputStream( String entryName )
+                    {
+                        return inProvider.getEntryInputStream( entryName );
+                    }
+                };
+            FastXHTMLConverter.getInstance().convert( provider, out,
+                                                      XWPF2XHTMLConverter.getInstance().toXHTMLOptions( options ) );
+        }
+        catch ( Exception e )
+        {
+            LOGGER.severe( e.getMessage() );
+            throw new XDocConverterException( e );
+        }
+    }
+
+    public MimeMapping getMimeMapping()
+    {
+        return XHTML_MIME_MAPPING;
+    }
+}
@@ -24,12 +24,11 @@
  */
 package fr.opensagres.xdocreport.converter.odt.odfdom.itext;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-import org.odftoolkit.odfdom.doc.OdfTextDocument;
-
+import fr.opensagres.odfdom.converter.core.IODFPartProvider;
+import fr.opensagres.odfdom.converter.core.LightweightOdfTextDocument;
 import fr.opensagres.odfdom.converter.core.ODFConverterException;
 import fr.opensagres.odfdom.converter.pdf.PdfConverter;
 import fr.opensagres.odfdom.converter.pdf.PdfOptions;
@@ -38,12 +37,15 @@ import fr.opensagres.xdocreport.converter.MimeMappingConstants;
 import fr.opensagres.xdocreport.converter.Options;
 import fr.opensagres.xdocreport.converter.OptionsHelper;
 import fr.opensagres.xdocreport.converter.XDocConverterException;
-import fr.opensagres.xdocreport.converter.internal.AbstractConverterNoEntriesSupport;
+import fr.opensagres.xdocreport.converter.internal.AbstractConverterEntriesSupport;
+import fr.opensagres.xdocreport.core.io.IEntryInputStreamProvider;
+import fr.opensagres.xdocreport.core.registry.IWarmUp;
 import fr.opensagres.xdocreport.core.utils.StringUtils;
+import fr.opensagres.xdocreport.itext.extension.font.ITextFontRegistry;
 
 public class ODF2PDFViaITextConverter
-    extends AbstractConverterNoEntriesSupport
-    implements MimeMappingConstants
+    extends AbstractConverterEntriesSupport
+    implements MimeMappingConstants, IWarmUp
 {
 
     private static final ODF2PDFViaITextConverter INSTANCE = new ODF2PDFViaITextConverter();
@@ -53,22 +55,25 @@ public class ODF2PDFViaITextConverter
         return INSTANCE;
     }
 
-    public void convert( InputStream in, OutputStream out, Options options )
+    public void convert( final IEntryInputStreamProvider inProvider, OutputStream out, Options options )
         throws XDocConverterException
     {
         try
         {
-            OdfTextDocument odfDocument = OdfTextDocument.loadDocument( in );
+            // load only content.xml and styles.xml, pictures are read from the entries when they are drawn
+            LightweightOdfTextDocument odfDocument = LightweightOdfTextDocument.loadDocument( new IODFPartProvider()
+            {
+                public InputStream getPartInputStream( String partName )
+                {
+                    return inProvider.getEntryInputStream( partName );
+                }
+            } );
             PdfConverter.getInstance().convert( odfDocument, out, toPdfOptions( options ) );
         }
         catch ( ODFConverterException e )
         {
             throw new XDocConverterException( e );
         }
-        catch ( IOException e )
-        {
-            throw new XDocConverterException( e );
-        }
         catch ( Exception e )
         {
             throw new XDocConverterException( e );
@@ -106,4 +111,12 @@ public class ODF2PDFViaITextConverter
     {
         return true;
     }
+
+    /**
+     * Register the system fonts used by the default font provider of the PDF converter.
+     */
+    public void warmUp()
+    {
+        ITextFontRegistry.getRegistry().initialize();
+    }
 }
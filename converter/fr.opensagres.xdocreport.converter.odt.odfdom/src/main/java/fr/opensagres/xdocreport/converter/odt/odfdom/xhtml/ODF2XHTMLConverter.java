@@ -24,12 +24,11 @@
  */
 package fr.opensagres.xdocreport.converter.odt.odfdom.xhtml;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-import org.odftoolkit.odfdom.doc.OdfTextDocument;
-
+import fr.opensagres.odfdom.converter.core.IODFPartProvider;
+import fr.opensagres.odfdom.converter.core.LightweightOdfTextDocument;
 import fr.opensagres.odfdom.converter.core.ODFConverterException;
 import fr.opensagres.odfdom.converter.xhtml.XHTMLOptions;
 import fr.opensagres.xdocreport.converter.IURIResolver;
@@ -38,10 +37,11 @@ import fr.opensagres.xdocreport.converter.MimeMappingConstants;
 import fr.opensagres.xdocreport.converter.Options;
 import fr.opensagres.xdocreport.converter.OptionsHelper;
 import fr.opensagres.xdocreport.converter.XDocConverterException;
-import fr.opensagres.xdocreport.converter.internal.AbstractConverterNoEntriesSupport;
+import fr.opensagres.xdocreport.converter.internal.AbstractConverterEntriesSupport;
+import fr.opensagres.xdocreport.core.io.IEntryInputStreamProvider;
 
 public class ODF2XHTMLConverter
-    extends AbstractConverterNoEntriesSupport
+    extends AbstractConverterEntriesSupport
     implements MimeMappingConstants
 {
 
@@ -52,12 +52,19 @@ public class ODF2XHTMLConverter
         return INSTANCE;
     }
 
-    public void convert( InputStream in, OutputStream out, Options options )
+    public void convert( final IEntryInputStreamProvider inProvider, OutputStream out, Options options )
         throws XDocConverterException
     {
         try
         {
-            OdfTextDocument odfDocument = OdfTextDocument.loadDocument( in );
+            // load only content.xml and styles.xml, pictures are read from the entries when they are drawn
+            LightweightOdfTextDocument odfDocument = LightweightOdfTextDocument.loadDocument( new IODFPartProvider()
+            {
+                public InputStream getPartInputStream( String partName )
+                {
+                    return inProvider.getEntryInputStream( partName );
+                }
+            } );
             fr.opensagres.odfdom.converter.xhtml.XHTMLConverter.getInstance().convert( odfDocument, out,
                                                                                         toXHTMLOptions( options ) );
         }
@@ -65,10 +72,6 @@ public class ODF2XHTMLConverter
         {
             throw new XDocConverterException( e );
         }
-        catch ( IOException e )
-        {
-            throw new XDocConverterException( e );
-        }
         catch ( Exception e )
         {
             throw new XDocConverterException( e );
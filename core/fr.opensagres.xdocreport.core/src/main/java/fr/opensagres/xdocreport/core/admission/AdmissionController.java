@@ -0,0 +1,370 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for expensive operations (conversion, report generation) : limits the number of concurrent
+ * operations and the memory they are estimated to use. Requests which cannot be admitted wait in a bounded queue and
+ * are rejected with {@link AdmissionRejectedException} when the queue is full or when they have waited too long.
+ * <p>
+ * The memory used by an operation is estimated from the size of its input (see {@link #estimateMemory(long)}). An
+ * operation whose estimate exceeds the memory budget is not rejected : it is admitted alone.
+ * <p>
+ * Usage :
+ * 
+ * <pre>
+ * AdmissionController.Permit permit = controller.acquire( controller.estimateMemory( inputSize ) );
+ * try
+ * {
+ *     // convert...
+ * }
+ * finally
+ * {
+ *     permit.release();
+ * }
+ * </pre>
+ */
+public class AdmissionController
+{
+
+    private final int maxConcurrent;
+
+    private final int maxQueued;
+
+    private final long maxMemory;
+
+    private final long queueTimeout;
+
+    private final int memoryFactor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    private int activeCount;
+
+    private int queuedCount;
+
+    private long reservedMemory;
+
+    private long admittedCount;
+
+    private long rejectedCount;
+
+    /**
+     * @param maxConcurrent max number of concurrent operations, 0 or negative for no limit.
+     * @param maxQueued max number of requests waiting to be admitted, 0 to reject immediately the requests which
+     *            cannot be admitted.
+     * @param maxMemory memory budget (in bytes) shared by the running operations, 0 or negative for no limit.
+     * @param queueTimeout max time (in milliseconds) a request waits to be admitted.
+     * @param memoryFactor factor applied to the input size to estimate the memory used by an operation.
+     */
+    public AdmissionController( int maxConcurrent, int maxQueued, long maxMemory, long queueTimeout, int memoryFactor )
+    {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxMemory = maxMemory;
+        this.queueTimeout = queueTimeout;
+        this.memoryFactor = memoryFactor;
+    }
+
+    /**
+     * Create an admission controller configured with the system properties prefix.maxConcurrent,
+     * prefix.maxQueued, prefix.maxMemory, prefix.queueTimeout and prefix.memoryFactor. Default values are : the
+     * number of processors for maxConcurrent, 4 x maxConcurrent for maxQueued, half of the max heap for maxMemory, 60
+     * seconds for queueTimeout and 10 for memoryFactor.
+     * 
+     * @param prefix
+     * @return
+     */
+    public static AdmissionController fromSystemProperties( String prefix )
+    {
+        int maxConcurrent =
+            Integer.getInteger( prefix + ".maxConcurrent", Runtime.getRuntime().availableProcessors() ).intValue();
+        int maxQueued = Integer.getInteger( prefix + ".maxQueued", 4 * Math.max( maxConcurrent, 1 ) ).intValue();
+        long maxMemory = Long.getLong( prefix + ".maxMemory", Runtime.getRuntime().maxMemory() / 2 ).longValue();
+        long queueTimeout = Long.getLong( prefix + ".queueTimeout", 60000L ).longValue();
+        int memoryFactor = Integer.getInteger( prefix + ".memoryFactor", 10 ).intValue();
+        return new AdmissionController( maxConcurrent, maxQueued, maxMemory, queueTimeout, memoryFactor );
+    }
+
+    /**
+     * Returns the estimated memory used to process an input of the given size and 0 if the size is unknown.
+     * 
+     * @param inputSize the input size in bytes or -1 if unknown.
+     * @return
+     */
+    public long estimateMemory( long inputSize )
+    {
+        return inputSize > 0 ? inputSize * memoryFactor : 0;
+    }
+
+    /**
+     * Wait until the operation can be admitted and returns the permit which must be released when the operation is
+     * done.
+     * 
+     * @param estimatedMemory the estimated memory used by the operation.
+     * @return
+     * @throws AdmissionRejectedException when the queue is full or when the operation cannot be admitted before the
+     *             queue timeout.
+     * @throws InterruptedException
+     */
+    public Permit acquire( long estimatedMemory )
+        throws AdmissionRejectedException, InterruptedException
+    {
+        long memory = maxMemory > 0 ? Math.min( Math.max( estimatedMemory, 0 ), maxMemory ) : 0;
+        lock.lockInterruptibly();
+        try
+        {
+            if ( !canAdmit( memory ) )
+            {
+                if ( queuedCount >= maxQueued )
+                {
+                    rejectedCount++;
+                    throw new AdmissionRejectedException( AdmissionRejectedException.Reason.QUEUE_FULL,
+                                                          "Too many requests : " + activeCount + " running, "
+                                                              + queuedCount + " waiting." );
+                }
+                queuedCount++;
+                try
+                {
+                    long nanos = TimeUnit.MILLISECONDS.toNanos( queueTimeout );
+                    while ( !canAdmit( memory ) )
+                    {
+                        if ( nanos <= 0 )
+                        {
+                            rejectedCount++;
+                            throw new AdmissionRejectedException( AdmissionRejectedException.Reason.TIMEOUT,
+                                                                  "Request not admitted after " + queueTimeout
+                                                                      + " ms." );
+                        }
+                        nanos = released.awaitNanos( nanos );
+                    }
+                }
+                finally
+                {
+                    queuedCount--;
+                }
+            }
+            activeCount++;
+            reservedMemory += memory;
+            admittedCount++;
+            return new Permit( memory );
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private boolean canAdmit( long memory )
+    {
+        if ( maxConcurrent > 0 && activeCount >= maxConcurrent )
+        {
+            return false;
+        }
+        // an operation bigger than the budget is admitted alone.
+        return maxMemory <= 0 || activeCount == 0 || reservedMemory + memory <= maxMemory;
+    }
+
+    private void release( long memory )
+    {
+        lock.lock();
+        try
+        {
+            activeCount--;
+            reservedMemory -= memory;
+            released.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of running operations.
+     * 
+     * @return
+     */
+    public int getActiveCount()
+    {
+        lock.lock();
+        try
+        {
+            return activeCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting to be admitted.
+     * 
+     * @return
+     */
+    public int getQueuedCount()
+    {
+        lock.lock();
+        try
+        {
+            return queuedCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the memory reserved by the running operations.
+     * 
+     * @return
+     */
+    public long getReservedMemory()
+    {
+        lock.lock();
+        try
+        {
+            return reservedMemory;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of admitted requests.
+     * 
+     * @return
+     */
+    public long getAdmittedCount()
+    {
+        lock.lock();
+        try
+        {
+            return admittedCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total number of rejected requests.
+     * 
+     * @return
+     */
+    public long getRejectedCount()
+    {
+        lock.lock();
+        try
+        {
+            return rejectedCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxConcurrent()
+    {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueued()
+    {
+        return maxQueued;
+    }
+
+    public long getMaxMemory()
+    {
+        return maxMemory;
+    }
+
+    /**
+     * Returns the metrics of the controller as text, one "name=value" per line.
+     * 
+     * @return
+     */
+    public String getStatus()
+    {
+        lock.lock();
+        try
+        {
+            StringBuilder status = new StringBuilder();
+            status.append( "active=" ).append( activeCount ).append( '\n' );
+            status.append( "queued=" ).append( queuedCount ).append( '\n' );
+            status.append( "reservedMemory=" ).append( reservedMemory ).append( '\n' );
+            status.append( "admitted=" ).append( admittedCount ).append( '\n' );
+            status.append( "rejected=" ).append( rejectedCount ).append( '\n' );
+            status.append( "maxConcurrent=" ).append( maxConcurrent ).append( '\n' );
+            status.append( "maxQueued=" ).append( maxQueued ).append( '\n' );
+            status.append( "maxMemory=" ).append( maxMemory ).append( '\n' );
+            return status.toString();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permit of an admitted operation.
+     */
+    public class Permit
+    {
+
+        private final long memory;
+
+        private boolean released;
+
+        private Permit( long memory )
+        {
+            this.memory = memory;
+        }
+
+        /**
+         * Release the permit. Calling this method several times has no effect.
+         */
+        public synchronized void release()
+        {
+            if ( !released )
+            {
+                released = true;
+                AdmissionController.this.release( memory );
+            }
+        }
+    }
+}
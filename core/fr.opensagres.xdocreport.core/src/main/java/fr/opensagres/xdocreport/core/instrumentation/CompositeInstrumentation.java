@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+import java.util.List;
+
+/**
+ * {@link IInstrumentation} which notifies a list of instrumentations.
+ */
+class CompositeInstrumentation
+    implements IInstrumentation
+{
+
+    private final IInstrumentation[] instrumentations;
+
+    public CompositeInstrumentation( List<IInstrumentation> instrumentations )
+    {
+        this.instrumentations = instrumentations.toArray( new IInstrumentation[instrumentations.size()] );
+    }
+
+    public boolean isEnabled()
+    {
+        for ( IInstrumentation instrumentation : instrumentations )
+        {
+            if ( instrumentation.isEnabled() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void onEvent( InstrumentationEvent event )
+    {
+        for ( IInstrumentation instrumentation : instrumentations )
+        {
+            if ( instrumentation.isEnabled() )
+            {
+                instrumentation.onEvent( event );
+            }
+        }
+    }
+}
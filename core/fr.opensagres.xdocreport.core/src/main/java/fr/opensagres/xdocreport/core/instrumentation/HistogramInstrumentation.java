@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * In-memory {@link IInstrumentation} which records the events in a {@link LatencyHistogram} per
+ * {@link InstrumentationStage}. To use it :
+ * 
+ * <pre>
+ * HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+ * InstrumentationRegistry.getRegistry().setInstrumentation( instrumentation );
+ * ...
+ * long p99 = instrumentation.getHistogram( InstrumentationStage.MERGE ).getPercentile( 99 );
+ * </pre>
+ */
+public class HistogramInstrumentation
+    implements IInstrumentation
+{
+
+    private final Map<InstrumentationStage, LatencyHistogram> histograms;
+
+    public HistogramInstrumentation()
+    {
+        this.histograms = new EnumMap<InstrumentationStage, LatencyHistogram>( InstrumentationStage.class );
+        for ( InstrumentationStage stage : InstrumentationStage.values() )
+        {
+            histograms.put( stage, new LatencyHistogram() );
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return true;
+    }
+
+    public void onEvent( InstrumentationEvent event )
+    {
+        histograms.get( event.getStage() ).record( event.getDuration(), event.getByteCount() );
+    }
+
+    /**
+     * Returns the histogram of the given stage.
+     * 
+     * @param stage
+     * @return
+     */
+    public LatencyHistogram getHistogram( InstrumentationStage stage )
+    {
+        return histograms.get( stage );
+    }
+
+    /**
+     * Reset the histograms of all the stages.
+     */
+    public void reset()
+    {
+        for ( LatencyHistogram histogram : histograms.values() )
+        {
+            histogram.reset();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder s = new StringBuilder();
+        for ( Map.Entry<InstrumentationStage, LatencyHistogram> entry : histograms.entrySet() )
+        {
+            if ( entry.getValue().getCount() > 0 )
+            {
+                s.append( entry.getKey() ).append( ": " ).append( entry.getValue() ).append( '\n' );
+            }
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+/**
+ * Event notified to {@link IInstrumentation}.
+ */
+public class InstrumentationEvent
+{
+
+    private final InstrumentationStage stage;
+
+    private final String reportId;
+
+    private final String name;
+
+    private final long duration;
+
+    private final long byteCount;
+
+    /**
+     * Create an event.
+     * 
+     * @param stage the stage.
+     * @param reportId the report id (can be null).
+     * @param name the entry name, the target format or the cache key (can be null).
+     * @param duration the duration in nanoseconds.
+     * @param byteCount the byte count and -1 if it's not known.
+     */
+    public InstrumentationEvent( InstrumentationStage stage, String reportId, String name, long duration,
+                                 long byteCount )
+    {
+        this.stage = stage;
+        this.reportId = reportId;
+        this.name = name;
+        this.duration = duration;
+        this.byteCount = byteCount;
+    }
+
+    public InstrumentationStage getStage()
+    {
+        return stage;
+    }
+
+    public String getReportId()
+    {
+        return reportId;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the duration in nanoseconds.
+     * 
+     * @return
+     */
+    public long getDuration()
+    {
+        return duration;
+    }
+
+    /**
+     * Returns the byte count and -1 if it's not known.
+     * 
+     * @return
+     */
+    public long getByteCount()
+    {
+        return byteCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return stage + "[reportId=" + reportId + ", name=" + name + ", duration=" + duration + "ns, byteCount="
+            + byteCount + "]";
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.opensagres.xdocreport.core.registry.AbstractRegistry;
+
+/**
+ * Registry of {@link IInstrumentation}. Instrumentations are discovered with {@link IInstrumentationDiscovery} declared
+ * in META-INF/services or can be set with {@link #setInstrumentation(IInstrumentation)}. When there is no
+ * instrumentation, {@link NoOpInstrumentation} is used.
+ */
+public class InstrumentationRegistry
+    extends AbstractRegistry<IInstrumentationDiscovery>
+{
+
+    private static final InstrumentationRegistry INSTANCE = new InstrumentationRegistry();
+
+    private final List<IInstrumentation> discoveredInstrumentations = new ArrayList<IInstrumentation>();
+
+    private volatile IInstrumentation instrumentation = NoOpInstrumentation.getInstance();
+
+    private volatile boolean instrumentationForced;
+
+    public InstrumentationRegistry()
+    {
+        super( IInstrumentationDiscovery.class );
+    }
+
+    public static InstrumentationRegistry getRegistry()
+    {
+        return INSTANCE;
+    }
+
+    @Override
+    protected boolean registerInstance( IInstrumentationDiscovery instance )
+    {
+        IInstrumentation discovered = instance.getInstrumentation();
+        if ( discovered != null )
+        {
+            discoveredInstrumentations.add( discovered );
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void onEndInitialization()
+    {
+        if ( instrumentationForced || discoveredInstrumentations.isEmpty() )
+        {
+            return;
+        }
+        if ( discoveredInstrumentations.size() == 1 )
+        {
+            instrumentation = discoveredInstrumentations.get( 0 );
+        }
+        else
+        {
+            instrumentation = new CompositeInstrumentation( discoveredInstrumentations );
+        }
+    }
+
+    /**
+     * Returns the instrumentation to use (never null).
+     * 
+     * @return
+     */
+    public IInstrumentation getInstrumentation()
+    {
+        initializeIfNeeded();
+        return instrumentation;
+    }
+
+    /**
+     * Set the instrumentation to use instead of the discovered instrumentations. Null restores the
+     * {@link NoOpInstrumentation}.
+     * 
+     * @param instrumentation
+     */
+    public void setInstrumentation( IInstrumentation instrumentation )
+    {
+        initializeIfNeeded();
+        this.instrumentation = instrumentation != null ? instrumentation : NoOpInstrumentation.getInstance();
+        this.instrumentationForced = true;
+    }
+
+    @Override
+    protected void doDispose()
+    {
+        this.discoveredInstrumentations.clear();
+        this.instrumentation = NoOpInstrumentation.getInstance();
+        this.instrumentationForced = false;
+    }
+}
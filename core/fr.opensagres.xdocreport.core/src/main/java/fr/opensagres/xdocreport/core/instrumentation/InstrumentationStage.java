@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+/**
+ * Stages of the report processing which are notified to {@link IInstrumentation}.
+ */
+public enum InstrumentationStage
+{
+
+    /**
+     * Load of the zipped XML document (odt, docx...) of a report.
+     */
+    LOAD,
+
+    /**
+     * Preprocessing of an entry of the report (name of the event is the entry name).
+     */
+    PREPROCESS,
+
+    /**
+     * Merge of an entry of the report with the template engine (name of the event is the entry name).
+     */
+    MERGE,
+
+    /**
+     * Write of the zipped XML document (odt, docx...).
+     */
+    ZIP_WRITE,
+
+    /**
+     * Conversion of the merged report to another format (name of the event is the target format).
+     */
+    CONVERT,
+
+    /**
+     * A cache returned the cached instance (name of the event is the cached key).
+     */
+    CACHE_HIT,
+
+    /**
+     * A cache had to (re)load the instance (name of the event is the cached key).
+     */
+    CACHE_MISS
+}
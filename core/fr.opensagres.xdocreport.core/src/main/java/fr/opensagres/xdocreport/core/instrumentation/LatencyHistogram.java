@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of durations (in nanoseconds) with power of 2 buckets : the bucket i contains the durations
+ * between 2^(i-1) and 2^i - 1 nanoseconds (bucket 0 contains 0). Percentiles are so returned with an error of at most
+ * 2x, which is enough to observe the latency of a stage under load.
+ */
+public class LatencyHistogram
+{
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray( BUCKET_COUNT );
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalDuration = new AtomicLong();
+
+    private final AtomicLong maxDuration = new AtomicLong();
+
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    /**
+     * Record the given duration and byte count.
+     * 
+     * @param duration the duration in nanoseconds.
+     * @param byteCount the byte count (ignored if negative).
+     */
+    public void record( long duration, long byteCount )
+    {
+        if ( duration < 0 )
+        {
+            duration = 0;
+        }
+        buckets.incrementAndGet( BUCKET_COUNT - Long.numberOfLeadingZeros( duration ) );
+        count.incrementAndGet();
+        totalDuration.addAndGet( duration );
+        if ( byteCount > 0 )
+        {
+            totalBytes.addAndGet( byteCount );
+        }
+        long max = maxDuration.get();
+        while ( duration > max && !maxDuration.compareAndSet( max, duration ) )
+        {
+            max = maxDuration.get();
+        }
+    }
+
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of the durations in nanoseconds.
+     * 
+     * @return
+     */
+    public long getTotalDuration()
+    {
+        return totalDuration.get();
+    }
+
+    /**
+     * Returns the mean duration in nanoseconds.
+     * 
+     * @return
+     */
+    public long getMeanDuration()
+    {
+        long c = count.get();
+        return c > 0 ? totalDuration.get() / c : 0;
+    }
+
+    /**
+     * Returns the max duration in nanoseconds.
+     * 
+     * @return
+     */
+    public long getMaxDuration()
+    {
+        return maxDuration.get();
+    }
+
+    /**
+     * Returns the sum of the byte counts.
+     * 
+     * @return
+     */
+    public long getTotalBytes()
+    {
+        return totalBytes.get();
+    }
+
+    /**
+     * Returns the upper bound (in nanoseconds) of the given percentile.
+     * 
+     * @param percentile between 0 and 100 (ex : 99 for p99).
+     * @return
+     */
+    public long getPercentile( double percentile )
+    {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            counts[i] = buckets.get( i );
+            total += counts[i];
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+        long rank = (long) Math.ceil( total * percentile / 100d );
+        long cumulated = 0;
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            cumulated += counts[i];
+            if ( cumulated >= rank && counts[i] > 0 )
+            {
+                // upper bound of the bucket, bounded by the max duration.
+                long upperBound = ( 1L << i ) - 1;
+                return Math.min( upperBound, maxDuration.get() );
+            }
+        }
+        return maxDuration.get();
+    }
+
+    /**
+     * Reset the histogram.
+     */
+    public void reset()
+    {
+        for ( int i = 0; i < BUCKET_COUNT; i++ )
+        {
+            buckets.set( i, 0 );
+        }
+        count.set( 0 );
+        totalDuration.set( 0 );
+        maxDuration.set( 0 );
+        totalBytes.set( 0 );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "count=" + getCount() + ", mean=" + toMillis( getMeanDuration() ) + "ms, p50="
+            + toMillis( getPercentile( 50 ) ) + "ms, p99=" + toMillis( getPercentile( 99 ) ) + "ms, max="
+            + toMillis( getMaxDuration() ) + "ms, bytes=" + getTotalBytes();
+    }
+
+    private static String toMillis( long nanos )
+    {
+        return String.valueOf( nanos / 1000000d );
+    }
+}
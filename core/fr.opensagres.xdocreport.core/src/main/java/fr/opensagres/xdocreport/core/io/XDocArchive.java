@@ -37,6 +37,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -64,13 +65,17 @@ public class XDocArchive
     private Map<String, byte[]> cacheEntries = new LinkedHashMap<String, byte[]>();
 
     /**
-     * Cache entries info.
+     * Cache entries info. This cache can be filled by several threads which merge the same preprocessed archive.
      */
-    private Map<String, IEntryInfo> cacheEntriesInfo = new LinkedHashMap<String, IEntryInfo>();
+    private Map<String, IEntryInfo> cacheEntriesInfo = new ConcurrentHashMap<String, IEntryInfo>();
 
     private Map<String, Long> lastModifiedEntries;
 
-    private Map<String, Set<String>> cacheEntriesWilcard = null;
+    /**
+     * Cache of entry names for a wildcard. This cache can be filled by several threads which merge the same
+     * preprocessed archive.
+     */
+    private volatile Map<String, Set<String>> cacheEntriesWilcard = null;
 
     public XDocArchive()
     {
@@ -101,9 +106,11 @@ public class XDocArchive
 
     public Set<String> getEntryNames( final String wildcard )
     {
+        Map<String, Set<String>> cacheEntriesWilcard = this.cacheEntriesWilcard;
         if ( cacheEntriesWilcard == null )
         {
-            cacheEntriesWilcard = new HashMap<String, Set<String>>();
+            cacheEntriesWilcard = new ConcurrentHashMap<String, Set<String>>();
+            this.cacheEntriesWilcard = cacheEntriesWilcard;
         }
 
         Set<String> entryNamesWithWildcard = cacheEntriesWilcard.get( wildcard );
@@ -219,7 +226,9 @@ public class XDocArchive
     }
 
     /**
-     * Create a copy of the {@link XDocArchive}.
+     * Create a copy of the {@link XDocArchive}. The content of an entry is never modified (writing an entry replaces
+     * its content), so the copy shares the content of the entries with this archive : only the entries which are
+     * written after are not shared.
      * 
      * @return
      */
@@ -227,16 +236,7 @@ public class XDocArchive
     {
         // Create new instance of XDocArchive
         XDocArchive archiveCopy = new XDocArchive();
-        // Loop for cache entries
-        for ( Map.Entry<String, byte[]> entry : cacheEntries.entrySet() )
-        {
-            String name = entry.getKey();
-            byte[] entryData = entry.getValue();
-            byte[] entryDataCopy = new byte[entryData.length];
-            System.arraycopy( entryData, 0, entryDataCopy, 0, entryData.length );
-            // modify the cache entries in the new XDocArchive
-            archiveCopy.cacheEntries.put( name, entryDataCopy );
-        }
+        archiveCopy.cacheEntries.putAll( cacheEntries );
         return archiveCopy;
     }
 
@@ -251,6 +251,33 @@ public class XDocArchive
         return cacheEntries.containsKey( entryName );
     }
 
+    /**
+     * Returns the size (in bytes) of the given entry and -1 if the {@link XDocArchive} doesn't contain the entry.
+     * 
+     * @param entryName
+     * @return
+     */
+    public long getEntrySize( String entryName )
+    {
+        byte[] entryData = cacheEntries.get( entryName );
+        return entryData != null ? entryData.length : -1;
+    }
+
+    /**
+     * Returns the size (in bytes) of all the entries of the {@link XDocArchive}.
+     * 
+     * @return
+     */
+    public long getSize()
+    {
+        long size = 0;
+        for ( byte[] entryData : cacheEntries.values() )
+        {
+            size += entryData.length;
+        }
+        return size;
+    }
+
     /**
      * Returns reader from the input stream with UTF-8 charset.
      * 
@@ -376,6 +403,21 @@ public class XDocArchive
      */
     public static void writeZip( XDocArchive archive, OutputStream outputStream )
         throws IOException
+    {
+        writeZip( archive, outputStream, true );
+    }
+
+    /**
+     * Write XML document archive in the given output stream.
+     * 
+     * @param archive
+     * @param outputStream
+     * @param compress true if entries must be deflated and false if they must be stored without compression (ex : when
+     *            the zip is read in memory just after it was written).
+     * @throws IOException
+     */
+    public static void writeZip( XDocArchive archive, OutputStream outputStream, boolean compress )
+        throws IOException
     {
         ZipOutputStream zipOutputStream = new ZipOutputStream( outputStream );
         Set<String> entryNames = archive.getEntryNames();
@@ -387,7 +429,7 @@ public class XDocArchive
         {
             if ( !MIMETYPE_ENTRY_NAME.equals( entryName ) )
             {
-                writeZipEntry( zipOutputStream, archive, entryName, ZipEntry.DEFLATED );
+                writeZipEntry( zipOutputStream, archive, entryName, compress ? ZipEntry.DEFLATED : ZipEntry.STORED );
             }
         }
         zipOutputStream.close();
@@ -406,8 +448,8 @@ public class XDocArchive
                                        int method )
         throws IOException
     {
-        InputStream entryInputStream = archive.getEntryInputStream( entryName );
-        if ( entryInputStream == null )
+        byte[] inputBytes = archive.cacheEntries.get( entryName );
+        if ( inputBytes == null )
         {
             return;
         }
@@ -416,21 +458,15 @@ public class XDocArchive
         zipEntry.setMethod( method );
         if ( method == ZipEntry.STORED )
         {
-            byte[] inputBytes = IOUtils.toByteArray( entryInputStream );
             CRC32 crc = new CRC32();
             crc.update( inputBytes );
             zipEntry.setCrc( crc.getValue() );
             zipEntry.setSize( inputBytes.length );
             zipEntry.setCompressedSize( inputBytes.length );
-            zipOutputStream.putNextEntry( zipEntry );
-            IOUtils.write( inputBytes, zipOutputStream );
         }
-        else
-        {
-            zipOutputStream.putNextEntry( zipEntry );
-            IOUtils.copy( entryInputStream, zipOutputStream );
-        }
-        IOUtils.closeQuietly( entryInputStream );
+        zipOutputStream.putNextEntry( zipEntry );
+        // write the content of the entry without copying it.
+        zipOutputStream.write( inputBytes );
         zipOutputStream.closeEntry();
     }
 
@@ -444,11 +480,42 @@ public class XDocArchive
     public static InputStream getInputStream( XDocArchive archive )
         throws IOException
     {
-        OutputStream2InputStream outputArchiveZipped = new OutputStream2InputStream();
-        XDocArchive.writeZip( archive, outputArchiveZipped );
+        return getInputStream( archive, true );
+    }
+
+    /**
+     * Returns the input stream of the given {@link XDocArchive}.
+     * 
+     * @param archive
+     * @param compress false to store the entries without compression, when the zip is only used to give the entries
+     *            to a component which unzips it immediately (ex : a converter which doesn't support entries).
+     * @return the input stream of the given {@link XDocArchive}.
+     * @throws IOException
+     */
+    public static InputStream getInputStream( XDocArchive archive, boolean compress )
+        throws IOException
+    {
+        OutputStream2InputStream outputArchiveZipped =
+            compress ? new OutputStream2InputStream() : new OutputStream2InputStream( getStoredZipSize( archive ) );
+        XDocArchive.writeZip( archive, outputArchiveZipped, compress );
         return outputArchiveZipped.getInputStream();
     }
 
+    /**
+     * Returns the estimated size of the zip of the archive when entries are stored without compression.
+     */
+    private static int getStoredZipSize( XDocArchive archive )
+    {
+        // local header + central directory header of each entry
+        final int entryOverhead = 128;
+        long size = 32;
+        for ( Map.Entry<String, byte[]> entry : archive.cacheEntries.entrySet() )
+        {
+            size += entry.getValue().length + 2 * entry.getKey().length() + entryOverhead;
+        }
+        return (int) Math.min( size, Integer.MAX_VALUE - 8 );
+    }
+
     /**
      * A {@link ByteArrayOutputStream} that updates the entry cache of XML document archive when it get close().
      */
@@ -29,8 +29,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
-import fr.opensagres.xdocreport.core.io.IOUtils;
-
 public class OutputStream2InputStream
     extends ByteArrayOutputStream
 {
@@ -39,11 +37,21 @@ public class OutputStream2InputStream
     {
     }
 
+    public OutputStream2InputStream( int size )
+    {
+        super( size );
+    }
+
+    /**
+     * Returns an input stream which reads the written bytes without copying them. This output stream must not be
+     * written after this call.
+     * 
+     * @return
+     * @throws IOException
+     */
     public InputStream getInputStream()
         throws IOException
     {
-        ByteArrayOutputStream o = new ByteArrayOutputStream();
-        IOUtils.write( super.toByteArray(), o );
-        return new ByteArrayInputStream( o.toByteArray() );
+        return new ByteArrayInputStream( buf, 0, count );
     }
 }
@@ -40,7 +40,13 @@ public abstract class AbstractRegistry<Discovery extends IBaseDiscovery>
      */
     private static final Logger LOGGER = LogUtils.getLogger( AbstractRegistry.class.getName() );
 
-    private boolean initialized;
+    private volatile boolean initialized;
+
+    /**
+     * true while the discoveries are registered (used to ignore the call of initializeIfNeeded done by the registration
+     * in the same thread).
+     */
+    private boolean initializing;
 
     private final Class<Discovery> registryType;
 
@@ -49,44 +55,83 @@ public abstract class AbstractRegistry<Discovery extends IBaseDiscovery>
         this.registryType = registryType;
     }
 
+    /**
+     * Initialize the registry (load the discoveries) if it is not already done. This method can be called at startup to
+     * avoid paying the discovery cost on the first report.
+     */
     public void initialize()
     {
         initializeIfNeeded();
     }
 
+    /**
+     * Returns true if the registry is initialized and false otherwise.
+     * 
+     * @return
+     */
+    public boolean isInitialized()
+    {
+        return initialized;
+    }
+
+    /**
+     * Initialize the registry if it's not already done. This method is thread-safe : discoveries are loaded once, and
+     * the other threads wait the end of the initialization.
+     */
     protected void initializeIfNeeded()
     {
-        if ( !initialized )
+        if ( initialized )
         {
-            onStartInitialization();
-            // getClass().getClassLoader() to work under OSGi context
-
-            Iterator<Discovery> discoveries =
-                JDKServiceLoader.lookupProviders( registryType, getClass().getClassLoader() );
-            if ( LOGGER.isLoggable( Level.FINE ) )
+            return;
+        }
+        synchronized ( this )
+        {
+            if ( initialized || initializing )
             {
-                LOGGER.fine( "discoveries found ? " + discoveries.hasNext() );
+                return;
             }
+            initializing = true;
+            try
+            {
+                doInitialize();
+                initialized = true;
+            }
+            finally
+            {
+                initializing = false;
+            }
+        }
+    }
+
+    private void doInitialize()
+    {
+        onStartInitialization();
+        // getClass().getClassLoader() to work under OSGi context
 
-            while ( discoveries.hasNext() )
+        Iterator<Discovery> discoveries =
+            JDKServiceLoader.lookupProviders( registryType, getClass().getClassLoader() );
+        if ( LOGGER.isLoggable( Level.FINE ) )
+        {
+            LOGGER.fine( "discoveries found ? " + discoveries.hasNext() );
+        }
+
+        while ( discoveries.hasNext() )
+        {
+            Discovery instance = discoveries.next();
+            try
             {
-                Discovery instance = discoveries.next();
-                try
+                boolean result = registerInstance( instance );
+                if ( LOGGER.isLoggable( Level.FINE ) )
                 {
-                    boolean result = registerInstance( instance );
-                    if ( LOGGER.isLoggable( Level.FINE ) )
-                    {
-                        LOGGER.fine( "Registered Discovery instance  " + instance + " " + result );
-                    }
-                }
-                catch ( Throwable e )
-                {
-                    LOGGER.log( Level.WARNING, "Error while registration of Discovery instance  " + instance, e );
+                    LOGGER.fine( "Registered Discovery instance  " + instance + " " + result );
                 }
             }
-            onEndInitialization();
-            initialized = true;
+            catch ( Throwable e )
+            {
+                LOGGER.log( Level.WARNING, "Error while registration of Discovery instance  " + instance, e );
+            }
         }
+        onEndInitialization();
     }
 
     /**
@@ -116,7 +161,7 @@ public abstract class AbstractRegistry<Discovery extends IBaseDiscovery>
     /**
      * Dispose the registry.
      */
-    public final void dispose()
+    public final synchronized void dispose()
     {
         doDispose();
         this.initialized = false;
@@ -74,6 +74,9 @@ public final class Base64Utility
 
     private static final int PAD_SIZE8 = 3;
 
+    // count of bytes encoded at once by the chunked encoders (multiple of 3)
+    private static final int ENCODE_CHUNK_SIZE = 3 * 1024;
+
     // class static intializer for building decode table
     static
     {
@@ -323,8 +326,106 @@ public final class Base64Utility
         }
     }
 
+    // Returns the length of the base64 representation of the specified
+    // count of bytes.
+    //
+    public static int getEncodedLength( int l )
+    {
+        return ( l + 2 ) / 3 * 4;
+    }
+
+    // Outputs base64 representation of the specified byte array
+    // to a character stream, chunk by chunk without building the whole
+    // encoded content in memory.
+    //
+    public static void encode( byte[] id, Writer writer )
+        throws IOException
+    {
+        char[] chunk = new char[getEncodedLength( Math.min( id.length, ENCODE_CHUNK_SIZE ) )];
+        for ( int o = 0; o < id.length; o += ENCODE_CHUNK_SIZE )
+        {
+            int count = encodeChunk( id, o, Math.min( ENCODE_CHUNK_SIZE, id.length - o ), chunk );
+            writer.write( chunk, 0, count );
+        }
+    }
+
+    // Outputs base64 representation of the specified byte array
+    // to a byte stream, chunk by chunk without building the whole
+    // encoded content in memory.
+    //
+    public static void encode( byte[] id, OutputStream ostream )
+        throws IOException
+    {
+        char[] chunk = new char[getEncodedLength( Math.min( id.length, ENCODE_CHUNK_SIZE ) )];
+        byte[] bytes = new byte[chunk.length];
+        for ( int o = 0; o < id.length; o += ENCODE_CHUNK_SIZE )
+        {
+            int count = encodeChunk( id, o, Math.min( ENCODE_CHUNK_SIZE, id.length - o ), chunk );
+            // base64 characters are ASCII
+            for ( int i = 0; i < count; i++ )
+            {
+                bytes[i] = (byte) chunk[i];
+            }
+            ostream.write( bytes, 0, count );
+        }
+    }
+
+    // Appends base64 representation of the specified byte array
+    // to the buffer without building an intermediate string.
+    //
+    public static void encode( byte[] id, StringBuilder buffer )
+    {
+        buffer.ensureCapacity( buffer.length() + getEncodedLength( id.length ) );
+        char[] chunk = new char[getEncodedLength( Math.min( id.length, ENCODE_CHUNK_SIZE ) )];
+        for ( int o = 0; o < id.length; o += ENCODE_CHUNK_SIZE )
+        {
+            int count = encodeChunk( id, o, Math.min( ENCODE_CHUNK_SIZE, id.length - o ), chunk );
+            buffer.append( chunk, 0, count );
+        }
+    }
+
     // ---- Private static methods --------------------------------------
 
+    /**
+     * Encodes l bytes of id starting at the offset o into the out buffer and returns the count of written chars.
+     */
+    private static int encodeChunk( byte[] id, int o, int l, char[] out )
+    {
+        int rindex = o;
+        int windex = 0;
+        int rest = l;
+
+        while ( rest >= 3 )
+        {
+            int i = ( ( id[rindex] & 0xff ) << 16 ) + ( ( id[rindex + 1] & 0xff ) << 8 ) + ( id[rindex + 2] & 0xff );
+
+            out[windex++] = BCS[i >> 18];
+            out[windex++] = BCS[( i >> 12 ) & 0x3f];
+            out[windex++] = BCS[( i >> 6 ) & 0x3f];
+            out[windex++] = BCS[i & 0x3f];
+            rindex += 3;
+            rest -= 3;
+        }
+
+        if ( rest == 1 )
+        {
+            int i = id[rindex] & 0xff;
+            out[windex++] = BCS[i >> 2];
+            out[windex++] = BCS[( i << 4 ) & 0x3f];
+            out[windex++] = PAD;
+            out[windex++] = PAD;
+        }
+        else if ( rest == 2 )
+        {
+            int i = ( ( id[rindex] & 0xff ) << 8 ) + ( id[rindex + 1] & 0xff );
+            out[windex++] = BCS[i >> 10];
+            out[windex++] = BCS[( i >> 4 ) & 0x3f];
+            out[windex++] = BCS[( i << 2 ) & 0x3f];
+            out[windex++] = PAD;
+        }
+        return windex;
+    }
+
     /**
      * The <code>process</code> routine processes an atomic base64 unit of encoding (encodeme) into its native encoding.
      * This class is used by decode routines to do the grunt work of decoding base64 encoded information
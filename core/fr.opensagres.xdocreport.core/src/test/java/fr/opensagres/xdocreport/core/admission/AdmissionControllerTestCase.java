@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.admission;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdmissionControllerTestCase
+{
+
+    @Test
+    public void testRejectWhenQueueIsFull()
+        throws Exception
+    {
+        AdmissionController controller = new AdmissionController( 1, 0, 0, 1000, 10 );
+        AdmissionController.Permit permit = controller.acquire( 0 );
+        Assert.assertEquals( 1, controller.getActiveCount() );
+        try
+        {
+            controller.acquire( 0 );
+            Assert.fail( "Request must be rejected" );
+        }
+        catch ( AdmissionRejectedException e )
+        {
+            Assert.assertEquals( AdmissionRejectedException.Reason.QUEUE_FULL, e.getReason() );
+        }
+        Assert.assertEquals( 1, controller.getRejectedCount() );
+
+        // release twice has no effect.
+        permit.release();
+        permit.release();
+        Assert.assertEquals( 0, controller.getActiveCount() );
+        controller.acquire( 0 ).release();
+        Assert.assertEquals( 2, controller.getAdmittedCount() );
+    }
+
+    @Test
+    public void testRejectAfterTimeout()
+        throws Exception
+    {
+        AdmissionController controller = new AdmissionController( 1, 1, 0, 50, 10 );
+        AdmissionController.Permit permit = controller.acquire( 0 );
+        try
+        {
+            controller.acquire( 0 );
+            Assert.fail( "Request must be rejected" );
+        }
+        catch ( AdmissionRejectedException e )
+        {
+            Assert.assertEquals( AdmissionRejectedException.Reason.TIMEOUT, e.getReason() );
+        }
+        Assert.assertEquals( 0, controller.getQueuedCount() );
+        permit.release();
+    }
+
+    @Test
+    public void testQueuedRequestIsAdmittedOnRelease()
+        throws Exception
+    {
+        final AdmissionController controller = new AdmissionController( 1, 1, 0, 10000, 10 );
+        AdmissionController.Permit permit = controller.acquire( 0 );
+        final CountDownLatch admitted = new CountDownLatch( 1 );
+        Thread waiting = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    controller.acquire( 0 ).release();
+                    admitted.countDown();
+                }
+                catch ( Exception e )
+                {
+                    // the latch is not released and the test fails.
+                }
+            }
+        };
+        waiting.start();
+        while ( controller.getQueuedCount() == 0 )
+        {
+            Thread.sleep( 5 );
+        }
+        permit.release();
+        Assert.assertTrue( admitted.await( 5, TimeUnit.SECONDS ) );
+    }
+
+    @Test
+    public void testMemoryBudget()
+        throws Exception
+    {
+        // budget of 100 bytes, estimate of 10 x input size.
+        AdmissionController controller = new AdmissionController( 0, 0, 100, 1000, 10 );
+        Assert.assertEquals( 60, controller.estimateMemory( 6 ) );
+        Assert.assertEquals( 0, controller.estimateMemory( -1 ) );
+
+        AdmissionController.Permit permit = controller.acquire( controller.estimateMemory( 6 ) );
+        Assert.assertEquals( 60, controller.getReservedMemory() );
+        try
+        {
+            controller.acquire( controller.estimateMemory( 5 ) );
+            Assert.fail( "Request must be rejected" );
+        }
+        catch ( AdmissionRejectedException e )
+        {
+            Assert.assertEquals( AdmissionRejectedException.Reason.QUEUE_FULL, e.getReason() );
+        }
+        permit.release();
+
+        // an operation bigger than the budget is admitted alone.
+        permit = controller.acquire( controller.estimateMemory( 1000 ) );
+        Assert.assertEquals( 100, controller.getReservedMemory() );
+        permit.release();
+        Assert.assertEquals( 0, controller.getReservedMemory() );
+    }
+}
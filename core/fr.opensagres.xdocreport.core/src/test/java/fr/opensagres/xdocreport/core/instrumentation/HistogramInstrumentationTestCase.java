@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.instrumentation;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for {@link HistogramInstrumentation} and {@link InstrumentationRegistry}.
+ */
+public class HistogramInstrumentationTestCase
+    extends TestCase
+{
+
+    public void testDefaultIsNoOp()
+    {
+        InstrumentationRegistry registry = new InstrumentationRegistry();
+        assertFalse( registry.getInstrumentation().isEnabled() );
+    }
+
+    public void testSetInstrumentation()
+    {
+        InstrumentationRegistry registry = new InstrumentationRegistry();
+        HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+        registry.setInstrumentation( instrumentation );
+        assertSame( instrumentation, registry.getInstrumentation() );
+
+        registry.setInstrumentation( null );
+        assertFalse( registry.getInstrumentation().isEnabled() );
+    }
+
+    public void testRecord()
+    {
+        HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+        for ( int i = 1; i <= 100; i++ )
+        {
+            instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.MERGE, "report", "content.xml",
+                                                               i * 1000, 10 ) );
+        }
+        instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.CACHE_HIT, "report", "report", 0,
+                                                           -1 ) );
+
+        LatencyHistogram merge = instrumentation.getHistogram( InstrumentationStage.MERGE );
+        assertEquals( 100, merge.getCount() );
+        assertEquals( 1000, merge.getTotalBytes() );
+        assertEquals( 100000, merge.getMaxDuration() );
+        assertEquals( 50500, merge.getMeanDuration() );
+        // power of 2 buckets : percentile is between the exact value and 2x the exact value.
+        long p50 = merge.getPercentile( 50 );
+        assertTrue( p50 >= 50000 && p50 <= 100000 );
+        assertEquals( 100000, merge.getPercentile( 100 ) );
+
+        LatencyHistogram cacheHit = instrumentation.getHistogram( InstrumentationStage.CACHE_HIT );
+        assertEquals( 1, cacheHit.getCount() );
+        assertEquals( 0, cacheHit.getTotalBytes() );
+        assertEquals( 0, instrumentation.getHistogram( InstrumentationStage.LOAD ).getCount() );
+
+        instrumentation.reset();
+        assertEquals( 0, merge.getCount() );
+        assertEquals( 0, merge.getPercentile( 99 ) );
+    }
+}
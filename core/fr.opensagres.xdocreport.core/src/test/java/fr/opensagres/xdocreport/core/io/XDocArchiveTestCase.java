@@ -152,4 +152,19 @@ public class XDocArchiveTestCase
         String document = IOUtils.toString( archive.getEntryReader( "word/document.xml" ) );
         assertNotNull( document );
     }
+
+    public void testStoredZipRoundTrip()
+        throws IOException
+    {
+        InputStream input = XDocArchiveTestCase.class.getResourceAsStream( "Issue234.docx" );
+        XDocArchive archive = XDocArchive.readZip( input );
+
+        XDocArchive copy = XDocArchive.readZip( XDocArchive.getInputStream( archive, false ) );
+        assertEquals( archive.getEntryNames(), copy.getEntryNames() );
+        for ( String entryName : archive.getEntryNames() )
+        {
+            assertEquals( entryName, IOUtils.toString( archive.getEntryInputStream( entryName ), "UTF-8" ),
+                          IOUtils.toString( copy.getEntryInputStream( entryName ), "UTF-8" ) );
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.registry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import fr.opensagres.xdocreport.core.discovery.IBaseDiscovery;
+
+/**
+ * Test case for the initialization of {@link AbstractRegistry}.
+ */
+public class AbstractRegistryTestCase
+    extends TestCase
+{
+
+    private static class CountingRegistry
+        extends AbstractRegistry<IBaseDiscovery>
+    {
+
+        private final AtomicInteger initializationCount = new AtomicInteger();
+
+        private volatile boolean ready;
+
+        public CountingRegistry()
+        {
+            super( IBaseDiscovery.class );
+        }
+
+        @Override
+        protected void onStartInitialization()
+        {
+            initializationCount.incrementAndGet();
+            // initialization is called again by the registration.
+            initializeIfNeeded();
+            try
+            {
+                // slow discovery
+                Thread.sleep( 50 );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected void onEndInitialization()
+        {
+            ready = true;
+        }
+
+        @Override
+        protected boolean registerInstance( IBaseDiscovery instance )
+        {
+            return false;
+        }
+
+        @Override
+        protected void doDispose()
+        {
+            ready = false;
+        }
+
+        public boolean isReady()
+        {
+            initializeIfNeeded();
+            return ready;
+        }
+    }
+
+    public void testConcurrentInitialization()
+        throws Exception
+    {
+        final CountingRegistry registry = new CountingRegistry();
+        final CountDownLatch start = new CountDownLatch( 1 );
+        final AtomicInteger notReady = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        for ( int i = 0; i < 8; i++ )
+        {
+            executor.execute( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        return;
+                    }
+                    if ( !registry.isReady() )
+                    {
+                        notReady.incrementAndGet();
+                    }
+                }
+            } );
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ) );
+
+        // discovery is done once and no thread sees a partially initialized registry.
+        assertEquals( 1, registry.initializationCount.get() );
+        assertEquals( 0, notReady.get() );
+        assertTrue( registry.isInitialized() );
+    }
+
+    public void testDispose()
+    {
+        CountingRegistry registry = new CountingRegistry();
+        registry.initialize();
+        assertTrue( registry.isReady() );
+        registry.dispose();
+        assertFalse( registry.isInitialized() );
+        assertTrue( registry.isReady() );
+        assertEquals( 2, registry.initializationCount.get() );
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.core.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Base64UtilityTestCase
+{
+
+    private static final int[] SIZES = { 1, 2, 3, 4, 3071, 3072, 3073, 3074, 10000 };
+
+    @Test
+    public void testChunkedEncodeWithWriter()
+        throws Exception
+    {
+        for ( int size : SIZES )
+        {
+            byte[] data = createData( size );
+            StringWriter writer = new StringWriter();
+            Base64Utility.encode( data, writer );
+            Assert.assertEquals( Base64Utility.encode( data ), writer.toString() );
+        }
+    }
+
+    @Test
+    public void testChunkedEncodeWithOutputStream()
+        throws Exception
+    {
+        for ( int size : SIZES )
+        {
+            byte[] data = createData( size );
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Base64Utility.encode( data, out );
+            Assert.assertEquals( Base64Utility.encode( data ), out.toString( "ASCII" ) );
+        }
+    }
+
+    @Test
+    public void testChunkedEncodeWithStringBuilder()
+        throws Exception
+    {
+        for ( int size : SIZES )
+        {
+            byte[] data = createData( size );
+            StringBuilder buffer = new StringBuilder( "data:;base64," );
+            Base64Utility.encode( data, buffer );
+            Assert.assertEquals( "data:;base64," + Base64Utility.encode( data ), buffer.toString() );
+            Assert.assertEquals( Base64Utility.getEncodedLength( size ), buffer.length() - "data:;base64,".length() );
+        }
+    }
+
+    @Test
+    public void testEncodeEmpty()
+        throws Exception
+    {
+        StringBuilder buffer = new StringBuilder();
+        Base64Utility.encode( new byte[0], buffer );
+        Assert.assertEquals( "", buffer.toString() );
+    }
+
+    private static byte[] createData( int size )
+    {
+        byte[] data = new byte[size];
+        new Random( size ).nextBytes( data );
+        return data;
+    }
+}
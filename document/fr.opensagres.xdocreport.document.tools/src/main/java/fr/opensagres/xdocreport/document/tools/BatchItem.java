@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.tools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import fr.opensagres.xdocreport.core.io.IOUtils;
+
+/**
+ * Item of a batch generation : a data file used to populate the context and the file where the report must be
+ * generated. If the output file is null, it is computed from the name of the data file.
+ */
+public class BatchItem
+{
+
+    private static final char MANIFEST_SEPARATOR = ';';
+
+    private static final String MANIFEST_COMMENT = "#";
+
+    private final File data;
+
+    private final File out;
+
+    public BatchItem( File data, File out )
+    {
+        this.data = data;
+        this.out = out;
+    }
+
+    public File getData()
+    {
+        return data;
+    }
+
+    public File getOut()
+    {
+        return out;
+    }
+
+    /**
+     * Returns the extension of the data file (ex : "json") which is the id of the data provider factory.
+     * 
+     * @return
+     */
+    public String getDataExtension()
+    {
+        String fileName = data.getName();
+        int index = fileName.lastIndexOf( '.' );
+        return index != -1 ? fileName.substring( index + 1 ) : null;
+    }
+
+    /**
+     * Returns the name of the data file without extension.
+     * 
+     * @return
+     */
+    public String getBaseName()
+    {
+        String fileName = data.getName();
+        int index = fileName.lastIndexOf( '.' );
+        return index != -1 ? fileName.substring( 0, index ) : fileName;
+    }
+
+    /**
+     * Returns an item for each file of the directory which can be loaded by a registered data provider factory. Items
+     * are sorted by file name.
+     * 
+     * @param dir the directory which contains the data files.
+     * @return
+     * @throws IOException
+     */
+    public static List<BatchItem> fromDirectory( File dir )
+        throws IOException
+    {
+        File[] files = dir.listFiles();
+        if ( files == null )
+        {
+            throw new IOException( dir + " is not a directory" );
+        }
+        Arrays.sort( files );
+        List<BatchItem> items = new ArrayList<BatchItem>( files.length );
+        DataProviderFactoryRegistry registry = DataProviderFactoryRegistry.getRegistry();
+        for ( File file : files )
+        {
+            if ( file.isFile() )
+            {
+                BatchItem item = new BatchItem( file, null );
+                String extension = item.getDataExtension();
+                if ( extension != null && registry.getFactory( extension ) != null )
+                {
+                    items.add( item );
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Returns the items declared in a manifest file. Each line of the manifest declares a data file and optionally the
+     * output file separated with ';' :
+     * 
+     * <pre>
+     * # comment
+     * data/customer1.json;out/customer1.docx
+     * data/customer2.xml
+     * </pre>
+     * 
+     * Relative paths are resolved from the directory of the manifest.
+     * 
+     * @param manifest the manifest file.
+     * @return
+     * @throws IOException
+     */
+    public static List<BatchItem> fromManifest( File manifest )
+        throws IOException
+    {
+        File baseDir = manifest.getAbsoluteFile().getParentFile();
+        List<BatchItem> items = new ArrayList<BatchItem>();
+        BufferedReader reader = new BufferedReader( new InputStreamReader( new FileInputStream( manifest ), "UTF-8" ) );
+        try
+        {
+            String line = null;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                line = line.trim();
+                if ( line.length() == 0 || line.startsWith( MANIFEST_COMMENT ) )
+                {
+                    continue;
+                }
+                int index = line.indexOf( MANIFEST_SEPARATOR );
+                String data = index != -1 ? line.substring( 0, index ).trim() : line;
+                String out = index != -1 ? line.substring( index + 1 ).trim() : null;
+                items.add( new BatchItem( resolve( baseDir, data ),
+                                          out != null && out.length() > 0 ? resolve( baseDir, out ) : null ) );
+            }
+        }
+        finally
+        {
+            IOUtils.closeQuietly( reader );
+        }
+        return items;
+    }
+
+    private static File resolve( File baseDir, String path )
+    {
+        File file = new File( path );
+        return file.isAbsolute() ? file : new File( baseDir, path );
+    }
+
+    @Override
+    public String toString()
+    {
+        return data.getPath();
+    }
+}
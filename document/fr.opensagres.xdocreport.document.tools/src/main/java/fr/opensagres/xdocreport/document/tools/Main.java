@@ -37,6 +37,8 @@ import java.util.List;
 
 import org.xml.sax.SAXException;
 
+import fr.opensagres.xdocreport.document.batch.BatchFailure;
+import fr.opensagres.xdocreport.document.batch.BatchResult;
 import fr.opensagres.xdocreport.document.tools.internal.BadArgException;
 import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
 import fr.opensagres.xdocreport.template.formatter.FieldsMetadataXMLSerializer;
@@ -54,6 +56,12 @@ public class Main
         String templateEngineKind = null;
         String metadataFile = null;
         String dataDir = null;
+        // batch mode
+        String batchDir = null;
+        String manifest = null;
+        String outDir = null;
+        String converterId = null;
+        int threads = Runtime.getRuntime().availableProcessors();
 
         List<IDataProvider> dataProviders = new ArrayList<IDataProvider>();
         String arg = null;
@@ -94,6 +102,39 @@ public class Main
                 {
                     dataDir = getValue( args, i );
                 }
+                else if ( "-batchDir".equals( arg ) )
+                {
+                    batchDir = getValue( args, i );
+                    if ( batchDir != null )
+                        i++;
+                }
+                else if ( "-manifest".equals( arg ) )
+                {
+                    manifest = getValue( args, i );
+                    if ( manifest != null )
+                        i++;
+                }
+                else if ( "-outDir".equals( arg ) )
+                {
+                    outDir = getValue( args, i );
+                    if ( outDir != null )
+                        i++;
+                }
+                else if ( "-converter".equals( arg ) )
+                {
+                    converterId = getValue( args, i );
+                    if ( converterId != null )
+                        i++;
+                }
+                else if ( "-threads".equals( arg ) )
+                {
+                    String value = getValue( args, i );
+                    if ( value != null )
+                    {
+                        threads = Integer.parseInt( value );
+                        i++;
+                    }
+                }
             }
         }
         catch ( BadArgException e )
@@ -101,6 +142,17 @@ public class Main
             printUsage();
             return;
         }
+        catch ( NumberFormatException e )
+        {
+            printUsage();
+            return;
+        }
+
+        if ( batchDir != null || manifest != null )
+        {
+            processBatch( in, templateEngineKind, metadataFile, batchDir, manifest, outDir, converterId, threads );
+            return;
+        }
 
         // Err
         File fileErr = null;
@@ -210,6 +262,36 @@ public class Main
         tools.process( new File( in ), fileOut, templateEngineKind, fieldsMetadata, dataProviders );
     }
 
+    private static void processBatch( String in, String templateEngineKind, String metadataFile, String batchDir,
+                                      String manifest, String outDir, String converterId, int threads )
+        throws Exception
+    {
+        FieldsMetadata fieldsMetadata = null;
+        if ( metadataFile != null )
+        {
+            fieldsMetadata = FieldsMetadataXMLSerializer.getInstance().load( new FileInputStream( metadataFile ) );
+            templateEngineKind = fieldsMetadata.getTemplateEngineKind();
+        }
+
+        List<BatchItem> items =
+            manifest != null ? BatchItem.fromManifest( new File( manifest ) )
+                            : BatchItem.fromDirectory( new File( batchDir ) );
+        File fileOutDir = outDir != null ? new File( outDir ) : new File( "." );
+
+        BatchResult result =
+            Tools.getInstance().processBatch( new File( in ), templateEngineKind, fieldsMetadata, converterId, items,
+                                              fileOutDir, threads );
+        for ( BatchFailure failure : result.getFailures() )
+        {
+            System.err.println( "Error with " + items.get( failure.getIndex() ) + ": " + failure.getException() );
+        }
+        System.out.println( result );
+        if ( result.hasFailures() )
+        {
+            System.exit( 1 );
+        }
+    }
+
     private static void printUsage()
     {
 
@@ -217,6 +299,12 @@ public class Main
         System.out.print( "java " + Main.class.getName() );
         System.out.print( " -in <a file in>" );
         System.out.print( " -out <a file out>" );
+        System.out.println();
+        System.out.print( "Batch usage: " );
+        System.out.print( "java " + Main.class.getName() );
+        System.out.print( " -in <a file in>" );
+        System.out.print( " -batchDir <a dir of data files> | -manifest <a manifest file>" );
+        System.out.print( " [-outDir <a dir out>] [-converter <ex: PDF_XWPF>] [-threads <count>]" );
         System.exit( -1 );
     }
 }
@@ -24,16 +24,31 @@
  */
 package fr.opensagres.xdocreport.document.tools;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import fr.opensagres.xdocreport.converter.MimeMapping;
+import fr.opensagres.xdocreport.converter.Options;
 import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.core.io.IOUtils;
 import fr.opensagres.xdocreport.document.Generator;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.document.batch.BatchProcessor;
+import fr.opensagres.xdocreport.document.batch.BatchResult;
+import fr.opensagres.xdocreport.document.batch.IBatchOutputProvider;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
 import fr.opensagres.xdocreport.template.IContext;
 import fr.opensagres.xdocreport.template.TemplateEngineKind;
 import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
@@ -44,6 +59,8 @@ public class Tools
 
 	private static final Tools INSTANCE = new Tools();
 
+    private static final AtomicInteger BATCH_COUNTER = new AtomicInteger();
+
 	public static Tools getInstance() {
 		return INSTANCE;
 	}
@@ -69,7 +86,242 @@ public class Tools
     {
         Request request = new Request( in, templateEngineKind, fieldsMetadata, dataProviders );
         Response response = new Response( out );
-        processRequest( request, response );
+        try
+        {
+            processRequest( request, response );
+        }
+        finally
+        {
+            closeDataProviders( dataProviders );
+        }
+    }
+
+    /**
+     * Closes the data providers which keep their data opened while the report is generated (ex : XML data provider
+     * with streaming).
+     * 
+     * @param dataProviders
+     */
+    private static void closeDataProviders( Iterable<IDataProvider> dataProviders )
+    {
+        if ( dataProviders != null )
+        {
+            for ( IDataProvider dataProvider : dataProviders )
+            {
+                if ( dataProvider instanceof Closeable )
+                {
+                    try
+                    {
+                        ( (Closeable) dataProvider ).close();
+                    }
+                    catch ( IOException e )
+                    {
+                        // Do nothing
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Generate a report for each item with the same template : the template is loaded and preprocessed once and the
+     * reports are generated with a pool of threads.
+     * 
+     * @param in the template.
+     * @param templateEngineKind the template engine kind.
+     * @param fieldsMetadata the fields metadata (can be null).
+     * @param converterId the converter id (ex : "PDF" or "PDF_XWPF") or null if reports must not be converted.
+     * @param items the data files and output files.
+     * @param outDir the directory used for the items which have no output file.
+     * @param threads the count of threads used to generate the reports.
+     * @return the result of the batch.
+     * @throws Exception
+     */
+    public BatchResult processBatch( File in, String templateEngineKind, FieldsMetadata fieldsMetadata,
+                                     String converterId, final List<BatchItem> items, final File outDir, int threads )
+        throws Exception
+    {
+        Request request = new Request( new FileInputStream( in ), templateEngineKind, fieldsMetadata, null );
+        request.put( REPORT_ID_HTTP_PARAM, "batch-" + BATCH_COUNTER.incrementAndGet() );
+        request.put( CONVERTER_ID_HTTP_PARAM, converterId );
+        final IXDocReport report;
+        try
+        {
+            report = getReport( request );
+        }
+        finally
+        {
+            IOUtils.closeQuietly( request.getIn() );
+        }
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool( threads ) : null;
+        try
+        {
+            Options options = getOptionsConverter( report, request );
+            final String extension =
+                options != null ? report.getConverter( options ).getMimeMapping().getExtension()
+                                : report.getMimeMapping().getExtension();
+            BatchProcessor processor = new BatchProcessor( report ).setOptions( options );
+            if ( executor != null )
+            {
+                processor.setExecutor( executor, threads * 2 );
+            }
+            return processor.process( new Iterable<IContext>()
+            {
+                public Iterator<IContext> iterator()
+                {
+                    return new BatchContextIterator( report, items.size() );
+                }
+            }, new IBatchOutputProvider()
+            {
+                public OutputStream getOutputStream( int index, IContext context )
+                    throws IOException
+                {
+                    // the data file is loaded here to be done in the worker thread and to report errors per item.
+                    BatchItem item = items.get( index );
+                    InputStream data = new FileInputStream( item.getData() );
+                    OutputStream out = null;
+                    try
+                    {
+                        IDataProvider provider = populateContext( report, context, item, data );
+                        File file = item.getOut();
+                        if ( file == null )
+                        {
+                            file = new File( outDir, item.getBaseName() + "." + extension );
+                        }
+                        File parent = file.getAbsoluteFile().getParentFile();
+                        if ( parent != null )
+                        {
+                            parent.mkdirs();
+                        }
+                        // the data can be read while the report is generated (ex : XML data provider with streaming),
+                        // so it is closed once the report is written.
+                        out = new BatchItemOutputStream( new FileOutputStream( file ), provider, data );
+                        return out;
+                    }
+                    finally
+                    {
+                        if ( out == null )
+                        {
+                            IOUtils.closeQuietly( data );
+                        }
+                    }
+                }
+            } );
+        }
+        finally
+        {
+            if ( executor != null )
+            {
+                executor.shutdown();
+            }
+            XDocReportRegistry.getRegistry().unregisterReport( report );
+        }
+    }
+
+    private static IDataProvider populateContext( IXDocReport report, IContext context, BatchItem item,
+                                                 InputStream data )
+        throws IOException
+    {
+        try
+        {
+            IDataProvider provider =
+                DataProviderFactoryRegistry.getRegistry().create( item.getDataExtension(), data, null );
+            if ( provider == null )
+            {
+                throw new IOException( "No data provider for the file " + item.getData() );
+            }
+            provider.populateContext( report, context );
+            return provider;
+        }
+        catch ( IOException e )
+        {
+            throw e;
+        }
+        catch ( Exception e )
+        {
+            throw new IOException( "Cannot load the data file " + item.getData(), e );
+        }
+    }
+
+    /**
+     * Output stream of a batch item which closes the data of the item when the report is written.
+     */
+    private static class BatchItemOutputStream
+        extends FilterOutputStream
+    {
+
+        private final IDataProvider provider;
+
+        private final InputStream data;
+
+        public BatchItemOutputStream( OutputStream out, IDataProvider provider, InputStream data )
+        {
+            super( out );
+            this.provider = provider;
+            this.data = data;
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+            throws IOException
+        {
+            out.write( b, off, len );
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            try
+            {
+                super.close();
+            }
+            finally
+            {
+                closeDataProviders( Collections.singletonList( provider ) );
+                IOUtils.closeQuietly( data );
+            }
+        }
+    }
+
+    private static class BatchContextIterator
+        implements Iterator<IContext>
+    {
+
+        private final IXDocReport report;
+
+        private final int size;
+
+        private int index;
+
+        public BatchContextIterator( IXDocReport report, int size )
+        {
+            this.report = report;
+            this.size = size;
+        }
+
+        public boolean hasNext()
+        {
+            return index < size;
+        }
+
+        public IContext next()
+        {
+            index++;
+            try
+            {
+                return report.createContext();
+            }
+            catch ( XDocReportException e )
+            {
+                throw new RuntimeException( e );
+            }
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
     }
 
     @Override
@@ -0,0 +1,432 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.tools.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.template.IContext;
+
+/**
+ * Walks a {@link XMLStreamReader} to populate an {@link IContext}. When streaming is disabled, the whole document is
+ * loaded in the context. Otherwise, the streamed list is the first list declared in
+ * the fields metadata or, when no list is declared, the first repeated children elements of the root element or of a
+ * child of the root element. The builder keeps the stack of the elements which
+ * are opened from the root element to be able to suspend the walk when a list is streamed with a
+ * {@link XMLElementCursor} and to resume it once the list is consumed.
+ */
+class XMLContextBuilder
+{
+
+    /**
+     * Key used to store the text of an element which has attributes or children elements.
+     */
+    public static final String TEXT_KEY = "text";
+
+    private final XMLStreamReader reader;
+
+    private final InputStream in;
+
+    private final Set<String> listNames;
+
+    private final LinkedList<Frame> frames;
+
+    private IContext context;
+
+    private boolean rootVisited;
+
+    // true while no list has been streamed.
+    private boolean streaming;
+
+    private boolean closed;
+
+    public XMLContextBuilder( XMLStreamReader reader, InputStream in, Set<String> listNames, boolean streaming )
+    {
+        this.reader = reader;
+        this.in = in;
+        this.listNames = listNames;
+        this.frames = new LinkedList<Frame>();
+        this.rootVisited = false;
+        this.streaming = streaming;
+        this.closed = false;
+    }
+
+    public void build( IContext context )
+        throws XMLStreamException
+    {
+        this.context = context;
+        walk( reader.getEventType() );
+    }
+
+    /**
+     * Walks the XML document from the given current event until the end of the document or until a list is
+     * streamed.
+     * 
+     * @param event the current event.
+     * @throws XMLStreamException
+     */
+    private void walk( int event )
+        throws XMLStreamException
+    {
+        while ( true )
+        {
+            switch ( event )
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                    if ( !startElement() )
+                    {
+                        // a list is streamed, the walk will be resumed once the list is consumed.
+                        return;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if ( !frames.isEmpty() )
+                    {
+                        frames.getLast().characters();
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    endElement();
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    close();
+                    return;
+            }
+            if ( !reader.hasNext() )
+            {
+                close();
+                return;
+            }
+            event = reader.next();
+        }
+    }
+
+    private boolean startElement()
+        throws XMLStreamException
+    {
+        if ( frames.isEmpty() )
+        {
+            if ( !rootVisited )
+            {
+                // root element, children are put in the context.
+                rootVisited = true;
+                frames.add( new Frame( null, null, null, null ) );
+            }
+            return true;
+        }
+
+        Frame parent = frames.getLast();
+        parent.hasChildren = true;
+        String name = reader.getLocalName();
+        String path = getPath( parent.path, name );
+        Object existing = parent.get( name );
+        boolean list = isList( path );
+        if ( existing != null || list )
+        {
+            if ( streaming && ( listNames == null || list ) )
+            {
+                // First list found, stream it.
+                streaming = false;
+                parent.put( name, new XMLElementCursor( this, name, path, existing ) );
+                return false;
+            }
+            parent.put( name, addItem( existing, readElement( path ) ) );
+        }
+        else if ( streaming && ( listNames != null || parent.parent == null ) )
+        {
+            // Walk the children of the element, they could contain a list to stream. When no list is declared, only
+            // the children of the root are walked, otherwise repeated elements of the first item of a list
+            // would be streamed instead of the list itself.
+            Map<String, Object> map = new HashMap<String, Object>();
+            readAttributes( map );
+            Frame frame = new Frame( parent, name, path, map );
+            parent.put( name, map );
+            frames.add( frame );
+        }
+        else
+        {
+            parent.put( name, readElement( path ) );
+        }
+        return true;
+    }
+
+    private void endElement()
+    {
+        Frame frame = frames.removeLast();
+        if ( frame.parent != null )
+        {
+            String text = frame.getText();
+            if ( !frame.hasChildren && frame.map.isEmpty() )
+            {
+                // element with text only.
+                frame.parent.put( frame.name, text != null ? text : "" );
+            }
+            else if ( text != null && text.trim().length() > 0 )
+            {
+                frame.map.put( TEXT_KEY, text.trim() );
+            }
+        }
+    }
+
+    /**
+     * Reads the element of the current START_ELEMENT event and returns a {@link String} if the element contains only
+     * text and a {@link Map} otherwise. The reader is positioned to the END_ELEMENT event of the element after this
+     * call.
+     * 
+     * @param path the path of the element, null if no list is declared.
+     * @return
+     * @throws XMLStreamException
+     */
+    Object readElement( String path )
+        throws XMLStreamException
+    {
+        Map<String, Object> map = null;
+        if ( reader.getAttributeCount() > 0 )
+        {
+            map = new HashMap<String, Object>();
+            readAttributes( map );
+        }
+        StringBuilder text = null;
+        while ( true )
+        {
+            switch ( reader.next() )
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                    String name = reader.getLocalName();
+                    String childPath = getPath( path, name );
+                    Object item = readElement( childPath );
+                    if ( map == null )
+                    {
+                        map = new HashMap<String, Object>();
+                    }
+                    Object existing = map.get( name );
+                    if ( existing != null || isList( childPath ) )
+                    {
+                        map.put( name, addItem( existing, item ) );
+                    }
+                    else
+                    {
+                        map.put( name, item );
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if ( map == null || !reader.isWhiteSpace() )
+                    {
+                        if ( text == null )
+                        {
+                            text = new StringBuilder();
+                        }
+                        text.append( reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength() );
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if ( map == null )
+                    {
+                        return text != null ? text.toString() : "";
+                    }
+                    if ( text != null )
+                    {
+                        String s = text.toString().trim();
+                        if ( s.length() > 0 )
+                        {
+                            map.put( TEXT_KEY, s );
+                        }
+                    }
+                    return map;
+            }
+        }
+    }
+
+    /**
+     * Moves the reader to the next sibling element of a streamed list. If the next element is not an item of the
+     * list, the walk of the document is resumed.
+     * 
+     * @param name the element name of the items of the streamed list.
+     * @return true if the reader is positioned on the next item and false otherwise.
+     * @throws XMLStreamException
+     */
+    boolean nextItem( String name )
+        throws XMLStreamException
+    {
+        int event = reader.next();
+        while ( event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT
+            && event != XMLStreamConstants.END_DOCUMENT )
+        {
+            event = reader.next();
+        }
+        if ( event == XMLStreamConstants.START_ELEMENT && name.equals( reader.getLocalName() ) )
+        {
+            return true;
+        }
+        walk( event );
+        return false;
+    }
+
+    private void readAttributes( Map<String, Object> map )
+    {
+        int count = reader.getAttributeCount();
+        for ( int i = 0; i < count; i++ )
+        {
+            map.put( reader.getAttributeLocalName( i ), reader.getAttributeValue( i ) );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Object addItem( Object existing, Object item )
+    {
+        if ( existing instanceof List )
+        {
+            ( (List<Object>) existing ).add( item );
+            return existing;
+        }
+        List<Object> list = new ArrayList<Object>();
+        if ( existing != null )
+        {
+            list.add( existing );
+        }
+        list.add( item );
+        return list;
+    }
+
+    private String getPath( String parentPath, String name )
+    {
+        if ( listNames == null )
+        {
+            // no need to compute the path.
+            return null;
+        }
+        return parentPath == null ? name : parentPath + "." + name;
+    }
+
+    private boolean isList( String path )
+    {
+        return path != null && listNames.contains( path );
+    }
+
+    boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Closes the XML reader and the XML data stream. It's done when the end of the document is reached or when the
+     * context is not used anymore (ex : when a streamed list is never iterated).
+     */
+    void close()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+        try
+        {
+            reader.close();
+        }
+        catch ( XMLStreamException e )
+        {
+            // Do nothing
+        }
+        IOUtils.closeQuietly( in );
+    }
+
+    /**
+     * Element opened while walking the document. The root frame populates the context.
+     */
+    private class Frame
+    {
+
+        private final Frame parent;
+
+        private final String name;
+
+        private final String path;
+
+        private final Map<String, Object> map;
+
+        private boolean hasChildren;
+
+        private StringBuilder text;
+
+        public Frame( Frame parent, String name, String path, Map<String, Object> map )
+        {
+            this.parent = parent;
+            this.name = name;
+            this.path = path;
+            this.map = map;
+        }
+
+        public Object get( String key )
+        {
+            return map != null ? map.get( key ) : context.get( key );
+        }
+
+        public void put( String key, Object value )
+        {
+            if ( map != null )
+            {
+                map.put( key, value );
+            }
+            else
+            {
+                context.put( key, value );
+            }
+        }
+
+        public void characters()
+        {
+            if ( map == null || ( hasChildren && reader.isWhiteSpace() ) )
+            {
+                // ignore text of the root and spaces between children elements.
+                return;
+            }
+            if ( text == null )
+            {
+                text = new StringBuilder();
+            }
+            text.append( reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength() );
+        }
+
+        public String getText()
+        {
+            return text != null ? text.toString() : null;
+        }
+    }
+}
@@ -24,28 +24,157 @@
  */
 package fr.opensagres.xdocreport.document.tools.xml;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import fr.opensagres.xdocreport.core.XDocReportException;
 import fr.opensagres.xdocreport.document.IXDocReport;
 import fr.opensagres.xdocreport.document.tools.AbstractDataProvider;
 import fr.opensagres.xdocreport.template.IContext;
+import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
 
+/**
+ * XML Data provider based on StAX. Children elements of the root element are put in the context :
+ * <ul>
+ * <li>an element which contains only text is mapped to a {@link String}.</li>
+ * <li>an element which contains attributes or children elements is mapped to a {@link java.util.Map}.</li>
+ * <li>repeated sibling elements (or element declared as list in the {@link FieldsMetadata}) are mapped to a
+ * {@link java.util.List}.</li>
+ * </ul>
+ * By default the whole XML document is loaded in the context. When streaming is enabled (see
+ * {@link #setStreaming(boolean)}), the first list found while walking the document (the first list declared in the
+ * fields metadata or, if none, the first repeated children of the root element or of one of its children) is not
+ * loaded but streamed as a lazy {@link Iterable} ({@link XMLElementCursor}) while the template loops over it. In this
+ * mode :
+ * <ul>
+ * <li>the streamed list can be iterated only once (the template cannot loop twice over it or use its size).</li>
+ * <li>elements which follow the streamed list in the XML document are available only once the list has been
+ * iterated, so they should be declared before the big list.</li>
+ * <li>the XML data stream is kept opened until the list has been iterated or until {@link #close()} is called.</li>
+ * </ul>
+ */
 public class XMLDataProvider
     extends AbstractDataProvider
+    implements Closeable
 {
 
+    private static final XMLInputFactory FACTORY;
+
+    static
+    {
+        FACTORY = XMLInputFactory.newInstance();
+        FACTORY.setProperty( XMLInputFactory.IS_COALESCING, Boolean.TRUE );
+        FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+    }
+
+    private boolean streaming;
+
+    private XMLContextBuilder builder;
+
     public XMLDataProvider( InputStream data, InputStream properties )
     {
         super( data, properties );
+        this.streaming = false;
+    }
+
+    /**
+     * Returns true if the first list of the XML document is streamed and false if the whole document is loaded.
+     * 
+     * @return
+     */
+    public boolean isStreaming()
+    {
+        return streaming;
+    }
+
+    /**
+     * Set true to stream the first list of the XML document while the template loops over it instead of loading the
+     * whole document.
+     * 
+     * @param streaming
+     * @return
+     */
+    public XMLDataProvider setStreaming( boolean streaming )
+    {
+        this.streaming = streaming;
+        return this;
     }
 
     public void populateContext( IXDocReport report, IContext context )
         throws IOException, XDocReportException
     {
-        // TODO Auto-generated method stub
+        populateContext( context, report != null ? report.getFieldsMetadata() : null );
+    }
 
+    /**
+     * Populates the given context with the XML data.
+     * 
+     * @param context the context to populate.
+     * @param fieldsMetadata the fields metadata used to know which elements must be mapped to list, can be null.
+     * @throws XDocReportException
+     */
+    public void populateContext( IContext context, FieldsMetadata fieldsMetadata )
+        throws XDocReportException
+    {
+        try
+        {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader( getData() );
+            builder = new XMLContextBuilder( reader, getData(), getListNames( fieldsMetadata ), streaming );
+            builder.build( context );
+        }
+        catch ( XMLStreamException e )
+        {
+            throw new XDocReportException( e );
+        }
     }
 
+    /**
+     * Closes the XML data stream if a streamed list has not been iterated until the end. The populated context must
+     * not be used after this call.
+     */
+    public void close()
+    {
+        if ( builder != null )
+        {
+            builder.close();
+        }
+    }
+
+    /**
+     * Returns the names of the list declared in the fields metadata of the report (ex : "developers" for the
+     * "developers.name" list field).
+     * 
+     * @param fieldsMetadata
+     * @return
+     */
+    private Set<String> getListNames( FieldsMetadata fieldsMetadata )
+    {
+        if ( fieldsMetadata == null )
+        {
+            return null;
+        }
+        Collection<String> fieldsAsList = fieldsMetadata.getFieldsAsList();
+        if ( fieldsAsList.isEmpty() )
+        {
+            return null;
+        }
+        Set<String> listNames = new HashSet<String>();
+        for ( String fieldName : fieldsAsList )
+        {
+            int index = fieldName.lastIndexOf( '.' );
+            if ( index != -1 )
+            {
+                listNames.add( fieldName.substring( 0, index ) );
+            }
+        }
+        return listNames;
+    }
 }
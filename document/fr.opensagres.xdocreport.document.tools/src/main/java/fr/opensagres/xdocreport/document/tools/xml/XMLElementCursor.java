@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.tools.xml;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Forward-only {@link Iterable} over repeated sibling elements which are read from the XML stream while the template
+ * loops over it. Each item is a {@link String} or a {@link java.util.Map} (see {@link XMLDataProvider}).
+ * <p>
+ * The cursor can be iterated only once : a second call of {@link #iterator()} throws an {@link IllegalStateException}
+ * (Freemarker fails too when an {@link Iterator} is listed twice). It implements {@link Iterator} too, because some
+ * template engines (ex : Freemarker with the default object wrapper) know how to loop over an {@link Iterator} but not
+ * over an {@link Iterable}.
+ * </p>
+ */
+public class XMLElementCursor
+    implements Iterable<Object>, Iterator<Object>
+{
+
+    private final XMLContextBuilder builder;
+
+    private final String name;
+
+    private final String path;
+
+    // item already read before the cursor was created.
+    private Object first;
+
+    private boolean hasNext;
+
+    private boolean iterated;
+
+    XMLElementCursor( XMLContextBuilder builder, String name, String path, Object first )
+    {
+        this.builder = builder;
+        this.name = name;
+        this.path = path;
+        this.first = first;
+        // the reader is positioned on the start element of an item.
+        this.hasNext = true;
+        this.iterated = false;
+    }
+
+    public Iterator<Object> iterator()
+    {
+        if ( iterated )
+        {
+            throw new IllegalStateException( "XML element cursor <" + name + "> can be iterated only once." );
+        }
+        iterated = true;
+        return this;
+    }
+
+    public boolean hasNext()
+    {
+        return first != null || hasNext;
+    }
+
+    public Object next()
+    {
+        iterated = true;
+        if ( first != null )
+        {
+            Object item = first;
+            first = null;
+            return item;
+        }
+        if ( !hasNext )
+        {
+            throw new NoSuchElementException();
+        }
+        if ( builder.isClosed() )
+        {
+            throw new IllegalStateException( "XML element cursor <" + name
+                + "> cannot be iterated because the XML data provider is closed." );
+        }
+        try
+        {
+            Object item = builder.readElement( path );
+            hasNext = builder.nextItem( name );
+            return item;
+        }
+        catch ( XMLStreamException e )
+        {
+            hasNext = false;
+            throw new IllegalStateException( e );
+        }
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.tools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.document.batch.BatchResult;
+import fr.opensagres.xdocreport.document.tools.xml.XMLDataProvider;
+import fr.opensagres.xdocreport.template.TemplateEngineKind;
+import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
+
+public class ToolsBatchTestCase
+{
+
+    @Test
+    public void testBatchWithDirectory()
+        throws Exception
+    {
+        File dir = createTempDir();
+        File dataDir = new File( dir, "data" );
+        dataDir.mkdirs();
+        for ( int i = 0; i < 10; i++ )
+        {
+            write( new File( dataDir, "item" + i + ".json" ), "{\"name\":\"world" + i + "\"}" );
+        }
+        // not a data file
+        write( new File( dataDir, "readme.txt" ), "" );
+        // bad data file
+        write( new File( dataDir, "item99.json" ), "{" );
+
+        File template = getTemplate( dir );
+        List<BatchItem> items = BatchItem.fromDirectory( dataDir );
+        Assert.assertEquals( 11, items.size() );
+
+        File outDir = new File( dir, "out" );
+        BatchResult result =
+            Tools.getInstance().processBatch( template, TemplateEngineKind.Freemarker.name(), null, null, items,
+                                              outDir, 4 );
+        Assert.assertEquals( 11, result.getCount() );
+        Assert.assertEquals( 10, result.getSuccessCount() );
+        Assert.assertEquals( 1, result.getFailures().size() );
+        Assert.assertEquals( "item99.json", items.get( result.getFailures().get( 0 ).getIndex() ).getData().getName() );
+        for ( int i = 0; i < 10; i++ )
+        {
+            String content = readContent( new File( outDir, "item" + i + ".odt" ) );
+            Assert.assertTrue( content.contains( "world" + i + "!" ) );
+        }
+    }
+
+    @Test
+    public void testBatchWithManifest()
+        throws Exception
+    {
+        File dir = createTempDir();
+        write( new File( dir, "a.json" ), "{\"name\":\"A\"}" );
+        write( new File( dir, "b.json" ), "{\"name\":\"B\"}" );
+        File manifest = new File( dir, "manifest.txt" );
+        write( manifest, "# items\na.json;generated/first.odt\n\nb.json\n" );
+
+        File template = getTemplate( dir );
+        List<BatchItem> items = BatchItem.fromManifest( manifest );
+        Assert.assertEquals( 2, items.size() );
+
+        BatchResult result =
+            Tools.getInstance().processBatch( template, TemplateEngineKind.Freemarker.name(), null, null, items,
+                                              new File( dir, "out" ), 1 );
+        Assert.assertFalse( result.hasFailures() );
+        Assert.assertTrue( readContent( new File( dir, "generated/first.odt" ) ).contains( "A!" ) );
+        Assert.assertTrue( readContent( new File( dir, "out/b.odt" ) ).contains( "B!" ) );
+    }
+
+    @Test
+    public void testBatchWithXMLList()
+        throws Exception
+    {
+        File dir = createTempDir();
+        File dataDir = new File( dir, "data" );
+        dataDir.mkdirs();
+        // "sxml" data files are loaded with a streamed XML list which is read while the report is generated.
+        initializeStreamingXMLDataProvider();
+        List<BatchItem> items = new ArrayList<BatchItem>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            File data = new File( dataDir, "item" + i + ( i % 2 == 0 ? ".xml" : ".sxml" ) );
+            write( data, "<data><name>world" + i + "</name><developers><developer><name>dev" + i
+                + "a</name></developer><developer><name>dev" + i + "b</name></developer></developers></data>" );
+            items.add( new BatchItem( data, null ) );
+        }
+
+        File template =
+            getTemplate( dir, "Hello ${name}![#list developers.developer as d] ${d.name};[/#list]" );
+        File outDir = new File( dir, "out" );
+        BatchResult result =
+            Tools.getInstance().processBatch( template, TemplateEngineKind.Freemarker.name(), null, null, items,
+                                              outDir, 2 );
+        Assert.assertFalse( result.hasFailures() );
+        Assert.assertEquals( 4, result.getSuccessCount() );
+        for ( int i = 0; i < 4; i++ )
+        {
+            String content = readContent( new File( outDir, "item" + i + ".odt" ) );
+            Assert.assertTrue( content.contains( "Hello world" + i + "! dev" + i + "a; dev" + i + "b;" ) );
+        }
+    }
+
+    private static void initializeStreamingXMLDataProvider()
+    {
+        DataProviderFactoryRegistry registry = DataProviderFactoryRegistry.getRegistry();
+        if ( registry.getFactory( "sxml" ) == null )
+        {
+            registry.registerInstance( new AbstractDataProviderFactory( "sxml", "Streamed XML Data Provider" )
+            {
+
+                public IDataProvider create( InputStream data, InputStream properties )
+                    throws Exception
+                {
+                    return new XMLDataProvider( data, properties ).setStreaming( true );
+                }
+
+                public void generateDefaultData( FieldsMetadata fieldsMetadata, OutputStream out )
+                    throws Exception
+                {
+                }
+            } );
+        }
+    }
+
+    private static File createTempDir()
+        throws IOException
+    {
+        File dir = File.createTempFile( "xdocreport-batch", "" );
+        dir.delete();
+        dir.mkdirs();
+        return dir;
+    }
+
+    private static File getTemplate( File dir )
+        throws IOException
+    {
+        File template = new File( dir, "template.odt" );
+        OutputStream out = new FileOutputStream( template );
+        try
+        {
+            IOUtils.copy( ToolsBatchTestCase.class.getResourceAsStream( "ODTHelloWordWithFreemarker.odt" ), out );
+        }
+        finally
+        {
+            out.close();
+        }
+        return template;
+    }
+
+    private static File getTemplate( File dir, String paragraph )
+        throws IOException
+    {
+        File template = new File( dir, "template.odt" );
+        ZipInputStream in =
+            new ZipInputStream( ToolsBatchTestCase.class.getResourceAsStream( "ODTHelloWordWithFreemarker.odt" ) );
+        ZipOutputStream out = new ZipOutputStream( new FileOutputStream( template ) );
+        try
+        {
+            ZipEntry entry = null;
+            while ( ( entry = in.getNextEntry() ) != null )
+            {
+                out.putNextEntry( new ZipEntry( entry.getName() ) );
+                if ( "content.xml".equals( entry.getName() ) )
+                {
+                    String content = IOUtils.toString( in, "UTF-8" ).replace( "Hello ${name}!", paragraph );
+                    out.write( content.getBytes( "UTF-8" ) );
+                }
+                else
+                {
+                    IOUtils.copy( in, out );
+                }
+                out.closeEntry();
+            }
+        }
+        finally
+        {
+            in.close();
+            out.close();
+        }
+        return template;
+    }
+
+    private static void write( File file, String content )
+        throws IOException
+    {
+        OutputStream out = new FileOutputStream( file );
+        try
+        {
+            out.write( content.getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private static String readContent( File file )
+        throws IOException
+    {
+        ZipFile zipFile = new ZipFile( file );
+        try
+        {
+            ZipEntry entry = zipFile.getEntry( "content.xml" );
+            return IOUtils.toString( zipFile.getInputStream( entry ), "UTF-8" );
+        }
+        finally
+        {
+            zipFile.close();
+        }
+    }
+}
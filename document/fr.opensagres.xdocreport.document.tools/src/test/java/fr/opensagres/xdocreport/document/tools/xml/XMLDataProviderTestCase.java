@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.tools.xml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.template.IContext;
+import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
+
+public class XMLDataProviderTestCase
+{
+
+    @Test
+    public void simpleFields()
+        throws Exception
+    {
+        String xml = "<data><name>XDocReport</name><project id=\"1\"><url>http://xdocreport</url></project></data>";
+        IContext context = populateContext( xml, null, false );
+
+        Assert.assertEquals( "XDocReport", context.get( "name" ) );
+        Map<?, ?> project = (Map<?, ?>) context.get( "project" );
+        Assert.assertEquals( "1", project.get( "id" ) );
+        Assert.assertEquals( "http://xdocreport", project.get( "url" ) );
+    }
+
+    @Test
+    public void streamedList()
+        throws Exception
+    {
+        StringBuilder xml = new StringBuilder( "<data>\n<name>XDocReport</name>\n<developers>\n" );
+        for ( int i = 0; i < 100; i++ )
+        {
+            xml.append( "<developer><name>name" ).append( i ).append( "</name><role>a</role><role>b</role></developer>\n" );
+        }
+        xml.append( "</developers>\n<version>2.0</version>\n</data>" );
+
+        IContext context = populateContext( xml.toString(), null, true );
+        Assert.assertEquals( "XDocReport", context.get( "name" ) );
+        // elements declared after the streamed list are not available until the list is consumed.
+        Assert.assertNull( context.get( "version" ) );
+
+        Map<?, ?> developers = (Map<?, ?>) context.get( "developers" );
+        XMLElementCursor cursor = (XMLElementCursor) developers.get( "developer" );
+        int i = 0;
+        for ( Object item : cursor )
+        {
+            Map<?, ?> developer = (Map<?, ?>) item;
+            Assert.assertEquals( "name" + i, developer.get( "name" ) );
+            Assert.assertEquals( 2, ( (List<?>) developer.get( "role" ) ).size() );
+            i++;
+        }
+        Assert.assertEquals( 100, i );
+        Assert.assertEquals( "2.0", context.get( "version" ) );
+
+        try
+        {
+            cursor.iterator();
+            Assert.fail( "Cursor must be iterated only once" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // expected
+        }
+    }
+
+    @Test
+    public void listDeclaredInFieldsMetadata()
+        throws Exception
+    {
+        FieldsMetadata fieldsMetadata = new FieldsMetadata();
+        fieldsMetadata.addFieldAsList( "developers.name" );
+        fieldsMetadata.addFieldAsList( "projects.name" );
+
+        String xml =
+            "<data><developers><name>Angelo</name></developers><projects><name>XDocReport</name></projects></data>";
+        IContext context = populateContext( xml, fieldsMetadata, true );
+
+        // first list is streamed
+        Iterator<?> developers = ( (XMLElementCursor) context.get( "developers" ) ).iterator();
+        Assert.assertTrue( developers.hasNext() );
+        Assert.assertEquals( "Angelo", ( (Map<?, ?>) developers.next() ).get( "name" ) );
+        Assert.assertFalse( developers.hasNext() );
+
+        // second list is loaded once the first list is consumed
+        List<?> projects = (List<?>) context.get( "projects" );
+        Assert.assertEquals( 1, projects.size() );
+        Assert.assertEquals( "XDocReport", ( (Map<?, ?>) projects.get( 0 ) ).get( "name" ) );
+    }
+
+    @Test
+    public void loadedList()
+        throws Exception
+    {
+        String xml =
+            "<data><developers><developer>Angelo</developer><developer>Pascal</developer></developers>"
+                + "<version>2.0</version></data>";
+        // without streaming, the list can be iterated several times and the following elements are available.
+        IContext context = populateContext( xml, null, false );
+        Assert.assertEquals( "2.0", context.get( "version" ) );
+        List<?> developers = (List<?>) ( (Map<?, ?>) context.get( "developers" ) ).get( "developer" );
+        Assert.assertEquals( 2, developers.size() );
+        Assert.assertEquals( "Pascal", developers.get( 1 ) );
+    }
+
+    @Test
+    public void closeNotIteratedList()
+        throws Exception
+    {
+        final boolean[] closed = new boolean[1];
+        InputStream in = new ByteArrayInputStream( "<data><a>1</a><a>2</a><a>3</a></data>".getBytes( "UTF-8" ) )
+        {
+            @Override
+            public void close()
+                throws IOException
+            {
+                closed[0] = true;
+                super.close();
+            }
+        };
+        XMLDataProvider provider = new XMLDataProvider( in, null ).setStreaming( true );
+        IContext context = new MockContext();
+        provider.populateContext( context, null );
+        XMLElementCursor cursor = (XMLElementCursor) context.get( "a" );
+        Assert.assertEquals( "1", cursor.next() );
+        Assert.assertFalse( closed[0] );
+
+        provider.close();
+        Assert.assertTrue( closed[0] );
+        try
+        {
+            cursor.next();
+            Assert.fail( "Cursor must not be iterated after close" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // expected
+        }
+    }
+
+    private IContext populateContext( String xml, FieldsMetadata fieldsMetadata, boolean streaming )
+        throws Exception
+    {
+        XMLDataProvider provider =
+            new XMLDataProvider( new ByteArrayInputStream( xml.getBytes( "UTF-8" ) ), null ).setStreaming( streaming );
+        IContext context = new MockContext();
+        provider.populateContext( context, fieldsMetadata );
+        return context;
+    }
+
+    private static class MockContext
+        extends HashMap<String, Object>
+        implements IContext
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        public Object get( String key )
+        {
+            return super.get( key );
+        }
+
+        public void putMap( Map<String, Object> contextMap )
+        {
+            super.putAll( contextMap );
+        }
+
+        public Map<String, Object> getContextMap()
+        {
+            return this;
+        }
+    }
+}
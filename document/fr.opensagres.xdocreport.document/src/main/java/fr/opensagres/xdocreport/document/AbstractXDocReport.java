@@ -36,6 +36,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,6 +45,11 @@ import fr.opensagres.xdocreport.converter.IConverter;
 import fr.opensagres.xdocreport.converter.Options;
 import fr.opensagres.xdocreport.converter.XDocConverterException;
 import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.core.instrumentation.IInstrumentation;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationEvent;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationRegistry;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationStage;
+import fr.opensagres.xdocreport.core.io.CountingOutputStream;
 import fr.opensagres.xdocreport.core.io.IEntryOutputStreamProvider;
 import fr.opensagres.xdocreport.core.io.IEntryReaderProvider;
 import fr.opensagres.xdocreport.core.io.IEntryWriterProvider;
@@ -134,6 +140,16 @@ public abstract class AbstractXDocReport
 
     private long lastModified;
 
+    /**
+     * Counter used to generate version stamps which are unique across all the reports.
+     */
+    private static final AtomicLong VERSION_COUNTER = new AtomicLong();
+
+    /**
+     * Version stamp of the preprocessed archive, bumped each time the archive changes.
+     */
+    private volatile long version;
+
     /**
      * Map of {@link BufferedElement} used for text styling to
      */
@@ -175,8 +191,17 @@ public abstract class AbstractXDocReport
         {
             preprocessed = false;
         }
+        IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
+        long startTime = instrumentation.isEnabled() ? System.nanoTime() : 0;
         // Load zipped XML Document (odt, docx...)
-        setDocumentArchive( XDocArchive.readZip( sourceStream ) );
+        XDocArchive documentArchive = XDocArchive.readZip( sourceStream );
+        setDocumentArchive( documentArchive );
+        if ( instrumentation.isEnabled() )
+        {
+            instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.LOAD, getId(), null,
+                                                               System.nanoTime() - startTime,
+                                                               documentArchive.getSize() ) );
+        }
     }
 
     /*
@@ -188,6 +213,7 @@ public abstract class AbstractXDocReport
         throws IOException, XDocReportException
     {
         this.lastModified = System.currentTimeMillis();
+        this.version = VERSION_COUNTER.incrementAndGet();
         this.preprocessed = false;
         if ( cacheOriginalDocument )
         {
@@ -345,6 +371,7 @@ public abstract class AbstractXDocReport
             sharedContext.put( DocumentContextHelper.ELEMENTS_KEY, elementsCache );
         }
         onBeforePreprocessing( sharedContext, preprocessedArchive );
+        IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
         try
         {
             IDocumentFormatter formatter = internalGetTemplateEngine().getDocumentFormatter();
@@ -356,13 +383,10 @@ public abstract class AbstractXDocReport
                 Collection<IXDocPreprocessor> entryPreprocessors = entry.getValue();
                 if ( preprocessedArchive.hasEntry( preprocessorName ) )
                 {
-                    for ( IXDocPreprocessor preprocessor : entryPreprocessors )
-                    {
-                        // XML Document contains a XML file which must be
-                        // preprocessed
-                        preprocessor.preprocess( preprocessorName, preprocessedArchive, fieldsMetadata, formatter,
-                                                 sharedContext );
-                    }
+                    // XML Document contains a XML file which must be
+                    // preprocessed
+                    preprocessEntry( preprocessorName, entryPreprocessors, formatter, sharedContext,
+                                     instrumentation );
                 }
                 else
                 {
@@ -372,17 +396,14 @@ public abstract class AbstractXDocReport
                     {
                         for ( String entryNameFromWilcard : entriesNameFromWilcard )
                         {
-                            for ( IXDocPreprocessor preprocessor : entryPreprocessors )
-                            {
-                                preprocessor.preprocess( entryNameFromWilcard, preprocessedArchive, fieldsMetadata,
-
-                                formatter, sharedContext );
-                            }
+                            preprocessEntry( entryNameFromWilcard, entryPreprocessors, formatter, sharedContext,
+                                             instrumentation );
                         }
                     }
                     else
                     {
                         // entry not found, create it?
+                        long startTime = instrumentation.isEnabled() ? System.nanoTime() : 0;
                         entryPreprocessors = entry.getValue();
                         for ( IXDocPreprocessor preprocessor : entryPreprocessors )
                         {
@@ -392,6 +413,13 @@ public abstract class AbstractXDocReport
                                 break;
                             }
                         }
+                        if ( instrumentation.isEnabled() && preprocessedArchive.hasEntry( preprocessorName ) )
+                        {
+                            instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.PREPROCESS,
+                                                                               getId(), preprocessorName,
+                                                                               System.nanoTime() - startTime,
+                                                                               preprocessedArchive.getEntrySize( preprocessorName ) ) );
+                        }
                     }
                 }
             }
@@ -401,11 +429,34 @@ public abstract class AbstractXDocReport
             onAfterPreprocessing( sharedContext, preprocessedArchive );
             // Preprocessing is done
             preprocessed = true;
+            // entries of the preprocessed archive have changed, cached templates must be invalidated.
+            version = VERSION_COUNTER.incrementAndGet();
             sharedContext.clear();
             sharedContext = null;
         }
     }
 
+    /**
+     * Execute the given preprocessors for the given entry of the preprocessed archive.
+     */
+    private void preprocessEntry( String entryName, Collection<IXDocPreprocessor> entryPreprocessors,
+                                  IDocumentFormatter formatter, Map<String, Object> sharedContext,
+                                  IInstrumentation instrumentation )
+        throws XDocReportException, IOException
+    {
+        long startTime = instrumentation.isEnabled() ? System.nanoTime() : 0;
+        for ( IXDocPreprocessor preprocessor : entryPreprocessors )
+        {
+            preprocessor.preprocess( entryName, preprocessedArchive, fieldsMetadata, formatter, sharedContext );
+        }
+        if ( instrumentation.isEnabled() )
+        {
+            instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.PREPROCESS, getId(), entryName,
+                                                               System.nanoTime() - startTime,
+                                                               preprocessedArchive.getEntrySize( entryName ) ) );
+        }
+    }
+
     /**
      * On before preprocessing.
      * 
@@ -519,6 +570,15 @@ public abstract class AbstractXDocReport
 
             doPostprocessIfNeeded( outputArchive );
 
+            IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
+            long zipStartTime = 0;
+            CountingOutputStream countingOut = null;
+            if ( instrumentation.isEnabled() )
+            {
+                zipStartTime = System.nanoTime();
+                countingOut = new CountingOutputStream( out );
+                out = countingOut;
+            }
             if ( StringUtils.isNotEmpty( entryName ) )
             {
                 if ( !outputArchive.hasEntry( entryName ) )
@@ -533,6 +593,12 @@ public abstract class AbstractXDocReport
                 // 6) save the merged XML document archive into ouput stream
                 XDocArchive.writeZip( outputArchive, out );
             }
+            if ( countingOut != null )
+            {
+                instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.ZIP_WRITE, getId(),
+                                                                   entryName, System.nanoTime() - zipStartTime,
+                                                                   countingOut.getCount() ) );
+            }
             // 7) End process report generation
             if ( LOGGER.isLoggable( Level.FINE ) )
             {
@@ -699,15 +765,42 @@ public abstract class AbstractXDocReport
             // engine (freemarker, velocity).
             processTemplateEngine( context, outputArchive );
 
+            IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
+            CountingOutputStream countingOut = null;
+            long convertStartTime = 0;
             if ( converter.canSupportEntries() )
             {
+                if ( instrumentation.isEnabled() )
+                {
+                    convertStartTime = System.nanoTime();
+                    countingOut = new CountingOutputStream( out );
+                    out = countingOut;
+                }
                 converter.convert( outputArchive, out, options );
             }
             else
             {
                 // Converter cannot supper input entries provider,
-                // rebuild a zip and set it as input stream.
-                converter.convert( XDocArchive.getInputStream( outputArchive ), out, options );
+                // rebuild a zip and set it as input stream. The zip is unzipped
+                // immediately by the converter, so entries are not compressed.
+                long zipStartTime = instrumentation.isEnabled() ? System.nanoTime() : 0;
+                InputStream in = XDocArchive.getInputStream( outputArchive, false );
+                if ( instrumentation.isEnabled() )
+                {
+                    convertStartTime = System.nanoTime();
+                    instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.ZIP_WRITE, getId(),
+                                                                       null, convertStartTime - zipStartTime, -1 ) );
+                    countingOut = new CountingOutputStream( out );
+                    out = countingOut;
+                }
+                converter.convert( in, out, options );
+            }
+            if ( countingOut != null )
+            {
+                instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.CONVERT, getId(),
+                                                                   options.getTo(),
+                                                                   System.nanoTime() - convertStartTime,
+                                                                   countingOut.getCount() ) );
             }
 
             // 7) End process report generation
@@ -759,6 +852,7 @@ public abstract class AbstractXDocReport
         throws XDocReportException, IOException
     {
         String[] xmlEntries = internalGetXMLEntries();
+        IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
 
         onBeforeProcessTemplateEngine( context, outputArchive );
         String entryName = null;
@@ -769,7 +863,7 @@ public abstract class AbstractXDocReport
             {
                 // 5.1) merge current XML file with Java model from the
                 // context with template engine (freemarker, velocity).
-                templateEngine.process( getId(), entryName, outputArchive, outputArchive, context );
+                processTemplateEngine( entryName, context, outputArchive, instrumentation );
             }
             else
             {
@@ -779,13 +873,27 @@ public abstract class AbstractXDocReport
                 {
                     // 5.2) merge current XML file with Java model from the
                     // context with template engine (freemarker, velocity).
-                    templateEngine.process( getId(), entryNameFromWilcard, outputArchive, outputArchive, context );
+                    processTemplateEngine( entryNameFromWilcard, context, outputArchive, instrumentation );
                 }
             }
         }
         onAfterProcessTemplateEngine( context, outputArchive );
     }
 
+    private void processTemplateEngine( String entryName, IContext context, XDocArchive outputArchive,
+                                        IInstrumentation instrumentation )
+        throws XDocReportException, IOException
+    {
+        long startTime = instrumentation.isEnabled() ? System.nanoTime() : 0;
+        templateEngine.process( getId(), entryName, outputArchive, outputArchive, context );
+        if ( instrumentation.isEnabled() )
+        {
+            instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.MERGE, getId(), entryName,
+                                                               System.nanoTime() - startTime,
+                                                               outputArchive.getEntrySize( entryName ) ) );
+        }
+    }
+
     /**
      * On before process template engine.
      * 
@@ -1014,6 +1122,17 @@ public abstract class AbstractXDocReport
         return lastModified;
     }
 
+    /**
+     * Returns the version stamp of the preprocessed archive. This stamp changes each time the archive is loaded or
+     * preprocessed.
+     * 
+     * @return
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
     /**
      * Create an image registry.
      * 
@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.batch;
+
+import fr.opensagres.xdocreport.template.IContext;
+
+/**
+ * Error which occurs while generating one report of a batch.
+ */
+public class BatchFailure
+{
+
+    private final int index;
+
+    private final IContext context;
+
+    private final Throwable exception;
+
+    public BatchFailure( int index, IContext context, Throwable exception )
+    {
+        this.index = index;
+        this.context = context;
+        this.exception = exception;
+    }
+
+    /**
+     * Returns the index of the context in the batch.
+     * 
+     * @return
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * Returns the context used to generate the report.
+     * 
+     * @return
+     */
+    public IContext getContext()
+    {
+        return context;
+    }
+
+    /**
+     * Returns the error.
+     * 
+     * @return
+     */
+    public Throwable getException()
+    {
+        return exception;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.batch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import fr.opensagres.xdocreport.converter.Options;
+import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.core.logging.LogUtils;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
+import fr.opensagres.xdocreport.template.IContext;
+
+/**
+ * Generate a report for each context of a list (ex : mail merge) with one loaded {@link IXDocReport}. The immutable
+ * parts of the report are shared by all the generated reports :
+ * <ul>
+ * <li>the preprocessing is done once before the batch.</li>
+ * <li>the report is registered in the {@link XDocReportRegistry} during the batch (if it is not already registered),
+ * so the templates are parsed once and taken from the template engine cache.</li>
+ * <li>the entries of the preprocessed archive which are not merged are shared and not copied.</li>
+ * </ul>
+ * The reports can be generated in parallel with an {@link Executor}. In this case, the count of contexts which are
+ * submitted to the executor and not processed is bounded, so the contexts can be read lazily from a huge
+ * {@link Iterable}.
+ * 
+ * <pre>
+ * BatchResult result = new BatchProcessor( report ).setExecutor( executor, 16 ).process( contexts, outputProvider );
+ * </pre>
+ * 
+ * An error while generating a report doesn't stop the batch (except if {@link #setStopOnError(boolean)} is used) : it
+ * is stored in the {@link BatchResult}.
+ */
+public class BatchProcessor
+{
+
+    private static final Logger LOGGER = LogUtils.getLogger( BatchProcessor.class.getName() );
+
+    private final IXDocReport report;
+
+    private Options options;
+
+    private Executor executor;
+
+    private int maxPending;
+
+    private boolean stopOnError;
+
+    public BatchProcessor( IXDocReport report )
+    {
+        this.report = report;
+    }
+
+    /**
+     * Set the converter options to convert each generated report (ex : to PDF). If null, reports are not converted.
+     * 
+     * @param options
+     * @return
+     */
+    public BatchProcessor setOptions( Options options )
+    {
+        this.options = options;
+        return this;
+    }
+
+    /**
+     * Set the executor used to generate the reports in parallel. If null, reports are generated in the thread which
+     * calls {@link #process(Iterable, IBatchOutputProvider)}.
+     * 
+     * @param executor the executor.
+     * @param maxPending the max count of contexts submitted to the executor and not processed.
+     * @return
+     */
+    public BatchProcessor setExecutor( Executor executor, int maxPending )
+    {
+        if ( executor != null && maxPending < 1 )
+        {
+            throw new IllegalArgumentException( "maxPending must be greater than 0." );
+        }
+        this.executor = executor;
+        this.maxPending = maxPending;
+        return this;
+    }
+
+    /**
+     * Set true if the batch must stop after the first error and false otherwise.
+     * 
+     * @param stopOnError
+     * @return
+     */
+    public BatchProcessor setStopOnError( boolean stopOnError )
+    {
+        this.stopOnError = stopOnError;
+        return this;
+    }
+
+    /**
+     * Generate a report for each context and write it in the output stream given by the provider.
+     * 
+     * @param contexts the contexts.
+     * @param outputProvider provider of the output streams.
+     * @return the result of the batch.
+     * @throws XDocReportException when preprocessing cannot be done or when the batch is interrupted.
+     * @throws IOException
+     */
+    public BatchResult process( Iterable<IContext> contexts, IBatchOutputProvider outputProvider )
+        throws XDocReportException, IOException
+    {
+        long startTime = System.nanoTime();
+        // 1) Preprocess once for all the contexts.
+        report.preprocess();
+        // 2) Register the report to use the template engine cache.
+        XDocReportRegistry registry = XDocReportRegistry.getRegistry();
+        boolean registered = registerIfNeeded( registry );
+        try
+        {
+            List<BatchFailure> failures = Collections.synchronizedList( new ArrayList<BatchFailure>() );
+            int count =
+                executor != null ? processParallel( contexts, outputProvider, failures )
+                                : processSequential( contexts, outputProvider, failures );
+            return new BatchResult( count, failures, System.nanoTime() - startTime );
+        }
+        finally
+        {
+            if ( registered )
+            {
+                registry.unregisterReport( report );
+            }
+        }
+    }
+
+    private int processSequential( Iterable<IContext> contexts, IBatchOutputProvider outputProvider,
+                                   List<BatchFailure> failures )
+    {
+        int index = 0;
+        for ( IContext context : contexts )
+        {
+            if ( stopOnError && !failures.isEmpty() )
+            {
+                break;
+            }
+            process( index++, context, outputProvider, failures );
+        }
+        return index;
+    }
+
+    private int processParallel( Iterable<IContext> contexts, final IBatchOutputProvider outputProvider,
+                                 final List<BatchFailure> failures )
+        throws XDocReportException
+    {
+        final Semaphore pending = new Semaphore( maxPending );
+        int index = 0;
+        try
+        {
+            for ( final IContext context : contexts )
+            {
+                if ( stopOnError && !failures.isEmpty() )
+                {
+                    break;
+                }
+                pending.acquire();
+                final int contextIndex = index++;
+                try
+                {
+                    executor.execute( new Runnable()
+                    {
+                        public void run()
+                        {
+                            try
+                            {
+                                process( contextIndex, context, outputProvider, failures );
+                            }
+                            finally
+                            {
+                                pending.release();
+                            }
+                        }
+                    } );
+                }
+                catch ( RejectedExecutionException e )
+                {
+                    pending.release();
+                    failures.add( new BatchFailure( contextIndex, context, e ) );
+                }
+            }
+            // Wait for the end of the submitted contexts.
+            pending.acquire( maxPending );
+            pending.release( maxPending );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new XDocReportException( e );
+        }
+        return index;
+    }
+
+    private void process( int index, IContext context, IBatchOutputProvider outputProvider,
+                          List<BatchFailure> failures )
+    {
+        OutputStream out = null;
+        try
+        {
+            out = outputProvider.getOutputStream( index, context );
+            if ( options != null )
+            {
+                report.convert( context, options, out );
+            }
+            else
+            {
+                report.process( context, out );
+            }
+            out.close();
+            out = null;
+        }
+        catch ( Throwable e )
+        {
+            if ( LOGGER.isLoggable( Level.FINE ) )
+            {
+                LOGGER.log( Level.FINE, "Error while generating the report for the context index=" + index, e );
+            }
+            failures.add( new BatchFailure( index, context, e ) );
+        }
+        finally
+        {
+            if ( out != null )
+            {
+                IOUtils.closeQuietly( out );
+            }
+        }
+    }
+
+    /**
+     * Register the report in the registry if it is not already registered.
+     * 
+     * @return true if the report was registered by the batch and false otherwise.
+     */
+    private boolean registerIfNeeded( XDocReportRegistry registry )
+    {
+        String reportId = report.getId();
+        if ( reportId == null || registry.existsReport( reportId ) )
+        {
+            return false;
+        }
+        try
+        {
+            registry.registerReport( report );
+            return true;
+        }
+        catch ( XDocReportException e )
+        {
+            // a report was registered with the same id by another thread.
+            return false;
+        }
+    }
+}
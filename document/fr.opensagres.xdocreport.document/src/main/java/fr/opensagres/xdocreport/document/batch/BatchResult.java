@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link BatchProcessor} : count of generated reports and errors.
+ */
+public class BatchResult
+{
+
+    private final int count;
+
+    private final List<BatchFailure> failures;
+
+    private final long duration;
+
+    public BatchResult( int count, List<BatchFailure> failures, long duration )
+    {
+        this.count = count;
+        List<BatchFailure> sortedFailures = new ArrayList<BatchFailure>( failures );
+        Collections.sort( sortedFailures, new Comparator<BatchFailure>()
+        {
+            public int compare( BatchFailure f1, BatchFailure f2 )
+            {
+                return f1.getIndex() < f2.getIndex() ? -1 : ( f1.getIndex() == f2.getIndex() ? 0 : 1 );
+            }
+        } );
+        this.failures = Collections.unmodifiableList( sortedFailures );
+        this.duration = duration;
+    }
+
+    /**
+     * Returns the count of contexts which were processed (with or without error).
+     * 
+     * @return
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the count of reports which were generated without error.
+     * 
+     * @return
+     */
+    public int getSuccessCount()
+    {
+        return count - failures.size();
+    }
+
+    /**
+     * Returns the errors sorted by index of context.
+     * 
+     * @return
+     */
+    public List<BatchFailure> getFailures()
+    {
+        return failures;
+    }
+
+    /**
+     * Returns true if a report cannot be generated.
+     * 
+     * @return
+     */
+    public boolean hasFailures()
+    {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Returns the duration of the batch in nanoseconds.
+     * 
+     * @return
+     */
+    public long getDuration()
+    {
+        return duration;
+    }
+
+    /**
+     * Returns the count of reports generated per second.
+     * 
+     * @return
+     */
+    public double getThroughput()
+    {
+        return duration > 0 ? count * (double) TimeUnit.SECONDS.toNanos( 1 ) / duration : 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format( "%d report(s) processed in %d ms (%.1f/s), %d failure(s)", count,
+                              TimeUnit.NANOSECONDS.toMillis( duration ), getThroughput(), failures.size() );
+    }
+}
@@ -53,6 +53,10 @@ public abstract class AbstractImageProvider
     
     private Boolean valid;
 
+    private int downscaleDpi;
+
+    private boolean cacheImageInfo;
+
     public AbstractImageProvider( boolean useImageSize )
     {
         this.useImageSize = useImageSize;
@@ -183,11 +187,59 @@ public abstract class AbstractImageProvider
     {
         if ( imageInfo == null )
         {
-            imageInfo = loadImageInfo();
+            String key = isCacheImageInfo() ? getImageInfoCacheKey() : null;
+            if ( key != null )
+            {
+                imageInfo = ImageInfoCache.get( key );
+                if ( imageInfo == null )
+                {
+                    imageInfo = ImageInfoCache.put( key, loadImageInfo() );
+                }
+            }
+            else
+            {
+                imageInfo = loadImageInfo();
+            }
         }
         return imageInfo;
     }
 
+    /**
+     * Returns the key used to share the image info of the current image content in the {@link ImageInfoCache} or null
+     * if the image info must not be shared. The key must change when the image content changes.
+     * 
+     * @return
+     */
+    protected String getImageInfoCacheKey()
+    {
+        return null;
+    }
+
+    /**
+     * Set true to share the image info in the {@link ImageInfoCache} with the other providers of the same image content
+     * (see {@link #getImageInfoCacheKey()}). False (default) loads the image info from the content of this provider.
+     * The file, classpath and byte array providers compute a key, the other providers always load the image info.
+     * Must not be enabled when the image content is not identified by the key (ex : a subclass which overrides the
+     * stream of the image).
+     * 
+     * @param cacheImageInfo
+     */
+    public void setCacheImageInfo( boolean cacheImageInfo )
+    {
+        this.cacheImageInfo = cacheImageInfo;
+        resetImageInfo();
+    }
+
+    /**
+     * Returns true if the image info is shared in the {@link ImageInfoCache} and false otherwise.
+     * 
+     * @return
+     */
+    public boolean isCacheImageInfo()
+    {
+        return cacheImageInfo;
+    }
+
     /**
      * Reset image info.
      */
@@ -217,6 +269,28 @@ public abstract class AbstractImageProvider
         return resize;
     }
 
+    /**
+     * Set the resolution used to downscale the image content to the size of the frame which displays it when the
+     * image is stored in the generated document (see {@link ImageDownscaler}). 0 (default) disables the downscale and
+     * stores the original content.
+     * 
+     * @param downscaleDpi
+     */
+    public void setDownscaleDpi( int downscaleDpi )
+    {
+        this.downscaleDpi = downscaleDpi;
+    }
+
+    /**
+     * Returns the resolution used to downscale the image content and 0 if downscale is disabled.
+     * 
+     * @return
+     */
+    public int getDownscaleDpi()
+    {
+        return downscaleDpi;
+    }
+
     /**
      * Load image info.
      * 
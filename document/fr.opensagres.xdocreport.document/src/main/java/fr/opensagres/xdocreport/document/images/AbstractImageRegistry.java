@@ -24,6 +24,7 @@
  */
 package fr.opensagres.xdocreport.document.images;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -225,7 +226,25 @@ public abstract class AbstractImageRegistry
         OutputStream out = outputStreamProvider.getEntryOutputStream( entryName );
         try
         {
-            imageProviderInfo.getImageProvider().write( out );
+            IImageProvider imageProvider = imageProviderInfo.getImageProvider();
+            int downscaleDpi = 0;
+            if ( imageProvider instanceof AbstractImageProvider )
+            {
+                downscaleDpi = ( (AbstractImageProvider) imageProvider ).getDownscaleDpi();
+            }
+            if ( downscaleDpi > 0 )
+            {
+                // write the image content resized to the frame which displays it.
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                imageProvider.write( content );
+                IOUtils.write( ImageDownscaler.downscale( content.toByteArray(), imageProvider.getImageFormat(),
+                                                          imageProviderInfo.getFrameWidth(),
+                                                          imageProviderInfo.getFrameHeight(), downscaleDpi ), out );
+            }
+            else
+            {
+                imageProvider.write( out );
+            }
         }
         catch ( IOException e )
         {
@@ -263,7 +282,10 @@ public abstract class AbstractImageRegistry
             return defaultWidth;
         }
         IImageProvider imageProvider = info.getImageProvider();
-        Float width = imageProvider.getWidth(getSize(defaultWidth));
+        Float defaultWidthAsPixel = getSize( defaultWidth );
+        Float width = imageProvider.getWidth( defaultWidthAsPixel );
+        // keep the frame width to downscale the image content if needed.
+        info.setFrameWidth( width != null ? width : defaultWidthAsPixel );
         if ( width != null )
         {
             return getSize( width );
@@ -279,7 +301,10 @@ public abstract class AbstractImageRegistry
             return defaultHeight;
         }
         IImageProvider imageProvider = info.getImageProvider();
-        Float height = imageProvider.getHeight(getSize(defaultHeight));
+        Float defaultHeightAsPixel = getSize( defaultHeight );
+        Float height = imageProvider.getHeight( defaultHeightAsPixel );
+        // keep the frame height to downscale the image content if needed.
+        info.setFrameHeight( height != null ? height : defaultHeightAsPixel );
         if ( height != null )
         {
             return getSize( height );
@@ -82,12 +82,20 @@ public abstract class AbstractInputStreamImageProvider
     protected IImageInfo loadImageInfo()
         throws IOException
     {
-        SimpleImageInfo imageInfo = new SimpleImageInfo();
-        imageInfo.setInput(getInputStream());
-        if (!imageInfo.check())
+        InputStream inputStream = getInputStream();
+        try
         {
-            throw new IOException("Unable to read image info.");
+            SimpleImageInfo imageInfo = new SimpleImageInfo();
+            imageInfo.setInput(inputStream);
+            if (!imageInfo.check())
+            {
+                throw new IOException("Unable to read image info.");
+            }
+            return imageInfo;
+        }
+        finally
+        {
+            IOUtils.closeQuietly( inputStream );
         }
-        return imageInfo;
     }
 }
@@ -31,6 +31,9 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * Image provider implementation with byte array for image content. This provider is useful when image content can
@@ -41,8 +44,12 @@ public class ByteArrayImageProvider
     extends AbstractImageProvider
 {
 
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
     private byte[] imageByteArray;
 
+    private String imageInfoCacheKey;
+
     public ByteArrayImageProvider( InputStream imageStream )
         throws IOException
     {
@@ -75,6 +82,7 @@ public class ByteArrayImageProvider
     public void setImageByteArray( byte[] imageByteArray )
     {
         this.imageByteArray = imageByteArray;
+        this.imageInfoCacheKey = null;
         super.resetImageInfo();
     }
 
@@ -128,6 +136,29 @@ public class ByteArrayImageProvider
         return imageInfo;
     }
 
+    /**
+     * Returns a digest of the image content, computed once for the content set with
+     * {@link #setImageByteArray(byte[])} : the array must be set again when it is modified.
+     */
+    @Override
+    protected String getImageInfoCacheKey()
+    {
+        if ( imageInfoCacheKey == null && imageByteArray != null )
+        {
+            try
+            {
+                byte[] digest = MessageDigest.getInstance( DIGEST_ALGORITHM ).digest( imageByteArray );
+                imageInfoCacheKey = "bytes:" + imageByteArray.length + ":" + new BigInteger( 1, digest ).toString( 16 );
+            }
+            catch ( NoSuchAlgorithmException e )
+            {
+                // the image info is not shared.
+                return null;
+            }
+        }
+        return imageInfoCacheKey;
+    }
+
     protected boolean doIsValid()
     {
         return getImageByteArray() != null;
@@ -26,6 +26,7 @@ package fr.opensagres.xdocreport.document.images;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 
 import fr.opensagres.xdocreport.core.document.ImageFormat;
 
@@ -83,6 +84,13 @@ public class ClassPathImageProvider
         return classLoader.getResourceAsStream( resourceName );
     }
 
+    @Override
+    protected String getImageInfoCacheKey()
+    {
+        URL url = clazz != null ? clazz.getResource( resourceName ) : classLoader.getResource( resourceName );
+        return url != null ? "classpath:" + url.toExternalForm() : null;
+    }
+
     public ImageFormat getImageFormat()
     {
         return imageFormat;
@@ -61,6 +61,13 @@ public class FileImageProvider
         return new FileInputStream( imageFile );
     }
 
+    @Override
+    protected String getImageInfoCacheKey()
+    {
+        // the key changes when the file is modified.
+        return "file:" + imageFile.getAbsolutePath() + ":" + imageFile.lastModified() + ":" + imageFile.length();
+    }
+
     public ImageFormat getImageFormat()
     {
         return imageFormat;
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.images;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import fr.opensagres.xdocreport.core.document.ImageFormat;
+import fr.opensagres.xdocreport.core.logging.LogUtils;
+
+/**
+ * Downscale image content with ImageIO to the size of the frame which displays it. Frame sizes are expressed in pixel
+ * (96 dpi, like the sizes computed by the image registries) and are converted to the target resolution before
+ * resizing. The original content is returned when it is already small enough, when the format cannot be decoded or
+ * encoded by ImageIO, or when the resized content is not smaller than the original.
+ */
+public class ImageDownscaler
+{
+
+    private static final Logger LOGGER = LogUtils.getLogger( ImageDownscaler.class );
+
+    /**
+     * Resolution of the pixel sizes computed by the image registries.
+     */
+    public static final float PIXEL_DPI = 96f;
+
+    private ImageDownscaler()
+    {
+    }
+
+    /**
+     * Returns the given image content downscaled to fit the given frame size at the given resolution.
+     * 
+     * @param content the original image content.
+     * @param format the image format, used to encode the resized image.
+     * @param frameWidth the frame width in pixel (96 dpi) or null if unknown.
+     * @param frameHeight the frame height in pixel (96 dpi) or null if unknown.
+     * @param dpi the target resolution.
+     * @return the downscaled content or the original content.
+     */
+    public static byte[] downscale( byte[] content, ImageFormat format, Float frameWidth, Float frameHeight, int dpi )
+    {
+        if ( content == null || format == null || dpi <= 0 || ( frameWidth == null && frameHeight == null ) )
+        {
+            return content;
+        }
+        try
+        {
+            BufferedImage image = ImageIO.read( new ByteArrayInputStream( content ) );
+            if ( image == null )
+            {
+                return content;
+            }
+            double scale = Double.MAX_VALUE;
+            if ( frameWidth != null && frameWidth.floatValue() > 0 )
+            {
+                scale = Math.min( scale, frameWidth.floatValue() * dpi / PIXEL_DPI / image.getWidth() );
+            }
+            if ( frameHeight != null && frameHeight.floatValue() > 0 )
+            {
+                scale = Math.min( scale, frameHeight.floatValue() * dpi / PIXEL_DPI / image.getHeight() );
+            }
+            if ( scale >= 1 )
+            {
+                return content;
+            }
+            int width = Math.max( 1, (int) Math.round( image.getWidth() * scale ) );
+            int height = Math.max( 1, (int) Math.round( image.getHeight() * scale ) );
+            boolean opaque = "jpeg".equals( format.getType() ) || "bmp".equals( format.getType() );
+            BufferedImage resized = resize( image, width, height, opaque );
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream( content.length );
+            if ( !ImageIO.write( resized, format.getType(), out ) || out.size() >= content.length )
+            {
+                return content;
+            }
+            return out.toByteArray();
+        }
+        catch ( IOException e )
+        {
+            if ( LOGGER.isLoggable( Level.WARNING ) )
+            {
+                LOGGER.log( Level.WARNING, "Error while downscaling image, the original image is kept", e );
+            }
+            return content;
+        }
+    }
+
+    /**
+     * Resize the given image by successive halvings with bilinear interpolation which gives a result close to a
+     * bicubic resize for a fraction of its cost.
+     */
+    private static BufferedImage resize( BufferedImage image, int targetWidth, int targetHeight, boolean opaque )
+    {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do
+        {
+            width = Math.max( targetWidth, width / 2 );
+            height = Math.max( targetHeight, height / 2 );
+            BufferedImage scaled = new BufferedImage( width, height, type );
+            Graphics2D g = scaled.createGraphics();
+            try
+            {
+                g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR );
+                g.setRenderingHint( RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY );
+                g.drawImage( current, 0, 0, width, height, null );
+            }
+            finally
+            {
+                g.dispose();
+            }
+            current = scaled;
+        }
+        while ( width != targetWidth || height != targetHeight );
+        return current;
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.images;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.opensagres.xdocreport.core.document.ImageFormat;
+
+/**
+ * Process-wide cache of {@link IImageInfo} shared by the image providers which can compute a stable key for their
+ * content (see {@link AbstractImageProvider#getImageInfoCacheKey()}) and which enable it (see
+ * {@link AbstractImageProvider#setCacheImageInfo(boolean)}). It avoids re-reading the header of the same
+ * image (ex : a logo file) each time a report is generated. The cache is bounded and evicts the least recently used
+ * entries.
+ */
+public class ImageInfoCache
+{
+
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Map<String, IImageInfo> CACHE =
+        Collections.synchronizedMap( new LinkedHashMap<String, IImageInfo>( 16, 0.75f, true )
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<String, IImageInfo> eldest )
+            {
+                return size() > MAX_ENTRIES;
+            }
+        } );
+
+    private ImageInfoCache()
+    {
+    }
+
+    /**
+     * Returns the cached image info for the given key and null otherwise.
+     * 
+     * @param key
+     * @return
+     */
+    public static IImageInfo get( String key )
+    {
+        return CACHE.get( key );
+    }
+
+    /**
+     * Store a copy of the given image info for the given key. The copy keeps only the width, height and mime type to
+     * avoid retaining the stream used to read the image.
+     * 
+     * @param key
+     * @param imageInfo
+     * @return the cached image info.
+     */
+    public static IImageInfo put( String key, IImageInfo imageInfo )
+    {
+        IImageInfo cachedInfo =
+            new CachedImageInfo( imageInfo.getWidth(), imageInfo.getHeight(), imageInfo.getMimeType() );
+        CACHE.put( key, cachedInfo );
+        return cachedInfo;
+    }
+
+    /**
+     * Remove all cached image info.
+     */
+    public static void clear()
+    {
+        CACHE.clear();
+    }
+
+    private static class CachedImageInfo
+        implements IImageInfo
+    {
+
+        private final int width;
+
+        private final int height;
+
+        private final ImageFormat mimeType;
+
+        public CachedImageInfo( int width, int height, ImageFormat mimeType )
+        {
+            this.width = width;
+            this.height = height;
+            this.mimeType = mimeType;
+        }
+
+        public int getHeight()
+        {
+            return height;
+        }
+
+        public int getWidth()
+        {
+            return width;
+        }
+
+        public ImageFormat getMimeType()
+        {
+            return mimeType;
+        }
+    }
+}
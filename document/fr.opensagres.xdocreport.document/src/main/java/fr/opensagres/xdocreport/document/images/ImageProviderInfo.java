@@ -50,6 +50,10 @@ public class ImageProviderInfo
 
     private final boolean keepImageTemplate;
 
+    private Float frameWidth;
+
+    private Float frameHeight;
+
     public ImageProviderInfo( IImageProvider imageProvider, String imageId, String imageBasePath, String imageFileName )
     {
         this( imageProvider, imageId, imageBasePath, imageFileName, true, false );
@@ -142,4 +146,34 @@ public class ImageProviderInfo
         return keepImageTemplate;
     }
 
+    /**
+     * Returns the width (in pixel) of the frame which displays the image and null if it is not known.
+     * 
+     * @return
+     */
+    public Float getFrameWidth()
+    {
+        return frameWidth;
+    }
+
+    public void setFrameWidth( Float frameWidth )
+    {
+        this.frameWidth = frameWidth;
+    }
+
+    /**
+     * Returns the height (in pixel) of the frame which displays the image and null if it is not known.
+     * 
+     * @return
+     */
+    public Float getFrameHeight()
+    {
+        return frameHeight;
+    }
+
+    public void setFrameHeight( Float frameHeight )
+    {
+        this.frameHeight = frameHeight;
+    }
+
 }
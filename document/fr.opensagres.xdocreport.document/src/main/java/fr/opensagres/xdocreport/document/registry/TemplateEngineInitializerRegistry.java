@@ -86,6 +86,17 @@ public class TemplateEngineInitializerRegistry
         return templateEnginesCache.get( key );
     }
 
+    /**
+     * Returns the template engines created for a document kind.
+     * 
+     * @return
+     */
+    public Collection<ITemplateEngine> getTemplateEngines()
+    {
+        initializeIfNeeded();
+        return templateEnginesCache.values();
+    }
+
     public boolean exists( TemplateEngineKind templateEngineKind, DocumentKind documentKind )
     {
         return exists( templateEngineKind.name(), documentKind != null ? documentKind.name() : null );
@@ -34,29 +34,42 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import fr.opensagres.xdocreport.converter.ConverterRegistry;
+import fr.opensagres.xdocreport.converter.ConverterTo;
+import fr.opensagres.xdocreport.converter.IConverter;
 import fr.opensagres.xdocreport.converter.MimeMapping;
 import fr.opensagres.xdocreport.core.XDocReportException;
 import fr.opensagres.xdocreport.core.cache.CacheStorageRegistry;
 import fr.opensagres.xdocreport.core.cache.ICacheStorage;
+import fr.opensagres.xdocreport.core.instrumentation.IInstrumentation;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationEvent;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationRegistry;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationStage;
 import fr.opensagres.xdocreport.core.io.IEntryInfo;
 import fr.opensagres.xdocreport.core.io.XDocArchive;
 import fr.opensagres.xdocreport.core.logging.LogUtils;
 import fr.opensagres.xdocreport.core.registry.AbstractRegistry;
+import fr.opensagres.xdocreport.core.registry.IWarmUp;
 import fr.opensagres.xdocreport.core.utils.StringUtils;
+import fr.opensagres.xdocreport.document.AbstractXDocReport;
 import fr.opensagres.xdocreport.document.IXDocReport;
 import fr.opensagres.xdocreport.document.discovery.IXDocReportFactoryDiscovery;
 import fr.opensagres.xdocreport.template.ITemplateEngine;
 import fr.opensagres.xdocreport.template.TemplateEngineKind;
+import fr.opensagres.xdocreport.template.AbstractTemplateEngine;
 import fr.opensagres.xdocreport.template.cache.ITemplateCacheInfoProvider;
+import fr.opensagres.xdocreport.template.cache.ITemplateVersionProvider;
+import fr.opensagres.xdocreport.template.registry.TemplateEngineRegistry;
 
 /**
  * Registry for loading and cahing {@link IXDocReport} instances.
  */
 public class XDocReportRegistry
     extends AbstractRegistry<IXDocReportFactoryDiscovery>
-    implements ITemplateCacheInfoProvider, Serializable
+    implements ITemplateCacheInfoProvider, ITemplateVersionProvider, Serializable
 {
 
     /**
@@ -103,6 +116,66 @@ public class XDocReportRegistry
         return INSTANCE;
     }
 
+    /**
+     * Warm-up XDocReport to avoid paying the lazy initialization on the first reports :
+     * <ul>
+     * <li>load the discoveries of the registries (report factories, template engines, converters, text styling...)</li>
+     * <li>bootstrap the template engines (Freemarker configuration, Velocity engine...)</li>
+     * <li>initialize the converters (ex : registration of the system fonts for PDF converters)</li>
+     * </ul>
+     * This method is thread-safe and can be called several times (ex : in a servlet context listener).
+     */
+    public void warmUp()
+    {
+        // 1) Load the discoveries
+        CacheStorageRegistry.getRegistry().initialize();
+        InstrumentationRegistry.getRegistry().initialize();
+        TemplateEngineRegistry.getRegistry().initialize();
+        TemplateEngineInitializerRegistry.getRegistry().initialize();
+        initialize();
+        TextStylingTransformerRegistry.getRegistry().initialize();
+        TextStylingRegistry.getRegistry().initialize();
+        ConverterRegistry.getRegistry().initialize();
+
+        // 2) Bootstrap the template engines
+        for ( ITemplateEngine templateEngine : TemplateEngineRegistry.getRegistry().getTemplateEngines() )
+        {
+            warmUp( templateEngine );
+        }
+        for ( ITemplateEngine templateEngine : TemplateEngineInitializerRegistry.getRegistry().getTemplateEngines() )
+        {
+            warmUp( templateEngine );
+        }
+
+        // 3) Initialize the converters
+        ConverterRegistry converterRegistry = ConverterRegistry.getRegistry();
+        for ( String from : converterRegistry.getFroms() )
+        {
+            for ( ConverterTo converterTo : converterRegistry.getConverterFrom( from ).getConvertersTo() )
+            {
+                for ( IConverter converter : converterTo.getConvertersTo() )
+                {
+                    warmUp( converter );
+                }
+            }
+        }
+    }
+
+    private static void warmUp( Object instance )
+    {
+        if ( instance instanceof IWarmUp )
+        {
+            try
+            {
+                ( (IWarmUp) instance ).warmUp();
+            }
+            catch ( Throwable e )
+            {
+                LOGGER.log( Level.WARNING, "Error while warm-up of " + instance, e );
+            }
+        }
+    }
+
     /**
      * Load report.
      *
@@ -334,6 +407,8 @@ public class XDocReportRegistry
         throws IOException, XDocReportException
     {
         initializeIfNeeded();
+        IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
+        long startTime = instrumentation.isEnabled() ? System.nanoTime() : 0;
         // 2) zip was loaded, create an instance of report
         IXDocReport report = createReport( sourceStream );
         // 3) Update the report id if need.
@@ -342,6 +417,12 @@ public class XDocReportRegistry
             reportId = report.toString();
         }
         report.setId( reportId );
+        if ( instrumentation.isEnabled() )
+        {
+            instrumentation.onEvent( new InstrumentationEvent( InstrumentationStage.LOAD, reportId, null,
+                                                               System.nanoTime() - startTime,
+                                                               report.getPreprocessedDocumentArchive().getSize() ) );
+        }
         // 4) Search or set the template engine.
         if ( templateEngine == null && StringUtils.isNotEmpty( templateEngineKind ) )
         {
@@ -468,7 +549,14 @@ public class XDocReportRegistry
      */
     public IXDocReport getReport( String reportId )
     {
-        return cachedReports.get( reportId );
+        IXDocReport report = cachedReports.get( reportId );
+        IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
+        if ( instrumentation.isEnabled() )
+        {
+            instrumentation.onEvent( new InstrumentationEvent( report != null ? InstrumentationStage.CACHE_HIT
+                            : InstrumentationStage.CACHE_MISS, reportId, reportId, 0, -1 ) );
+        }
+        return report;
     }
 
     /**
@@ -489,9 +577,11 @@ public class XDocReportRegistry
      */
     public void unregisterReport( String reportId )
     {
-        if ( existsReport( reportId ) )
+        IXDocReport report = cachedReports.get( reportId );
+        if ( report != null )
         {
             cachedReports.remove( reportId );
+            removeTemplatesFromCache( report );
         }
     }
 
@@ -505,6 +595,20 @@ public class XDocReportRegistry
         if ( report != null )
         {
             cachedReports.remove( report.getId() );
+            removeTemplatesFromCache( report );
+        }
+    }
+
+    /**
+     * Removes the templates of the given unregistered report from the cache of its template engine.
+     * 
+     * @param report the unregistered report.
+     */
+    private void removeTemplatesFromCache( IXDocReport report )
+    {
+        if ( report.getTemplateEngine() instanceof AbstractTemplateEngine )
+        {
+            ( (AbstractTemplateEngine) report.getTemplateEngine() ).removeTemplatesFromCache( report.getId() );
         }
     }
 
@@ -603,7 +707,7 @@ public class XDocReportRegistry
 
     public IEntryInfo getTemplateCacheInfo( String reportId, String entryName )
     {
-        IXDocReport report = getReport( reportId );
+        IXDocReport report = cachedReports.get( reportId );
         if ( report == null )
         {
             return null;
@@ -611,6 +715,20 @@ public class XDocReportRegistry
         return report.getPreprocessedDocumentArchive().getEntryInfo( entryName );
     }
 
+    public long getVersion( String reportId )
+    {
+        IXDocReport report = cachedReports.get( reportId );
+        if ( report == null )
+        {
+            return -1;
+        }
+        if ( report instanceof AbstractXDocReport )
+        {
+            return ( (AbstractXDocReport) report ).getVersion();
+        }
+        return report.getLastModified();
+    }
+
     @Override
     protected void doDispose()
     {
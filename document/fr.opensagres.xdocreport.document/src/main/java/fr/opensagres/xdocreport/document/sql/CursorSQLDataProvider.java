@@ -0,0 +1,237 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.sql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
+
+/**
+ * Streaming variant of {@link SQLDataProvider}. Contrary to {@link SQLDataProvider} which loads the whole
+ * {@link ResultSet} in memory, this implementation :
+ * <ul>
+ * <li>reads the {@link ResultSetMetaData} once and resolves table name, column label and list name of each column
+ * only one time.</li>
+ * <li>exposes each list field as a forward-only {@link SQLRowCursor} which advances the {@link ResultSet} lazily while
+ * the template iterates over it.</li>
+ * </ul>
+ * A row-repeating template can so render a huge {@link ResultSet} without holding all rows in memory. The
+ * {@link ResultSet} must be kept opened until the report is processed, and it can be iterated only once : the list
+ * names share the same rows, so only one list can be iterated and only one time (otherwise an
+ * {@link IllegalStateException} is thrown).
+ * <p>
+ * Like {@link SQLDataProvider}, simple fields are populated with the values of the last row when the
+ * {@link ResultSet} has no list field. When it has list fields, the rows are not read before the template iterates
+ * over the list, so simple fields are populated with the values of the <b>first</b> row.
+ * </p>
+ */
+public abstract class CursorSQLDataProvider
+    extends HashMap<String, Object>
+{
+
+    private static final long serialVersionUID = -2906658468596617400L;
+
+    /**
+     * Cursor SQL Data provider constructor.
+     * 
+     * @param rs the SQL {@link ResultSet}
+     * @param metadata the {@link FieldsMetadata}.
+     * @throws SQLException
+     */
+    public CursorSQLDataProvider( ResultSet rs, FieldsMetadata metadata )
+        throws SQLException
+    {
+        this( rs, metadata, 0 );
+    }
+
+    /**
+     * Cursor SQL Data provider constructor.
+     * 
+     * @param rs the SQL {@link ResultSet}
+     * @param metadata the {@link FieldsMetadata}.
+     * @param fetchSize the number of rows that should be fetched from the database when more rows are needed. 0 to
+     *            use the JDBC driver default.
+     * @throws SQLException
+     */
+    public CursorSQLDataProvider( ResultSet rs, FieldsMetadata metadata, int fetchSize )
+        throws SQLException
+    {
+        if ( fetchSize > 0 )
+        {
+            rs.setFetchSize( fetchSize );
+        }
+        // Resolve metadata of the columns once.
+        ResultSetMetaData rsMetaData = rs.getMetaData();
+        int columnCount = getColumnCount( rsMetaData );
+        String[] tableNames = new String[columnCount];
+        String[] columnLabels = new String[columnCount];
+        // name of the field in the row Map for list column, null for simple column.
+        String[] rowKeys = new String[columnCount];
+        String[] listNames = new String[columnCount];
+        int listColumnCount = 0;
+        for ( int i = 0; i < columnCount; i++ )
+        {
+            int columnIndex = i + 1;
+            String tableName = getTableName( rsMetaData, columnIndex );
+            String columnLabel = getColumnLabel( rsMetaData, columnIndex );
+            tableNames[i] = tableName;
+            columnLabels[i] = columnLabel;
+            String listName = getListName( tableName, columnLabel );
+            listNames[i] = listName;
+            if ( listName != null )
+            {
+                String getterName = columnLabel;
+                boolean sameListName = ( listName.equals( tableName ) );
+                if ( !sameListName )
+                {
+                    getterName = tableName + "_" + columnLabel;
+                }
+                rowKeys[i] = getterName;
+                listColumnCount++;
+                String fieldName = listName + "." + getterName;
+                metadata.addFieldAsList( fieldName );
+                if ( !sameListName )
+                {
+                    metadata.addFieldReplacement( tableName + "." + columnLabel, fieldName );
+                }
+            }
+            else
+            {
+                metadata.addField( tableName + "." + columnLabel, null, null, null, null );
+            }
+        }
+
+        // Populate simple fields with the first row, or with the last row when there is no list field.
+        boolean hasRow = rs.next();
+        while ( hasRow )
+        {
+            for ( int i = 0; i < columnCount; i++ )
+            {
+                if ( rowKeys[i] == null )
+                {
+                    Map<String, Object> pojo = getPojo( tableNames[i] );
+                    pojo.put( columnLabels[i], rs.getObject( i + 1 ) );
+                }
+            }
+            if ( listColumnCount > 0 || !rs.next() )
+            {
+                break;
+            }
+        }
+
+        if ( listColumnCount > 0 )
+        {
+            // All list fields are filled with the same row, so the cursors of each list name share the same rows.
+            SQLRowCursor.Rows rows = new SQLRowCursor.Rows( rs, rowKeys, listColumnCount, hasRow );
+            for ( int i = 0; i < columnCount; i++ )
+            {
+                String listName = listNames[i];
+                if ( listName != null && !super.containsKey( listName ) )
+                {
+                    super.put( listName, new SQLRowCursor( rows, listName ) );
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private Map<String, Object> getPojo( String tableName )
+    {
+        Map<String, Object> pojo = (Map<String, Object>) super.get( tableName );
+        if ( pojo == null )
+        {
+            pojo = new HashMap<String, Object>();
+            super.put( tableName, pojo );
+        }
+        return pojo;
+    }
+
+    /**
+     * Returns the cursor of the given list name and null if the {@link ResultSet} has no list field with this name.
+     * 
+     * @param listName
+     * @return
+     */
+    public SQLRowCursor getCursor( String listName )
+    {
+        Object cursor = super.get( listName );
+        return cursor instanceof SQLRowCursor ? (SQLRowCursor) cursor : null;
+    }
+
+    /**
+     * Returns the column count. Override this method if your JDBC driver cannot support that.
+     * 
+     * @param metaData
+     * @return
+     * @throws SQLException
+     */
+    protected int getColumnCount( ResultSetMetaData metaData )
+        throws SQLException
+    {
+        return metaData.getColumnCount();
+    }
+
+    /**
+     * Returns the table name of the given column. Override this method if your JDBC driver cannot support that.
+     * 
+     * @param metaData
+     * @param column
+     * @return
+     * @throws SQLException
+     */
+    protected String getTableName( ResultSetMetaData metaData, int column )
+        throws SQLException
+    {
+        return metaData.getTableName( column );
+    }
+
+    /**
+     * Returns the column label name of the given column. Override this method if your JDBC driver cannot support
+     * that.
+     * 
+     * @param metaData
+     * @param column
+     * @return
+     * @throws SQLException
+     */
+    protected String getColumnLabel( ResultSetMetaData metaData, int column )
+        throws SQLException
+    {
+        return metaData.getColumnLabel( column );
+    }
+
+    /**
+     * Returns the list name if the given column of the given table is a field list and null otherwise.
+     * 
+     * @param tableName
+     * @param columnName
+     * @return
+     */
+    protected abstract String getListName( String tableName, String columnName );
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only {@link Iterable} bound to a {@link ResultSet} cursor. Each row is exposed as a {@link Map} which is
+ * created when the cursor is advanced, so only the current row is held in memory.
+ * <p>
+ * The cursor can be iterated only once. It implements {@link Iterator} too, because some template engines (ex :
+ * Freemarker with the default object wrapper) know how to loop over an {@link Iterator} but not over an
+ * {@link Iterable}.
+ * </p>
+ * <p>
+ * Several cursors (one per list name) can share the same {@link ResultSet}. The first cursor which is iterated owns
+ * the rows, and iterating another cursor of the same {@link ResultSet} throws an {@link IllegalStateException}
+ * instead of silently returning no rows.
+ * </p>
+ */
+public class SQLRowCursor
+    implements Iterable<Map<String, Object>>, Iterator<Map<String, Object>>
+{
+
+    private final Rows rows;
+
+    private final String listName;
+
+    private boolean iterated;
+
+    /**
+     * Cursor constructor.
+     * 
+     * @param rs the SQL {@link ResultSet}.
+     * @param rowKeys the key of each column in the row {@link Map}, null if the column must be ignored.
+     * @param rowSize the number of not null keys.
+     * @param onRow true if the {@link ResultSet} is already positioned on the first row and false if it's empty.
+     */
+    public SQLRowCursor( ResultSet rs, String[] rowKeys, int rowSize, boolean onRow )
+    {
+        this( new Rows( rs, rowKeys, rowSize, onRow ), null );
+    }
+
+    SQLRowCursor( Rows rows, String listName )
+    {
+        this.rows = rows;
+        this.listName = listName;
+        this.iterated = false;
+    }
+
+    /**
+     * Returns the list name of this cursor and null if it is not known.
+     * 
+     * @return
+     */
+    public String getListName()
+    {
+        return listName;
+    }
+
+    public Iterator<Map<String, Object>> iterator()
+    {
+        if ( iterated )
+        {
+            throw new IllegalStateException( "SQL row cursor " + getDisplayName() + "can be iterated only once." );
+        }
+        checkOwner();
+        iterated = true;
+        return this;
+    }
+
+    public boolean hasNext()
+    {
+        checkOwner();
+        return rows.hasNext;
+    }
+
+    public Map<String, Object> next()
+    {
+        checkOwner();
+        if ( !rows.hasNext )
+        {
+            throw new NoSuchElementException();
+        }
+        iterated = true;
+        return rows.next();
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private void checkOwner()
+    {
+        if ( rows.owner == null )
+        {
+            rows.owner = this;
+        }
+        else if ( rows.owner != this )
+        {
+            throw new IllegalStateException( "SQL row cursor " + getDisplayName()
+                + "cannot be iterated because its result set is already iterated by the cursor "
+                + rows.owner.getDisplayName() );
+        }
+    }
+
+    private String getDisplayName()
+    {
+        return listName != null ? "[" + listName + "] " : "";
+    }
+
+    /**
+     * Rows of a {@link ResultSet} shared by the cursors of each list name.
+     */
+    static class Rows
+    {
+
+        private final ResultSet rs;
+
+        private final String[] rowKeys;
+
+        private final int rowSize;
+
+        private boolean hasNext;
+
+        private SQLRowCursor owner;
+
+        Rows( ResultSet rs, String[] rowKeys, int rowSize, boolean onRow )
+        {
+            this.rs = rs;
+            this.rowKeys = rowKeys;
+            // capacity for the row map to avoid rehash
+            this.rowSize = ( rowSize * 4 / 3 ) + 1;
+            this.hasNext = onRow;
+        }
+
+        private Map<String, Object> next()
+        {
+            try
+            {
+                Map<String, Object> row = new HashMap<String, Object>( rowSize );
+                for ( int i = 0; i < rowKeys.length; i++ )
+                {
+                    String key = rowKeys[i];
+                    if ( key != null )
+                    {
+                        row.put( key, rs.getObject( i + 1 ) );
+                    }
+                }
+                hasNext = rs.next();
+                return row;
+            }
+            catch ( SQLException e )
+            {
+                hasNext = false;
+                throw new IllegalStateException( e );
+            }
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import fr.opensagres.xdocreport.core.document.ImageFormat;
+import fr.opensagres.xdocreport.core.io.IOUtils;
 
 public class ByteArrayImageProviderTestCase
 {
@@ -255,4 +256,27 @@ public class ByteArrayImageProviderTestCase
         Assert.assertEquals( 1000f, imageProvider.getHeight(null).floatValue(), 0 );
     }
 
+    @Test
+    public void imageInfoIsSharedByByteArrayImageProviders()
+        throws Exception
+    {
+        byte[] content = IOUtils.toByteArray( ByteArrayImageProviderTestCase.class.getResourceAsStream( "logo.png" ) );
+        ByteArrayImageProvider provider1 = new ByteArrayImageProvider( content, true );
+        provider1.setCacheImageInfo( true );
+        // same content in another array
+        ByteArrayImageProvider provider2 = new ByteArrayImageProvider( content.clone(), true );
+        provider2.setCacheImageInfo( true );
+        Assert.assertSame( provider1.getImageInfo(), provider2.getImageInfo() );
+        Assert.assertEquals( 220, provider2.getImageInfo().getWidth() );
+
+        // the cache is opt-in.
+        Assert.assertNotSame( provider1.getImageInfo(), new ByteArrayImageProvider( content, true ).getImageInfo() );
+
+        // the key changes with the content.
+        provider2.setImageStream( ByteArrayImageProviderTestCase.class.getResourceAsStream( "AngeloZERR.jpg" ) );
+        Assert.assertNotSame( provider1.getImageInfo(), provider2.getImageInfo() );
+        Assert.assertEquals( ImageFormat.jpeg, provider2.getImageFormat() );
+        Assert.assertEquals( 96, provider2.getImageInfo().getWidth() );
+        Assert.assertEquals( ImageFormat.png, provider1.getImageFormat() );
+    }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.images;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.core.document.ImageFormat;
+import fr.opensagres.xdocreport.core.io.IOUtils;
+
+public class ImageDownscalerTestCase
+{
+
+    private static final File LOGO = new File( "src/test/resources/fr/opensagres/xdocreport/document/images/logo.png" );
+
+    @Test
+    public void downscaleToFrameAtTargetDpi()
+        throws Exception
+    {
+        // logo.png is 220x200, frame of 55x50 pixel at 96 dpi => 110x100 at 192 dpi.
+        byte[] content = IOUtils.toByteArray( new FileInputStream( LOGO ) );
+        byte[] resized = ImageDownscaler.downscale( content, ImageFormat.png, 55f, 50f, 192 );
+        Assert.assertTrue( resized.length < content.length );
+        BufferedImage image = ImageIO.read( new ByteArrayInputStream( resized ) );
+        Assert.assertEquals( 110, image.getWidth() );
+        Assert.assertEquals( 100, image.getHeight() );
+    }
+
+    @Test
+    public void keepRatioWhenOnlyWidthIsKnown()
+        throws Exception
+    {
+        byte[] content = IOUtils.toByteArray( new FileInputStream( LOGO ) );
+        byte[] resized = ImageDownscaler.downscale( content, ImageFormat.png, 110f, null, 96 );
+        BufferedImage image = ImageIO.read( new ByteArrayInputStream( resized ) );
+        Assert.assertEquals( 110, image.getWidth() );
+        Assert.assertEquals( 100, image.getHeight() );
+    }
+
+    @Test
+    public void keepOriginalWhenFrameIsBigger()
+        throws Exception
+    {
+        byte[] content = IOUtils.toByteArray( new FileInputStream( LOGO ) );
+        Assert.assertSame( content, ImageDownscaler.downscale( content, ImageFormat.png, 220f, 200f, 96 ) );
+        Assert.assertSame( content, ImageDownscaler.downscale( content, ImageFormat.png, 55f, 50f, 0 ) );
+        Assert.assertSame( content, ImageDownscaler.downscale( content, ImageFormat.png, null, null, 96 ) );
+    }
+
+    @Test
+    public void imageInfoIsSharedByFileImageProviders()
+        throws Exception
+    {
+        FileImageProvider provider1 = new FileImageProvider( LOGO, true );
+        provider1.setCacheImageInfo( true );
+        FileImageProvider provider2 = new FileImageProvider( LOGO, true );
+        provider2.setCacheImageInfo( true );
+        Assert.assertSame( provider1.getImageInfo(), provider2.getImageInfo() );
+        Assert.assertEquals( 220, provider2.getImageInfo().getWidth() );
+
+        // the cache is opt-in.
+        Assert.assertNotSame( provider1.getImageInfo(), new FileImageProvider( LOGO, true ).getImageInfo() );
+
+        // changing the size doesn't re-read the image content.
+        IImageInfo imageInfo = provider1.getImageInfo();
+        provider1.setWidth( 100f );
+        Assert.assertSame( imageInfo, provider1.getImageInfo() );
+    }
+}
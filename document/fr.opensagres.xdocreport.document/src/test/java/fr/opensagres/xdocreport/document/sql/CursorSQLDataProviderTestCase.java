@@ -0,0 +1,270 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.sql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
+
+public class CursorSQLDataProviderTestCase
+{
+
+    private Connection connection;
+
+    @Before
+    public void createDatabase()
+        throws Exception
+    {
+        Class.forName( "org.h2.Driver" );
+        connection = DriverManager.getConnection( "jdbc:h2:mem:cursor;DB_CLOSE_DELAY=-1" );
+        Statement statement = connection.createStatement();
+        try
+        {
+            statement.execute( "CREATE TABLE PROJECT (NAME VARCHAR(50))" );
+            statement.execute( "CREATE TABLE DEVELOPER (NAME VARCHAR(50), MAIL VARCHAR(50))" );
+            statement.execute( "INSERT INTO PROJECT VALUES ('XDocReport')" );
+            for ( int i = 0; i < 1000; i++ )
+            {
+                statement.execute( "INSERT INTO DEVELOPER VALUES ('name" + i + "', 'mail" + i + "')" );
+            }
+        }
+        finally
+        {
+            statement.close();
+        }
+    }
+
+    @After
+    public void dropDatabase()
+        throws Exception
+    {
+        Statement statement = connection.createStatement();
+        try
+        {
+            statement.execute( "DROP ALL OBJECTS" );
+        }
+        finally
+        {
+            statement.close();
+        }
+        connection.close();
+    }
+
+    @Test
+    public void streamRows()
+        throws Exception
+    {
+        Statement statement = connection.createStatement();
+        ResultSet rs =
+            statement.executeQuery( "SELECT PROJECT.NAME, DEVELOPER.NAME, DEVELOPER.MAIL FROM PROJECT, DEVELOPER ORDER BY DEVELOPER.MAIL" );
+        try
+        {
+            FieldsMetadata metadata = new FieldsMetadata();
+            CursorSQLDataProvider provider = new DeveloperDataProvider( rs, metadata, 100 );
+
+            // simple field
+            Map<?, ?> project = (Map<?, ?>) provider.get( "PROJECT" );
+            Assert.assertEquals( "XDocReport", project.get( "NAME" ) );
+
+            // list fields
+            Assert.assertTrue( metadata.getFieldsAsList().contains( "DEVELOPER.NAME" ) );
+            Assert.assertTrue( metadata.getFieldsAsList().contains( "DEVELOPER.MAIL" ) );
+            SQLRowCursor cursor = (SQLRowCursor) provider.get( "DEVELOPER" );
+            Assert.assertSame( provider.getCursor( "DEVELOPER" ), cursor );
+
+            // rows are read lazily.
+            Assert.assertEquals( 1, rs.getRow() );
+            int count = 0;
+            for ( Map<String, Object> row : cursor )
+            {
+                Assert.assertEquals( 2, row.size() );
+                Assert.assertNotNull( row.get( "NAME" ) );
+                Assert.assertNotNull( row.get( "MAIL" ) );
+                count++;
+            }
+            Assert.assertEquals( 1000, count );
+        }
+        finally
+        {
+            rs.close();
+            statement.close();
+        }
+    }
+
+    @Test
+    public void iterateOnlyOnce()
+        throws Exception
+    {
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery( "SELECT NAME, MAIL FROM DEVELOPER" );
+        try
+        {
+            CursorSQLDataProvider provider = new DeveloperDataProvider( rs, new FieldsMetadata() );
+            SQLRowCursor cursor = provider.getCursor( "DEVELOPER" );
+            Iterator<Map<String, Object>> rows = cursor.iterator();
+            Assert.assertTrue( rows.hasNext() );
+            rows.next();
+            try
+            {
+                cursor.iterator();
+                Assert.fail( "Cursor must be iterated only once" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // expected
+            }
+        }
+        finally
+        {
+            rs.close();
+            statement.close();
+        }
+    }
+
+    @Test
+    public void iterateOnlyOneList()
+        throws Exception
+    {
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery( "SELECT PROJECT.NAME, DEVELOPER.NAME FROM PROJECT, DEVELOPER" );
+        try
+        {
+            CursorSQLDataProvider provider = new CursorSQLDataProvider( rs, new FieldsMetadata() )
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected String getListName( String tableName, String columnName )
+                {
+                    return tableName;
+                }
+            };
+            SQLRowCursor developers = provider.getCursor( "DEVELOPER" );
+            SQLRowCursor projects = provider.getCursor( "PROJECT" );
+            Assert.assertNotSame( developers, projects );
+            Assert.assertTrue( developers.iterator().hasNext() );
+            try
+            {
+                // the rows are shared with the DEVELOPER list
+                projects.iterator();
+                Assert.fail( "Only one list of the result set can be iterated" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // expected
+            }
+        }
+        finally
+        {
+            rs.close();
+            statement.close();
+        }
+    }
+
+    @Test
+    public void simpleFieldsWithLastRow()
+        throws Exception
+    {
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery( "SELECT NAME, MAIL FROM DEVELOPER ORDER BY MAIL" );
+        try
+        {
+            // no list field : like SQLDataProvider, simple fields are populated with the last row.
+            CursorSQLDataProvider provider = new CursorSQLDataProvider( rs, new FieldsMetadata() )
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected String getListName( String tableName, String columnName )
+                {
+                    return null;
+                }
+            };
+            Map<?, ?> developer = (Map<?, ?>) provider.get( "DEVELOPER" );
+            Assert.assertEquals( "mail999", developer.get( "MAIL" ) );
+            Assert.assertNull( provider.getCursor( "DEVELOPER" ) );
+        }
+        finally
+        {
+            rs.close();
+            statement.close();
+        }
+    }
+
+    @Test
+    public void emptyResultSet()
+        throws Exception
+    {
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery( "SELECT NAME, MAIL FROM DEVELOPER WHERE 1=0" );
+        try
+        {
+            CursorSQLDataProvider provider = new DeveloperDataProvider( rs, new FieldsMetadata() );
+            Assert.assertFalse( provider.getCursor( "DEVELOPER" ).iterator().hasNext() );
+        }
+        finally
+        {
+            rs.close();
+            statement.close();
+        }
+    }
+
+    private static class DeveloperDataProvider
+        extends CursorSQLDataProvider
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        public DeveloperDataProvider( ResultSet rs, FieldsMetadata metadata )
+            throws SQLException
+        {
+            super( rs, metadata );
+        }
+
+        public DeveloperDataProvider( ResultSet rs, FieldsMetadata metadata, int fetchSize )
+            throws SQLException
+        {
+            super( rs, metadata, fetchSize );
+        }
+
+        @Override
+        protected String getListName( String tableName, String columnName )
+        {
+            return "DEVELOPER".equals( tableName ) ? tableName : null;
+        }
+    }
+}
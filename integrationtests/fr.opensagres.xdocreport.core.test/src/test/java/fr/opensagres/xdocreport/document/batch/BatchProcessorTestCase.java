@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.document.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.core.io.XDocArchive;
+import fr.opensagres.xdocreport.document.IXDocReport;
+import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
+import fr.opensagres.xdocreport.template.IContext;
+import fr.opensagres.xdocreport.template.TemplateEngineKind;
+
+/**
+ * Test case for {@link BatchProcessor}.
+ */
+public class BatchProcessorTestCase
+{
+
+    private static final int COUNT = 20;
+
+    private static class ByteArrayOutputProvider
+        implements IBatchOutputProvider
+    {
+
+        private final ByteArrayOutputStream[] outputs = new ByteArrayOutputStream[COUNT];
+
+        public OutputStream getOutputStream( int index, IContext context )
+            throws IOException
+        {
+            if ( index == 5 )
+            {
+                throw new IOException( "Cannot create output" );
+            }
+            outputs[index] = new ByteArrayOutputStream();
+            return outputs[index];
+        }
+
+        public String getContent( int index )
+            throws IOException
+        {
+            XDocArchive archive = XDocArchive.readZip( new ByteArrayInputStream( outputs[index].toByteArray() ) );
+            Reader reader = archive.getEntryReader( "content.xml" );
+            try
+            {
+                return IOUtils.toString( reader );
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+    }
+
+    @Test
+    public void testSequentialBatch()
+        throws Exception
+    {
+        testBatch( null );
+    }
+
+    @Test
+    public void testParallelBatch()
+        throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            testBatch( executor );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void testBatch( ExecutorService executor )
+        throws Exception
+    {
+        IXDocReport report =
+            XDocReportRegistry.getRegistry().loadReport( BatchProcessorTestCase.class.getResourceAsStream( "/fr/opensagres/xdocreport/core/document/registry/ODTHelloWordWithFreemarker.odt" ),
+                                                         TemplateEngineKind.Freemarker, false );
+        List<IContext> contexts = new ArrayList<IContext>();
+        for ( int i = 0; i < COUNT; i++ )
+        {
+            IContext context = report.createContext();
+            context.put( "name", "Name" + i );
+            contexts.add( context );
+        }
+
+        ByteArrayOutputProvider outputProvider = new ByteArrayOutputProvider();
+        BatchResult result = new BatchProcessor( report ).setExecutor( executor, 3 ).process( contexts, outputProvider );
+
+        assertEquals( COUNT, result.getCount() );
+        assertEquals( COUNT - 1, result.getSuccessCount() );
+        assertEquals( 1, result.getFailures().size() );
+        assertEquals( 5, result.getFailures().get( 0 ).getIndex() );
+        for ( int i = 0; i < COUNT; i++ )
+        {
+            if ( i != 5 )
+            {
+                assertTrue( outputProvider.getContent( i ).contains( "Name" + i + "!" ) );
+            }
+        }
+        // the report is registered only while the batch is running.
+        assertFalse( XDocReportRegistry.getRegistry().existsReport( report.getId() ) );
+    }
+}
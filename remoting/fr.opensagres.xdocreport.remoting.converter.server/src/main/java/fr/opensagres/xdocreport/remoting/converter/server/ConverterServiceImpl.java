@@ -31,15 +31,20 @@ import java.util.logging.Logger;
 
 import javax.activation.DataSource;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.cxf.interceptor.OutFaultInterceptors;
+import org.apache.cxf.interceptor.OutInterceptors;
 import org.apache.cxf.jaxrs.ext.multipart.Multipart;
 
 import fr.opensagres.xdocreport.converter.ConverterRegistry;
@@ -47,23 +52,35 @@ import fr.opensagres.xdocreport.converter.ConverterTypeTo;
 import fr.opensagres.xdocreport.converter.IConverter;
 import fr.opensagres.xdocreport.converter.Options;
 import fr.opensagres.xdocreport.converter.XDocConverterException;
+import fr.opensagres.xdocreport.core.admission.AdmissionController;
+import fr.opensagres.xdocreport.core.admission.AdmissionRejectedException;
 import fr.opensagres.xdocreport.core.document.DocumentKind;
 import fr.opensagres.xdocreport.core.io.IOUtils;
 import fr.opensagres.xdocreport.core.logging.LogUtils;
 import fr.opensagres.xdocreport.core.utils.Assert;
 import fr.opensagres.xdocreport.core.utils.HttpHeaderUtils;
 import fr.opensagres.xdocreport.remoting.converter.ConverterService;
+import fr.opensagres.xdocreport.remoting.server.AdmissionPermitInterceptor;
+import fr.opensagres.xdocreport.remoting.server.AdmissionUtils;
 
 /**
  * Document converter REST Web Service implementation.
  */
 @Path( "/" )
+@OutInterceptors( classes = AdmissionPermitInterceptor.class )
+@OutFaultInterceptors( classes = AdmissionPermitInterceptor.class )
 public class ConverterServiceImpl
     implements ConverterService
 {
 
     private static final Logger LOGGER = LogUtils.getLogger( ConverterServiceImpl.class );
 
+    private static volatile AdmissionController admissionController =
+        AdmissionController.fromSystemProperties( "xdocreport.remoting.converter" );
+
+    @Context
+    private HttpHeaders headers;
+
     @POST
     @Consumes( MediaType.WILDCARD )
     @Produces( MediaType.WILDCARD )
@@ -74,7 +91,7 @@ public class ConverterServiceImpl
     final String via, @Multipart( "download" )
     boolean download )
     {
-
+        AdmissionController.Permit permit = null;
         try
         {
             Assert.notNull( content.getName(), "file is required" );
@@ -99,7 +116,21 @@ public class ConverterServiceImpl
             final Options options = Options.getFrom( documentKind ).to( to ).via( via );
             final IConverter converter = ConverterRegistry.getRegistry().findConverter( options );
 
-            // 4) Create an instance of JAX-RS StreamingOutput to convert the inputstream and set the result in the
+            // 4) Wait for the conversion to be admitted : the permit is released when the conversion is done or
+            // when the response is sent without being written.
+            try
+            {
+                long memory = admissionController.estimateMemory( AdmissionUtils.getContentLength( headers ) );
+                permit = admissionController.acquire( memory );
+            }
+            catch ( AdmissionRejectedException e )
+            {
+                return AdmissionUtils.getRejectedResponse( "Conversion", e );
+            }
+            AdmissionPermitInterceptor.setPermit( permit );
+            final AdmissionController.Permit outputPermit = permit;
+
+            // 5) Create an instance of JAX-RS StreamingOutput to convert the inputstream and set the result in the
             // response stream.
             StreamingOutput output = new StreamingOutput()
             {
@@ -137,12 +168,13 @@ public class ConverterServiceImpl
                     }
                     finally
                     {
+                        outputPermit.release();
                         IOUtils.closeQuietly( out );
                     }
 
                 }
             };
-            // 5) Create the JAX-RS response builder.
+            // 6) Create the JAX-RS response builder.
             ResponseBuilder responseBuilder = Response.ok( output, MediaType.valueOf( to.getMimeType() ) );
             if ( download )
             {
@@ -151,13 +183,55 @@ public class ConverterServiceImpl
                 responseBuilder.header( HttpHeaderUtils.CONTENT_DISPOSITION_HEADER,
                                         HttpHeaderUtils.getAttachmentFileName( getOutputFileName( fileName, to ) ) );
             }
-            return responseBuilder.build();
-
+            Response response = responseBuilder.build();
+            permit = null;
+            return response;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
         }
         catch ( Exception e )
         {
             throw new RuntimeException( e );
         }
+        finally
+        {
+            if ( permit != null )
+            {
+                // the response has not been created.
+                permit.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of the admission controller of the conversions.
+     * 
+     * @return
+     */
+    @GET
+    @Produces( MediaType.TEXT_PLAIN )
+    @Path( "/admission" )
+    public String getAdmissionStatus()
+    {
+        return admissionController.getStatus();
+    }
+
+    /**
+     * Set the admission controller used to limit the concurrent conversions.
+     * 
+     * @param admissionController
+     */
+    public static void setAdmissionController( AdmissionController admissionController )
+    {
+        ConverterServiceImpl.admissionController = admissionController;
+    }
+
+    public static AdmissionController getAdmissionController()
+    {
+        return admissionController;
     }
 
     /**
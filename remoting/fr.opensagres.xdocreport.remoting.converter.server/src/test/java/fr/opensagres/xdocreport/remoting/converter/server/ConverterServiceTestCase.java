@@ -29,6 +29,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 
 import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.httpclient.methods.multipart.FilePart;
 import org.apache.commons.httpclient.methods.multipart.MultipartRequestEntity;
@@ -42,6 +43,7 @@ import org.junit.Test;
 
 import fr.opensagres.xdocreport.converter.ConverterTypeTo;
 import fr.opensagres.xdocreport.converter.ConverterTypeVia;
+import fr.opensagres.xdocreport.core.admission.AdmissionController;
 import fr.opensagres.xdocreport.core.io.IOUtils;
 
 public class ConverterServiceTestCase
@@ -138,4 +140,49 @@ public class ConverterServiceTestCase
         }
     }
 
+    @Test
+    public void convertRejectedWhenBusy()
+        throws Exception
+    {
+        AdmissionController defaultController = ConverterServiceImpl.getAdmissionController();
+        // only one conversion and no queue : the conversion is rejected while the permit is held.
+        AdmissionController controller = new AdmissionController( 1, 0, 0, 1000, 10 );
+        ConverterServiceImpl.setAdmissionController( controller );
+        AdmissionController.Permit permit = controller.acquire( 0 );
+        PostMethod post = new PostMethod( "http://localhost:" + PORT + "/convert" );
+        try
+        {
+            post.setRequestHeader( "Content-Type", "multipart/mixed" );
+            Part[] parts = new Part[4];
+            parts[0] =
+                new FilePart( "document", new File( root, "ODTCV.odt" ), "application/vnd.oasis.opendocument.text",
+                              "UTF-8" );
+            parts[1] = new StringPart( "outputFormat", ConverterTypeTo.PDF.name() );
+            parts[2] = new StringPart( "via", ConverterTypeVia.ODFDOM.name() );
+            parts[3] = new StringPart( "download", "true" );
+            post.setRequestEntity( new MultipartRequestEntity( parts, post.getParams() ) );
+
+            int result = new HttpClient().executeMethod( post );
+            Assert.assertEquals( 503, result );
+            Assert.assertEquals( 1, controller.getRejectedCount() );
+
+            GetMethod get = new GetMethod( "http://localhost:" + PORT + "/admission" );
+            try
+            {
+                Assert.assertEquals( 200, new HttpClient().executeMethod( get ) );
+                Assert.assertTrue( get.getResponseBodyAsString().contains( "rejected=1" ) );
+            }
+            finally
+            {
+                get.releaseConnection();
+            }
+        }
+        finally
+        {
+            post.releaseConnection();
+            permit.release();
+            ConverterServiceImpl.setAdmissionController( defaultController );
+        }
+    }
+
 }
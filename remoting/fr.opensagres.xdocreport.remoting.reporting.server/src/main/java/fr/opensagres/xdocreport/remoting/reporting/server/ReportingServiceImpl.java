@@ -33,15 +33,21 @@ import java.util.logging.Logger;
 
 import javax.activation.DataSource;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.cxf.interceptor.OutFaultInterceptors;
+import org.apache.cxf.interceptor.OutInterceptors;
 import org.apache.cxf.jaxrs.ext.multipart.Multipart;
 import org.xml.sax.SAXException;
 
@@ -49,6 +55,8 @@ import fr.opensagres.xdocreport.converter.IConverter;
 import fr.opensagres.xdocreport.converter.Options;
 import fr.opensagres.xdocreport.converter.XDocConverterException;
 import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.core.admission.AdmissionController;
+import fr.opensagres.xdocreport.core.admission.AdmissionRejectedException;
 import fr.opensagres.xdocreport.core.io.IOUtils;
 import fr.opensagres.xdocreport.core.logging.LogUtils;
 import fr.opensagres.xdocreport.core.utils.HttpHeaderUtils;
@@ -58,6 +66,8 @@ import fr.opensagres.xdocreport.document.XDocReport;
 import fr.opensagres.xdocreport.document.json.JSONObject;
 import fr.opensagres.xdocreport.document.registry.XDocReportRegistry;
 import fr.opensagres.xdocreport.remoting.reporting.ReportingService;
+import fr.opensagres.xdocreport.remoting.server.AdmissionPermitInterceptor;
+import fr.opensagres.xdocreport.remoting.server.AdmissionUtils;
 import fr.opensagres.xdocreport.template.formatter.FieldsMetadata;
 import fr.opensagres.xdocreport.template.formatter.FieldsMetadataXMLSerializer;
 
@@ -65,12 +75,20 @@ import fr.opensagres.xdocreport.template.formatter.FieldsMetadataXMLSerializer;
  * Reporting REST Web Service implementation.
  */
 @Path( "/" )
+@OutInterceptors( classes = AdmissionPermitInterceptor.class )
+@OutFaultInterceptors( classes = AdmissionPermitInterceptor.class )
 public class ReportingServiceImpl
     implements ReportingService
 {
 
     private static final Logger LOGGER = LogUtils.getLogger( ReportingServiceImpl.class );
 
+    private static volatile AdmissionController admissionController =
+        AdmissionController.fromSystemProperties( "xdocreport.remoting.reporting" );
+
+    @Context
+    private HttpHeaders headers;
+
     @POST
     @Consumes( MediaType.WILDCARD )
     @Produces( MediaType.WILDCARD )
@@ -85,19 +103,47 @@ public class ReportingServiceImpl
     String outFormat, @Multipart( value = "outFormatVia", required = false )
     final String via )
     {
+        AdmissionController.Permit permit = null;
         try
         {
+            // Wait for the report generation to be admitted : the permit is released when the report is generated or
+            // when the response is sent without being written.
+            try
+            {
+                long memory = admissionController.estimateMemory( AdmissionUtils.getContentLength( headers ) );
+                permit = admissionController.acquire( memory );
+            }
+            catch ( AdmissionRejectedException e )
+            {
+                return AdmissionUtils.getRejectedResponse( "Report generation", e );
+            }
+            AdmissionPermitInterceptor.setPermit( permit );
             FieldsMetadata metadata = getFieldsMetadata( xmlFieldsMetadata );
             // Load report
             final IXDocReport report =
                 XDocReport.loadReport( templateDocument.getInputStream(), templateEngineKind, metadata,
                                        XDocReportRegistry.getRegistry() );
-            return doReport( report, data, dataType, outFileName, outFormat, via );
+            Response response = doReport( report, data, dataType, outFileName, outFormat, via, permit );
+            permit = null;
+            return response;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
         }
         catch ( Exception e )
         {
             throw new RuntimeException( e );
         }
+        finally
+        {
+            if ( permit != null )
+            {
+                // the report has not been generated.
+                permit.release();
+            }
+        }
     }
 
     private FieldsMetadata getFieldsMetadata( String xmlFieldsMetadata )
@@ -130,7 +176,7 @@ public class ReportingServiceImpl
             // Load report
 
             final IXDocReport report = null;
-            return doReport( report, data, dataType, outFileName, outFormat, via );
+            return doReport( report, data, dataType, outFileName, outFormat, via, null );
         }
         catch ( Exception e )
         {
@@ -139,7 +185,7 @@ public class ReportingServiceImpl
     }
 
     private Response doReport( final IXDocReport report, String data, String dataType, final String outFileName,
-                               final String outFormat, final String via )
+                               final String outFormat, final String via, final AdmissionController.Permit permit )
         throws Exception
     {
         // Transform string data to Map.
@@ -190,6 +236,10 @@ public class ReportingServiceImpl
                 }
                 finally
                 {
+                    if ( permit != null )
+                    {
+                        permit.release();
+                    }
                     IOUtils.closeQuietly( out );
                 }
 
@@ -212,6 +262,34 @@ public class ReportingServiceImpl
 
     }
 
+    /**
+     * Returns the metrics of the admission controller of the report generations.
+     * 
+     * @return
+     */
+    @GET
+    @Produces( MediaType.TEXT_PLAIN )
+    @Path( "/admission" )
+    public String getAdmissionStatus()
+    {
+        return admissionController.getStatus();
+    }
+
+    /**
+     * Set the admission controller used to limit the concurrent report generations.
+     * 
+     * @param admissionController
+     */
+    public static void setAdmissionController( AdmissionController admissionController )
+    {
+        ReportingServiceImpl.admissionController = admissionController;
+    }
+
+    public static AdmissionController getAdmissionController()
+    {
+        return admissionController;
+    }
+
     private MediaType getMediaType( IXDocReport report, Options options )
         throws XDocConverterException
     {
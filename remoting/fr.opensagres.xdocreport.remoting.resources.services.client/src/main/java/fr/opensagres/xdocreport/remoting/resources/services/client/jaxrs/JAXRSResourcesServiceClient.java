@@ -112,6 +112,21 @@ public class JAXRSResourcesServiceClient  implements JAXRSResourcesService
         return target.path( ResourcesServiceName.downloadLarge.name() ).queryParam( "resourceId", resourceId ).request().accept( MediaType.WILDCARD ).get( LargeBinaryData.class );
     }
 
+    public LargeBinaryData downloadLargeRange( String resourceId, long offset, long length, String etag )
+        throws ResourcesException
+    {
+        reset();
+        WebTarget rangeTarget = target.path( ResourcesServiceName.downloadLargeRange.name() );
+        rangeTarget = rangeTarget.queryParam( "resourceId", resourceId );
+        rangeTarget = rangeTarget.queryParam( "offset", offset ).queryParam( "length", length );
+        if ( etag != null )
+        {
+            rangeTarget = rangeTarget.queryParam( "etag", etag );
+        }
+        // the server returns no content (null) when the resource is not modified.
+        return rangeTarget.request().accept( MediaType.WILDCARD ).get( LargeBinaryData.class );
+    }
+
     public void uploadLarge( LargeBinaryData data )
         throws ResourcesException
     {
@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.remoting.resources.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.remoting.resources.domain.BinaryData;
+import fr.opensagres.xdocreport.remoting.resources.domain.LargeBinaryData;
+
+public class FileResourcesServiceTestCase
+{
+
+    public static File srcFolder = new File( "src/test/resources/fr/opensagres/xdocreport/remoting/resources" );
+
+    public static final String resourcesDir = "resources_file";
+
+    public static File resourcesFolder = new File( "target", resourcesDir );
+
+    @BeforeClass
+    public static void initResources()
+        throws IOException
+    {
+        FileUtils.copyDirectory( srcFolder, resourcesFolder );
+    }
+
+    @Test
+    public void downloadLargeStreamsTheWholeFile()
+        throws Exception
+    {
+        MockResourcesService service = new MockResourcesService( resourcesDir );
+        byte[] expected = FileUtils.readFileToByteArray( new File( resourcesFolder, "Simple.docx" ) );
+
+        LargeBinaryData data = service.downloadLarge( "Simple.docx" );
+        Assert.assertEquals( expected.length, data.getLength() );
+        Assert.assertNotNull( data.getEtag() );
+        Assert.assertTrue( data.getLastModified() > 0 );
+        Assert.assertArrayEquals( expected, transfer( data ) );
+
+        BinaryData binaryData = service.download( "Simple.docx" );
+        Assert.assertArrayEquals( expected, binaryData.getContent() );
+    }
+
+    @Test
+    public void downloadLargeRange()
+        throws Exception
+    {
+        MockResourcesService service = new MockResourcesService( resourcesDir );
+        byte[] expected = FileUtils.readFileToByteArray( new File( resourcesFolder, "Simple.docx" ) );
+
+        LargeBinaryData data = service.downloadLargeRange( "Simple.docx", 100, 50, null );
+        Assert.assertEquals( 100, data.getOffset() );
+        Assert.assertEquals( 50, data.getLength() );
+        byte[] range = IOUtils.toByteArray( data.getContent() );
+        data.getContent().close();
+        Assert.assertEquals( 50, range.length );
+        for ( int i = 0; i < range.length; i++ )
+        {
+            Assert.assertEquals( expected[100 + i], range[i] );
+        }
+
+        // range until the end of the file.
+        data = service.downloadLargeRange( "Simple.docx", expected.length - 10, -1, null );
+        Assert.assertEquals( 10, transfer( data ).length );
+    }
+
+    @Test
+    public void downloadLargeRangeNotModified()
+        throws Exception
+    {
+        MockResourcesService service = new MockResourcesService( resourcesDir );
+        LargeBinaryData data = service.downloadLarge( "Simple.odt" );
+        data.getContent().close();
+
+        Assert.assertNull( service.downloadLargeRange( "Simple.odt", 0, -1, data.getEtag() ) );
+        LargeBinaryData modified = service.downloadLargeRange( "Simple.odt", 0, -1, "\"other\"" );
+        Assert.assertNotNull( modified );
+        modified.getContent().close();
+    }
+
+    @Test
+    public void uploadLarge()
+        throws Exception
+    {
+        MockResourcesService service = new MockResourcesService( resourcesDir );
+        byte[] expected = FileUtils.readFileToByteArray( new File( resourcesFolder, "Simple.docx" ) );
+
+        // upload from a stream.
+        LargeBinaryData data = new LargeBinaryData();
+        data.setResourceId( "ZzzUploadLargeStream.docx" );
+        data.setContent( new ByteArrayInputStream( expected ) );
+        service.uploadLarge( data );
+        Assert.assertArrayEquals( expected,
+                                  FileUtils.readFileToByteArray( new File( resourcesFolder, "ZzzUploadLargeStream.docx" ) ) );
+
+        // upload from a downloaded resource (file to file).
+        data = service.downloadLarge( "Simple.docx" );
+        data.setResourceId( "ZzzUploadLargeFile.docx" );
+        service.uploadLarge( data );
+        Assert.assertArrayEquals( expected,
+                                  FileUtils.readFileToByteArray( new File( resourcesFolder, "ZzzUploadLargeFile.docx" ) ) );
+    }
+
+    private static byte[] transfer( LargeBinaryData data )
+        throws IOException
+    {
+        ChannelInputStream content = (ChannelInputStream) data.getContent();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try
+        {
+            content.transferTo( out );
+        }
+        finally
+        {
+            content.close();
+        }
+        return out.toByteArray();
+    }
+}
@@ -24,12 +24,16 @@
  */
 package fr.opensagres.xdocreport.remoting.resources.services.server.file;
 
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 
 import fr.opensagres.xdocreport.core.io.IOUtils;
 import fr.opensagres.xdocreport.core.utils.StringUtils;
@@ -40,6 +44,7 @@ import fr.opensagres.xdocreport.remoting.resources.domain.Resource;
 import fr.opensagres.xdocreport.remoting.resources.domain.ResourceFactory;
 import fr.opensagres.xdocreport.remoting.resources.domain.ResourceType;
 import fr.opensagres.xdocreport.remoting.resources.services.AbstractResourcesService;
+import fr.opensagres.xdocreport.remoting.resources.services.ChannelInputStream;
 import fr.opensagres.xdocreport.remoting.resources.services.ResourcesException;
 import fr.opensagres.xdocreport.remoting.resources.services.jaxrs.JAXRSResourcesService;
 import fr.opensagres.xdocreport.remoting.resources.services.jaxws.JAXWSResourcesService;
@@ -49,6 +54,8 @@ public abstract class FileResourcesService
     implements JAXRSResourcesService, JAXWSResourcesService
 {
 
+    private static final long TRANSFER_SIZE = 64 * 1024;
+
     private final File rootFolder;
 
     private final boolean templateHierarchy;
@@ -74,10 +81,13 @@ public abstract class FileResourcesService
     {
         String resourcePath = getResourcePath( resourceId );
         File file = new File( getRootFolder(), resourcePath );
+        FileInputStream input = null;
         try
         {
-            FileInputStream input = new FileInputStream( file );
-            byte[] content = IOUtils.toByteArray( input );
+            // the length of the file is known, read it in a byte array of the exact size.
+            input = new FileInputStream( file );
+            byte[] content = new byte[(int) file.length()];
+            new DataInputStream( input ).readFully( content );
 
             BinaryData data = new BinaryData();
             data.setContent( content );
@@ -89,6 +99,10 @@ public abstract class FileResourcesService
         {
             throw new ResourcesException( e );
         }
+        finally
+        {
+            IOUtils.closeQuietly( input );
+        }
     }
 
     protected String getResourcePath( String resourceId )
@@ -98,14 +112,34 @@ public abstract class FileResourcesService
 
     public LargeBinaryData downloadLarge( String resourceId )
         throws ResourcesException
+    {
+        return downloadLargeRange( resourceId, 0, -1, null );
+    }
+
+    public LargeBinaryData downloadLargeRange( String resourceId, long offset, long length, String etag )
+        throws ResourcesException
     {
         String resourcePath = getResourcePath( resourceId );
         File file = new File( getRootFolder(), resourcePath );
+        if ( etag != null && etag.equals( getETag( file ) ) )
+        {
+            // the caller has already the last version of the resource.
+            return null;
+        }
         try
         {
-            FileInputStream input = new FileInputStream( file );
+            FileChannel channel = new FileInputStream( file ).getChannel();
+            long fileLength = channel.size();
+            long start = Math.min( Math.max( offset, 0 ), fileLength );
+            long rangeLength = length > 0 ? Math.min( length, fileLength - start ) : fileLength - start;
+
+            // the content is read from the file channel when it is sent, without loading it in the heap.
             LargeBinaryData data = new LargeBinaryData();
-            data.setContent( input );
+            data.setContent( new ChannelInputStream( channel, start, rangeLength ) );
+            data.setLength( rangeLength );
+            data.setOffset( start );
+            data.setLastModified( file.lastModified() );
+            data.setEtag( getETag( file ) );
             data.setFileName( file.getName() );
             data.setResourceId( resourceId );
             return data;
@@ -117,6 +151,17 @@ public abstract class FileResourcesService
 
     }
 
+    /**
+     * Returns the ETag of the given file computed with its last modified date and its length.
+     * 
+     * @param file
+     * @return
+     */
+    protected String getETag( File file )
+    {
+        return "\"" + Long.toHexString( file.lastModified() ) + "-" + Long.toHexString( file.length() ) + "\"";
+    }
+
     public void uploadLarge( LargeBinaryData data )
         throws ResourcesException
     {
@@ -130,12 +175,28 @@ public abstract class FileResourcesService
             file.getParentFile().mkdirs();
         }
 
-        OutputStream output = null;
+        FileOutputStream output = null;
         try
         {
 
             output = new FileOutputStream( file );
-            IOUtils.copyLarge( input, output );
+            FileChannel channel = output.getChannel();
+            if ( input instanceof ChannelInputStream )
+            {
+                // file to file copy.
+                ( (ChannelInputStream) input ).transferTo( channel );
+            }
+            else
+            {
+                // let the file channel read the stream directly.
+                ReadableByteChannel source = Channels.newChannel( input );
+                long position = 0;
+                long n = 0;
+                while ( ( n = channel.transferFrom( source, position, TRANSFER_SIZE ) ) > 0 )
+                {
+                    position += n;
+                }
+            }
         }
         catch ( IOException e )
         {
@@ -93,6 +93,12 @@ public class JAXRSResourcesServiceImpl
         return getDelegate().downloadLarge( resourceId );
     }
 
+    public LargeBinaryData downloadLargeRange( String resourceId, long offset, long length, String etag )
+        throws ResourcesException
+    {
+        return getDelegate().downloadLargeRange( resourceId, offset, length, etag );
+    }
+
     @Override
     protected JAXRSResourcesService getDelegate()
     {
@@ -54,6 +54,9 @@ import javax.xml.bind.annotation.XmlType;
  *         &lt;element name="length" type="{http://www.w3.org/2001/XMLSchema}long"/>
  *         &lt;element name="mimeType" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *         &lt;element name="resourceId" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
+ *         &lt;element name="offset" type="{http://www.w3.org/2001/XMLSchema}long"/>
+ *         &lt;element name="lastModified" type="{http://www.w3.org/2001/XMLSchema}long"/>
+ *         &lt;element name="etag" type="{http://www.w3.org/2001/XMLSchema}string" minOccurs="0"/>
  *       &lt;/sequence>
  *     &lt;/restriction>
  *   &lt;/complexContent>
@@ -68,7 +71,10 @@ import javax.xml.bind.annotation.XmlType;
     "fileName",
     "length",
     "mimeType",
-    "resourceId"
+    "resourceId",
+    "offset",
+    "lastModified",
+    "etag"
 })
 public class LargeBinaryData {
 
@@ -78,6 +84,9 @@ public class LargeBinaryData {
     protected long length;
     protected String mimeType = DEFAULT_MIMETYPE;
     protected String resourceId;
+    protected long offset;
+    protected long lastModified;
+    protected String etag;
 
     /**
      * Gets the value of the content property.
@@ -191,4 +200,63 @@ public class LargeBinaryData {
         this.resourceId = value;
     }
 
+    /**
+     * Gets the value of the offset property: the position of the content
+     * in the whole resource when only a range of the resource is sent.
+     *
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Sets the value of the offset property.
+     *
+     */
+    public void setOffset(long value) {
+        this.offset = value;
+    }
+
+    /**
+     * Gets the value of the lastModified property (milliseconds since
+     * the epoch, 0 if unknown).
+     *
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the value of the lastModified property.
+     *
+     */
+    public void setLastModified(long value) {
+        this.lastModified = value;
+    }
+
+    /**
+     * Gets the value of the etag property: an opaque identifier of the
+     * resource version used for conditional downloads.
+     *
+     * @return
+     *     possible object is
+     *     {@link String }
+     *
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Sets the value of the etag property.
+     *
+     * @param value
+     *     allowed object is
+     *     {@link String }
+     *
+     */
+    public void setEtag(String value) {
+        this.etag = value;
+    }
+
 }
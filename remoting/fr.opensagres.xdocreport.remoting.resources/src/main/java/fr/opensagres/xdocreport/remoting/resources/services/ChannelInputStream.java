@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.remoting.resources.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * {@link InputStream} which reads a range of a {@link FileChannel}. The range can be sent to an {@link OutputStream}
+ * with {@link #transferTo(OutputStream)} which uses {@link FileChannel#transferTo(long, long, WritableByteChannel)}
+ * and lets the JVM avoid copying the file content in the Java heap when the transport permits it.
+ */
+public class ChannelInputStream
+    extends InputStream
+{
+
+    private final FileChannel channel;
+
+    private long position;
+
+    private long remaining;
+
+    private long mark;
+
+    private long markRemaining;
+
+    /**
+     * @param channel the file channel to read.
+     * @param offset the first byte of the range.
+     * @param length the length of the range.
+     */
+    public ChannelInputStream( FileChannel channel, long offset, long length )
+    {
+        this.channel = channel;
+        this.position = offset;
+        this.remaining = length;
+    }
+
+    @Override
+    public int read()
+        throws IOException
+    {
+        byte[] b = new byte[1];
+        return read( b, 0, 1 ) == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read( byte[] b, int off, int len )
+        throws IOException
+    {
+        if ( remaining <= 0 )
+        {
+            return -1;
+        }
+        if ( len == 0 )
+        {
+            return 0;
+        }
+        int n = channel.read( ByteBuffer.wrap( b, off, (int) Math.min( len, remaining ) ), position );
+        if ( n == -1 )
+        {
+            remaining = 0;
+            return -1;
+        }
+        position += n;
+        remaining -= n;
+        return n;
+    }
+
+    @Override
+    public long skip( long n )
+        throws IOException
+    {
+        long skipped = Math.max( 0, Math.min( n, remaining ) );
+        position += skipped;
+        remaining -= skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available()
+        throws IOException
+    {
+        return (int) Math.min( remaining, Integer.MAX_VALUE );
+    }
+
+    @Override
+    public boolean markSupported()
+    {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark( int readlimit )
+    {
+        mark = position;
+        markRemaining = remaining;
+    }
+
+    @Override
+    public synchronized void reset()
+        throws IOException
+    {
+        position = mark;
+        remaining = markRemaining;
+    }
+
+    /**
+     * Returns the number of bytes which are not read in the range.
+     * 
+     * @return
+     */
+    public long getRemaining()
+    {
+        return remaining;
+    }
+
+    /**
+     * Send the remaining bytes of the range to the given output stream.
+     * 
+     * @param out
+     * @return the number of sent bytes.
+     * @throws IOException
+     */
+    public long transferTo( OutputStream out )
+        throws IOException
+    {
+        return transferTo( Channels.newChannel( out ) );
+    }
+
+    /**
+     * Write the remaining bytes of the range to the given file channel.
+     * 
+     * @param target
+     * @return the number of written bytes.
+     * @throws IOException
+     */
+    public long transferTo( FileChannel target )
+        throws IOException
+    {
+        return transferTo( (WritableByteChannel) target );
+    }
+
+    private long transferTo( WritableByteChannel target )
+        throws IOException
+    {
+        long count = 0;
+        while ( remaining > 0 )
+        {
+            long n = channel.transferTo( position, remaining, target );
+            if ( n <= 0 )
+            {
+                // end of the file reached.
+                break;
+            }
+            position += n;
+            remaining -= n;
+            count += n;
+        }
+        return count;
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        channel.close();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.remoting.resources.services.jaxrs;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Format and parse HTTP dates (RFC 1123) used by the Last-Modified header.
+ */
+public class HttpDateUtils
+{
+
+    private static final String RFC1123_PATTERN = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private HttpDateUtils()
+    {
+    }
+
+    public static String format( long time )
+    {
+        return createDateFormat().format( new Date( time ) );
+    }
+
+    /**
+     * Returns the time of the given HTTP date and 0 if it cannot be parsed.
+     * 
+     * @param date
+     * @return
+     */
+    public static long parse( String date )
+    {
+        try
+        {
+            return createDateFormat().parse( date ).getTime();
+        }
+        catch ( ParseException e )
+        {
+            return 0;
+        }
+    }
+
+    private static DateFormat createDateFormat()
+    {
+        // SimpleDateFormat is not thread-safe.
+        SimpleDateFormat format = new SimpleDateFormat( RFC1123_PATTERN, Locale.US );
+        format.setTimeZone( TimeZone.getTimeZone( "GMT" ) );
+        return format;
+    }
+}
@@ -78,6 +78,28 @@ public interface JAXRSResourcesService
     String resourceId )
         throws ResourcesException;
 
+    /**
+     * Download a range of the content of the given resource.
+     * 
+     * @param resourceId the unique resource id.
+     * @param offset the first byte of the range.
+     * @param length the length of the range, 0 or negative to download until the end of the resource.
+     * @param etag the ETag of the content already known by the caller or null. If the resource has not changed since,
+     *            null is returned.
+     * @return the range of the content or null if the resource is not modified.
+     * @throws ResourcesException
+     */
+    @GET
+    @Path( "/downloadLargeRange" )
+    @Consumes( MediaType.APPLICATION_JSON )
+    @Produces( MediaType.WILDCARD )
+    LargeBinaryData downloadLargeRange( @QueryParam( "resourceId" )
+    String resourceId, @QueryParam( "offset" )
+    long offset, @QueryParam( "length" )
+    long length, @QueryParam( "etag" )
+    String etag )
+        throws ResourcesException;
+
     @POST
     @Path( "/uploadLarge" )
     // @Consumes( MediaType.APPLICATION_JSON )
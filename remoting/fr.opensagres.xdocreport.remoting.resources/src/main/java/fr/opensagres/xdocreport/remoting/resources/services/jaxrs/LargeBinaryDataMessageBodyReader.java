@@ -70,12 +70,28 @@ public class LargeBinaryDataMessageBodyReader
 
         String resourceId = httpHeaders.getFirst( "X-resourceId" );
 
+        String length = httpHeaders.getFirst( "Content-Length" );
+        String offset = httpHeaders.getFirst( "X-offset" );
+        String lastModified = httpHeaders.getFirst( "Last-Modified" );
 
         LargeBinaryData data = new LargeBinaryData( );
         data.setContent(entityStream);
         data.setFileName(filename);
         data.setMimeType(mimetype);
         data.setResourceId( resourceId );
+        if ( length != null )
+        {
+            data.setLength( Long.parseLong( length ) );
+        }
+        if ( offset != null )
+        {
+            data.setOffset( Long.parseLong( offset ) );
+        }
+        data.setEtag( httpHeaders.getFirst( "ETag" ) );
+        if ( lastModified != null )
+        {
+            data.setLastModified( HttpDateUtils.parse( lastModified ) );
+        }
 
         return data;
     }
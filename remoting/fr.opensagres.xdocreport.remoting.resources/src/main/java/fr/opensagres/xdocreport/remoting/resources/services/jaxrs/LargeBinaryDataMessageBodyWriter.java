@@ -38,6 +38,7 @@ import javax.ws.rs.ext.Provider;
 
 import fr.opensagres.xdocreport.remoting.resources.domain.BinaryData;
 import fr.opensagres.xdocreport.remoting.resources.domain.LargeBinaryData;
+import fr.opensagres.xdocreport.remoting.resources.services.ChannelInputStream;
 
 /**
  * {@link MessageBodyWriter} that streams an {@link BinaryData} object in an Http response.
@@ -75,8 +76,38 @@ public class LargeBinaryDataMessageBodyWriter
         	httpHeaders.add( "Content-Type", t.getMimeType() );	
         }
         httpHeaders.add( "X-resourceId", t.getResourceId() );
-        copyLarge( content, entityStream );
-        entityStream.flush();
+        if ( t.getOffset() > 0 )
+        {
+            httpHeaders.add( "X-offset", String.valueOf( t.getOffset() ) );
+        }
+        if ( t.getEtag() != null )
+        {
+            httpHeaders.add( "ETag", t.getEtag() );
+        }
+        if ( t.getLastModified() > 0 )
+        {
+            httpHeaders.add( "Last-Modified", HttpDateUtils.format( t.getLastModified() ) );
+        }
+        try
+        {
+            if ( content instanceof ChannelInputStream )
+            {
+                // file content : let the JVM transfer the bytes without copying them in the heap when it can.
+                ( (ChannelInputStream) content ).transferTo( entityStream );
+            }
+            else
+            {
+                copyLarge( content, entityStream );
+            }
+            entityStream.flush();
+        }
+        finally
+        {
+            if ( content != null )
+            {
+                content.close();
+            }
+        }
     }
 
     /**
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.remoting.server;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+
+import fr.opensagres.xdocreport.core.admission.AdmissionController;
+
+/**
+ * CXF out (and out fault) interceptor which releases the admission permit of a request (see
+ * {@link #setPermit(AdmissionController.Permit)}) once its response has been sent or has failed. It guarantees that the
+ * permit is released even when the streamed output of the response is never written.
+ */
+public class AdmissionPermitInterceptor
+    extends AbstractPhaseInterceptor<Message>
+{
+
+    private static final String PERMIT_KEY = AdmissionController.Permit.class.getName();
+
+    private final AbstractPhaseInterceptor<Message> ending = new AbstractPhaseInterceptor<Message>( Phase.SETUP_ENDING )
+    {
+        public void handleMessage( Message message )
+            throws Fault
+        {
+            release( message );
+        }
+    };
+
+    public AdmissionPermitInterceptor()
+    {
+        super( Phase.SETUP );
+    }
+
+    public void handleMessage( Message message )
+        throws Fault
+    {
+        // the permit is released at the end of the chain, once the response has been sent.
+        message.getInterceptorChain().add( ending );
+    }
+
+    @Override
+    public void handleFault( Message message )
+    {
+        release( message );
+    }
+
+    /**
+     * Attach the given permit to the current request to release it when the response is sent. Does nothing when the
+     * service is not called through CXF.
+     * 
+     * @param permit
+     */
+    public static void setPermit( AdmissionController.Permit permit )
+    {
+        Message message = PhaseInterceptorChain.getCurrentMessage();
+        if ( message != null && message.getExchange() != null )
+        {
+            message.getExchange().put( PERMIT_KEY, permit );
+        }
+    }
+
+    private static void release( Message message )
+    {
+        if ( message.getExchange() != null )
+        {
+            AdmissionController.Permit permit = (AdmissionController.Permit) message.getExchange().remove( PERMIT_KEY );
+            if ( permit != null )
+            {
+                permit.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.remoting.server;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Response.Status;
+
+import fr.opensagres.xdocreport.core.admission.AdmissionRejectedException;
+import fr.opensagres.xdocreport.core.logging.LogUtils;
+
+/**
+ * Utilities for the admission control of the REST services.
+ */
+public class AdmissionUtils
+{
+
+    private static final Logger LOGGER = LogUtils.getLogger( AdmissionUtils.class );
+
+    /**
+     * Returns the length of the request and -1 if it is unknown.
+     * 
+     * @param headers the headers of the request, or null.
+     * @return
+     */
+    public static long getContentLength( HttpHeaders headers )
+    {
+        String length = headers != null ? headers.getRequestHeaders().getFirst( HttpHeaders.CONTENT_LENGTH ) : null;
+        try
+        {
+            return length != null ? Long.parseLong( length ) : -1;
+        }
+        catch ( NumberFormatException e )
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the response sent when a request is rejected by the admission controller.
+     * 
+     * @param operation the name of the rejected operation (ex : "Conversion").
+     * @param e
+     * @return
+     */
+    public static Response getRejectedResponse( String operation, AdmissionRejectedException e )
+    {
+        if ( LOGGER.isLoggable( Level.WARNING ) )
+        {
+            LOGGER.warning( operation + " rejected (" + e.getReason() + "): " + e.getMessage() );
+        }
+        ResponseBuilder responseBuilder = Response.status( Status.SERVICE_UNAVAILABLE );
+        responseBuilder.header( "Retry-After", "1" );
+        responseBuilder.type( MediaType.TEXT_PLAIN ).entity( e.getReason() + ": " + e.getMessage() );
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.remoting.server;
+
+import org.apache.cxf.bus.managers.PhaseManagerImpl;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.junit.Assert;
+import org.junit.Test;
+
+import fr.opensagres.xdocreport.core.admission.AdmissionController;
+
+public class AdmissionPermitInterceptorTestCase
+{
+
+    @Test
+    public void releaseWhenResponseIsSentWithoutOutput()
+        throws Exception
+    {
+        AdmissionController controller = new AdmissionController( 1, 0, 0, 1000, 10 );
+        PhaseInterceptorChain chain = createChain( controller.acquire( 0 ), false );
+        Assert.assertEquals( 1, controller.getActiveCount() );
+
+        chain.doIntercept( createMessage( chain ) );
+        Assert.assertEquals( 0, controller.getActiveCount() );
+    }
+
+    @Test
+    public void releaseWhenResponseFails()
+        throws Exception
+    {
+        AdmissionController controller = new AdmissionController( 1, 0, 0, 1000, 10 );
+        PhaseInterceptorChain chain = createChain( controller.acquire( 0 ), true );
+        Assert.assertEquals( 1, controller.getActiveCount() );
+
+        chain.doIntercept( createMessage( chain ) );
+        Assert.assertEquals( 0, controller.getActiveCount() );
+    }
+
+    private static PhaseInterceptorChain createChain( final AdmissionController.Permit permit, final boolean fail )
+    {
+        PhaseInterceptorChain chain = new PhaseInterceptorChain( new PhaseManagerImpl().getOutPhases() );
+        chain.add( new AdmissionPermitInterceptor() );
+        // simulate the service which attaches the permit to the request, the response is never written.
+        chain.add( new AbstractPhaseInterceptor<Message>( Phase.MARSHAL )
+        {
+            public void handleMessage( Message message )
+                throws Fault
+            {
+                AdmissionPermitInterceptor.setPermit( permit );
+                if ( fail )
+                {
+                    throw new Fault( new IllegalStateException( "Cannot send the response" ) );
+                }
+            }
+        } );
+        return chain;
+    }
+
+    private static Message createMessage( PhaseInterceptorChain chain )
+    {
+        Message message = new MessageImpl();
+        message.setExchange( new ExchangeImpl() );
+        message.setInterceptorChain( chain );
+        return message;
+    }
+}
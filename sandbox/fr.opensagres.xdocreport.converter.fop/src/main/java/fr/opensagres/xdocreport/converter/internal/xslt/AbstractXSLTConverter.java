@@ -70,13 +70,21 @@ public abstract class AbstractXSLTConverter
             // 3) Transform XML source with XSL Templates
             if ( templates != null )
             {
-                Transformer transformer = templates.newTransformer();
+                String uri = getXSLTemplateURI();
+                XSLTemplatesRegistry registry = XSLTemplatesRegistry.getRegistry();
+                Transformer transformer = registry.acquireTransformer( uri );
+                if ( transformer == null )
+                {
+                    // templates evicted from the registry.
+                    transformer = templates.newTransformer();
+                }
                 URIResolver resolver = createURIResolver( inProvider );
                 if ( resolver != null )
                 {
                     transformer.setURIResolver( resolver );
                 }
                 transformer.transform( source, result );
+                registry.releaseTransformer( uri, transformer );
             }
         }
         catch ( Exception e )
@@ -119,6 +127,25 @@ public abstract class AbstractXSLTConverter
         return new StreamSource( in );
     }
 
+    /**
+     * Compile the XSLT of this converter and cache it in the {@link XSLTemplatesRegistry}, to avoid paying the
+     * compilation cost on the first conversion.
+     * 
+     * @throws XDocConverterException
+     */
+    public void preloadTemplates()
+        throws XDocConverterException
+    {
+        try
+        {
+            getXSLTemplates();
+        }
+        catch ( TransformerConfigurationException e )
+        {
+            throw new XDocConverterException( e );
+        }
+    }
+
     private Templates getXSLTemplates()
         throws TransformerConfigurationException
     {
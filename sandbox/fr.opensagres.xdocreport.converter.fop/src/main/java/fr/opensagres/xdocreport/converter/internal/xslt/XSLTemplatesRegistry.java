@@ -26,11 +26,18 @@ package fr.opensagres.xdocreport.converter.internal.xslt;
 
 import java.io.InputStream;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.xml.transform.Source;
 import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.URIResolver;
@@ -38,16 +45,35 @@ import javax.xml.transform.stream.StreamSource;
 
 /**
  * XSLT {@link Templates} registry which is used to compute XSLT and cache it.
+ * <p>
+ * The registry is thread-safe: {@link Templates} are immutable and shared, and when several threads ask for the same
+ * uri at the same time, the XSLT is compiled only once, the other threads wait for the result. The number of cached
+ * templates can be bounded with {@link #setMaxTemplates(int)}, the oldest templates are evicted first.
+ * </p>
+ * <p>
+ * {@link Transformer} are not thread-safe but can be reused sequentially, so each cached uri keeps a pool of the
+ * transformers which are not used (see {@link #acquireTransformer(String)} and
+ * {@link #releaseTransformer(String, Transformer)}) to avoid creating a new transformer for each conversion. The pool
+ * belongs to the cached templates, so the transformers are garbage collected with the templates when they are evicted.
+ * </p>
  */
 public class XSLTemplatesRegistry
 {
 
     private static final XSLTemplatesRegistry INSTANCE = new XSLTemplatesRegistry();
 
-    private Map<String, Templates> cachedTemplates = new HashMap<String, Templates>();
+    private final ConcurrentMap<String, CachedTemplates> cachedTemplates =
+        new ConcurrentHashMap<String, CachedTemplates>();
+
+    /**
+     * Cached uris in the order where they have been registered, used to evict the oldest templates.
+     */
+    private final Queue<String> cachedURIs = new ConcurrentLinkedQueue<String>();
 
     private ITransformerFactory transformerFactory = DefaultTransformerFactory.getInstance();
 
+    private volatile int maxTemplates = -1;
+
     private XSLTemplatesRegistry()
     {
 
@@ -58,9 +84,16 @@ public class XSLTemplatesRegistry
         return INSTANCE;
     }
 
+    /**
+     * Returns the compiled templates of the given uri and null if the uri is not cached or is being compiled.
+     * 
+     * @param uri
+     * @return
+     */
     public Templates getTemplates( String uri )
     {
-        return cachedTemplates.get( uri );
+        CachedTemplates cached = cachedTemplates.get( uri );
+        return cached != null ? cached.getIfCompiled() : null;
     }
 
     public Templates loadTemplates( String uri, Reader reader, URIResolver resolver )
@@ -75,22 +108,115 @@ public class XSLTemplatesRegistry
         return loadTemplates( uri, new StreamSource( stream ), resolver );
     }
 
-    public synchronized Templates loadTemplates( String uri, Source source, URIResolver resolver )
+    /**
+     * Returns the cached templates of the given uri, or compiles the given XSLT source and caches it. Only one thread
+     * compiles a given uri, concurrent callers wait for it and share the result. If the compilation fails, nothing is
+     * cached and the next call compiles again.
+     * 
+     * @param uri
+     * @param source
+     * @param resolver
+     * @return
+     * @throws TransformerConfigurationException
+     */
+    public Templates loadTemplates( String uri, final Source source, final URIResolver resolver )
+        throws TransformerConfigurationException
+    {
+        CachedTemplates cached = cachedTemplates.get( uri );
+        if ( cached == null )
+        {
+            CachedTemplates task = new CachedTemplates( new Callable<Templates>()
+            {
+                public Templates call()
+                    throws Exception
+                {
+                    TransformerFactory factory = getTransformerFactory().createTransformerFactory();
+                    if ( resolver != null )
+                    {
+                        factory.setURIResolver( resolver );
+                    }
+                    return factory.newTemplates( source );
+                }
+            } );
+            cached = cachedTemplates.putIfAbsent( uri, task );
+            if ( cached == null )
+            {
+                // this thread compiles the XSLT.
+                cached = task;
+                task.run();
+                if ( task.getIfCompiled() != null )
+                {
+                    cached( uri );
+                }
+                else
+                {
+                    cachedTemplates.remove( uri, task );
+                }
+            }
+        }
+        return getTemplates( uri, cached );
+    }
+
+    /**
+     * Returns a transformer for the cached templates of the given uri, reusing a released transformer if any, and null
+     * if the uri is not cached. The transformer must be given back with
+     * {@link #releaseTransformer(String, Transformer)} once the transformation is done.
+     * 
+     * @param uri
+     * @return
+     * @throws TransformerConfigurationException
+     */
+    public Transformer acquireTransformer( String uri )
         throws TransformerConfigurationException
     {
-        Templates templates = getTemplates( uri );
-        if ( templates != null )
+        CachedTemplates cached = cachedTemplates.get( uri );
+        if ( cached == null )
         {
-            return templates;
+            return null;
         }
-        TransformerFactory factory = getTransformerFactory().createTransformerFactory();
-        if ( resolver != null )
+        Templates templates = cached.getIfCompiled();
+        if ( templates == null )
         {
-            factory.setURIResolver( resolver );
+            return null;
         }
-        templates = factory.newTemplates( source );
-        cachedTemplates.put( uri, templates );
-        return templates;
+        // the transformer is removed from the pool while it is used.
+        Transformer transformer = cached.transformers.poll();
+        return transformer != null ? transformer : templates.newTransformer();
+    }
+
+    /**
+     * Give back a transformer acquired with {@link #acquireTransformer(String)} after a successful transformation, so
+     * that a next transformation reuses it. A transformer which has failed must not be released since its state could
+     * be inconsistent.
+     * 
+     * @param uri
+     * @param transformer
+     */
+    public void releaseTransformer( String uri, Transformer transformer )
+    {
+        CachedTemplates cached = cachedTemplates.get( uri );
+        if ( cached == null )
+        {
+            // templates evicted.
+            return;
+        }
+        // restore the state of Templates#newTransformer() to release the URI resolver, parameters, etc.
+        transformer.reset();
+        cached.transformers.offer( transformer );
+    }
+
+    /**
+     * Compiles the given XSLT source and caches it, to avoid paying the compilation cost on the first conversion.
+     * 
+     * @param uri
+     * @param stream
+     * @param resolver
+     * @throws TransformerConfigurationException
+     */
+    public void preloadTemplates( String uri, InputStream stream, URIResolver resolver )
+        throws TransformerConfigurationException
+    {
+        loadTemplates( uri, stream, resolver );
     }
 
     public void setTransformerFactory( ITransformerFactory transformerFactory )
@@ -105,6 +231,132 @@ public class XSLTemplatesRegistry
 
     public void registerTemplates( String uri, Templates templates )
     {
-        cachedTemplates.put( uri, templates );
+        CachedTemplates task = new CachedTemplates( templates );
+        task.run();
+        if ( cachedTemplates.put( uri, task ) == null )
+        {
+            cached( uri );
+        }
+    }
+
+    /**
+     * Remove the templates of the given uri from the cache.
+     * 
+     * @param uri
+     */
+    public void unregisterTemplates( String uri )
+    {
+        if ( cachedTemplates.remove( uri ) != null )
+        {
+            cachedURIs.remove( uri );
+        }
+    }
+
+    /**
+     * Set the max number of cached templates. A negative value (default) means unbounded.
+     * 
+     * @param maxTemplates
+     */
+    public void setMaxTemplates( int maxTemplates )
+    {
+        this.maxTemplates = maxTemplates;
+        evict();
+    }
+
+    public int getMaxTemplates()
+    {
+        return maxTemplates;
+    }
+
+    private void cached( String uri )
+    {
+        cachedURIs.add( uri );
+        evict();
+    }
+
+    private void evict()
+    {
+        int max = maxTemplates;
+        if ( max < 0 )
+        {
+            return;
+        }
+        while ( cachedURIs.size() > max )
+        {
+            String uri = cachedURIs.poll();
+            if ( uri == null )
+            {
+                return;
+            }
+            cachedTemplates.remove( uri );
+        }
+    }
+
+    private static Templates getTemplates( String uri, Future<Templates> future )
+        throws TransformerConfigurationException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new TransformerConfigurationException( "Interrupted while waiting the XSLT compilation of " + uri,
+                                                         e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwable cause = e.getCause();
+            if ( cause instanceof TransformerConfigurationException )
+            {
+                throw (TransformerConfigurationException) cause;
+            }
+            throw new TransformerConfigurationException( cause );
+        }
+    }
+
+    /**
+     * Templates being compiled or compiled, with the released transformers (at most one per thread which transforms
+     * at the same time). When the templates are evicted, they are no longer referenced and the transformers can be
+     * garbage collected with them.
+     */
+    private static class CachedTemplates
+        extends FutureTask<Templates>
+    {
+
+        private final Queue<Transformer> transformers = new ConcurrentLinkedQueue<Transformer>();
+
+        public CachedTemplates( Callable<Templates> callable )
+        {
+            super( callable );
+        }
+
+        public CachedTemplates( final Templates templates )
+        {
+            super( new Callable<Templates>()
+            {
+                public Templates call()
+                {
+                    return templates;
+                }
+            } );
+        }
+
+        public Templates getIfCompiled()
+        {
+            if ( !isDone() )
+            {
+                return null;
+            }
+            try
+            {
+                return get();
+            }
+            catch ( Exception e )
+            {
+                return null;
+            }
+        }
     }
 }
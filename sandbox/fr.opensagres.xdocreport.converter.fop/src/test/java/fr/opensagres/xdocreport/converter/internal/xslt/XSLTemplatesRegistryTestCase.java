@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.converter.internal.xslt;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class XSLTemplatesRegistryTestCase
+{
+
+    private static final String XSLT = "<xsl:stylesheet version=\"1.0\" "
+        + "xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\"><xsl:import href=\"imported.xsl\"/></xsl:stylesheet>";
+
+    private static final String IMPORTED_XSLT =
+        "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\"/>";
+
+    private final XSLTemplatesRegistry registry = XSLTemplatesRegistry.getRegistry();
+
+    /**
+     * Number of compilations : each compilation resolves the imported XSLT once.
+     */
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    private final URIResolver countingResolver = new URIResolver()
+    {
+        public Source resolve( String href, String base )
+        {
+            compilations.incrementAndGet();
+            try
+            {
+                // give the time to the other threads to ask for the same uri.
+                Thread.sleep( 50 );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return new StreamSource( new StringReader( IMPORTED_XSLT ) );
+        }
+    };
+
+    @After
+    public void tearDown()
+    {
+        registry.setMaxTemplates( -1 );
+        registry.unregisterTemplates( "a.xsl" );
+        registry.unregisterTemplates( "b.xsl" );
+    }
+
+    @Test
+    public void compileOnceForConcurrentCalls()
+        throws Exception
+    {
+        int threads = 8;
+        final CountDownLatch start = new CountDownLatch( 1 );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Templates>> results = new ArrayList<Future<Templates>>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                results.add( executor.submit( new Callable<Templates>()
+                {
+                    public Templates call()
+                        throws Exception
+                    {
+                        start.await();
+                        return load( "a.xsl" );
+                    }
+                } ) );
+            }
+            start.countDown();
+            Templates templates = results.get( 0 ).get();
+            Assert.assertNotNull( templates );
+            for ( Future<Templates> result : results )
+            {
+                Assert.assertSame( templates, result.get() );
+            }
+            Assert.assertEquals( 1, compilations.get() );
+            Assert.assertSame( templates, registry.getTemplates( "a.xsl" ) );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void evictOldestTemplates()
+        throws Exception
+    {
+        registry.setMaxTemplates( 1 );
+        Templates a = load( "a.xsl" );
+        Assert.assertSame( a, registry.getTemplates( "a.xsl" ) );
+
+        load( "b.xsl" );
+        Assert.assertNull( registry.getTemplates( "a.xsl" ) );
+        Assert.assertNull( registry.acquireTransformer( "a.xsl" ) );
+        Assert.assertNotNull( registry.getTemplates( "b.xsl" ) );
+        Assert.assertEquals( 2, compilations.get() );
+
+        // the evicted uri is compiled again.
+        Templates reloaded = load( "a.xsl" );
+        Assert.assertNotSame( a, reloaded );
+        Assert.assertEquals( 3, compilations.get() );
+        Assert.assertNull( registry.getTemplates( "b.xsl" ) );
+    }
+
+    @Test
+    public void reuseTransformer()
+        throws Exception
+    {
+        load( "a.xsl" );
+        Transformer transformer = registry.acquireTransformer( "a.xsl" );
+        Assert.assertNotNull( transformer );
+        // the transformer is used, another one is created.
+        Transformer other = registry.acquireTransformer( "a.xsl" );
+        Assert.assertNotSame( transformer, other );
+        registry.releaseTransformer( "a.xsl", other );
+        registry.releaseTransformer( "a.xsl", transformer );
+        Assert.assertSame( other, registry.acquireTransformer( "a.xsl" ) );
+        Assert.assertSame( transformer, registry.acquireTransformer( "a.xsl" ) );
+    }
+
+    @Test
+    public void reuseTransformerAfterEviction()
+        throws Exception
+    {
+        registry.setMaxTemplates( 1 );
+        load( "a.xsl" );
+        Transformer transformer = registry.acquireTransformer( "a.xsl" );
+
+        // a.xsl is evicted while its transformer is used : the transformer is not pooled when it is released.
+        load( "b.xsl" );
+        registry.releaseTransformer( "a.xsl", transformer );
+
+        load( "a.xsl" );
+        Transformer reloaded = registry.acquireTransformer( "a.xsl" );
+        Assert.assertNotNull( reloaded );
+        Assert.assertNotSame( transformer, reloaded );
+        registry.releaseTransformer( "a.xsl", reloaded );
+        Assert.assertSame( reloaded, registry.acquireTransformer( "a.xsl" ) );
+    }
+
+    private Templates load( String uri )
+        throws Exception
+    {
+        return registry.loadTemplates( uri, new StringReader( XSLT ), countingResolver );
+    }
+}
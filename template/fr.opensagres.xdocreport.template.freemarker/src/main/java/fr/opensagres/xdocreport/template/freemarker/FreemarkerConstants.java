@@ -34,4 +34,7 @@ public interface FreemarkerConstants
     String ID_DISCOVERY = "Freemarker_2.3.x";
 
     String DESCRIPTION_DISCOVERY = "Manage Freemarker_2.3.x template engine.";
+
+    // Name of the method used by the [#escape directive to escape fields.
+    String ESCAPE_METHOD = "___Escape";
 }
@@ -24,12 +24,10 @@
  */
 package fr.opensagres.xdocreport.template.freemarker;
 
-import java.util.Collection;
-
 import fr.opensagres.xdocreport.core.utils.StringUtils;
 import fr.opensagres.xdocreport.template.TemplateContextHelper;
 import fr.opensagres.xdocreport.template.config.ITemplateEngineConfiguration;
-import fr.opensagres.xdocreport.template.config.ReplaceText;
+import fr.opensagres.xdocreport.template.config.TextEscaper;
 import fr.opensagres.xdocreport.template.formatter.AbstractDocumentFormatter;
 import fr.opensagres.xdocreport.template.formatter.DirectivesStack;
 import fr.opensagres.xdocreport.template.formatter.IfDirective;
@@ -60,17 +58,8 @@ public class FreemarkerDocumentFormatter
 
     protected static final String ITEM_TOKEN = "item_";
 
-    private static final String START_ESCAPE = "[#escape any as any";
-
-    private static final String XML_ESCAPE = "?xml";
-
-    private static final String START_REPLACE_ESCAPE = "?replace('";
-
-    private static final String BODY_REPLACE_ESCAPE = "','";
-
-    private static final String END_REPLACE_ESCAPE = "')";
-
-    private static final String CLOSE_ESCAPE = "]\n";
+    private static final String START_ESCAPE =
+        "[#escape any as " + FreemarkerConstants.ESCAPE_METHOD + "(any?string)]\n";
 
     private static final String END_ESCAPE = "[/#escape]";
 
@@ -88,10 +77,6 @@ public class FreemarkerDocumentFormatter
 
     private static final String END_NOPARSE = "[/#noparse]";
 
-    private static final String START_CDATA = "[#--<![CDATA[--]";
-
-    private static final String END_CDATA = "[#--]]>--]";
-
     public String formatAsFieldItemList( String content, String fieldName, boolean forceAsField )
     {
         if ( forceAsField )
@@ -165,37 +150,14 @@ public class FreemarkerDocumentFormatter
 
     public void setConfiguration( ITemplateEngineConfiguration configuration )
     {
-        Collection<ReplaceText> replacment = configuration.getReplacment();
-        StringBuilder startEscape = new StringBuilder();
-        if ( !configuration.escapeXML() && replacment.size() < 1 )
+        if ( TextEscaper.create( configuration ) == null )
         {
             return;
         }
-
-        startEscape.append( START_ESCAPE );
-        if ( configuration.escapeXML() )
-        {
-            startEscape.append( XML_ESCAPE );
-        }
-
-        for ( ReplaceText replaceText : replacment )
-        {
-            startEscape.append( START_REPLACE_ESCAPE );
-            startEscape.append( replaceText.getOldText() );
-            startEscape.append( BODY_REPLACE_ESCAPE );
-            startEscape.append( replaceText.getNewText() );
-            startEscape.append( END_REPLACE_ESCAPE );
-        }
-        if ( startEscape.length() > 0 )
-        {
-            startEscape.append( CLOSE_ESCAPE );
-            // Freemarker escape+replace must be enclosed with CDATA because replace can contains some XML elements
-            startEscape.insert( 0, START_CDATA );
-            startEscape.append( END_CDATA );
-            setStartDocumentDirective( startEscape.toString() );
-            setEndDocumentDirective( END_ESCAPE );
-        }
-
+        // XML escaping and replacement of special characters are done in one pass by the TextEscaper registered by
+        // FreemarkerTemplateEngine with the ESCAPE_METHOD name.
+        setStartDocumentDirective( START_ESCAPE );
+        setEndDocumentDirective( END_ESCAPE );
     }
 
     public String getFunctionDirective( boolean noescape, boolean encloseInDirective, String key, String methodName,
@@ -31,20 +31,29 @@ import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import fr.opensagres.xdocreport.core.EncodingConstants;
 import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.core.io.IEntryInfo;
 import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.core.registry.IWarmUp;
 import fr.opensagres.xdocreport.template.AbstractTemplateEngine;
 import fr.opensagres.xdocreport.template.FieldsExtractor;
 import fr.opensagres.xdocreport.template.IContext;
 import fr.opensagres.xdocreport.template.TemplateEngineKind;
+import fr.opensagres.xdocreport.template.cache.ITemplateCacheInfoProvider;
+import fr.opensagres.xdocreport.template.cache.ITemplateVersionProvider;
 import fr.opensagres.xdocreport.template.config.ITemplateEngineConfiguration;
+import fr.opensagres.xdocreport.template.config.TextEscaper;
 import fr.opensagres.xdocreport.template.formatter.IDocumentFormatter;
 import fr.opensagres.xdocreport.template.freemarker.cache.XDocReportEntryTemplateLoader;
 import fr.opensagres.xdocreport.template.freemarker.internal.XDocFreemarkerContext;
+import fr.opensagres.xdocreport.template.freemarker.internal.XDocFreemarkerEscapeMethod;
+import fr.opensagres.xdocreport.template.utils.TemplateUtils;
 import freemarker.cache.MultiTemplateLoader;
 import freemarker.cache.TemplateLoader;
 import freemarker.core.Environment;
@@ -60,12 +69,19 @@ import freemarker.template.TemplateModelException;
  */
 public class FreemarkerTemplateEngine
     extends AbstractTemplateEngine
-    implements FreemarkerConstants
+    implements FreemarkerConstants, IWarmUp
 {
 
     private static final String DOLLAR_VARIABLE = "DollarVariable";
 
-    private static Configuration DEFAULT_FREEMARKER_CONFIGURATION = null;
+    /**
+     * Templates of the reports are invalidated with the version of the report (see {@link #getCachedTemplate(String)}),
+     * so Freemarker doesn't need to check the freshness of a cached template when the XDocReport template loader is
+     * the only one.
+     */
+    private static final int TEMPLATE_UPDATE_DELAY_NEVER = Integer.MAX_VALUE;
+
+    private static volatile Configuration DEFAULT_FREEMARKER_CONFIGURATION = null;
 
     private FreemarkerDocumentFormatter formatter = new FreemarkerDocumentFormatter();
 
@@ -73,8 +89,18 @@ public class FreemarkerTemplateEngine
 
     private boolean forceModifyReader = false;
 
+    /**
+     * Method used by the [#escape directive of the formatter, null if the configuration doesn't escape fields.
+     */
+    private XDocFreemarkerEscapeMethod escapeMethod = null;
+
     private final List<TemplateLoader> templateLoaders;
 
+    /**
+     * Version of the report for each template name stored in the Freemarker cache.
+     */
+    private final Map<String, Long> templateVersions = new ConcurrentHashMap<String, Long>();
+
     public FreemarkerTemplateEngine()
     {
         this.templateLoaders = new ArrayList<TemplateLoader>();
@@ -107,7 +133,7 @@ public class FreemarkerTemplateEngine
         throws XDocReportException, IOException
     {
         // Get template from cache.
-        Template template = getFreemarkerConfiguration().getTemplate( templateName );
+        Template template = getCachedTemplate( templateName );
         // Merge template with Java model
         process( context, writer, template );
     }
@@ -122,6 +148,78 @@ public class FreemarkerTemplateEngine
         process( context, writer, template );
     }
 
+    /**
+     * Returns the cached template of the given name. The template is removed from the Freemarker cache before if the
+     * version of the report has changed since the template was cached.
+     * 
+     * @param templateName cached template name which follow pattern ($reportId '!' $entryName).
+     * @return
+     * @throws IOException
+     */
+    private Template getCachedTemplate( String templateName )
+        throws IOException
+    {
+        Configuration configuration = getFreemarkerConfiguration();
+        long version = getVersion( templateName );
+        Long cachedVersion = templateVersions.get( templateName );
+        if ( cachedVersion == null || cachedVersion.longValue() != version )
+        {
+            // the report was loaded again or preprocessed, the cached template is obsolete.
+            configuration.removeTemplateFromCache( templateName );
+            Template template = configuration.getTemplate( templateName );
+            templateVersions.put( templateName, version );
+            return template;
+        }
+        return configuration.getTemplate( templateName );
+    }
+
+    /**
+     * Returns the version of the report of the given cached template name. When the template cache info provider
+     * doesn't manage versions, the last modified date of the entry is used.
+     * 
+     * @param templateName cached template name which follow pattern ($reportId '!' $entryName).
+     * @return
+     */
+    private long getVersion( String templateName )
+    {
+        ITemplateCacheInfoProvider templateCacheInfoProvider = getTemplateCacheInfoProvider();
+        int index = TemplateUtils.getIndexReportEntryName( templateName );
+        if ( templateCacheInfoProvider == null || index == -1 )
+        {
+            return -1;
+        }
+        if ( templateCacheInfoProvider instanceof ITemplateVersionProvider )
+        {
+            String reportId = TemplateUtils.getReportId( templateName, index );
+            return ( (ITemplateVersionProvider) templateCacheInfoProvider ).getVersion( reportId );
+        }
+        IEntryInfo entryInfo = TemplateUtils.getTemplateCacheInfo( templateCacheInfoProvider, templateName );
+        return entryInfo != null ? entryInfo.getLastModified() : -1;
+    }
+
+    @Override
+    public void removeTemplatesFromCache( String reportId )
+    {
+        String prefix = TemplateUtils.getCachedTemplateName( reportId, "" );
+        Iterator<String> templateNames = templateVersions.keySet().iterator();
+        while ( templateNames.hasNext() )
+        {
+            String templateName = templateNames.next();
+            if ( templateName.startsWith( prefix ) )
+            {
+                templateNames.remove();
+                try
+                {
+                    getFreemarkerConfiguration().removeTemplateFromCache( templateName );
+                }
+                catch ( IOException e )
+                {
+                    // Do nothing : the template is loaded again if its version has changed.
+                }
+            }
+        }
+    }
+
     /**
      * Returns Reader to use for process template merge.
      * 
@@ -160,6 +258,10 @@ public class FreemarkerTemplateEngine
         try
         {
             Environment environment = template.createProcessingEnvironment( context, writer );
+            if ( escapeMethod != null )
+            {
+                environment.setGlobalVariable( ESCAPE_METHOD, escapeMethod );
+            }
             environment.process();
         }
         catch ( TemplateException e )
@@ -187,16 +289,25 @@ public class FreemarkerTemplateEngine
         // XDocReportRegistry.
         this.freemarkerConfiguration.setTemplateLoader( new MultiTemplateLoader(
                                                                                  templateLoaders.toArray( new TemplateLoader[0] ) ) );
-        // as soon as report changes when source (odt, docx,...) change,
-        // template entry must be refreshed.
-        try
+        updateTemplateUpdateDelay();
+        this.freemarkerConfiguration.setLocalizedLookup( false );
+    }
+
+    /**
+     * As soon as report changes when source (odt, docx,...) change, template entry is removed from the cache by
+     * {@link #getCachedTemplate(String)}, so Freemarker must not check the last modified of the template entry for each
+     * hit. Templates of other template loaders must be refreshed by Freemarker.
+     */
+    private void updateTemplateUpdateDelay()
+    {
+        if ( templateLoaders.size() > 1 )
         {
-            this.freemarkerConfiguration.setSetting( Configuration.TEMPLATE_UPDATE_DELAY_KEY, "0" );
+            this.freemarkerConfiguration.setTemplateUpdateDelay( 0 );
         }
-        catch ( TemplateException e )
+        else
         {
+            this.freemarkerConfiguration.setTemplateUpdateDelay( TEMPLATE_UPDATE_DELAY_NEVER );
         }
-        this.freemarkerConfiguration.setLocalizedLookup( false );
     }
 
     public void extractFields( Reader reader, String entryName, FieldsExtractor extractor )
@@ -248,15 +359,34 @@ public class FreemarkerTemplateEngine
      */
     private Configuration getDefaultConfiguration()
     {
-        if ( DEFAULT_FREEMARKER_CONFIGURATION == null )
+        Configuration configuration = DEFAULT_FREEMARKER_CONFIGURATION;
+        if ( configuration != null )
+        {
+            return configuration;
+        }
+        synchronized ( FreemarkerTemplateEngine.class )
         {
-            DEFAULT_FREEMARKER_CONFIGURATION = new Configuration();
-            DEFAULT_FREEMARKER_CONFIGURATION.setDefaultEncoding( EncodingConstants.UTF_8.name() );
-            DEFAULT_FREEMARKER_CONFIGURATION.setOutputEncoding( EncodingConstants.UTF_8.name() );
-            DEFAULT_FREEMARKER_CONFIGURATION.setObjectWrapper( new DefaultObjectWrapper() );
-            setFreemarkerConfiguration( DEFAULT_FREEMARKER_CONFIGURATION );
+            if ( DEFAULT_FREEMARKER_CONFIGURATION == null )
+            {
+                configuration = new Configuration();
+                configuration.setDefaultEncoding( EncodingConstants.UTF_8.name() );
+                configuration.setOutputEncoding( EncodingConstants.UTF_8.name() );
+                configuration.setObjectWrapper( new DefaultObjectWrapper() );
+                setFreemarkerConfiguration( configuration );
+                // the configuration is published once it is fully initialized.
+                DEFAULT_FREEMARKER_CONFIGURATION = configuration;
+            }
+            return DEFAULT_FREEMARKER_CONFIGURATION;
         }
-        return DEFAULT_FREEMARKER_CONFIGURATION;
+    }
+
+    /**
+     * Create the Freemarker configuration and parse a small template to load the Freemarker parser.
+     */
+    public void warmUp()
+        throws Exception
+    {
+        new Template( "warmUp", new StringReader( "[#if name??]${name}[/#if]" ), getFreemarkerConfiguration() );
     }
 
     @Override
@@ -266,6 +396,11 @@ public class FreemarkerTemplateEngine
         if ( isEscapeTemplate() )
         {
             formatter.setConfiguration( configuration );
+            escapeMethod = new XDocFreemarkerEscapeMethod( TextEscaper.create( configuration ) );
+        }
+        else
+        {
+            escapeMethod = null;
         }
     }
 
@@ -322,5 +457,9 @@ public class FreemarkerTemplateEngine
     public void addTemplateLoader( TemplateLoader loader )
     {
         templateLoaders.add( loader );
+        if ( freemarkerConfiguration != null )
+        {
+            updateTemplateUpdateDelay();
+        }
     }
 }
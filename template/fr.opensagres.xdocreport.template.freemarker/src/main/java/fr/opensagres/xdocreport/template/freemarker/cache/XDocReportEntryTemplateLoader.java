@@ -31,6 +31,7 @@ import fr.opensagres.xdocreport.core.io.IEntryInfo;
 import fr.opensagres.xdocreport.core.io.XDocArchive;
 import fr.opensagres.xdocreport.template.ITemplateEngine;
 import fr.opensagres.xdocreport.template.cache.ITemplateCacheInfoProvider;
+import fr.opensagres.xdocreport.template.cache.TemplateCacheTracker;
 import fr.opensagres.xdocreport.template.utils.TemplateUtils;
 import freemarker.cache.TemplateLoader;
 
@@ -87,6 +88,7 @@ public class XDocReportEntryTemplateLoader
         throws IOException
     {
         IEntryInfo cacheInfo = (IEntryInfo) templateSource;
+        TemplateCacheTracker.templateLoaded();
         return cacheInfo.getReader();
         // Get XDocReportEntrySource created with findTemplateSource
         // XDocReportEntrySource entrySource = (XDocReportEntrySource)
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.template.freemarker.internal;
+
+import java.util.List;
+
+import fr.opensagres.xdocreport.template.config.TextEscaper;
+import freemarker.template.SimpleScalar;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateScalarModel;
+
+/**
+ * Freemarker method used by the [#escape directive to escape the value of a field with a {@link TextEscaper}. The
+ * directive gives the argument with ?string, so numbers and dates are formatted like with ${}.
+ */
+public class XDocFreemarkerEscapeMethod
+    implements TemplateMethodModelEx
+{
+
+    private final TextEscaper escaper;
+
+    public XDocFreemarkerEscapeMethod( TextEscaper escaper )
+    {
+        this.escaper = escaper;
+    }
+
+    @SuppressWarnings( "rawtypes" )
+    public Object exec( List arguments )
+        throws TemplateModelException
+    {
+        if ( arguments.size() != 1 || !( arguments.get( 0 ) instanceof TemplateScalarModel ) )
+        {
+            throw new TemplateModelException( "The escape method expects one string argument." );
+        }
+        String value = ( (TemplateScalarModel) arguments.get( 0 ) ).getAsString();
+        return new SimpleScalar( escaper.escape( value ) );
+    }
+}
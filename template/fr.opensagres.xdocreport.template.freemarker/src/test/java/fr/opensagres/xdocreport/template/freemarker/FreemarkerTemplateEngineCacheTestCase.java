@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.template.freemarker;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+import fr.opensagres.xdocreport.core.io.IEntryInfo;
+import fr.opensagres.xdocreport.template.IContext;
+import fr.opensagres.xdocreport.template.cache.ITemplateCacheInfoProvider;
+import fr.opensagres.xdocreport.template.cache.ITemplateVersionProvider;
+import freemarker.template.Configuration;
+
+/**
+ * Test case for the version based invalidation of the Freemarker template cache.
+ */
+public class FreemarkerTemplateEngineCacheTestCase
+    extends TestCase
+{
+
+    private static class MockTemplateCacheInfoProvider
+        implements ITemplateCacheInfoProvider
+    {
+
+        protected String content;
+
+        protected long version;
+
+        protected int loadCount;
+
+        public IEntryInfo getTemplateCacheInfo( String reportId, final String entryName )
+        {
+            final String entryContent = content;
+            return new IEntryInfo()
+            {
+                public String getName()
+                {
+                    return entryName;
+                }
+
+                public long getLastModified()
+                {
+                    // the version is used as last modified date when the provider doesn't manage versions.
+                    return version;
+                }
+
+                public Reader getReader()
+                {
+                    loadCount++;
+                    return new StringReader( entryContent );
+                }
+
+                public InputStream getInputStream()
+                {
+                    return new ByteArrayInputStream( entryContent.getBytes() );
+                }
+            };
+        }
+
+        public boolean existsReport( String reportId )
+        {
+            return "report".equals( reportId );
+        }
+
+    }
+
+    private static class MockTemplateVersionProvider
+        extends MockTemplateCacheInfoProvider
+        implements ITemplateVersionProvider
+    {
+
+        public long getVersion( String reportId )
+        {
+            return version;
+        }
+    }
+
+    public void testCachedTemplateIsInvalidatedWhenVersionChanges()
+        throws Exception
+    {
+        checkCachedTemplateIsInvalidated( new MockTemplateVersionProvider() );
+    }
+
+    public void testCachedTemplateIsInvalidatedWhenLastModifiedChanges()
+        throws Exception
+    {
+        checkCachedTemplateIsInvalidated( new MockTemplateCacheInfoProvider() );
+    }
+
+    public void testRemoveTemplatesFromCache()
+        throws Exception
+    {
+        MockTemplateVersionProvider provider = new MockTemplateVersionProvider();
+        FreemarkerTemplateEngine templateEngine = new FreemarkerTemplateEngine();
+        templateEngine.setFreemarkerConfiguration( new Configuration() );
+        templateEngine.setTemplateCacheInfoProvider( provider );
+
+        IContext context = templateEngine.createContext();
+        context.put( "name", "XDocReport" );
+
+        provider.content = "Hello ${name}";
+        provider.version = 1;
+        assertEquals( "Hello XDocReport", process( templateEngine, context ) );
+
+        // the report is unregistered : its templates are removed from the cache.
+        templateEngine.removeTemplatesFromCache( "report" );
+        provider.content = "Bye ${name}";
+        assertEquals( "Bye XDocReport", process( templateEngine, context ) );
+        assertEquals( 2, provider.loadCount );
+    }
+
+    private void checkCachedTemplateIsInvalidated( MockTemplateCacheInfoProvider provider )
+        throws Exception
+    {
+        FreemarkerTemplateEngine templateEngine = new FreemarkerTemplateEngine();
+        templateEngine.setFreemarkerConfiguration( new Configuration() );
+        templateEngine.setTemplateCacheInfoProvider( provider );
+
+        IContext context = templateEngine.createContext();
+        context.put( "name", "XDocReport" );
+
+        provider.content = "Hello ${name}";
+        provider.version = 1;
+        assertEquals( "Hello XDocReport", process( templateEngine, context ) );
+        assertEquals( "Hello XDocReport", process( templateEngine, context ) );
+        assertEquals( 1, provider.loadCount );
+
+        // same version : the cached template is used without checking the entry.
+        provider.content = "Bye ${name}";
+        assertEquals( "Hello XDocReport", process( templateEngine, context ) );
+        assertEquals( 1, provider.loadCount );
+
+        // new version : the template is loaded again.
+        provider.version = 2;
+        assertEquals( "Bye XDocReport", process( templateEngine, context ) );
+        assertEquals( "Bye XDocReport", process( templateEngine, context ) );
+        assertEquals( 2, provider.loadCount );
+    }
+
+    private static String process( FreemarkerTemplateEngine templateEngine, IContext context )
+        throws Exception
+    {
+        StringWriter writer = new StringWriter();
+        templateEngine.process( "report", "content.xml", null, writer, context );
+        return writer.toString();
+    }
+}
@@ -89,6 +89,26 @@ public class FreemarkerTemplateEngineConfigurationTestCase
         assertEquals( "Project: A<text:line-break>B.", writer.toString() );
     }
 
+    public void testEscapeNumberContext()
+        throws Exception
+    {
+        ITemplateEngine templateEngine = new FreemarkerTemplateEngine();
+        ( (FreemarkerTemplateEngine) templateEngine ).setForceModifyReader( true );
+
+        ITemplateEngineConfiguration configuration = new JUnitTemplateEngineConfiguration();
+        templateEngine.setConfiguration( configuration );
+
+        // numbers are formatted like with ${} before the escaping.
+        Reader reader = new StringReader( "Count: ${count}, ${name}." );
+        Writer writer = new StringWriter();
+        IContext context = templateEngine.createContext();
+        context.put( "count", 12 );
+        context.put( "name", "l'été" );
+
+        templateEngine.process( "", context, reader, writer );
+        assertEquals( "Count: 12, l&#39;été.", writer.toString() );
+    }
+
     private static class JUnitTemplateEngineConfiguration
         extends AbstractTemplateEngineConfiguration
     {
@@ -36,6 +36,7 @@ import fr.opensagres.xdocreport.core.io.IEntryInfo;
 import fr.opensagres.xdocreport.core.io.XDocArchive;
 import fr.opensagres.xdocreport.template.ITemplateEngine;
 import fr.opensagres.xdocreport.template.cache.ITemplateCacheInfoProvider;
+import fr.opensagres.xdocreport.template.cache.TemplateCacheTracker;
 import fr.opensagres.xdocreport.template.utils.TemplateUtils;
 import fr.opensagres.xdocreport.template.velocity.VelocityConstants;
 
@@ -74,6 +75,7 @@ public class XDocReportEntryResourceLoader
             InputStream inputStream = cacheInfo.getInputStream();
             if ( inputStream != null )
             {
+                TemplateCacheTracker.templateLoaded();
                 return inputStream;
             }
         }
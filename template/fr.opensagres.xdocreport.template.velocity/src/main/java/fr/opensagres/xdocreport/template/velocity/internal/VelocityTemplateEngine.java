@@ -27,6 +27,7 @@ package fr.opensagres.xdocreport.template.velocity.internal;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Map;
 import java.util.Properties;
@@ -38,6 +39,7 @@ import org.apache.velocity.app.VelocityEngine;
 import fr.opensagres.xdocreport.core.EncodingConstants;
 import fr.opensagres.xdocreport.core.XDocReportException;
 import fr.opensagres.xdocreport.core.io.IOUtils;
+import fr.opensagres.xdocreport.core.registry.IWarmUp;
 import fr.opensagres.xdocreport.template.AbstractTemplateEngine;
 import fr.opensagres.xdocreport.template.FieldsExtractor;
 import fr.opensagres.xdocreport.template.IContext;
@@ -53,7 +55,7 @@ import fr.opensagres.xdocreport.template.velocity.VelocityFieldsExtractor;
  */
 public class VelocityTemplateEngine
     extends AbstractTemplateEngine
-    implements VelocityConstants
+    implements VelocityConstants, IWarmUp
 {
 
     private static String ID = TemplateEngineKind.Velocity.name();
@@ -120,6 +122,15 @@ public class VelocityTemplateEngine
         return velocityEngine;
     }
 
+    /**
+     * Initialize the Velocity engine and evaluate a small template to load the Velocity parser.
+     */
+    public void warmUp()
+        throws Exception
+    {
+        getVelocityEngine().evaluate( new VelocityContext(), new StringWriter(), "warmUp", "#if($name)$name#end" );
+    }
+
     public void initializeVelocityEngine( Properties velocityEngineProperties )
         throws XDocReportException
     {
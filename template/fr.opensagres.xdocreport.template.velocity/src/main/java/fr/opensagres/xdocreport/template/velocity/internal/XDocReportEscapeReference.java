@@ -24,14 +24,11 @@
  */
 package fr.opensagres.xdocreport.template.velocity.internal;
 
-import java.util.Collection;
-
 import org.apache.velocity.app.event.implement.EscapeXmlReference;
 import org.apache.velocity.runtime.RuntimeServices;
 
-import fr.opensagres.xdocreport.core.utils.StringUtils;
 import fr.opensagres.xdocreport.template.ITemplateEngine;
-import fr.opensagres.xdocreport.template.config.ReplaceText;
+import fr.opensagres.xdocreport.template.config.TextEscaper;
 import fr.opensagres.xdocreport.template.formatter.AbstractDocumentFormatter;
 import fr.opensagres.xdocreport.template.velocity.VelocityConstants;
 
@@ -44,39 +41,25 @@ public class XDocReportEscapeReference
 
     private static final String NO_ESCAPE_FCT = "${" + AbstractDocumentFormatter.NO_ESCAPE;
 
-    private String[] searchList;
-
-    private String[] replacementList;
+    private TextEscaper escaper;
 
     @Override
     public void setRuntimeServices( RuntimeServices rs )
     {
         super.setRuntimeServices( rs );
         ITemplateEngine templateEngine = (ITemplateEngine) rs.getProperty( VELOCITY_TEMPLATE_ENGINE_KEY );
-        Collection<ReplaceText> replacment = templateEngine.getConfiguration().getReplacment();
-        if ( replacment != null && replacment.size() > 0 )
-        {
-            searchList = new String[replacment.size()];
-            replacementList = new String[replacment.size()];
-            int i = 0;
-            for ( ReplaceText replaceText : replacment )
-            {
-                searchList[i] = replaceText.getOldText();
-                replacementList[i] = replaceText.getNewText();
-                i++;
-            }
-        }
+        escaper = TextEscaper.createVelocityEscaper( templateEngine.getConfiguration().getReplacment() );
     }
 
     @Override
     protected String escape( Object text )
     {
-        String result = super.escape( text );
-        if ( result != null && searchList != null )
+        if ( text == null )
         {
-            result = StringUtils.replaceEach( result, searchList, replacementList );
+            return null;
         }
-        return result;
+        // XML escaping and replacement of special characters are done in one pass.
+        return escaper.escape( text.toString() );
     }
 
     @Override
@@ -37,12 +37,17 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import fr.opensagres.xdocreport.core.XDocReportException;
+import fr.opensagres.xdocreport.core.instrumentation.IInstrumentation;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationEvent;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationRegistry;
+import fr.opensagres.xdocreport.core.instrumentation.InstrumentationStage;
 import fr.opensagres.xdocreport.core.io.IEntryReaderProvider;
 import fr.opensagres.xdocreport.core.io.IEntryWriterProvider;
 import fr.opensagres.xdocreport.core.io.IOUtils;
 import fr.opensagres.xdocreport.core.io.MultiWriter;
 import fr.opensagres.xdocreport.core.logging.LogUtils;
 import fr.opensagres.xdocreport.template.cache.ITemplateCacheInfoProvider;
+import fr.opensagres.xdocreport.template.cache.TemplateCacheTracker;
 import fr.opensagres.xdocreport.template.config.ITemplateEngineConfiguration;
 
 public abstract class AbstractTemplateEngine
@@ -109,7 +114,27 @@ public abstract class AbstractTemplateEngine
             if ( useTemplateCache )
             {
                 // cache template is used, process it
-                processWithCache( templateName, context, writer );
+                IInstrumentation instrumentation = InstrumentationRegistry.getRegistry().getInstrumentation();
+                if ( instrumentation.isEnabled() )
+                {
+                    long cacheStartTime = System.nanoTime();
+                    TemplateCacheTracker.begin();
+                    try
+                    {
+                        processWithCache( templateName, context, writer );
+                    }
+                    finally
+                    {
+                        boolean loaded = TemplateCacheTracker.end();
+                        instrumentation.onEvent( new InstrumentationEvent( loaded ? InstrumentationStage.CACHE_MISS
+                                        : InstrumentationStage.CACHE_HIT, reportId, templateName,
+                                                                           System.nanoTime() - cacheStartTime, -1 ) );
+                    }
+                }
+                else
+                {
+                    processWithCache( templateName, context, writer );
+                }
             }
             else
             {
@@ -201,6 +226,16 @@ public abstract class AbstractTemplateEngine
         return writer;
     }
 
+    /**
+     * Removes the cached templates of the given report. This method is called when the report is unregistered and
+     * does nothing by default.
+     * 
+     * @param reportId the report id.
+     */
+    public void removeTemplatesFromCache( String reportId )
+    {
+    }
+
     protected boolean isUseTemplateCache( String reportId )
     {
         return isNotEmpty( reportId ) && getTemplateCacheInfoProvider() != null
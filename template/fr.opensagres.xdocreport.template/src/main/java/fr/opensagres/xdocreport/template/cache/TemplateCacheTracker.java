@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.template.cache;
+
+/**
+ * Tracks if the template cache of a template engine had to (re)load a template during a merge, to notify cache hit/miss
+ * to the {@link fr.opensagres.xdocreport.core.instrumentation.IInstrumentation}. The template loaders of the template
+ * engines call {@link #templateLoaded()} when the template cache reads an entry.
+ */
+public class TemplateCacheTracker
+{
+
+    private static final ThreadLocal<boolean[]> LOADED = new ThreadLocal<boolean[]>();
+
+    /**
+     * Start the tracking for the current thread.
+     */
+    public static void begin()
+    {
+        LOADED.set( new boolean[1] );
+    }
+
+    /**
+     * Notify that the template cache reads an entry.
+     */
+    public static void templateLoaded()
+    {
+        boolean[] loaded = LOADED.get();
+        if ( loaded != null )
+        {
+            loaded[0] = true;
+        }
+    }
+
+    /**
+     * End the tracking for the current thread.
+     * 
+     * @return true if a template was (re)loaded since {@link #begin()} and false otherwise.
+     */
+    public static boolean end()
+    {
+        boolean[] loaded = LOADED.get();
+        LOADED.remove();
+        return loaded != null && loaded[0];
+    }
+}
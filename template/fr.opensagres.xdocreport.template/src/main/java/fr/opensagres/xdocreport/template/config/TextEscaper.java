@@ -0,0 +1,384 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.template.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import fr.opensagres.xdocreport.core.utils.StringUtils;
+
+/**
+ * Escaper used by the template engines to escape the value of a field before it is written in the document : XML
+ * escaping and replacement of the special characters defined with {@link ITemplateEngineConfiguration#getReplacment()}
+ * (ex : '\n' replaced with a line break element of the document). XML escaping keeps the table used before by each
+ * template engine :
+ * <ul>
+ * <li>Freemarker ?xml : &amp;, &lt;, &gt;, &quot; and &#39; (see {@link #TextEscaper(boolean, Collection)}).</li>
+ * <li>Velocity EscapeXmlReference : &amp;, &lt;, &gt;, &quot;, &apos; and non ASCII characters as numeric character
+ * references (see {@link #createVelocityEscaper(Collection)}).</li>
+ * </ul>
+ * <p>
+ * The escaping and the replacements are done in one pass with a lookup table computed from the configuration. A value
+ * which has no character to escape is returned as is, and the buffer used to escape a value is reused by the thread.
+ * </p>
+ * This class is thread-safe.
+ */
+public class TextEscaper
+{
+
+    private static final int TABLE_SIZE = 128;
+
+    /**
+     * Entities of Freemarker ?xml.
+     */
+    private static final String[] XML_ENTITIES = new String[TABLE_SIZE];
+
+    /**
+     * Entities of StringEscapeUtils#escapeXml of commons-lang used by the Velocity EscapeXmlReference.
+     */
+    private static final String[] VELOCITY_XML_ENTITIES = new String[TABLE_SIZE];
+    static
+    {
+        XML_ENTITIES['&'] = VELOCITY_XML_ENTITIES['&'] = "&amp;";
+        XML_ENTITIES['<'] = VELOCITY_XML_ENTITIES['<'] = "&lt;";
+        XML_ENTITIES['>'] = VELOCITY_XML_ENTITIES['>'] = "&gt;";
+        XML_ENTITIES['"'] = VELOCITY_XML_ENTITIES['"'] = "&quot;";
+        XML_ENTITIES['\''] = "&#39;";
+        VELOCITY_XML_ENTITIES['\''] = "&apos;";
+    }
+
+    private static final int[] NO_REPLACEMENT = new int[0];
+
+    /**
+     * Escaped values bigger than this size don't keep their buffer for the next value.
+     */
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>();
+
+    private final boolean escapeXML;
+
+    /**
+     * XML entities of the ASCII characters.
+     */
+    private final String[] entities;
+
+    /**
+     * True if the non ASCII characters must be escaped with numeric character references.
+     */
+    private final boolean escapeNonASCII;
+
+    private final String[] searchList;
+
+    private final String[] replacementList;
+
+    /**
+     * Indexes of the search strings which start with the character, for the ASCII characters.
+     */
+    private final int[][] replacementsByChar;
+
+    /**
+     * Indexes of the search strings which start with a non ASCII character.
+     */
+    private final int[] nonASCIIReplacements;
+
+    /**
+     * True if a search string contains a character escaped with XML : the search must be done in the escaped text, so
+     * escaping and replacements cannot be done in one pass.
+     */
+    private final boolean twoPass;
+
+    /**
+     * Create an escaper which escapes XML like Freemarker ?xml.
+     * 
+     * @param escapeXML true if XML must be escaped.
+     * @param replacment the special characters to replace, can be null.
+     */
+    public TextEscaper( boolean escapeXML, Collection<ReplaceText> replacment )
+    {
+        this( escapeXML, XML_ENTITIES, false, replacment );
+    }
+
+    private TextEscaper( boolean escapeXML, String[] entities, boolean escapeNonASCII,
+                         Collection<ReplaceText> replacment )
+    {
+        this.escapeXML = escapeXML;
+        this.entities = entities;
+        this.escapeNonASCII = escapeXML && escapeNonASCII;
+        List<ReplaceText> replaceTexts = new ArrayList<ReplaceText>();
+        if ( replacment != null )
+        {
+            for ( ReplaceText replaceText : replacment )
+            {
+                if ( StringUtils.isNotEmpty( replaceText.getOldText() ) && replaceText.getNewText() != null )
+                {
+                    replaceTexts.add( replaceText );
+                }
+            }
+        }
+        this.searchList = new String[replaceTexts.size()];
+        this.replacementList = new String[replaceTexts.size()];
+        List<List<Integer>> byChar = new ArrayList<List<Integer>>( TABLE_SIZE );
+        for ( int c = 0; c < TABLE_SIZE; c++ )
+        {
+            byChar.add( null );
+        }
+        List<Integer> nonASCII = new ArrayList<Integer>();
+        boolean twoPass = false;
+        for ( int i = 0; i < replaceTexts.size(); i++ )
+        {
+            String search = replaceTexts.get( i ).getOldText();
+            searchList[i] = search;
+            replacementList[i] = replaceTexts.get( i ).getNewText();
+            char first = search.charAt( 0 );
+            if ( first < TABLE_SIZE )
+            {
+                if ( byChar.get( first ) == null )
+                {
+                    byChar.set( first, new ArrayList<Integer>() );
+                }
+                byChar.get( first ).add( i );
+            }
+            else
+            {
+                nonASCII.add( i );
+            }
+            if ( escapeXML )
+            {
+                for ( int j = 0; j < search.length(); j++ )
+                {
+                    if ( isXMLSpecialChar( search.charAt( j ) ) )
+                    {
+                        twoPass = true;
+                    }
+                }
+            }
+        }
+        this.replacementsByChar = new int[TABLE_SIZE][];
+        for ( int c = 0; c < TABLE_SIZE; c++ )
+        {
+            replacementsByChar[c] = toArray( byChar.get( c ) );
+        }
+        this.nonASCIIReplacements = toArray( nonASCII );
+        this.twoPass = twoPass;
+    }
+
+    /**
+     * Create an escaper which escapes XML like the Velocity EscapeXmlReference (StringEscapeUtils#escapeXml of
+     * commons-lang) : the apostrophe is escaped with &amp;apos; and the non ASCII characters with numeric character
+     * references.
+     * 
+     * @param replacment the special characters to replace, can be null.
+     * @return
+     */
+    public static TextEscaper createVelocityEscaper( Collection<ReplaceText> replacment )
+    {
+        return new TextEscaper( true, VELOCITY_XML_ENTITIES, true, replacment );
+    }
+
+    /**
+     * Create an escaper for the given configuration.
+     * 
+     * @param configuration the template engine configuration.
+     * @return the escaper or null if the configuration doesn't escape any character.
+     */
+    public static TextEscaper create( ITemplateEngineConfiguration configuration )
+    {
+        if ( configuration == null )
+        {
+            return null;
+        }
+        Collection<ReplaceText> replacment = configuration.getReplacment();
+        if ( !configuration.escapeXML() && ( replacment == null || replacment.isEmpty() ) )
+        {
+            return null;
+        }
+        return new TextEscaper( configuration.escapeXML(), replacment );
+    }
+
+    /**
+     * Returns the escaped text.
+     * 
+     * @param text the text to escape.
+     * @return the escaped text or the given text if it has no character to escape.
+     */
+    public String escape( String text )
+    {
+        if ( text == null )
+        {
+            return null;
+        }
+        int length = text.length();
+        for ( int i = 0; i < length; i++ )
+        {
+            if ( isSpecialChar( text.charAt( i ) ) )
+            {
+                StringBuilder escaped = BUFFER.get();
+                if ( escaped == null )
+                {
+                    escaped = new StringBuilder( length + 16 );
+                }
+                else
+                {
+                    // the buffer is not used by another value of this thread.
+                    BUFFER.remove();
+                }
+                escaped.append( text, 0, i );
+                escape( text, i, escaped );
+                String result = escaped.toString();
+                if ( escaped.capacity() <= MAX_BUFFER_SIZE )
+                {
+                    escaped.setLength( 0 );
+                    BUFFER.set( escaped );
+                }
+                return result;
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Appends the escaped text to the given buffer.
+     * 
+     * @param text the text to escape.
+     * @param escaped the buffer where escaped text must be appended.
+     */
+    public void escape( String text, StringBuilder escaped )
+    {
+        escape( text, 0, escaped );
+    }
+
+    private void escape( String text, int start, StringBuilder escaped )
+    {
+        if ( twoPass )
+        {
+            // search strings must be found in the escaped text.
+            StringBuilder xml = new StringBuilder( text.length() + 16 );
+            escapeXML( text, start, xml );
+            escaped.append( StringUtils.replaceEach( xml.toString(), searchList, replacementList ) );
+            return;
+        }
+        int length = text.length();
+        int i = start;
+        while ( i < length )
+        {
+            char c = text.charAt( i );
+            int index = getReplacementIndex( text, i, c );
+            if ( index != -1 )
+            {
+                escaped.append( replacementList[index] );
+                i += searchList[index].length();
+                continue;
+            }
+            if ( escapeXML )
+            {
+                escapeXML( c, escaped );
+            }
+            else
+            {
+                escaped.append( c );
+            }
+            i++;
+        }
+    }
+
+    private void escapeXML( String text, int start, StringBuilder escaped )
+    {
+        for ( int i = start; i < text.length(); i++ )
+        {
+            escapeXML( text.charAt( i ), escaped );
+        }
+    }
+
+    private void escapeXML( char c, StringBuilder escaped )
+    {
+        if ( c < TABLE_SIZE )
+        {
+            String entity = entities[c];
+            if ( entity != null )
+            {
+                escaped.append( entity );
+            }
+            else
+            {
+                escaped.append( c );
+            }
+        }
+        else if ( escapeNonASCII )
+        {
+            escaped.append( "&#" ).append( (int) c ).append( ';' );
+        }
+        else
+        {
+            escaped.append( c );
+        }
+    }
+
+    /**
+     * Returns the index of the first search string (in the order of the configuration) which starts at the given
+     * index of the text, or -1 if none.
+     */
+    private int getReplacementIndex( String text, int offset, char c )
+    {
+        int[] replacements = c < TABLE_SIZE ? replacementsByChar[c] : nonASCIIReplacements;
+        for ( int index : replacements )
+        {
+            if ( text.startsWith( searchList[index], offset ) )
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isSpecialChar( char c )
+    {
+        if ( c < TABLE_SIZE )
+        {
+            return ( escapeXML && entities[c] != null ) || replacementsByChar[c].length > 0;
+        }
+        return escapeNonASCII || nonASCIIReplacements.length > 0;
+    }
+
+    private boolean isXMLSpecialChar( char c )
+    {
+        return c < TABLE_SIZE ? entities[c] != null : escapeNonASCII;
+    }
+
+    private static int[] toArray( List<Integer> indexes )
+    {
+        if ( indexes == null || indexes.isEmpty() )
+        {
+            return NO_REPLACEMENT;
+        }
+        int[] array = new int[indexes.size()];
+        for ( int i = 0; i < array.length; i++ )
+        {
+            array[i] = indexes.get( i );
+        }
+        return array;
+    }
+}
@@ -140,6 +140,7 @@ public class TemplateEngineRegistry
 
     public ITemplateEngine getTemplateEngine( String kind )
     {
+        initializeIfNeeded();
         return templateEnginesCache.get( kind );
     }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.template.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import junit.framework.TestCase;
+
+public class TextEscaperTestCase
+    extends TestCase
+{
+
+    private static Collection<ReplaceText> createReplacment()
+    {
+        Collection<ReplaceText> replacment = new ArrayList<ReplaceText>();
+        replacment.add( new ReplaceText( "\r\n", "<text:line-break />" ) );
+        replacment.add( new ReplaceText( "\n", "<text:line-break />" ) );
+        replacment.add( new ReplaceText( "\t", "<text:tab />" ) );
+        return replacment;
+    }
+
+    public void testNothingToEscape()
+    {
+        TextEscaper escaper = new TextEscaper( true, createReplacment() );
+        String text = "XDocReport";
+        assertSame( text, escaper.escape( text ) );
+        assertNull( escaper.escape( null ) );
+    }
+
+    public void testEscapeXML()
+    {
+        TextEscaper escaper = new TextEscaper( true, null );
+        assertEquals( "A&amp;B &lt;a href=&quot;x&quot;&gt;&#39;&lt;/a&gt;", escaper.escape( "A&B <a href=\"x\">'</a>" ) );
+        assertEquals( "été\n", escaper.escape( "été\n" ) );
+    }
+
+    public void testVelocityEscapeXML()
+    {
+        // same table as StringEscapeUtils#escapeXml of commons-lang used by the Velocity EscapeXmlReference.
+        TextEscaper escaper = TextEscaper.createVelocityEscaper( createReplacment() );
+        assertEquals( "A&amp;B &lt;a href=&quot;x&quot;&gt;&apos;&lt;/a&gt;", escaper.escape( "A&B <a href=\"x\">'</a>" ) );
+        assertEquals( "&#233;t&#233;<text:line-break />\u007f", escaper.escape( "\u00e9t\u00e9\n\u007f" ) );
+    }
+
+    public void testEscapeXMLAndReplace()
+    {
+        TextEscaper escaper = new TextEscaper( true, createReplacment() );
+        assertEquals( "A&amp;B<text:line-break />C<text:line-break /><text:tab />D&lt;",
+                      escaper.escape( "A&B\r\nC\n\tD<" ) );
+    }
+
+    public void testReplaceWithoutEscapeXML()
+    {
+        TextEscaper escaper = new TextEscaper( false, createReplacment() );
+        assertEquals( "A&B<text:line-break />C", escaper.escape( "A&B\nC" ) );
+    }
+
+    public void testReplaceEscapedText()
+    {
+        // search strings are searched in the escaped text, like StringUtils#replaceEach done after the XML escaping.
+        Collection<ReplaceText> replacment = new ArrayList<ReplaceText>();
+        replacment.add( new ReplaceText( "&amp;", "<and/>" ) );
+        TextEscaper escaper = new TextEscaper( true, replacment );
+        assertEquals( "A<and/>B&lt;", escaper.escape( "A&B<" ) );
+    }
+
+    public void testEscapeInBuffer()
+    {
+        TextEscaper escaper = new TextEscaper( true, createReplacment() );
+        StringBuilder escaped = new StringBuilder( "[" );
+        escaper.escape( "A\tB", escaped );
+        escaped.append( ']' );
+        assertEquals( "[A<text:tab />B]", escaped.toString() );
+    }
+}
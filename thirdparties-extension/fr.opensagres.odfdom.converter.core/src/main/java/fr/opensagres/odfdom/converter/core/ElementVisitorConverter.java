@@ -37,6 +37,7 @@ import org.odftoolkit.odfdom.pkg.OdfElement;
 import org.w3c.dom.Node;
 import org.w3c.dom.Text;
 
+import fr.opensagres.odfdom.converter.core.utils.ODFUtils;
 import fr.opensagres.odfdom.converter.core.utils.StringUtils;
 
 public abstract class ElementVisitorConverter
@@ -99,7 +100,7 @@ public abstract class ElementVisitorConverter
         {
             IImageExtractor extractor = getExtractor();
             boolean needImageStream = isNeedImageStream() || extractor != null;
-            byte[] imageStream = needImageStream ? odfDocument.getPackage().getBytes( href ) : null;
+            byte[] imageStream = needImageStream ? ODFUtils.getBytes( odfDocument, href ) : null;
             if ( extractor != null && imageStream != null )
             {
                 try
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.odfdom.converter.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+import org.odftoolkit.odfdom.pkg.OdfPackage;
+import org.xml.sax.SAXException;
+
+import fr.opensagres.odfdom.converter.core.utils.ByteArrayOutputStream;
+import fr.opensagres.odfdom.converter.core.utils.IOUtils;
+
+/**
+ * {@link OdfTextDocument} which loads only the parts required by the converters : content.xml and styles.xml are
+ * parsed with ODFDOM, the other parts (meta.xml, settings.xml, thumbnails, pictures...) are never copied to the
+ * {@link OdfPackage}. Pictures are read lazily from the {@link IODFPartProvider} when a converter needs them (see
+ * {@link fr.opensagres.odfdom.converter.core.utils.ODFUtils#getBytes(org.odftoolkit.odfdom.doc.OdfDocument, String)}).
+ */
+public class LightweightOdfTextDocument
+    extends OdfTextDocument
+{
+
+    private static final String MIMETYPE_PART = "mimetype";
+
+    private static final String MANIFEST_PART = "META-INF/manifest.xml";
+
+    private static final String CONTENT_PART = "content.xml";
+
+    private static final String STYLES_PART = "styles.xml";
+
+    private static final String[] LOADED_PARTS = { MIMETYPE_PART, MANIFEST_PART, CONTENT_PART, STYLES_PART };
+
+    private final IODFPartProvider partProvider;
+
+    private LightweightOdfTextDocument( OdfPackage pkg, IODFPartProvider partProvider )
+        throws SAXException
+    {
+        super( pkg, ROOT_DOCUMENT_PATH, OdfMediaType.TEXT );
+        this.partProvider = partProvider;
+    }
+
+    /**
+     * Load the text document from the given part provider.
+     * 
+     * @param partProvider the provider of the parts of the ODF package.
+     * @return the loaded text document.
+     * @throws Exception
+     */
+    public static LightweightOdfTextDocument loadDocument( IODFPartProvider partProvider )
+        throws Exception
+    {
+        OdfPackage pkg = OdfPackage.loadPackage( createPackageInputStream( partProvider ) );
+        return new LightweightOdfTextDocument( pkg, partProvider );
+    }
+
+    /**
+     * Returns the content of the given part read from the part provider and null if the part doesn't exist.
+     * 
+     * @param partName the part name.
+     * @return the content of the given part.
+     */
+    public byte[] getPartBytes( String partName )
+    {
+        if ( partName.startsWith( "./" ) )
+        {
+            partName = partName.substring( 2 );
+        }
+        InputStream in = null;
+        try
+        {
+            in = partProvider.getPartInputStream( partName );
+            return in != null ? IOUtils.toByteArray( in ) : null;
+        }
+        catch ( IOException e )
+        {
+            throw new ODFConverterException( e );
+        }
+        finally
+        {
+            IOUtils.closeQuietly( in );
+        }
+    }
+
+    /**
+     * Build an uncompressed zip which contains only the parts parsed by ODFDOM.
+     */
+    private static InputStream createPackageInputStream( IODFPartProvider partProvider )
+        throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream( bytes );
+        zip.setLevel( Deflater.NO_COMPRESSION );
+        for ( String partName : LOADED_PARTS )
+        {
+            InputStream in = partProvider.getPartInputStream( partName );
+            if ( in != null )
+            {
+                try
+                {
+                    zip.putNextEntry( new ZipEntry( partName ) );
+                    IOUtils.copy( in, zip );
+                    zip.closeEntry();
+                }
+                finally
+                {
+                    IOUtils.closeQuietly( in );
+                }
+            }
+        }
+        zip.close();
+        return new ByteArrayInputStream( bytes.toByteArray() );
+    }
+}
@@ -38,6 +38,8 @@ import org.odftoolkit.odfdom.incubator.doc.style.OdfStyle;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import fr.opensagres.odfdom.converter.core.LightweightOdfTextDocument;
+
 /**
  * fixes for pdf conversion by Leszek Piotrowicz <leszekp@safe-mail.net>
  */
@@ -153,6 +155,23 @@ public class ODFUtils
         return style;
     }
 
+    /**
+     * Returns the content of the given picture (or other part) of the ODF document. When the document was loaded with
+     * {@link LightweightOdfTextDocument}, the part is read lazily from its part provider instead of the package.
+     * 
+     * @param odfDocument the ODF document.
+     * @param href the part href (ex : "Pictures/image1.png").
+     * @return the content of the part or null if it doesn't exist.
+     */
+    public static byte[] getBytes( OdfDocument odfDocument, String href )
+    {
+        if ( odfDocument instanceof LightweightOdfTextDocument )
+        {
+            return ( (LightweightOdfTextDocument) odfDocument ).getPartBytes( href );
+        }
+        return odfDocument.getPackage().getBytes( href );
+    }
+
     public static StyleTableColumnPropertiesElement getStyleTableColumnPropertiesElement( OdfStyle style )
     {
         Node node = null;
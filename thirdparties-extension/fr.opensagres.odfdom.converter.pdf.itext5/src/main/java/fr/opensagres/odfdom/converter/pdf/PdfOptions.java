@@ -39,6 +39,12 @@ public class PdfOptions
     extends Options
 {
 
+    /**
+     * Default number of completed rows after which a table of the document body is laid out : 0, the table is laid out
+     * when it ends.
+     */
+    public static final int DEFAULT_TABLE_FLUSH_ROWS = 0;
+
     private static final PdfOptions DEFAULT = new PdfOptions();
 
     private String fontEncoding;
@@ -47,10 +53,13 @@ public class PdfOptions
 
     private IPdfWriterConfiguration configuration;
 
+    private int tableFlushRows;
+
     protected PdfOptions()
     {
         this.fontEncoding = BaseFont.IDENTITY_H;
         this.fontProvider = ITextFontRegistry.getRegistry();
+        this.tableFlushRows = DEFAULT_TABLE_FLUSH_ROWS;
     }
 
     /**
@@ -127,6 +136,30 @@ public class PdfOptions
         this.configuration = configuration;
     }
 
+    /**
+     * Returns the number of completed rows after which a table of the document body is laid out while it is built.
+     *
+     * @return
+     */
+    public int getTableFlushRows()
+    {
+        return tableFlushRows;
+    }
+
+    /**
+     * Set the number of completed rows after which a table of the document body is laid out while it is built, so
+     * that the rows of a very large table are not all kept in memory. 0 lays out the table when it ends. The default
+     * value is {@link #DEFAULT_TABLE_FLUSH_ROWS}.
+     *
+     * @param tableFlushRows the number of completed rows to flush
+     * @return this instance
+     */
+    public PdfOptions tableFlushRows( int tableFlushRows )
+    {
+        this.tableFlushRows = tableFlushRows;
+        return this;
+    }
+
     /**
      * Returns the default Pdf Options.
      *
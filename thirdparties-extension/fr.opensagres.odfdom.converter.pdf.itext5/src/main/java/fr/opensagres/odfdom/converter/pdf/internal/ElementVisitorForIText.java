@@ -137,12 +137,15 @@ public class ElementVisitorForIText
 
     private Integer expectedPageCount; // page count processing
 
+    private final int tableFlushRows; // table processing
+
     public ElementVisitorForIText( OdfDocument odfDocument, OutputStream out, StyleEngineForIText styleEngine,
                                    PdfOptions options, Integer forcedPageCount )
     {
         super( odfDocument, options.getExtractor(), out, null );
         this.styleEngine = styleEngine;
         this.forcedPageCount = forcedPageCount;
+        this.tableFlushRows = options.getTableFlushRows();
         // this.options = options != null ? options : PDFViaITextOptions.create();
         // Create document
         try
@@ -161,6 +164,7 @@ public class ElementVisitorForIText
         super( odfDocument, options.getExtractor(), out, null );
         this.styleEngine = styleEngine;
         this.forcedPageCount = forcedPageCount;
+        this.tableFlushRows = options.getTableFlushRows();
 
         try
         {
@@ -547,6 +551,8 @@ public class ElementVisitorForIText
         {
             currentTable.applyStyles( currentRowStyle );
         }
+        // lay out the rows of a large table while it is built
+        currentTable.flushCompletedRows( tableFlushRows );
         currentTable.beginTableRow( currentRowStyle );
         super.visit( ele );
         currentTable.endTableRow();
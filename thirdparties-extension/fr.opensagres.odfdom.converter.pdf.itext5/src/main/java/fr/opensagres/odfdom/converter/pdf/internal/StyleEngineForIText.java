@@ -1353,7 +1353,7 @@ public class StyleEngineForIText
         String href = ele.getXlinkHrefAttribute();
         if ( StringUtils.isNotEmpty( href ) )
         {
-            byte[] imageStream = odfDocument.getPackage().getBytes( href );
+            byte[] imageStream = ODFUtils.getBytes( odfDocument, href );
             if ( imageStream != null )
             {
                 Image imageObj = StylableImage.getImage( imageStream );
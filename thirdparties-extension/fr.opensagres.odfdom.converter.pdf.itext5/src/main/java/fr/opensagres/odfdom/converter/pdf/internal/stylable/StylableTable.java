@@ -203,6 +203,35 @@ public class StylableTable
         return ownerDocument;
     }
 
+    /**
+     * Adds the completed rows of this table to the document when there are at least the given number of them, so
+     * that a very large table is not kept in memory. Only the tables of the document body are flushed.
+     *
+     * @param minRows the minimum number of rows to flush, 0 to not flush.
+     */
+    public void flushCompletedRows( int minRows )
+    {
+        if ( minRows > 0 && parent == ownerDocument && !inTableHeaderRows )
+        {
+            ExtendedPdfPTable table = flushCompletedRows( minRows, ownerDocument.getHeightLimit() );
+            if ( table != null )
+            {
+                ownerDocument.addElement( table.getElement() );
+            }
+        }
+    }
+
+    @Override
+    public Element getElement()
+    {
+        if ( parent == ownerDocument )
+        {
+            // the rest of a flushed table may start on a new page
+            showHeaderRowsOnNewPage( ownerDocument.getHeightLimit() );
+        }
+        return super.getElement();
+    }
+
     public int getColIdx()
     {
         return currentColIdx;
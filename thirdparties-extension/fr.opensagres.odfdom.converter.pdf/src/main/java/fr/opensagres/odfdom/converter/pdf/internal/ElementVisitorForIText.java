@@ -136,6 +136,8 @@ public class ElementVisitorForIText
     private Integer forcedPageCount; // page count processing
 
     private Integer expectedPageCount; // page count processing
+
+    private final int tableFlushRows; // table processing
     
     // Image Cache
     private Map<String, Image> imageCache = new HashMap<String, Image>();
@@ -146,6 +148,7 @@ public class ElementVisitorForIText
         super( odfDocument, options.getExtractor(), out, null );
         this.styleEngine = styleEngine;
         this.forcedPageCount = forcedPageCount;
+        this.tableFlushRows = options.getTableFlushRows();
         // this.options = options != null ? options : PDFViaITextOptions.create();
         // Create document
         try
@@ -533,6 +536,8 @@ public class ElementVisitorForIText
         {
             currentTable.applyStyles( currentRowStyle );
         }
+        // lay out the rows of a large table while it is built
+        currentTable.flushCompletedRows( tableFlushRows );
         currentTable.beginTableRow( currentRowStyle );
         super.visit( ele );
         currentTable.endTableRow();
@@ -148,7 +148,7 @@ public class StyleEngineForIText
 
     	String href = ele.getXlinkHrefAttribute();
         if (StringUtils.isNotEmpty(href)) {
-            byte[] imageStream = odfDocument.getPackage().getBytes(href);
+            byte[] imageStream = ODFUtils.getBytes(odfDocument, href);
 	         try {
 		        if (imageStream != null) {
 		        	BackgroundImage.Builder builder = new BackgroundImage.Builder(imageStream);
@@ -1400,7 +1400,7 @@ public class StyleEngineForIText
         String href = ele.getXlinkHrefAttribute();
         if ( StringUtils.isNotEmpty( href ) )
         {
-            byte[] imageStream = odfDocument.getPackage().getBytes( href );
+            byte[] imageStream = ODFUtils.getBytes( odfDocument, href );
             if ( imageStream != null )
             {
                 Image imageObj = StylableImage.getImage( imageStream );
@@ -33,7 +33,6 @@ import java.util.Collection;
 import java.util.List;
 import javax.activation.MimetypesFileTypeMap;
 
-import fr.opensagres.xdocreport.core.utils.Base64Utility;
 import org.odftoolkit.odfdom.doc.OdfDocument;
 import org.odftoolkit.odfdom.dom.element.OdfStylableElement;
 import org.odftoolkit.odfdom.dom.element.draw.DrawFrameElement;
@@ -67,6 +66,7 @@ import org.w3c.dom.Text;
 
 import fr.opensagres.odfdom.converter.core.ElementVisitorConverter;
 import fr.opensagres.odfdom.converter.core.IURIResolver;
+import fr.opensagres.odfdom.converter.core.ODFConverterException;
 import fr.opensagres.odfdom.converter.core.utils.ODFUtils;
 import fr.opensagres.odfdom.converter.core.utils.StringUtils;
 import fr.opensagres.odfdom.converter.xhtml.XHTMLOptions;
@@ -93,6 +93,11 @@ public class ElementVisitorForXHTML
 
     private XHTMLPageContentBuffer currentXHTMLContent;
 
+    private static final MimetypesFileTypeMap MIME_TYPES = new MimetypesFileTypeMap();
+
+    // count of buffered body characters from which completed blocks are written when streaming is used.
+    private static final int STREAMING_FLUSH_SIZE = 8192;
+
     private boolean exportImageAsBase64;
 
     public ElementVisitorForXHTML( ODFXHTMLPage xhtml, XHTMLOptions options, OdfDocument odfDocument, OutputStream out,
@@ -171,6 +176,15 @@ public class ElementVisitorForXHTML
     public void visit( OfficeTextElement ele )
     {
         currentXHTMLContent = xhtml.getPageBodyContentBody();
+        // master pages and CSS styles are computed, the start of the page can be written when streaming is used.
+        try
+        {
+            xhtml.startBody();
+        }
+        catch ( IOException e )
+        {
+            throw new ODFConverterException( e );
+        }
         // String styleName = masterPageLayoutName;
         // String styleFamilyName = OdfStyleFamily.List.getName();
         visit( DIV_ELEMENT, ele, null, null );
@@ -476,18 +490,8 @@ public class ElementVisitorForXHTML
         Collection<String> attributes = new ArrayList<String>();
 
         // src
-        if( exportImageAsBase64 && imageStream != null )
-        {
-            String mimeType = new MimetypesFileTypeMap().getContentType( new File( href ) );
-            StringBuilder src = new StringBuilder();
-            src.append( DATA_ATTR_TAG );
-            src.append( mimeType + ";base64,");
-            src.append( Base64Utility.encode( imageStream ) );
-
-            attributes.add( SRC_ATTR );
-            attributes.add( src.toString() );
-        }
-        else
+        boolean base64 = exportImageAsBase64 && imageStream != null;
+        if ( !base64 )
         {
             String src = ele.getXlinkHrefAttribute();
             IURIResolver uriResolver = xhtml.getStyleEngine().getURIResolver();
@@ -525,7 +529,20 @@ public class ElementVisitorForXHTML
             attributes.add( styleAttr.toString() );
         }
 
-        visit( IMG_ELEMENT, ele, null, null, attributes.toArray( StringUtils.EMPTY_STRING_ARRAY ) );
+        if ( base64 )
+        {
+            // the image is encoded directly in the XHTML buffer
+            String mimeType = MIME_TYPES.getContentType( new File( href ) );
+            currentXHTMLContent.startElementNotEnclosed( IMG_ELEMENT );
+            currentXHTMLContent.setBase64Attribute( SRC_ATTR, DATA_ATTR_TAG + mimeType + ";base64,", imageStream );
+            setAttributes( attributes.toArray( StringUtils.EMPTY_STRING_ARRAY ) );
+            xhtml.getStyleEngine().applyStyles( null, null, currentXHTMLContent );
+            endVisit( IMG_ELEMENT, ele );
+        }
+        else
+        {
+            visit( IMG_ELEMENT, ele, null, null, attributes.toArray( StringUtils.EMPTY_STRING_ARRAY ) );
+        }
     }
 
     // ---------------------- visit text:line-break
@@ -564,6 +581,11 @@ public class ElementVisitorForXHTML
     private void startVisit( String elementName, OdfElement element, String... attributes )
     {
         currentXHTMLContent.startElementNotEnclosed( elementName );
+        setAttributes( attributes );
+    }
+
+    private void setAttributes( String... attributes )
+    {
         if ( attributes != null )
         {
             String value = null;
@@ -602,6 +624,31 @@ public class ElementVisitorForXHTML
             currentXHTMLContent.setText( "&nbsp;" );
         }
         currentXHTMLContent.endElement( elementName );
+        flushBodyIfNeeded( elementName );
+    }
+
+    private void flushBodyIfNeeded( String elementName )
+    {
+        if ( currentXHTMLContent == xhtml.getPageBodyContentBody() && xhtml.isStreaming()
+            && currentXHTMLContent.getLength() >= STREAMING_FLUSH_SIZE && isBlockElement( elementName ) )
+        {
+            try
+            {
+                xhtml.flushBody();
+            }
+            catch ( IOException e )
+            {
+                throw new ODFConverterException( e );
+            }
+        }
+    }
+
+    private static boolean isBlockElement( String elementName )
+    {
+        return P_ELEMENT.equals( elementName ) || DIV_ELEMENT.equals( elementName )
+            || TABLE_ELEMENT.equals( elementName ) || TR_ELEMENT.equals( elementName )
+            || UL_ELEMENT.equals( elementName ) || OL_ELEMENT.equals( elementName )
+            || ( elementName.length() == 2 && elementName.startsWith( H_ELEMENT ) );
     }
 
     @Override
@@ -68,6 +68,10 @@ public class XHTMLConverter
 
         StyleEngineForXHTML styleEngine = new StyleEngineForXHTML( odfDocument, generateCSSComments, indent, resolver );
         ODFXHTMLPage xhtml = new ODFXHTMLPage( styleEngine, indent );
+        if ( options != null && options.isStreaming() )
+        {
+            xhtml.setStreamingOutput( out, writer );
+        }
         try
         {
 
@@ -39,6 +39,8 @@ public class XHTMLOptions
 
     private boolean exportImageAsBase64;
 
+    private boolean streaming;
+
     private XHTMLOptions()
     {
     }
@@ -88,4 +90,23 @@ public class XHTMLOptions
         this.exportImageAsBase64 = exportImageAsBase64;
         return this;
     }
+
+    public boolean isStreaming()
+    {
+        return streaming;
+    }
+
+    /**
+     * Set true to write the XHTML with streaming : the head (with the CSS styles) and the page header are written
+     * before the body is converted, and the body content is written as soon as block elements are completed, instead
+     * of buffering the whole page until the end of the conversion.
+     * 
+     * @param streaming
+     * @return
+     */
+    public XHTMLOptions streaming( boolean streaming )
+    {
+        this.streaming = streaming;
+        return this;
+    }
 }
@@ -41,6 +41,13 @@ public class XHTMLPage
 
     private final XHTMLPageAfterBody pageAfterBody;
 
+    // output used to write the page with streaming, null otherwise.
+    private OutputStream out;
+
+    private Writer writer;
+
+    private boolean bodyStarted;
+
     public XHTMLPage( int indent )
     {
         this.pageBeforeBody = new XHTMLPageBeforeBody( this, indent );
@@ -50,10 +57,82 @@ public class XHTMLPage
         this.pageAfterBody = new XHTMLPageAfterBody( indent );
     }
 
-    public void save( Writer writer )
+    /**
+     * Write the page with streaming to the given output : the XHTML before the body and the page header are written by
+     * {@link #startBody()} and the body content is written each time {@link #flushBody()} is called. So the CSS
+     * stylesheet and the header must be complete when {@link #startBody()} is called.
+     * 
+     * @param out the output stream (or null if writer is used).
+     * @param writer the writer (or null if out is used).
+     */
+    public void setStreamingOutput( OutputStream out, Writer writer )
+    {
+        this.out = out;
+        this.writer = writer;
+    }
+
+    public boolean isStreaming()
+    {
+        return out != null || writer != null;
+    }
+
+    /**
+     * Write the XHTML before the body and the page header if the page is written with streaming.
+     * 
+     * @throws IOException
+     */
+    public void startBody()
         throws IOException
     {
+        if ( isStreaming() && !bodyStarted )
+        {
+            bodyStarted = true;
+            if ( writer != null )
+            {
+                getPageBeforeBody().save( writer );
+                getPageBodyContentHeader().save( writer );
+            }
+            else
+            {
+                getPageBeforeBody().save( out );
+                getPageBodyContentHeader().save( out );
+            }
+        }
+    }
 
+    /**
+     * Write the buffered body content if the page is written with streaming.
+     * 
+     * @throws IOException
+     */
+    public void flushBody()
+        throws IOException
+    {
+        if ( bodyStarted )
+        {
+            if ( writer != null )
+            {
+                getPageBodyContentBody().save( writer );
+            }
+            else
+            {
+                getPageBodyContentBody().save( out );
+            }
+            getPageBodyContentBody().clear();
+        }
+    }
+
+    public void save( Writer writer )
+        throws IOException
+    {
+        if ( bodyStarted )
+        {
+            // the start of the page was already written with streaming
+            flushBody();
+            getPageBodyContentFooter().save( writer );
+            getPageAfterBody().save( writer );
+            return;
+        }
         getPageBeforeBody().save( writer );
         getPageBodyContentHeader().save( writer );
         getPageBodyContentBody().save( writer );
@@ -65,6 +144,14 @@ public class XHTMLPage
     public void save( OutputStream out )
         throws IOException
     {
+        if ( bodyStarted )
+        {
+            // the start of the page was already written with streaming
+            flushBody();
+            getPageBodyContentFooter().save( out );
+            getPageAfterBody().save( out );
+            return;
+        }
         // // 1) Write XHTML before HTML Head
 
         getPageBeforeBody().save( out );
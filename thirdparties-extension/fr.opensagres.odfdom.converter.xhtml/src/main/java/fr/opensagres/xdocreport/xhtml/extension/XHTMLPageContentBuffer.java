@@ -29,6 +29,8 @@ import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 
+import fr.opensagres.xdocreport.core.utils.Base64Utility;
+
 public abstract class XHTMLPageContentBuffer
     extends AbstractContentBuffer
     implements XHTMLConstants
@@ -80,6 +82,24 @@ public abstract class XHTMLPageContentBuffer
         return this;
     }
 
+    /**
+     * Set an attribute whose value is the given prefix followed with the data encoded in base64 (ex : img/@src with a
+     * "data:" URI). The data is encoded directly in the buffer without building an intermediate string.
+     * 
+     * @param name the attribute name.
+     * @param prefix the prefix of the value (ex : "data:image/png;base64,").
+     * @param data the data to encode.
+     * @return
+     */
+    public XHTMLPageContentBuffer setBase64Attribute( String name, String prefix, byte[] data )
+    {
+        startAttribute( name );
+        getCurrentBuffer().append( prefix );
+        Base64Utility.encode( data, getCurrentBuffer() );
+        endAttribute();
+        return this;
+    }
+
     public XHTMLPageContentBuffer addAttributeValue( String value, boolean firstValue )
     {
         if ( !firstValue )
@@ -180,6 +200,24 @@ public abstract class XHTMLPageContentBuffer
         return currentBuffer;
     }
 
+    /**
+     * Returns the count of buffered characters.
+     * 
+     * @return
+     */
+    public int getLength()
+    {
+        return currentBuffer.length();
+    }
+
+    /**
+     * Remove the buffered content (ex : after it was written with streaming).
+     */
+    public void clear()
+    {
+        currentBuffer.setLength( 0 );
+    }
+
     public void save( Writer writer )
         throws IOException
     {
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.odftoolkit.odfdom.converter.xhtml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.odftoolkit.odfdom.converter.core.AbstractODFDOMConverterTest;
+import org.odftoolkit.odfdom.doc.OdfTextDocument;
+
+import fr.opensagres.odfdom.converter.xhtml.XHTMLConverter;
+import fr.opensagres.odfdom.converter.xhtml.XHTMLOptions;
+
+/**
+ * Check that the XHTML written with streaming is the same than the buffered XHTML.
+ */
+public class XHTMLConverterStreamingTestCase
+    extends AbstractODFDOMConverterTest
+{
+
+    protected void doGenerate( String fileInName )
+        throws Exception
+    {
+        String expected = convertWithWriter( fileInName, false );
+        Assert.assertEquals( expected, convertWithWriter( fileInName, true ) );
+        Assert.assertEquals( convertWithOutputStream( fileInName, false ),
+                             convertWithOutputStream( fileInName, true ) );
+    }
+
+    private String convertWithWriter( String fileInName, boolean streaming )
+        throws Exception
+    {
+        OdfTextDocument document =
+            OdfTextDocument.loadDocument( AbstractODFDOMConverterTest.class.getResourceAsStream( fileInName ) );
+        XHTMLOptions options = XHTMLOptions.create().indent( 1 ).streaming( streaming );
+        StringWriter writer = new StringWriter();
+        XHTMLConverter.getInstance().convert( document, writer, options );
+        return writer.toString();
+    }
+
+    private String convertWithOutputStream( String fileInName, boolean streaming )
+        throws Exception
+    {
+        OdfTextDocument document =
+            OdfTextDocument.loadDocument( AbstractODFDOMConverterTest.class.getResourceAsStream( fileInName ) );
+        XHTMLOptions options = XHTMLOptions.create().streaming( streaming );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XHTMLConverter.getInstance().convert( document, out, options );
+        return out.toString();
+    }
+}
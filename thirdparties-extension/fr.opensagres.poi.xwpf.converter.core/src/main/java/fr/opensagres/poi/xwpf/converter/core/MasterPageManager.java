@@ -27,6 +27,7 @@ package fr.opensagres.poi.xwpf.converter.core;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.xmlbeans.XmlCursor;
@@ -51,6 +52,11 @@ public class MasterPageManager
 
     private final CTDocument1 document;
 
+    /**
+     * The &lt;w:sectPr of the paragraphs when the word/document.xml is not loaded in memory.
+     */
+    private final List<CTSectPr> paragraphSectPrs;
+
     private final IMasterPageHandler documentHandler;
 
     private final CTSectPr bodySectPr;
@@ -75,10 +81,33 @@ public class MasterPageManager
 
     public MasterPageManager( CTDocument1 document, IMasterPageHandler visitor )
         throws Exception
+    {
+        this( document, document.getBody().getSectPr(), null, visitor );
+    }
+
+    /**
+     * Create a master page manager for a word/document.xml which is not loaded in memory (see
+     * {@link fr.opensagres.poi.xwpf.converter.core.openxmlformats.OpenXMLFormatsBodyReader}).
+     * 
+     * @param bodySectPr the &lt;w:sectPr of the &lt;w:body.
+     * @param paragraphSectPrs the &lt;w:sectPr of the &lt;w:p of the &lt;w:body, in the document order.
+     * @param visitor
+     * @throws Exception
+     */
+    public MasterPageManager( CTSectPr bodySectPr, List<CTSectPr> paragraphSectPrs, IMasterPageHandler visitor )
+        throws Exception
+    {
+        this( null, bodySectPr, paragraphSectPrs, visitor );
+    }
+
+    private MasterPageManager( CTDocument1 document, CTSectPr bodySectPr, List<CTSectPr> paragraphSectPrs,
+                               IMasterPageHandler visitor )
+        throws Exception
     {
         this.document = document;
+        this.paragraphSectPrs = paragraphSectPrs;
         this.documentHandler = visitor;
-        this.bodySectPr = document.getBody().getSectPr();
+        this.bodySectPr = bodySectPr;
         this.masterPages = new HashMap<CTSectPr, IXWPFMasterPage>();
         this.initialized = false;
         this.changeSection = false;
@@ -94,7 +123,18 @@ public class MasterPageManager
         throws Exception
     {
         this.initialized = true;
-        compute( document );
+        if ( document != null )
+        {
+            compute( document );
+        }
+        else
+        {
+            for ( CTSectPr sectPr : paragraphSectPrs )
+            {
+                addSection( sectPr, true );
+            }
+            addSection( bodySectPr, false );
+        }
         if ( isEmpty() )
         {
             currentSectPr = bodySectPr;
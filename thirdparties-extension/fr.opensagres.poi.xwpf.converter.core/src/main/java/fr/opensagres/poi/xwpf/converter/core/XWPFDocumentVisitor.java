@@ -94,6 +94,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.STOnOff;
 import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
 import fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil;
 import fr.opensagres.poi.xwpf.converter.core.utils.StringUtils;
+import fr.opensagres.poi.xwpf.converter.core.utils.TableVMergeMap;
 import fr.opensagres.poi.xwpf.converter.core.utils.XWPFRunHelper;
 import fr.opensagres.poi.xwpf.converter.core.utils.XWPFTableUtil;
 import org.xml.sax.SAXException;
@@ -126,6 +127,11 @@ public abstract class XWPFDocumentVisitor<T, O extends Options, E extends IXWPFM
     protected final O options;
 
     private boolean pageBreakOnNextParagraph;
+
+    /**
+     * The vertical merges of the table which is visited.
+     */
+    private TableVMergeMap tableVMergeMap;
     
         protected boolean processingTotalPageCountField = false;
         
@@ -900,9 +906,19 @@ public abstract class XWPFDocumentVisitor<T, O extends Options, E extends IXWPFM
     {
         // 1) Compute colWidth
         float[] colWidths = XWPFTableUtil.computeColWidths( table );
-        T tableContainer = startVisitTable( table, colWidths, container );
-        visitTableBody( table, colWidths, tableContainer );
-        endVisitTable( table, container, tableContainer );
+        // 2) Compute vertical merges
+        TableVMergeMap oldTableVMergeMap = tableVMergeMap;
+        tableVMergeMap = TableVMergeMap.compute( table.getCTTbl(), stylesDocument );
+        try
+        {
+            T tableContainer = startVisitTable( table, colWidths, container );
+            visitTableBody( table, colWidths, tableContainer );
+            endVisitTable( table, container, tableContainer );
+        }
+        finally
+        {
+            tableVMergeMap = oldTableVMergeMap;
+        }
     }
 
     protected void visitTableBody( XWPFTable table, float[] colWidths, T tableContainer )
@@ -975,7 +991,7 @@ public abstract class XWPFDocumentVisitor<T, O extends Options, E extends IXWPFM
                     XWPFTableCell cell = row.getTableCell( tc );
                     cellIndex = getCellIndex( cellIndex, cell );
                     lastCol = ( cellIndex == nbColumns );
-                    vMergedCells = getVMergedCells( cell, rowIndex, cellPtr );
+                    vMergedCells = getVMergedCells( cell, rowIndex );
                     if ( vMergedCells == null || vMergedCells.size() > 0 )
                     {
                         lastRow = isLastRow( lastRowIfNoneVMerge, rowIndex, rowsSize, vMergedCells );
@@ -1000,7 +1016,7 @@ public abstract class XWPFDocumentVisitor<T, O extends Options, E extends IXWPFM
                         {
                             rowCells.add(cell);
                         }
-                        vMergedCells = getVMergedCells( cell, rowIndex, cellPtr );
+                        vMergedCells = getVMergedCells( cell, rowIndex );
                         if ( vMergedCells == null || vMergedCells.size() > 0 )
                         {
                             lastRow = isLastRow( lastRowIfNoneVMerge, rowIndex, rowsSize, vMergedCells );
@@ -1021,7 +1037,7 @@ public abstract class XWPFDocumentVisitor<T, O extends Options, E extends IXWPFM
             {
                 lastCol = ( i == cells.size() - 1 );
                 XWPFTableCell cell = cells.get( i );
-                vMergedCells = getVMergedCells( cell, rowIndex, i );
+                vMergedCells = getVMergedCells( cell, rowIndex );
                 if ( vMergedCells == null || vMergedCells.size() > 0 )
                 {
                     lastRow = isLastRow( lastRowIfNoneVMerge, rowIndex, rowsSize, vMergedCells );
@@ -1081,48 +1097,33 @@ public abstract class XWPFDocumentVisitor<T, O extends Options, E extends IXWPFM
         endVisitTableCell( cell, tableContainer, tableCellContainer );
     }
 
-    private List<XWPFTableCell> getVMergedCells( XWPFTableCell cell, int rowIndex, int cellIndex )
+    private List<XWPFTableCell> getVMergedCells( XWPFTableCell cell, int rowIndex )
     {
-        List<XWPFTableCell> vMergedCells = null;
-        STMerge.Enum vMerge = stylesDocument.getTableCellVMerge( cell );
-        if ( vMerge != null )
+        List<CTTc> vMergedCTCells = tableVMergeMap.getVMergedCells( cell.getCTTc() );
+        if ( vMergedCTCells == null )
         {
-            if ( vMerge.equals( STMerge.RESTART ) )
-            {
-                // vMerge="restart"
-                // Loop for each table cell of each row upon vMerge="restart" was found or cell without vMerge
-                // was declared.
-                vMergedCells = new ArrayList<XWPFTableCell>();
-                vMergedCells.add( cell );
-
-                XWPFTableRow row = null;
-                XWPFTableCell c;
-                XWPFTable table = cell.getTableRow().getTable();
-                for ( int i = rowIndex + 1; i < table.getRows().size(); i++ )
-                {
-                    row = table.getRow( i );
-                    c = row.getCell( cellIndex );
-                    if ( c == null )
-                    {
-                        break;
-                    }
-                    vMerge = stylesDocument.getTableCellVMerge( c );
-                    if ( vMerge != null && vMerge.equals( STMerge.CONTINUE ) )
-                    {
-
-                        vMergedCells.add( c );
-                    }
-                    else
-                    {
-                        return vMergedCells;
-                    }
-                }
-            }
-            else
+            return null;
+        }
+        if ( vMergedCTCells.isEmpty() )
+        {
+            // vMerge="continue", ignore the cell because it was already processed
+            return Collections.emptyList();
+        }
+        // vMerge="restart", the merged cells belong to the next rows.
+        List<XWPFTableCell> vMergedCells = new ArrayList<XWPFTableCell>( vMergedCTCells.size() );
+        vMergedCells.add( cell );
+        XWPFTable table = cell.getTableRow().getTable();
+        for ( int i = 1; i < vMergedCTCells.size(); i++ )
+        {
+            XWPFTableRow row = table.getRow( rowIndex + i );
+            CTTc ctTc = vMergedCTCells.get( i );
+            XWPFTableCell c = row.getTableCell( ctTc );
+            if ( c == null )
             {
-                // vMerge="continue", ignore the cell because it was already processed
-                return Collections.emptyList();
+                // cell declared in a w:sdt
+                c = new XWPFTableCell( ctTc, row, table.getBody() );
             }
+            vMergedCells.add( c );
         }
         return vMergedCells;
     }
@@ -58,12 +58,18 @@ public abstract class AbstractOpenXMLFormatsPartProvider
     {
         if ( document == null )
         {
-            DocumentDocument doc = DocumentDocument.Factory.parse( getEntryInputStream( "word/document.xml" ) );
+            DocumentDocument doc = DocumentDocument.Factory.parse( getDocumentInputStream() );
             document = doc.getDocument();
         }
         return document;
     }
 
+    public InputStream getDocumentInputStream()
+        throws Exception
+    {
+        return getEntryInputStream( "word/document.xml" );
+    }
+
     public CTStyles getStyle()
         throws Exception
 
@@ -130,6 +136,13 @@ public abstract class AbstractOpenXMLFormatsPartProvider
         return getHandler( partName ).getInputStreamByRelId( relId );
     }
 
+    public String getTargetByRelId( String partName, String relId )
+        throws Exception
+    {
+        RelashionShipsHandler.Relationship relationship = getHandler( partName ).getRelationship( relId );
+        return relationship != null ? relationship.target : null;
+    }
+
     protected abstract InputStream getEntryInputStream( String entryName );
 
 }
@@ -41,6 +41,16 @@ public interface IOpenXMLFormatsPartProvider
     CTDocument1 getDocument()
         throws Exception;
 
+    /**
+     * Returns the content of the word/document.xml, used to load the body elements one at a time (see
+     * {@link OpenXMLFormatsBodyReader}).
+     * 
+     * @return
+     * @throws Exception
+     */
+    InputStream getDocumentInputStream()
+        throws Exception;
+
     CTStyles getStyle()
         throws Exception;
 
@@ -61,4 +71,17 @@ public interface IOpenXMLFormatsPartProvider
 
     InputStream getInputStreamByRelId( String partName, String relId )
         throws Exception;
+
+    /**
+     * Returns the target (relative to the word folder for an internal part, an URL for an external link) of the
+     * relationship declared by the given part and null if the relationship doesn't exist.
+     * 
+     * @param partName the relationship id of the part (header, footer) which declares the relationship or null for the
+     *            word/document.xml.
+     * @param relId the relationship id.
+     * @return
+     * @throws Exception
+     */
+    String getTargetByRelId( String partName, String relId )
+        throws Exception;
 }
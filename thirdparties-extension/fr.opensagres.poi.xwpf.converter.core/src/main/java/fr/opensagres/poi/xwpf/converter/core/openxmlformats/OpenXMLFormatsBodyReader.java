@@ -0,0 +1,292 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.core.openxmlformats;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtBlock;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+/**
+ * Streaming reader of the &lt;w:body of the word/document.xml which loads the top-level body elements (&lt;w:p,
+ * &lt;w:tbl, &lt;w:sdt) one at a time, instead of loading the whole document in memory. Other top-level elements are
+ * skipped.
+ */
+public class OpenXMLFormatsBodyReader
+{
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final XMLInputFactory FACTORY;
+
+    static
+    {
+        FACTORY = XMLInputFactory.newInstance();
+        // the word/document.xml comes from the converted document : don't resolve DTD and external entities.
+        FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+        FACTORY.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+    }
+
+    private final InputStream in;
+
+    private final XMLStreamReader reader;
+
+    private final XmlOptions options;
+
+    private boolean inBody;
+
+    private CTSectPr bodySectPr;
+
+    public OpenXMLFormatsBodyReader( InputStream in )
+        throws XMLStreamException
+    {
+        this.in = in;
+        this.reader = FACTORY.createXMLStreamReader( in );
+        this.options = new XmlOptions();
+        // each element is parsed as a fragment : remove the fragment element to load its content in the typed
+        // XmlObject and declare the namespaces of the <w:document, <w:body to keep the prefixes.
+        this.options.setLoadReplaceDocumentElement( null );
+        this.inBody = moveToBody();
+    }
+
+    /**
+     * Returns the next &lt;w:p ({@link CTP}), &lt;w:tbl ({@link CTTbl}) or &lt;w:sdt ({@link CTSdtBlock}) of the
+     * &lt;w:body and null if there is no more element.
+     * 
+     * @return
+     * @throws XMLStreamException
+     * @throws XmlException
+     */
+    public XmlObject nextBodyElement()
+        throws XMLStreamException, XmlException
+    {
+        while ( inBody && reader.hasNext() )
+        {
+            int event = reader.next();
+            if ( event == XMLStreamConstants.END_ELEMENT )
+            {
+                // </w:body>
+                inBody = false;
+            }
+            else if ( event == XMLStreamConstants.START_ELEMENT )
+            {
+                if ( W_NS.equals( reader.getNamespaceURI() ) )
+                {
+                    String name = reader.getLocalName();
+                    if ( "p".equals( name ) )
+                    {
+                        return CTP.Factory.parse( reader, options );
+                    }
+                    if ( "tbl".equals( name ) )
+                    {
+                        return CTTbl.Factory.parse( reader, options );
+                    }
+                    if ( "sdt".equals( name ) )
+                    {
+                        return CTSdtBlock.Factory.parse( reader, options );
+                    }
+                }
+                skipElement();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the &lt;w:sectPr declared in the &lt;w:pPr of the top-level &lt;w:p in the document order. Only the
+     * &lt;w:sectPr are loaded in memory and the whole body is read : the &lt;w:sectPr of the &lt;w:body is available
+     * with {@link #getBodySectPr()} after this call.
+     * 
+     * @return
+     * @throws XMLStreamException
+     * @throws XmlException
+     */
+    public List<CTSectPr> readSections()
+        throws XMLStreamException, XmlException
+    {
+        List<CTSectPr> sections = new ArrayList<CTSectPr>();
+        // depth relative to the <w:body
+        int depth = 0;
+        boolean inParagraph = false;
+        boolean inPPr = false;
+        while ( inBody && reader.hasNext() )
+        {
+            int event = reader.next();
+            if ( event == XMLStreamConstants.START_ELEMENT )
+            {
+                depth++;
+                String name = W_NS.equals( reader.getNamespaceURI() ) ? reader.getLocalName() : null;
+                if ( depth == 1 )
+                {
+                    inParagraph = "p".equals( name );
+                    if ( "sectPr".equals( name ) )
+                    {
+                        bodySectPr = CTSectPr.Factory.parse( reader, options );
+                        depth--;
+                    }
+                    else if ( !inParagraph )
+                    {
+                        skipElement();
+                        depth--;
+                    }
+                }
+                else if ( depth == 2 && inParagraph )
+                {
+                    inPPr = "pPr".equals( name );
+                    if ( !inPPr )
+                    {
+                        skipElement();
+                        depth--;
+                    }
+                }
+                else if ( depth == 3 && inPPr && "sectPr".equals( name ) )
+                {
+                    sections.add( CTSectPr.Factory.parse( reader, options ) );
+                    depth--;
+                }
+                else
+                {
+                    skipElement();
+                    depth--;
+                }
+            }
+            else if ( event == XMLStreamConstants.END_ELEMENT )
+            {
+                if ( depth == 0 )
+                {
+                    // </w:body>
+                    inBody = false;
+                }
+                else
+                {
+                    depth--;
+                }
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * Returns the &lt;w:sectPr of the &lt;w:body read by {@link #readSections()} and null otherwise.
+     * 
+     * @return
+     */
+    public CTSectPr getBodySectPr()
+    {
+        return bodySectPr;
+    }
+
+    public void close()
+    {
+        try
+        {
+            reader.close();
+        }
+        catch ( XMLStreamException e )
+        {
+            // Do nothing
+        }
+        try
+        {
+            in.close();
+        }
+        catch ( Exception e )
+        {
+            // Do nothing
+        }
+    }
+
+    /**
+     * Move to the &lt;w:body start element and collect the namespaces declared in the &lt;w:document and &lt;w:body.
+     * 
+     * @return true if the &lt;w:body exists and false otherwise.
+     * @throws XMLStreamException
+     */
+    private boolean moveToBody()
+        throws XMLStreamException
+    {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        try
+        {
+            while ( reader.hasNext() )
+            {
+                if ( reader.next() == XMLStreamConstants.START_ELEMENT )
+                {
+                    for ( int i = 0; i < reader.getNamespaceCount(); i++ )
+                    {
+                        String prefix = reader.getNamespacePrefix( i );
+                        namespaces.put( prefix != null ? prefix : "", reader.getNamespaceURI( i ) );
+                    }
+                    if ( "body".equals( reader.getLocalName() ) && W_NS.equals( reader.getNamespaceURI() ) )
+                    {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        finally
+        {
+            options.setLoadAdditionalNamespaces( namespaces );
+        }
+    }
+
+    /**
+     * Skip the current start element and its content, the reader is positioned to its end element.
+     * 
+     * @throws XMLStreamException
+     */
+    private void skipElement()
+        throws XMLStreamException
+    {
+        int depth = 1;
+        while ( depth > 0 && reader.hasNext() )
+        {
+            int event = reader.next();
+            if ( event == XMLStreamConstants.START_ELEMENT )
+            {
+                depth++;
+            }
+            else if ( event == XMLStreamConstants.END_ELEMENT )
+            {
+                depth--;
+            }
+        }
+    }
+}
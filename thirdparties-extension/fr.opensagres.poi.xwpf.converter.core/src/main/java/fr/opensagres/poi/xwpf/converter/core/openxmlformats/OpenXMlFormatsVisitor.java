@@ -28,6 +28,8 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apache.poi.util.IOUtils;
 import org.apache.xmlbeans.XmlCursor;
@@ -84,6 +86,7 @@ import fr.opensagres.poi.xwpf.converter.core.Options;
 import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
 import fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil;
 import fr.opensagres.poi.xwpf.converter.core.utils.StringUtils;
+import fr.opensagres.poi.xwpf.converter.core.utils.TableVMergeMap;
 import fr.opensagres.poi.xwpf.converter.core.utils.XWPFRunHelper;
 import fr.opensagres.poi.xwpf.converter.core.utils.XWPFTableUtil;
 
@@ -91,6 +94,10 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
     implements IMasterPageHandler<E>
 {
 
+    private static final Logger LOGGER = Logger.getLogger( OpenXMlFormatsVisitor.class.getName() );
+
+    private static final String WORD_FOLDER = "word/";
+
     private final IOpenXMLFormatsPartProvider provider;
 
     protected final O options;
@@ -113,6 +120,11 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
 
     private final Stack<CTTbl> tables;
 
+    /**
+     * The vertical merges of the table which is visited.
+     */
+    private TableVMergeMap tableVMergeMap;
+
     public OpenXMlFormatsVisitor( IOpenXMLFormatsPartProvider provider, O options )
         throws Exception
     {
@@ -120,9 +132,39 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
         this.options = options;
         this.tables = new Stack<CTTbl>();
 
-        this.document = provider.getDocument();
         this.stylesDocument = createStylesDocument( provider );
-        this.masterPageManager = new MasterPageManager( document, this );
+        if ( isStreamingBody() )
+        {
+            // the word/document.xml is not loaded in memory, only its <w:sectPr are loaded to create the master pages.
+            this.document = null;
+            OpenXMLFormatsBodyReader reader = new OpenXMLFormatsBodyReader( provider.getDocumentInputStream() );
+            try
+            {
+                List<CTSectPr> sectPrs = reader.readSections();
+                this.masterPageManager = new MasterPageManager( reader.getBodySectPr(), sectPrs, this );
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        else
+        {
+            this.document = provider.getDocument();
+            this.masterPageManager = new MasterPageManager( document, this );
+        }
+    }
+
+    /**
+     * Returns true if the body elements of the word/document.xml must be loaded and visited one at a time (which
+     * consumes less memory) and false if the whole word/document.xml must be loaded before visiting it. This method is
+     * called by the constructor.
+     * 
+     * @return
+     */
+    protected boolean isStreamingBody()
+    {
+        return false;
     }
 
     protected XWPFStylesDocument createStylesDocument( IOpenXMLFormatsPartProvider provider )
@@ -160,7 +202,14 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
         // start document
         T container = startVisitDocument();
         // Create IText, XHTML element for each XWPF elements from the w:body
-        visitBodyElements( document, container );
+        if ( document != null )
+        {
+            visitBodyElements( document, container );
+        }
+        else
+        {
+            visitStreamingBodyElements( container );
+        }
         // end document
         endVisitDocument();
     }
@@ -190,17 +239,38 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
         visitBodyElements( document.getBody(), container );
     }
 
-    protected void visitBodyElements( XmlTokenSource token, T container )
+    /**
+     * Visit the body elements of the word/document.xml one at a time : each element is loaded from the stream of the
+     * word/document.xml, visited and released, so the memory doesn't depend on the size of the document.
+     * 
+     * @param container
+     * @throws Exception
+     */
+    private void visitStreamingBodyElements( T container )
         throws Exception
     {
-        if ( !masterPageManager.isInitialized() )
+        initializeMasterPageManager();
+
+        int i = 0;
+        OpenXMLFormatsBodyReader reader = new OpenXMLFormatsBodyReader( provider.getDocumentInputStream() );
+        try
         {
-            // master page manager which hosts each <:w;sectPr declared in the word/document.xml
-            // must be initialized. The initialization loop for each
-            // <w:p paragraph to compute a list of <w:sectPr which contains information
-            // about header/footer declared in the <w:headerReference/<w:footerReference
-            masterPageManager.initialize();
+            XmlObject o = null;
+            while ( ( o = reader.nextBodyElement() ) != null )
+            {
+                i = visitBodyElement( o, i, container );
+            }
+        }
+        finally
+        {
+            reader.close();
         }
+    }
+
+    protected void visitBodyElements( XmlTokenSource token, T container )
+        throws Exception
+    {
+        initializeMasterPageManager();
 
         int i = 0;
         XmlCursor cursor = null;
@@ -210,27 +280,7 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
             cursor.selectPath( "./*" );
             while ( cursor.toNextSelection() )
             {
-                XmlObject o = cursor.getObject();
-                if ( o instanceof CTP )
-                {
-                    visitParagraph( (CTP) o, i, container );
-                    i++;
-                }
-                else if ( o instanceof CTTbl )
-                {
-                    visitTable( (CTTbl) o, i, container );
-                    i++;
-                }
-                else if ( o instanceof CTSdtBlock )
-                {
-                    // <w:sdt><w:sdtContent><p...
-                    CTSdtBlock block = (CTSdtBlock) o;
-                    CTSdtContentBlock contentBlock = block.getSdtContent();
-                    if ( contentBlock != null )
-                    {
-                        visitBodyElements( contentBlock, container );
-                    }
-                }
+                i = visitBodyElement( cursor.getObject(), i, container );
             }
         }
         finally
@@ -242,6 +292,54 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
         }
     }
 
+    private void initializeMasterPageManager()
+        throws Exception
+    {
+        if ( !masterPageManager.isInitialized() )
+        {
+            // master page manager which hosts each <:w;sectPr declared in the word/document.xml
+            // must be initialized. The initialization loop for each
+            // <w:p paragraph to compute a list of <w:sectPr which contains information
+            // about header/footer declared in the <w:headerReference/<w:footerReference
+            masterPageManager.initialize();
+        }
+    }
+
+    /**
+     * Visit the given body element and returns the index of the next body element.
+     * 
+     * @param o
+     * @param index
+     * @param container
+     * @return
+     * @throws Exception
+     */
+    private int visitBodyElement( XmlObject o, int index, T container )
+        throws Exception
+    {
+        if ( o instanceof CTP )
+        {
+            visitParagraph( (CTP) o, index, container );
+            return index + 1;
+        }
+        if ( o instanceof CTTbl )
+        {
+            visitTable( (CTTbl) o, index, container );
+            return index + 1;
+        }
+        if ( o instanceof CTSdtBlock )
+        {
+            // <w:sdt><w:sdtContent><p...
+            CTSdtBlock block = (CTSdtBlock) o;
+            CTSdtContentBlock contentBlock = block.getSdtContent();
+            if ( contentBlock != null )
+            {
+                visitBodyElements( contentBlock, container );
+            }
+        }
+        return index;
+    }
+
     protected void visitParagraph( CTP paragraph, int index, T container )
         throws Exception
     {
@@ -514,7 +612,9 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
                 String tagName = o.getDomNode().getNodeName();
                 if ( "w:tab".equals( tagName ) )
                 {
-                    CTTabs tabs = null;// stylesDocument.getParagraphTabs( paragraph );
+                    // tabs of the paragraph, its style and the table style, like XWPFDocumentVisitor (null when
+                    // there is no tab stop).
+                    CTTabs tabs = stylesDocument.getParagraphTabs( paragraph, getParentTable() );
                     visitTabs( tabs, paragraphContainer );
                 }
                 if ( "w:br".equals( tagName ) )
@@ -570,10 +670,19 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
     {
         tables.push( table );
         float[] colWidths = XWPFTableUtil.computeColWidths( table );
-        T tableContainer = startVisitTable( table, colWidths, container );
-        visitTableBody( table, colWidths, tableContainer );
-        endVisitTable( table, container, tableContainer );
-        tables.pop();
+        TableVMergeMap oldTableVMergeMap = tableVMergeMap;
+        tableVMergeMap = TableVMergeMap.compute( table, stylesDocument );
+        try
+        {
+            T tableContainer = startVisitTable( table, colWidths, container );
+            visitTableBody( table, colWidths, tableContainer );
+            endVisitTable( table, container, tableContainer );
+        }
+        finally
+        {
+            tableVMergeMap = oldTableVMergeMap;
+            tables.pop();
+        }
     }
 
     protected abstract T startVisitTable( CTTbl table, float[] colWidths, T tableContainer )
@@ -648,29 +757,73 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
                 cursor.dispose();
             }
         }
-
+        endVisitTableRow( row, tableContainer, headerRow );
     }
 
     protected abstract void startVisitTableRow( CTRow row, T tableContainer, boolean headerRow )
         throws Exception;
 
+    protected void endVisitTableRow( CTRow row, T tableContainer, boolean headerRow )
+        throws Exception
+    {
+        // Do nothing by default
+    }
+
     protected void visitCell( CTTc cell, T tableContainer )
         throws Exception
     {
-        T tableCellContainer = startVisitTableCell( cell, tableContainer );
-        visitTableCellBody( cell, tableCellContainer );
+        List<CTTc> vMergedCells = tableVMergeMap.getVMergedCells( cell );
+        if ( vMergedCells != null && vMergedCells.isEmpty() )
+        {
+            // vMerge="continue", ignore the cell because it was already processed
+            return;
+        }
+        T tableCellContainer = startVisitTableCell( cell, tableContainer, vMergedCells );
+        visitTableCellBody( cell, vMergedCells, tableCellContainer );
         endVisitTableCell( cell, tableContainer, tableCellContainer );
     }
 
     protected abstract T startVisitTableCell( CTTc cell, T tableContainer )
         throws Exception;
 
+    /**
+     * Start the visit of the given cell which is merged with the cells of the next rows (vMerge="restart").
+     * 
+     * @param cell
+     * @param tableContainer
+     * @param vMergedCells the merged cells (the given cell followed by the vMerge="continue" cells) or null if the cell
+     *            is not merged.
+     * @return
+     * @throws Exception
+     */
+    protected T startVisitTableCell( CTTc cell, T tableContainer, List<CTTc> vMergedCells )
+        throws Exception
+    {
+        return startVisitTableCell( cell, tableContainer );
+    }
+
     protected void visitTableCellBody( CTTc cell, T tableCellContainer )
         throws Exception
     {
         visitBodyElements( cell, tableCellContainer );
     }
 
+    protected void visitTableCellBody( CTTc cell, List<CTTc> vMergedCells, T tableCellContainer )
+        throws Exception
+    {
+        if ( vMergedCells != null )
+        {
+            for ( CTTc mergedCell : vMergedCells )
+            {
+                visitTableCellBody( mergedCell, tableCellContainer );
+            }
+        }
+        else
+        {
+            visitTableCellBody( cell, tableCellContainer );
+        }
+    }
+
     protected abstract void endVisitTableCell( CTTc cell, T tableContainer, T tableCellContainer )
         throws Exception;
 
@@ -756,12 +909,22 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
                         IImageExtractor extractor = getImageExtractor();
                         if ( extractor != null )
                         {
-                            /*
-                             * XWPFPictureData pictureData = getPictureData( picture ); if ( pictureData != null ) { try
-                             * { extractor.extract( WORD_MEDIA + pictureData.getFileName(), pictureData.getData() ); }
-                             * catch ( Throwable e ) { LOGGER.log( Level.SEVERE, "Error while extracting the image " +
-                             * pictureData.getFileName(), e ); } }
-                             */
+                            String target = getPictureTarget( picture );
+                            if ( target != null )
+                            {
+                                try
+                                {
+                                    byte[] pictureBytes = getPictureBytes( picture );
+                                    if ( pictureBytes != null )
+                                    {
+                                        extractor.extract( WORD_FOLDER + target, pictureBytes );
+                                    }
+                                }
+                                catch ( Throwable e )
+                                {
+                                    LOGGER.log( Level.SEVERE, "Error while extracting the image " + target, e );
+                                }
+                            }
                         }
                         // visit the picture.
 
@@ -878,6 +1041,53 @@ public abstract class OpenXMlFormatsVisitor<T, O extends Options, E extends IXWP
         return IOUtils.toByteArray( in );
     }
 
+    /**
+     * Returns the target of the embedded image of the given picture (ex : "media/image1.png", relative to the word
+     * folder) and null if the picture has no embedded image.
+     * 
+     * @param picture
+     * @return
+     * @throws Exception
+     */
+    public String getPictureTarget( CTPicture picture )
+        throws Exception
+    {
+        CTBlipFillProperties blipProps = picture.getBlipFill();
+        if ( blipProps == null || !blipProps.isSetBlip() )
+        {
+            return null;
+        }
+        String blipId = blipProps.getBlip().getEmbed();
+        if ( StringUtils.isEmpty( blipId ) )
+        {
+            return null;
+        }
+        return provider.getTargetByRelId( getPartRelIdParsing(), blipId );
+    }
+
+    /**
+     * Returns the URL of the linked (not embedded) image of the given picture and null otherwise.
+     * 
+     * @param picture
+     * @return
+     * @throws Exception
+     */
+    public String getPictureLink( CTPicture picture )
+        throws Exception
+    {
+        CTBlipFillProperties blipProps = picture.getBlipFill();
+        if ( blipProps == null || !blipProps.isSetBlip() )
+        {
+            return null;
+        }
+        String linkId = blipProps.getBlip().getLink();
+        if ( StringUtils.isEmpty( linkId ) )
+        {
+            return null;
+        }
+        return provider.getTargetByRelId( getPartRelIdParsing(), linkId );
+    }
+
     private String getPartRelIdParsing()
     {
         if ( currentHeaderRef != null )
@@ -519,6 +519,13 @@ public class XWPFStylesDocument
         return ParagraphTabsValueProvider.INSTANCE.getValue( pPr );
     }
 
+    public CTTabs getParagraphTabs( CTP paragraph, CTTbl table )
+    {
+        return fr.opensagres.poi.xwpf.converter.core.openxmlformats.styles.paragraph.ParagraphTabsValueProvider.INSTANCE.getValue( paragraph,
+                                                                                                                                table,
+                                                                                                                                this );
+    }
+
     public ParagraphLineSpacing getParagraphSpacing( XWPFParagraph docxParagraph )
     {
         return ParagraphLineSpacingValueProvider.INSTANCE.getValue( docxParagraph, this );
@@ -1169,6 +1176,26 @@ public class XWPFStylesDocument
         return null;
     }
 
+    public TableCellBorder getTableBorder( CTTbl table, BorderSide borderSide )
+    {
+        switch ( borderSide )
+        {
+            case TOP:
+                return fr.opensagres.poi.xwpf.converter.core.openxmlformats.styles.table.TableBorderValueProvider.TOP.getValue( table,
+                                                                                                                      this );
+            case BOTTOM:
+                return fr.opensagres.poi.xwpf.converter.core.openxmlformats.styles.table.TableBorderValueProvider.BOTTOM.getValue( table,
+                                                                                                                         this );
+            case LEFT:
+                return fr.opensagres.poi.xwpf.converter.core.openxmlformats.styles.table.TableBorderValueProvider.LEFT.getValue( table,
+                                                                                                                       this );
+            case RIGHT:
+                return fr.opensagres.poi.xwpf.converter.core.openxmlformats.styles.table.TableBorderValueProvider.RIGHT.getValue( table,
+                                                                                                                        this );
+        }
+        return null;
+    }
+
     public TableCellBorder getTableBorderInside( XWPFTable table, BorderSide borderSide )
     {
         switch ( borderSide )
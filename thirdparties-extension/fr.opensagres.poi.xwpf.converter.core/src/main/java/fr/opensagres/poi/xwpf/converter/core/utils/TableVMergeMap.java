@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.core.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtCell;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+
+import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
+
+/**
+ * Vertical merges (w:vMerge) of the cells of a table, computed with one pass over the rows of the table. A merge
+ * starts with a cell vMerge="restart" and continues with the cells vMerge="continue" which have the same index in the
+ * next rows.
+ */
+public class TableVMergeMap
+{
+
+    private final Map<CTTc, List<CTTc>> vMergedCells;
+
+    private TableVMergeMap( Map<CTTc, List<CTTc>> vMergedCells )
+    {
+        this.vMergedCells = vMergedCells;
+    }
+
+    /**
+     * Returns the cells which are merged with the given cell.
+     * 
+     * @param cell
+     * @return the merged cells (the given cell first, one cell per row) when the given cell starts a vertical merge, an
+     *         empty list when it continues a vertical merge (the cell must be ignored) and null otherwise.
+     */
+    public List<CTTc> getVMergedCells( CTTc cell )
+    {
+        return vMergedCells.get( cell );
+    }
+
+    /**
+     * Computes the vertical merges of the given table.
+     * 
+     * @param table
+     * @param stylesDocument
+     * @return
+     */
+    public static TableVMergeMap compute( CTTbl table, XWPFStylesDocument stylesDocument )
+    {
+        Map<CTTc, List<CTTc>> vMergedCells = new HashMap<CTTc, List<CTTc>>();
+        // the merges which can continue in the next row, by cell index
+        List<List<CTTc>> openMerges = new ArrayList<List<CTTc>>();
+        for ( CTRow row : table.getTrList() )
+        {
+            List<CTTc> cells = getCells( row );
+            for ( int i = 0; i < cells.size(); i++ )
+            {
+                CTTc cell = cells.get( i );
+                List<CTTc> merge = i < openMerges.size() ? openMerges.get( i ) : null;
+                STMerge.Enum vMerge = stylesDocument.getTableCellVMerge( cell.getTcPr() );
+                if ( vMerge == null )
+                {
+                    merge = null;
+                }
+                else if ( vMerge.equals( STMerge.RESTART ) )
+                {
+                    merge = new ArrayList<CTTc>();
+                    merge.add( cell );
+                    vMergedCells.put( cell, merge );
+                }
+                else
+                {
+                    // vMerge="continue", the cell is ignored
+                    if ( merge != null )
+                    {
+                        merge.add( cell );
+                    }
+                    vMergedCells.put( cell, Collections.<CTTc> emptyList() );
+                }
+                if ( i < openMerges.size() )
+                {
+                    openMerges.set( i, merge );
+                }
+                else
+                {
+                    openMerges.add( merge );
+                }
+            }
+            // the row has no cell to continue the other merges
+            for ( int i = cells.size(); i < openMerges.size(); i++ )
+            {
+                openMerges.set( i, null );
+            }
+        }
+        return new TableVMergeMap( vMergedCells );
+    }
+
+    /**
+     * Returns the cells of the given row, with the cells declared in a w:sdt.
+     * 
+     * @param row
+     * @return
+     */
+    private static List<CTTc> getCells( CTRow row )
+    {
+        List<CTTc> cells = new ArrayList<CTTc>();
+        XmlCursor cursor = row.newCursor();
+        try
+        {
+            cursor.selectPath( "./*" );
+            while ( cursor.toNextSelection() )
+            {
+                XmlObject o = cursor.getObject();
+                if ( o instanceof CTTc )
+                {
+                    cells.add( (CTTc) o );
+                }
+                else if ( o instanceof CTSdtCell )
+                {
+                    cells.addAll( ( (CTSdtCell) o ).getSdtContent().getTcList() );
+                }
+            }
+        }
+        finally
+        {
+            cursor.dispose();
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.core.openxmlformats;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtBlock;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+public class OpenXMLFormatsBodyReaderTestCase
+{
+
+    private static final String DOCUMENT =
+        "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">" + "<w:body>"
+            + "<w:p><w:pPr><w:sectPr><w:pgSz w:w=\"1000\"/></w:sectPr></w:pPr><w:r><w:t>first</w:t></w:r></w:p>"
+            + "<w:bookmarkStart w:id=\"0\" w:name=\"skipped\"/>"
+            + "<w:tbl><w:tr><w:tc><w:p><w:r><w:t>cell</w:t></w:r></w:p></w:tc></w:tr></w:tbl>"
+            + "<w:sdt><w:sdtContent><w:p><w:r><w:t>sdt</w:t></w:r></w:p></w:sdtContent></w:sdt>"
+            + "<w:p><w:r><w:instrText>PAGE</w:instrText></w:r></w:p>"
+            + "<w:sectPr><w:pgSz w:w=\"2000\"/></w:sectPr>" + "</w:body>" + "</w:document>";
+
+    @Test
+    public void testBodyElements()
+        throws Exception
+    {
+        OpenXMLFormatsBodyReader reader = createReader();
+        try
+        {
+            XmlObject o = reader.nextBodyElement();
+            Assert.assertTrue( o instanceof CTP );
+            CTP paragraph = (CTP) o;
+            Assert.assertNotNull( paragraph.getPPr().getSectPr() );
+            Assert.assertEquals( "first", paragraph.getRArray( 0 ).getTArray( 0 ).getStringValue() );
+
+            o = reader.nextBodyElement();
+            Assert.assertTrue( o instanceof CTTbl );
+            Assert.assertEquals( 1, ( (CTTbl) o ).sizeOfTrArray() );
+
+            o = reader.nextBodyElement();
+            Assert.assertTrue( o instanceof CTSdtBlock );
+            Assert.assertEquals( 1, ( (CTSdtBlock) o ).getSdtContent().sizeOfPArray() );
+
+            o = reader.nextBodyElement();
+            Assert.assertTrue( o instanceof CTP );
+            // the prefixes are kept, they are used to distinguish <w:instrText from <w:t
+            Assert.assertEquals( "w:instrText",
+                                 ( (CTP) o ).getRArray( 0 ).getInstrTextArray( 0 ).getDomNode().getNodeName() );
+
+            Assert.assertNull( reader.nextBodyElement() );
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testSections()
+        throws Exception
+    {
+        OpenXMLFormatsBodyReader reader = createReader();
+        try
+        {
+            List<CTSectPr> sectPrs = reader.readSections();
+            Assert.assertEquals( 1, sectPrs.size() );
+            Assert.assertEquals( "1000", sectPrs.get( 0 ).getPgSz().getW().toString() );
+            Assert.assertEquals( "2000", reader.getBodySectPr().getPgSz().getW().toString() );
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testExternalEntityIsNotResolved()
+        throws Exception
+    {
+        File secretFile = File.createTempFile( "secret", ".txt" );
+        secretFile.deleteOnExit();
+        FileOutputStream out = new FileOutputStream( secretFile );
+        try
+        {
+            out.write( "secret".getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            out.close();
+        }
+        String document =
+            "<!DOCTYPE w:document [<!ENTITY xxe SYSTEM \"" + secretFile.toURI() + "\">]>"
+                + "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">" + "<w:body>"
+                + "<w:p><w:r><w:t>&xxe;</w:t></w:r></w:p>" + "</w:body>" + "</w:document>";
+
+        String text = null;
+        try
+        {
+            OpenXMLFormatsBodyReader reader = createReader( document );
+            try
+            {
+                CTP paragraph = (CTP) reader.nextBodyElement();
+                text = paragraph.getRArray( 0 ).getTArray( 0 ).getStringValue();
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch ( Exception e )
+        {
+            // the parser may reject the undeclared entity.
+        }
+        Assert.assertFalse( text != null && text.contains( "secret" ) );
+    }
+
+    private static OpenXMLFormatsBodyReader createReader()
+        throws Exception
+    {
+        return createReader( DOCUMENT );
+    }
+
+    private static OpenXMLFormatsBodyReader createReader( String document )
+        throws Exception
+    {
+        return new OpenXMLFormatsBodyReader( new ByteArrayInputStream( document.getBytes( "UTF-8" ) ) );
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+
+import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
+
+public class TableVMergeMapTestCase
+{
+
+    @Test
+    public void testVMergedCells()
+        throws Exception
+    {
+        XWPFDocument document = new XWPFDocument();
+        document.createStyles();
+        XWPFTable table = document.createTable( 5, 2 );
+        // first column : rows 0-2 are merged, rows 3-4 are merged
+        setVMerge( table, 0, 0, STMerge.RESTART );
+        setVMerge( table, 1, 0, STMerge.CONTINUE );
+        setVMerge( table, 2, 0, STMerge.CONTINUE );
+        setVMerge( table, 3, 0, STMerge.RESTART );
+        setVMerge( table, 4, 0, STMerge.CONTINUE );
+
+        // reload the docx to have the parts of a saved document
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.write( out );
+        document = new XWPFDocument( new ByteArrayInputStream( out.toByteArray() ) );
+        table = document.getTables().get( 0 );
+
+        TableVMergeMap vMergeMap = TableVMergeMap.compute( table.getCTTbl(), new XWPFStylesDocument( document ) );
+
+        List<CTTc> vMergedCells = vMergeMap.getVMergedCells( getCell( table, 0, 0 ) );
+        Assert.assertNotNull( vMergedCells );
+        Assert.assertEquals( 3, vMergedCells.size() );
+        Assert.assertSame( getCell( table, 0, 0 ), vMergedCells.get( 0 ) );
+        Assert.assertSame( getCell( table, 1, 0 ), vMergedCells.get( 1 ) );
+        Assert.assertSame( getCell( table, 2, 0 ), vMergedCells.get( 2 ) );
+        Assert.assertTrue( vMergeMap.getVMergedCells( getCell( table, 1, 0 ) ).isEmpty() );
+        Assert.assertTrue( vMergeMap.getVMergedCells( getCell( table, 2, 0 ) ).isEmpty() );
+
+        vMergedCells = vMergeMap.getVMergedCells( getCell( table, 3, 0 ) );
+        Assert.assertNotNull( vMergedCells );
+        Assert.assertEquals( 2, vMergedCells.size() );
+        Assert.assertSame( getCell( table, 4, 0 ), vMergedCells.get( 1 ) );
+
+        // second column : none merge
+        for ( int i = 0; i < 5; i++ )
+        {
+            Assert.assertNull( vMergeMap.getVMergedCells( getCell( table, i, 1 ) ) );
+        }
+    }
+
+    private static CTTc getCell( XWPFTable table, int row, int col )
+    {
+        return table.getRow( row ).getCell( col ).getCTTc();
+    }
+
+    private static void setVMerge( XWPFTable table, int row, int col, STMerge.Enum val )
+    {
+        CTTc cell = getCell( table, row, col );
+        ( cell.isSetTcPr() ? cell.getTcPr() : cell.addNewTcPr() ).addNewVMerge().setVal( val );
+    }
+}
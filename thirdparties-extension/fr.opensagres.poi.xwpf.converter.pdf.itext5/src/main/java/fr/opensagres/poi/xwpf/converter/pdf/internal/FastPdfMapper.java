@@ -60,7 +60,6 @@ import com.itextpdf.text.Font;
 import com.itextpdf.text.Image;
 import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
 
 import fr.opensagres.poi.xwpf.converter.core.Color;
 import fr.opensagres.poi.xwpf.converter.core.ListItemContext;
@@ -123,6 +122,12 @@ public class FastPdfMapper
         this.out = out;
     }
 
+    @Override
+    protected boolean isStreamingBody()
+    {
+        return options.isStreamingBody();
+    }
+
     // ------------------------- Document
 
     @Override
@@ -607,6 +612,8 @@ public class FastPdfMapper
         // 2) Compute tableWith
         TableWidth tableWidth = stylesDocument.getTableWidth( table );
         StylableTable pdfPTable = pdfDocument.createTable( pdfParentContainer, colWidths.length );
+        // the vertical merges are rowspans (see startVisitTableCell)
+        pdfPTable.setKeepFirstColumnRowspans( true );
         pdfPTable.setTotalWidth( colWidths );
         if ( tableWidth != null && tableWidth.width > 0 )
         {
@@ -668,20 +675,47 @@ public class FastPdfMapper
     protected void startVisitTableRow( CTRow row, IITextContainer tableContainer, boolean headerRow )
         throws Exception
     {
+        StylableTable table = (StylableTable) tableContainer;
         if ( headerRow )
         {
-            PdfPTable table = (PdfPTable) tableContainer;
+            table.beginTableHeaderRows();
             table.setHeaderRows( table.getHeaderRows() + 1 );
         }
+        else
+        {
+            table.endTableHeaderRows();
+        }
+        // lay out the rows of a large table while it is built
+        table.flushCompletedRows( options.getTableFlushRows() );
     }
 
     @Override
     protected IITextContainer startVisitTableCell( CTTc cell, IITextContainer tableContainer )
         throws Exception
+    {
+        return startVisitTableCell( cell, tableContainer, null );
+    }
+
+    @Override
+    protected IITextContainer startVisitTableCell( CTTc cell, IITextContainer tableContainer, List<CTTc> vMergedCells )
+        throws Exception
     {
         StylableTable pdfPTable = (StylableTable) tableContainer;
         StylableTableCell pdfPCell = pdfDocument.createTableCell( pdfPTable );
 
+        // Rowspan
+        if ( vMergedCells != null )
+        {
+            pdfPCell.setRowspan( vMergedCells.size() );
+        }
+
+        // Colspan
+        BigInteger gridSpan = stylesDocument.getTableCellGridSpan( cell.getTcPr() );
+        if ( gridSpan != null )
+        {
+            pdfPCell.setColspan( gridSpan.intValue() );
+        }
+
         // Background Color
         Color awtColor = stylesDocument.getTableCellBackgroundColor( cell );
         if ( awtColor != null )
@@ -26,9 +26,13 @@ package fr.opensagres.poi.xwpf.converter.pdf.internal;
 
 import static fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil.emu2points;
 
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.poi.xwpf.usermodel.*;
@@ -65,7 +69,6 @@ import com.itextpdf.text.Image;
 import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.Rectangle;
 import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.draw.DottedLineSeparator;
 import com.itextpdf.text.pdf.draw.LineSeparator;
 import com.itextpdf.text.pdf.draw.VerticalPositionMark;
@@ -114,6 +117,20 @@ public class PdfMapper extends
 	// Instance of PDF document
 	private StylableDocument pdfDocument;
 
+	// PDF document written to the output stream (pdfDocument is the model
+	// document while a cacheable header/footer is built)
+	private StylableDocument outputPdfDocument;
+
+	// document which is never written, owner of the cacheable headers/footers
+	private StylableDocument headerFooterModelDocument;
+
+	private byte[] documentPartsDigest;
+
+	private boolean headerFooterDependsOnDocument;
+
+	// headers/footers checked out from the cache (or built) by this conversion
+	private final Map<HeaderFooterCache.Key, StylableTableCell> cachedHeaderFooters = new HashMap<HeaderFooterCache.Key, StylableTableCell>();
+
 	private Font currentRunFontAscii;
 
 	private Font currentRunFontEastAsia;
@@ -148,6 +165,7 @@ public class PdfMapper extends
 		// Create instance of PDF document
 		this.pdfDocument = new StylableDocument(out, options.getConfiguration());
 		this.pdfDocument.setMasterPageManager(getMasterPageManager());
+		this.outputPdfDocument = pdfDocument;
 		return pdfDocument;
 
 	}
@@ -156,6 +174,13 @@ public class PdfMapper extends
 	protected void endVisitDocument() throws Exception {
 		pdfDocument.close();
 		out.close();
+		// the next conversions can reuse the headers/footers
+		HeaderFooterCache cache = HeaderFooterCache.getCache();
+		for (Map.Entry<HeaderFooterCache.Key, StylableTableCell> entry : cachedHeaderFooters
+				.entrySet()) {
+			cache.checkIn(entry.getKey(), entry.getValue());
+		}
+		cachedHeaderFooters.clear();
 	}
 
 	@Override
@@ -180,12 +205,7 @@ public class PdfMapper extends
 				.getHeader() : null;
 		this.currentPageWidth = sectPr.getPgMar() != null ? DxaUtil
 				.dxa2points(sectPr.getPgSz().getW()) : null;
-		this.pdfHeader = new StylableHeaderFooter(pdfDocument, headerY, true);
-		// List<IBodyElement> bodyElements = header.getBodyElements();
-		List<IBodyElement> bodyElements = super.getBodyElements(header);
-		StylableTableCell tableCell = getHeaderFooterTableCell(pdfHeader,
-				bodyElements);
-		visitBodyElements(bodyElements, tableCell);
+		this.pdfHeader = createHeaderFooter(header, headerY, true);
 		masterPage.setHeader(pdfHeader);
 		this.currentPageWidth = null;
 		this.pdfHeader = null;
@@ -198,11 +218,7 @@ public class PdfMapper extends
 				.getFooter() : null;
 		this.currentPageWidth = sectPr.getPgMar() != null ? DxaUtil
 				.dxa2points(sectPr.getPgSz().getW()) : null;
-		this.pdfFooter = new StylableHeaderFooter(pdfDocument, footerY, false);
-		List<IBodyElement> bodyElements = super.getBodyElements(footer);
-		StylableTableCell tableCell = getHeaderFooterTableCell(pdfFooter,
-				bodyElements);
-		visitBodyElements(bodyElements, tableCell);
+		this.pdfFooter = createHeaderFooter(footer, footerY, false);
 		masterPage.setFooter(pdfFooter);
 		this.currentPageWidth = null;
 		this.pdfFooter = null;
@@ -214,6 +230,102 @@ public class PdfMapper extends
 		return pdfHeaderFooter.getTableCell();
 	}
 
+	private StylableHeaderFooter createHeaderFooter(
+			XWPFHeaderFooter headerFooter, BigInteger dxaY, boolean header)
+			throws Exception {
+		List<IBodyElement> bodyElements = super.getBodyElements(headerFooter);
+		HeaderFooterCache.Key key = getHeaderFooterKey(headerFooter, dxaY,
+				header);
+		if (key != null) {
+			HeaderFooterCache cache = HeaderFooterCache.getCache();
+			StylableTableCell tableCell = cachedHeaderFooters.get(key);
+			if (tableCell == null) {
+				tableCell = cache.checkOut(key);
+				if (tableCell == null && cache.isCacheable(key)) {
+					tableCell = visitHeaderFooterModel(bodyElements, dxaY,
+							header);
+					if (headerFooterDependsOnDocument) {
+						// page number, numbering...: use it for this
+						// conversion only
+						cache.setNotCacheable(key);
+						return new StylableHeaderFooter(pdfDocument, dxaY,
+								header, tableCell);
+					}
+				}
+				if (tableCell != null) {
+					cachedHeaderFooters.put(key, tableCell);
+				}
+			}
+			if (tableCell != null) {
+				return new StylableHeaderFooter(pdfDocument, dxaY, header,
+						tableCell);
+			}
+		}
+		StylableHeaderFooter pdfHeaderFooter = new StylableHeaderFooter(
+				pdfDocument, dxaY, header);
+		StylableTableCell tableCell = getHeaderFooterTableCell(
+				pdfHeaderFooter, bodyElements);
+		visitBodyElements(bodyElements, tableCell);
+		return pdfHeaderFooter;
+	}
+
+	private HeaderFooterCache.Key getHeaderFooterKey(
+			XWPFHeaderFooter headerFooter, BigInteger dxaY, boolean header) {
+		if (!options.isCacheHeaderFooter()) {
+			return null;
+		}
+		try {
+			if (documentPartsDigest == null) {
+				documentPartsDigest = HeaderFooterCache
+						.digestDocumentParts(document);
+			}
+			return HeaderFooterCache.createKey(headerFooter,
+					documentPartsDigest, currentPageWidth, outputPdfDocument,
+					dxaY, header, options);
+		} catch (Exception e) {
+			LOGGER.log(Level.WARNING,
+					"Cannot compute the header/footer cache key", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Build the header/footer elements with a document which is never
+	 * written, so that they can be reused by the next conversions. Headers and
+	 * footers are visited before the first section is activated, so the model
+	 * document has the same page size and margins as the PDF document.
+	 */
+	private StylableTableCell visitHeaderFooterModel(
+			List<IBodyElement> bodyElements, BigInteger dxaY, boolean header)
+			throws Exception {
+		if (headerFooterModelDocument == null) {
+			headerFooterModelDocument = new StylableDocument(
+					new ByteArrayOutputStream(), null);
+		}
+		headerFooterModelDocument.setPageSize(outputPdfDocument.getPageSize());
+		headerFooterModelDocument.setMargins(outputPdfDocument.leftMargin(),
+				outputPdfDocument.rightMargin(),
+				outputPdfDocument.topMargin(),
+				outputPdfDocument.bottomMargin());
+		StylableHeaderFooter model = new StylableHeaderFooter(
+				headerFooterModelDocument, dxaY, header);
+		boolean fieldUsed = totalPageFieldUsed;
+		this.totalPageFieldUsed = false;
+		this.headerFooterDependsOnDocument = false;
+		this.pdfDocument = headerFooterModelDocument;
+		try {
+			visitBodyElements(bodyElements, model.getTableCell());
+		} finally {
+			this.pdfDocument = outputPdfDocument;
+		}
+		if (totalPageFieldUsed) {
+			// the header/footer contains a field
+			this.headerFooterDependsOnDocument = true;
+		}
+		this.totalPageFieldUsed |= fieldUsed;
+		return model.getTableCell();
+	}
+
 	public void setActiveMasterPage(StylableMasterPage masterPage) {
 		pdfDocument.setActiveMasterPage(masterPage);
 
@@ -335,6 +447,8 @@ public class PdfMapper extends
 		pdfParagraph.setBorder(borderRight, Rectangle.RIGHT);
 
 		if (itemContext != null) {
+			// numbering is computed for each document
+			headerFooterDependsOnDocument = true;
 			CTLvl lvl = itemContext.getLvl();
 			CTPPr lvlPPr = lvl.getPPr();
 			if (lvlPPr != null) {
@@ -613,8 +727,12 @@ public class PdfMapper extends
 		if (processingTotalPageCountField && expectedPageCount != null) {
 			textChunk = new Chunk(String.valueOf(expectedPageCount),
 					currentRunFont);
+			headerFooterDependsOnDocument = true;
 		} else {
-			textChunk = pageNumber ? new ExtendedChunk(pdfDocument, true,
+			if (pageNumber) {
+				headerFooterDependsOnDocument = true;
+			}
+			textChunk = pageNumber ? new ExtendedChunk(outputPdfDocument, true,
 					currentRunFont) : new Chunk(text, currentRunFont);
 		}
 		if (currentRunUnderlinePatterns != null) {
@@ -991,10 +1109,15 @@ public class PdfMapper extends
 	protected void startVisitTableRow(XWPFTableRow row,
 			IITextContainer tableContainer, int rowIndex, boolean headerRow)
 			throws Exception {
+		StylableTable table = (StylableTable) tableContainer;
 		if (headerRow) {
-			PdfPTable table = (PdfPTable) tableContainer;
+			table.beginTableHeaderRows();
 			table.setHeaderRows(table.getHeaderRows() + 1);
+		} else {
+			table.endTableHeaderRows();
 		}
+		// lay out the rows of a large table while it is built
+		table.flushCompletedRows(options.getTableFlushRows());
 		super.startVisitTableRow(row, tableContainer, rowIndex, headerRow);
 	}
 
@@ -54,13 +54,25 @@ public class StylableHeaderFooter
 
     public StylableHeaderFooter( StylableDocument ownerDocument, BigInteger dxaY, boolean header )
     {
-        super( ownerDocument, null, 1 );
-        this.ownerDocument = ownerDocument;
-        this.header = header;
+        this( ownerDocument, dxaY, header, null );
         tableCell = ownerDocument.createTableCell( this );
         tableCell.setBorder( Rectangle.NO_BORDER );
         // set padding to zero for proper alignment
         //tableCell.setPadding( 0.0f );
+    }
+
+    /**
+     * Create a header/footer with a table cell which was already built (ex : by a previous conversion). The cell is
+     * copied when it is added to the table but its content is not, and iText updates the nested tables while it lays
+     * them out : the cell must not be used by two conversions at the same time (see HeaderFooterCache).
+     */
+    public StylableHeaderFooter( StylableDocument ownerDocument, BigInteger dxaY, boolean header,
+                                 StylableTableCell tableCell )
+    {
+        super( ownerDocument, null, 1 );
+        this.ownerDocument = ownerDocument;
+        this.header = header;
+        this.tableCell = tableCell;
         this.y = dxaY != null ? DxaUtil.dxa2points( dxaY ) : null;
         this.totalHeight = null;
     }
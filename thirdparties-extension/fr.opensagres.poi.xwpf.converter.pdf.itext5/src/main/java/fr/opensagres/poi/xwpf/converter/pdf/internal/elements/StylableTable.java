@@ -24,6 +24,11 @@
  */
 package fr.opensagres.poi.xwpf.converter.pdf.internal.elements;
 
+import com.itextpdf.text.Element;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPRow;
+import com.itextpdf.text.pdf.PdfPTable;
+
 import fr.opensagres.xdocreport.itext.extension.ExtendedPdfPTable;
 import fr.opensagres.xdocreport.itext.extension.IITextContainer;
 
@@ -36,6 +41,10 @@ public class StylableTable
 
     private final IITextContainer parent;
 
+    private boolean inTableHeaderRows;
+
+    private boolean keepFirstColumnRowspans;
+
     public StylableTable( StylableDocument ownerDocument, IITextContainer parent, int numColumns )
     {
         super( numColumns );
@@ -58,6 +67,85 @@ public class StylableTable
         return ownerDocument;
     }
 
+    public void beginTableHeaderRows()
+    {
+        inTableHeaderRows = true;
+    }
+
+    public void endTableHeaderRows()
+    {
+        inTableHeaderRows = false;
+    }
+
+    /**
+     * Sets whether the rows of a vertical merge which starts in the first column are kept on the same page (see
+     * {@link #keepFirstColumnRowspansTogether(PdfPTable)}). It changes the pagination of the table, so it is only
+     * enabled by the Fast PDF converter. The default value is false.
+     *
+     * @param keepFirstColumnRowspans true to keep the rows together.
+     */
+    public void setKeepFirstColumnRowspans( boolean keepFirstColumnRowspans )
+    {
+        this.keepFirstColumnRowspans = keepFirstColumnRowspans;
+    }
+
+    /**
+     * Adds the completed rows of this table to the document when there are at least the given number of them, so
+     * that a very large table is not kept in memory. Only the tables of the document body are flushed.
+     *
+     * @param minRows the minimum number of rows to flush, 0 to not flush.
+     */
+    public void flushCompletedRows( int minRows )
+    {
+        if ( minRows > 0 && parent == ownerDocument && !inTableHeaderRows )
+        {
+            ExtendedPdfPTable table = flushCompletedRows( minRows, ownerDocument.getHeightLimit() );
+            if ( table != null )
+            {
+                if ( keepFirstColumnRowspans )
+                {
+                    keepFirstColumnRowspansTogether( table );
+                }
+                ownerDocument.addElement( table.getElement() );
+            }
+        }
+    }
+
+    @Override
+    public Element getElement()
+    {
+        if ( parent == ownerDocument )
+        {
+            // the rest of a flushed table may start on a new page
+            showHeaderRowsOnNewPage( ownerDocument.getHeightLimit() );
+        }
+        if ( keepFirstColumnRowspans )
+        {
+            keepFirstColumnRowspansTogether( this );
+        }
+        return super.getElement();
+    }
+
+    /**
+     * Keeps on the same page the rows of a vertical merge which starts in the first column: iText expects the first
+     * cell of the row which starts a page to exist, which is not the case for a row inside the merge.
+     *
+     * @param table the table to update.
+     */
+    private static void keepFirstColumnRowspansTogether( PdfPTable table )
+    {
+        int size = table.size();
+        for ( int i = table.getHeaderRows(); i < size; i++ )
+        {
+            PdfPRow row = table.getRow( i );
+            PdfPCell cell = row != null ? row.getCells()[0] : null;
+            if ( cell != null && cell.getRowspan() > 1 )
+            {
+                table.keepRowsTogether( i, Math.min( i + cell.getRowspan(), size ) );
+            }
+        }
+    }
+
     public int getColIdx()
     {
     	  return currentColIdx;
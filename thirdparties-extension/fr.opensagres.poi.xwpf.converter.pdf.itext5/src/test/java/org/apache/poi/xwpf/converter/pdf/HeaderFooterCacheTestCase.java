@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.apache.poi.xwpf.converter.pdf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.poi.xwpf.converter.core.AbstractXWPFPOIConverterTest;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+import fr.opensagres.poi.xwpf.converter.pdf.PdfConverter;
+import fr.opensagres.poi.xwpf.converter.pdf.PdfOptions;
+import fr.opensagres.poi.xwpf.converter.pdf.internal.HeaderFooterCache;
+
+public class HeaderFooterCacheTestCase
+{
+
+    @Test
+    public void reuseHeaderFooter()
+        throws IOException
+    {
+        HeaderFooterCache.getCache().clear();
+        String expected = convert( "TemplateGeneral.docx", PdfOptions.create().cacheHeaderFooter( false ) );
+        Assert.assertEquals( 0, HeaderFooterCache.getCache().size() );
+
+        // header and footer are cached by the first conversion and reused by the second
+        Assert.assertEquals( expected, convert( "TemplateGeneral.docx", cacheOptions() ) );
+        Assert.assertEquals( 2, HeaderFooterCache.getCache().size() );
+        Assert.assertEquals( expected, convert( "TemplateGeneral.docx", cacheOptions() ) );
+        Assert.assertEquals( 2, HeaderFooterCache.getCache().size() );
+    }
+
+    @Test
+    public void disabledByDefault()
+        throws IOException
+    {
+        HeaderFooterCache.getCache().clear();
+        convert( "TemplateGeneral.docx", PdfOptions.create() );
+        Assert.assertEquals( 0, HeaderFooterCache.getCache().size() );
+    }
+
+    @Test
+    public void pageNumber()
+        throws IOException
+    {
+        HeaderFooterCache.getCache().clear();
+        String expected = convert( "TestPageNumber.docx", PdfOptions.create().cacheHeaderFooter( false ) );
+        Assert.assertEquals( expected, convert( "TestPageNumber.docx", cacheOptions() ) );
+        Assert.assertEquals( expected, convert( "TestPageNumber.docx", cacheOptions() ) );
+    }
+
+    private static PdfOptions cacheOptions()
+    {
+        return PdfOptions.create().cacheHeaderFooter( true );
+    }
+
+    private static String convert( String fileInName, PdfOptions options )
+        throws IOException
+    {
+        XWPFDocument document = new XWPFDocument( AbstractXWPFPOIConverterTest.class.getResourceAsStream( fileInName ) );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfConverter.getInstance().convert( document, out, options );
+
+        // returns the text of the pages
+        PdfReader reader = new PdfReader( out.toByteArray() );
+        StringBuilder text = new StringBuilder();
+        for ( int i = 1; i <= reader.getNumberOfPages(); i++ )
+        {
+            text.append( PdfTextExtractor.getTextFromPage( reader, i ) ).append( '\n' );
+        }
+        reader.close();
+        return text.toString();
+    }
+}
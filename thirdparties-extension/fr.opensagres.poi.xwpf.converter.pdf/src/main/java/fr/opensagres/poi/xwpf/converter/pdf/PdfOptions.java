@@ -39,6 +39,12 @@ public class PdfOptions
     extends Options
 {
 
+    /**
+     * Default number of completed rows after which a table of the document body is laid out : 0, the table is laid out
+     * when it ends.
+     */
+    public static final int DEFAULT_TABLE_FLUSH_ROWS = 0;
+
     private static final PdfOptions DEFAULT = new PdfOptions();
 
     private String fontEncoding;
@@ -47,10 +53,19 @@ public class PdfOptions
 
     private IPdfWriterConfiguration configuration;
 
+    private int tableFlushRows;
+
+    private boolean streamingBody;
+
+    private boolean cacheHeaderFooter;
+
     private PdfOptions()
     {
         this.fontEncoding = BaseFont.IDENTITY_H;
         this.fontProvider = ITextFontRegistry.getRegistry();
+        this.tableFlushRows = DEFAULT_TABLE_FLUSH_ROWS;
+        this.streamingBody = false;
+        this.cacheHeaderFooter = false;
     }
 
     /**
@@ -137,4 +152,79 @@ public class PdfOptions
         this.configuration = configuration;
     }
 
+    /**
+     * Returns the number of completed rows after which a table of the document body is laid out while it is built.
+     * 
+     * @return
+     */
+    public int getTableFlushRows()
+    {
+        return tableFlushRows;
+    }
+
+    /**
+     * Set the number of completed rows after which a table of the document body is laid out while it is built, so
+     * that the rows of a very large table are not all kept in memory. 0 lays out the table when it ends. The default
+     * value is {@link #DEFAULT_TABLE_FLUSH_ROWS}.
+     * 
+     * @param tableFlushRows the number of completed rows to flush
+     * @return this instance
+     */
+    public PdfOptions tableFlushRows( int tableFlushRows )
+    {
+        this.tableFlushRows = tableFlushRows;
+        return this;
+    }
+
+    /**
+     * Returns true if {@link FastPdfConverter} loads the body elements of the word/document.xml one at a time and false
+     * if it loads the whole word/document.xml before converting it.
+     * 
+     * @return
+     */
+    public boolean isStreamingBody()
+    {
+        return streamingBody;
+    }
+
+    /**
+     * Set true if {@link FastPdfConverter} must load the body elements (paragraph, table) of the word/document.xml one
+     * at a time and release them once converted, so that the memory depends on the largest body element and not on
+     * the whole document. The default value is false.
+     * 
+     * @param streamingBody
+     * @return this instance
+     */
+    public PdfOptions streamingBody( boolean streamingBody )
+    {
+        this.streamingBody = streamingBody;
+        return this;
+    }
+
+    /**
+     * Returns true if {@link PdfConverter} reuses the headers/footers built by the previous conversions when their
+     * parts are identical and false otherwise.
+     * 
+     * @return
+     */
+    public boolean isCacheHeaderFooter()
+    {
+        return cacheHeaderFooter;
+    }
+
+    /**
+     * Set true if {@link PdfConverter} must cache the headers/footers it builds, so that the conversions of documents
+     * generated from the same template don't parse and style them again. The cache is shared by the conversions of the
+     * JVM which enable it. Headers/footers with a field (page number...) or a numbered paragraph are never cached. The
+     * default value is false.
+     * 
+     * @param cacheHeaderFooter
+     * @return this instance
+     */
+    public PdfOptions cacheHeaderFooter( boolean cacheHeaderFooter )
+    {
+        this.cacheHeaderFooter = cacheHeaderFooter;
+        return this;
+    }
+
 }
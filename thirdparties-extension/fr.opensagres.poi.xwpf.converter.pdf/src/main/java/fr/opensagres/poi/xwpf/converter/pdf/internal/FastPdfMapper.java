@@ -60,7 +60,6 @@ import com.lowagie.text.Font;
 import com.lowagie.text.Image;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
 
 import fr.opensagres.poi.xwpf.converter.core.Color;
 import fr.opensagres.poi.xwpf.converter.core.ListItemContext;
@@ -125,6 +124,12 @@ public class FastPdfMapper
         this.out = out;
     }
 
+    @Override
+    protected boolean isStreamingBody()
+    {
+        return options.isStreamingBody();
+    }
+
     // ------------------------- Document
 
     @Override
@@ -685,20 +690,47 @@ public class FastPdfMapper
     protected void startVisitTableRow( CTRow row, IITextContainer tableContainer, boolean headerRow )
         throws Exception
     {
+        StylableTable table = (StylableTable) tableContainer;
         if ( headerRow )
         {
-            PdfPTable table = (PdfPTable) tableContainer;
+            table.beginTableHeaderRows();
             table.setHeaderRows( table.getHeaderRows() + 1 );
         }
+        else
+        {
+            table.endTableHeaderRows();
+        }
+        // lay out the rows of a large table while it is built
+        table.flushCompletedRows( options.getTableFlushRows() );
     }
 
     @Override
     protected IITextContainer startVisitTableCell( CTTc cell, IITextContainer tableContainer )
         throws Exception
+    {
+        return startVisitTableCell( cell, tableContainer, null );
+    }
+
+    @Override
+    protected IITextContainer startVisitTableCell( CTTc cell, IITextContainer tableContainer, List<CTTc> vMergedCells )
+        throws Exception
     {
         StylableTable pdfPTable = (StylableTable) tableContainer;
         StylableTableCell pdfPCell = pdfDocument.createTableCell( pdfPTable );
 
+        // Rowspan
+        if ( vMergedCells != null )
+        {
+            pdfPCell.setRowspan( vMergedCells.size() );
+        }
+
+        // Colspan
+        BigInteger gridSpan = stylesDocument.getTableCellGridSpan( cell.getTcPr() );
+        if ( gridSpan != null )
+        {
+            pdfPCell.setColspan( gridSpan.intValue() );
+        }
+
         // Background Color
         Color backgroundColor = stylesDocument.getTableCellBackgroundColor( cell );
         if ( backgroundColor != null )
@@ -0,0 +1,323 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.pdf.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+
+import fr.opensagres.poi.xwpf.converter.pdf.PdfOptions;
+import fr.opensagres.poi.xwpf.converter.pdf.internal.elements.StylableDocument;
+import fr.opensagres.poi.xwpf.converter.pdf.internal.elements.StylableTableCell;
+import fr.opensagres.xdocreport.itext.extension.font.IFontProvider;
+
+/**
+ * Cache of the header/footer content built by {@link PdfMapper}, shared by the DOCX->PDF conversions.
+ * <p>
+ * Reports generated from the same template usually have identical header and footer parts. The content of a
+ * header/footer (the table cell of the StylableHeaderFooter) is cached with a key computed from the header/footer XML,
+ * its related parts (images), the styles, numbering, settings, theme and font table parts of the document, the page
+ * size and margins, the header/footer position and the font options, so that the next conversions don't parse and style
+ * it again. The cache is used only when {@link PdfOptions#isCacheHeaderFooter()} is true.
+ * </p>
+ * <p>
+ * A conversion checks out the content it uses and checks it in when it ends : the cell is copied when it is added to
+ * the header/footer table, but its content is not, and iText updates the widths and heights of the nested tables while
+ * it lays them out. Another conversion of the same template which runs at the same time builds its own content.
+ * </p>
+ */
+public class HeaderFooterCache
+{
+
+    private static final int MAX_ENTRIES = 64;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final String[] DOCUMENT_RELATIONS = { XWPFRelation.STYLES.getRelation(),
+        XWPFRelation.NUMBERING.getRelation(), XWPFRelation.SETTINGS.getRelation(), XWPFRelation.THEME.getRelation(),
+        XWPFRelation.FONT_TABLE.getRelation() };
+
+    private static final Object NOT_CACHEABLE = new Object();
+
+    private static final HeaderFooterCache INSTANCE = new HeaderFooterCache();
+
+    private final Map<Key, Object> contents;
+
+    public static HeaderFooterCache getCache()
+    {
+        return INSTANCE;
+    }
+
+    protected HeaderFooterCache()
+    {
+        this.contents = new LinkedHashMap<Key, Object>( 16, 0.75f, true )
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key, Object> eldest )
+            {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    /**
+     * Removes the cached content of the given key from the cache and returns it.
+     * 
+     * @param key the header/footer key.
+     * @return the cached content and null if there is no content for the key.
+     */
+    public synchronized StylableTableCell checkOut( Key key )
+    {
+        Object content = contents.get( key );
+        if ( content instanceof StylableTableCell )
+        {
+            contents.remove( key );
+            return (StylableTableCell) content;
+        }
+        return null;
+    }
+
+    /**
+     * Puts the given content in the cache once the conversion which uses it has ended.
+     * 
+     * @param key the header/footer key.
+     * @param content the content built for the key.
+     */
+    public synchronized void checkIn( Key key, StylableTableCell content )
+    {
+        contents.put( key, content );
+    }
+
+    /**
+     * Returns false if the content of the given key depends on the converted document (page number, numbering...).
+     * 
+     * @param key the header/footer key.
+     * @return
+     */
+    public synchronized boolean isCacheable( Key key )
+    {
+        return contents.get( key ) != NOT_CACHEABLE;
+    }
+
+    /**
+     * Marks the given key as not cacheable, because its content depends on the converted document.
+     * 
+     * @param key the header/footer key.
+     */
+    public synchronized void setNotCacheable( Key key )
+    {
+        contents.put( key, NOT_CACHEABLE );
+    }
+
+    public synchronized void clear()
+    {
+        contents.clear();
+    }
+
+    public synchronized int size()
+    {
+        return contents.size();
+    }
+
+    /**
+     * Returns the digest of the parts of the given document used to style the headers/footers.
+     * 
+     * @param document the converted document.
+     * @return
+     * @throws Exception
+     */
+    public static byte[] digestDocumentParts( XWPFDocument document )
+        throws Exception
+    {
+        MessageDigest digest = MessageDigest.getInstance( DIGEST_ALGORITHM );
+        PackagePart documentPart = document.getPackagePart();
+        for ( String relation : DOCUMENT_RELATIONS )
+        {
+            update( digest, relation );
+            for ( PackageRelationship relationship : documentPart.getRelationshipsByType( relation ) )
+            {
+                update( digest, documentPart.getRelatedPart( relationship ) );
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Create the key of the given header/footer.
+     * 
+     * @param headerFooter the header/footer.
+     * @param documentDigest the digest of the document parts (see {@link #digestDocumentParts(XWPFDocument)}).
+     * @param pageWidth the width of the section page.
+     * @param pdfDocument the PDF document, which gives the page size and margins.
+     * @param dxaY the position of the header/footer.
+     * @param header true for a header and false for a footer.
+     * @param options the PDF options.
+     * @return
+     * @throws Exception
+     */
+    public static Key createKey( XWPFHeaderFooter headerFooter, byte[] documentDigest, Float pageWidth,
+                                 StylableDocument pdfDocument, BigInteger dxaY, boolean header, PdfOptions options )
+        throws Exception
+    {
+        MessageDigest digest = MessageDigest.getInstance( DIGEST_ALGORITHM );
+        digest.update( documentDigest );
+        update( digest, String.valueOf( pageWidth ) );
+        update( digest, String.valueOf( pdfDocument.getPageSize().getWidth() ) );
+        update( digest, String.valueOf( pdfDocument.getPageSize().getHeight() ) );
+        update( digest, String.valueOf( pdfDocument.getPageSize().getRotation() ) );
+        update( digest, String.valueOf( pdfDocument.leftMargin() ) );
+        update( digest, String.valueOf( pdfDocument.rightMargin() ) );
+        update( digest, String.valueOf( pdfDocument.topMargin() ) );
+        update( digest, String.valueOf( pdfDocument.bottomMargin() ) );
+        update( digest, String.valueOf( dxaY ) );
+        update( digest, String.valueOf( header ) );
+        update( digest, String.valueOf( options.getFontEncoding() ) );
+        // the XML of the header/footer which could have been modified after loading
+        headerFooter._getHdrFtr().save( new DigestOutputStream( digest ) );
+        // images, hyperlinks...
+        PackagePart part = headerFooter.getPackagePart();
+        for ( PackageRelationship relationship : part.getRelationships() )
+        {
+            update( digest, relationship.getId() );
+            update( digest, relationship.getRelationshipType() );
+            update( digest, relationship.getTargetURI().toString() );
+            if ( relationship.getTargetMode() == TargetMode.INTERNAL )
+            {
+                update( digest, part.getRelatedPart( relationship ) );
+            }
+        }
+        return new Key( digest.digest(), options.getFontProvider() );
+    }
+
+    private static void update( MessageDigest digest, String value )
+        throws IOException
+    {
+        digest.update( value.getBytes( "UTF-8" ) );
+        digest.update( (byte) 0 );
+    }
+
+    private static void update( MessageDigest digest, PackagePart part )
+        throws IOException
+    {
+        if ( part == null )
+        {
+            return;
+        }
+        InputStream in = part.getInputStream();
+        try
+        {
+            byte[] buffer = new byte[4096];
+            int n = 0;
+            while ( ( n = in.read( buffer ) ) != -1 )
+            {
+                digest.update( buffer, 0, n );
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Key of a header/footer content.
+     */
+    public static class Key
+    {
+
+        private final byte[] digest;
+
+        private final IFontProvider fontProvider;
+
+        private final int hashCode;
+
+        Key( byte[] digest, IFontProvider fontProvider )
+        {
+            this.digest = digest;
+            this.fontProvider = fontProvider;
+            this.hashCode = Arrays.hashCode( digest );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals( Object obj )
+        {
+            if ( this == obj )
+            {
+                return true;
+            }
+            if ( !( obj instanceof Key ) )
+            {
+                return false;
+            }
+            Key other = (Key) obj;
+            // fonts are created by the font provider, so compare the instance.
+            return fontProvider == other.fontProvider && Arrays.equals( digest, other.digest );
+        }
+    }
+
+    private static class DigestOutputStream
+        extends OutputStream
+    {
+
+        private final MessageDigest digest;
+
+        public DigestOutputStream( MessageDigest digest )
+        {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write( int b )
+        {
+            digest.update( (byte) b );
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len )
+        {
+            digest.update( b, off, len );
+        }
+    }
+}
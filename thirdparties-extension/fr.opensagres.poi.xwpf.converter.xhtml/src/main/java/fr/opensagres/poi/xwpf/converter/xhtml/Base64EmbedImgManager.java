@@ -10,7 +10,7 @@ import java.io.IOException;
  * Created by zzt on 17/4/11.
  */
 public class Base64EmbedImgManager extends ImageManager {
-    private static final String EMBED_IMG_SRC_PREFIX = XHTMLConstants.DATA_ATTR + ";base64,";
+    public static final String EMBED_IMG_SRC_PREFIX = XHTMLConstants.DATA_ATTR + ";base64,";
 
     private byte[] picture;
 
@@ -23,11 +23,18 @@ public class Base64EmbedImgManager extends ImageManager {
         this.picture = imageData;
     }
 
+    /**
+     * Returns the last extracted picture.
+     */
+    public byte[] getPicture() {
+        return picture;
+    }
+
     @Override
     public String resolve(String uri) {
-        StringBuilder sb = new StringBuilder(picture.length + EMBED_IMG_SRC_PREFIX.length())
-                .append(EMBED_IMG_SRC_PREFIX)
-                .append(Base64Utility.encode(picture));
+        StringBuilder sb = new StringBuilder(EMBED_IMG_SRC_PREFIX.length() + Base64Utility.getEncodedLength(picture.length))
+                .append(EMBED_IMG_SRC_PREFIX);
+        Base64Utility.encode(picture, sb);
         return sb.toString();
     }
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.xhtml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import org.xml.sax.ContentHandler;
+
+import fr.opensagres.poi.xwpf.converter.core.XWPFConverterException;
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.AbstractOpenXMlFormatsConverter;
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.IOpenXMLFormatsPartProvider;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.FastXHTMLMapper;
+
+/**
+ * Converts a docx to XHTML by reading its parts (see {@link IOpenXMLFormatsPartProvider}) without loading the POI
+ * {@link org.apache.poi.xwpf.usermodel.XWPFDocument}.
+ */
+public class FastXHTMLConverter
+    extends AbstractOpenXMlFormatsConverter<XHTMLOptions>
+{
+
+    private static final FastXHTMLConverter INSTANCE = new FastXHTMLConverter();
+
+    public static FastXHTMLConverter getInstance()
+    {
+        return INSTANCE;
+    }
+
+    @Override
+    protected void doConvert( IOpenXMLFormatsPartProvider provider, OutputStream out, Writer writer,
+                              XHTMLOptions options )
+        throws XWPFConverterException, IOException
+    {
+        options = options != null ? options : XHTMLOptions.getDefault();
+        // Create SAX content handler.
+        IContentHandlerFactory factory = options.getContentHandlerFactory();
+        if ( factory == null )
+        {
+            factory = DefaultContentHandlerFactory.INSTANCE;
+        }
+        ContentHandler contentHandler = factory.create( out, writer, options );
+        // convert the document to XHTML
+        convert( provider, contentHandler, options );
+    }
+
+    public void convert( IOpenXMLFormatsPartProvider provider, ContentHandler contentHandler, XHTMLOptions options )
+        throws XWPFConverterException, IOException
+    {
+        try
+        {
+            options = options != null ? options : XHTMLOptions.getDefault();
+            FastXHTMLMapper mapper = new FastXHTMLMapper( provider, contentHandler, options );
+            mapper.start();
+        }
+        catch ( Exception e )
+        {
+            throw new XWPFConverterException( e );
+        }
+    }
+
+}
@@ -32,6 +32,9 @@ import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.Base64Attributes;
+import fr.opensagres.xdocreport.core.utils.Base64Utility;
+
 public class SimpleContentHandler
     extends DefaultHandler
 {
@@ -105,11 +108,19 @@ public class SimpleContentHandler
             for ( int i = 0; i < length; i++ )
             {
                 attrName = attributes.getLocalName( i );
-                attrValue = attributes.getValue( i );
                 write( " " );
                 write( attrName );
                 write( "=\"" );
-                write( attrValue );
+                if ( attributes instanceof Base64Attributes && ( (Base64Attributes) attributes ).isBase64( i ) )
+                {
+                    // write the base64 content by chunk to avoid building the whole encoded string.
+                    writeBase64( (Base64Attributes) attributes );
+                }
+                else
+                {
+                    attrValue = attributes.getValue( i );
+                    write( attrValue );
+                }
                 write( "\"" );
             }
         }
@@ -220,6 +231,27 @@ public class SimpleContentHandler
         currentCharacters.setLength( 0 );
     }
 
+    private void writeBase64( Base64Attributes attributes )
+        throws SAXException
+    {
+        write( attributes.getBase64Prefix() );
+        try
+        {
+            if ( out != null )
+            {
+                Base64Utility.encode( attributes.getBase64Data(), out );
+            }
+            else
+            {
+                Base64Utility.encode( attributes.getBase64Data(), writer );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new SAXException( e );
+        }
+    }
+
     private void write( String content )
         throws SAXException
     {
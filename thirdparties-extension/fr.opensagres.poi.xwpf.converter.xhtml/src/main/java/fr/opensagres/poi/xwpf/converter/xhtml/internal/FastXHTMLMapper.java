@@ -0,0 +1,517 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.xhtml.internal;
+
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.XHTMLConstants.*;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.openxmlformats.schemas.drawingml.x2006.picture.CTPicture;
+import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.STRelFromH;
+import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.STRelFromV;
+import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.STWrapText;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBookmark;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtrRef;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPTab;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTString;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTabs;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.opensagres.poi.xwpf.converter.core.BorderSide;
+import fr.opensagres.poi.xwpf.converter.core.IURIResolver;
+import fr.opensagres.poi.xwpf.converter.core.ListItemContext;
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.IOpenXMLFormatsPartProvider;
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.OpenXMlFormatsVisitor;
+import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
+import fr.opensagres.poi.xwpf.converter.core.utils.StringUtils;
+import fr.opensagres.poi.xwpf.converter.xhtml.Base64EmbedImgManager;
+import fr.opensagres.poi.xwpf.converter.xhtml.XHTMLOptions;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStyle;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylesDocument;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.Base64Attributes;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.SAXHelper;
+
+/**
+ * XHTML mapper which works directly with the parts of the docx (see {@link IOpenXMLFormatsPartProvider}) instead of
+ * the POI {@link org.apache.poi.xwpf.usermodel.XWPFDocument}. It generates the same HTML than {@link XHTMLMapper}.
+ */
+public class FastXHTMLMapper
+    extends OpenXMlFormatsVisitor<Object, XHTMLOptions, XHTMLMasterPage>
+{
+
+    private static final String WORD_FOLDER = "word/";
+
+    private final ContentHandler contentHandler;
+
+    private final IURIResolver resolver;
+
+    private AttributesImpl currentRunAttributes;
+
+    private boolean pageDiv;
+
+    public FastXHTMLMapper( IOpenXMLFormatsPartProvider provider, ContentHandler contentHandler, XHTMLOptions options )
+        throws Exception
+    {
+        super( provider, options != null ? options : XHTMLOptions.getDefault() );
+        this.contentHandler = contentHandler;
+        this.resolver = getOptions().getURIResolver();
+        this.pageDiv = false;
+    }
+
+    @Override
+    protected boolean isStreamingBody()
+    {
+        return true;
+    }
+
+    @Override
+    protected XWPFStylesDocument createStylesDocument( IOpenXMLFormatsPartProvider provider )
+        throws Exception
+    {
+        return new CSSStylesDocument( provider, options.isIgnoreStylesIfUnused(), options.getIndent() );
+    }
+
+    @Override
+    protected Object startVisitDocument()
+        throws Exception
+    {
+        if ( !options.isFragment() )
+        {
+            contentHandler.startDocument();
+            // html start
+            startElement( HTML_ELEMENT );
+            // head start
+            startElement( HEAD_ELEMENT );
+            // styles
+            getStylesDocument().save( contentHandler );
+            // html end
+            endElement( HEAD_ELEMENT );
+            // body start
+            startElement( BODY_ELEMENT );
+        }
+        return null;
+    }
+
+    @Override
+    protected void endVisitDocument()
+        throws Exception
+    {
+        if ( pageDiv )
+        {
+            endElement( DIV_ELEMENT );
+        }
+        if ( !options.isFragment() )
+        {
+            // body end
+            endElement( BODY_ELEMENT );
+            // html end
+            endElement( HTML_ELEMENT );
+            contentHandler.endDocument();
+        }
+    }
+
+    @Override
+    protected Object startVisitParagraph( CTP paragraph, ListItemContext itemContext, Object parentContainer )
+        throws Exception
+    {
+        // 1) create attributes
+
+        // 1.1) Create "class" attributes.
+        CTPPr pPr = paragraph.getPPr();
+        AttributesImpl attributes = createClassAttribute( pPr != null ? getStyleID( pPr.getPStyle() ) : null );
+
+        // 1.2) Create "style" attributes.
+        CSSStyle cssStyle = getStylesDocument().createCSSStyle( pPr );
+        if ( cssStyle != null )
+        {
+            cssStyle.addProperty( CSSStylePropertyConstants.WHITE_SPACE, "pre-wrap" );
+        }
+        attributes = createStyleAttribute( cssStyle, attributes );
+
+        // 2) create element
+        startElement( P_ELEMENT, attributes );
+        return null;
+    }
+
+    @Override
+    protected void endVisitParagraph( CTP paragraph, Object parentContainer, Object paragraphContainer )
+        throws Exception
+    {
+        endElement( P_ELEMENT );
+    }
+
+    @Override
+    protected void visitRun( CTR run, CTP paragraph, boolean pageNumber, String url, Object paragraphContainer )
+        throws Exception
+    {
+        // 1) create attributes
+
+        // 1.1) Create "class" attributes.
+        CTPPr pPr = paragraph.getPPr();
+        this.currentRunAttributes = createClassAttribute( pPr != null ? getStyleID( pPr.getPStyle() ) : null );
+
+        // 1.2) Create "style" attributes.
+        CTRPr rPr = run.getRPr();
+        CSSStyle cssStyle = getStylesDocument().createCSSStyle( rPr );
+        if ( cssStyle != null )
+        {
+            cssStyle.addProperty( CSSStylePropertyConstants.WHITE_SPACE, "pre-wrap" );
+            XHTMLMapperHelper.addRunStyles( cssStyle, rPr, getStylesDocument().getTextHighlighting( run, paragraph ),
+                                            getStylesDocument().getFontStyleStrike( run, paragraph ) );
+        }
+        this.currentRunAttributes = createStyleAttribute( cssStyle, currentRunAttributes );
+
+        if ( url != null )
+        {
+            // url is not null, generate a HTML a.
+            XHTMLMapperHelper.startHyperlink( contentHandler, url );
+        }
+
+        super.visitRun( run, paragraph, pageNumber, url, paragraphContainer );
+
+        if ( url != null )
+        {
+            // url is not null, close the HTML a.
+            XHTMLMapperHelper.endHyperlink( contentHandler );
+        }
+        this.currentRunAttributes = null;
+    }
+
+    @Override
+    protected void visitText( CTText ctText, boolean pageNumber, Object paragraphContainer )
+        throws Exception
+    {
+        XHTMLMapperHelper.text( contentHandler, currentRunAttributes, ctText.getStringValue() );
+    }
+
+    @Override
+    protected void visitTab( CTPTab o, Object paragraphContainer )
+        throws Exception
+    {
+    }
+
+    @Override
+    protected void visitTabs( CTTabs tabs, Object paragraphContainer )
+        throws Exception
+    {
+        if ( tabs == null )
+        {
+            XHTMLMapperHelper.tab( contentHandler );
+        }
+    }
+
+    @Override
+    protected void addNewLine( CTBr br, Object paragraphContainer )
+        throws Exception
+    {
+        startElement( BR_ELEMENT );
+        endElement( BR_ELEMENT );
+    }
+
+    @Override
+    protected void pageBreak()
+        throws Exception
+    {
+    }
+
+    @Override
+    protected void visitBookmark( CTBookmark bookmark, CTP paragraph, Object paragraphContainer )
+        throws Exception
+    {
+        AttributesImpl attributes = new AttributesImpl();
+        SAXHelper.addAttrValue( attributes, ID_ATTR, bookmark.getName() );
+        startElement( SPAN_ELEMENT, attributes );
+        endElement( SPAN_ELEMENT );
+    }
+
+    @Override
+    protected Object startVisitTable( CTTbl table, float[] colWidths, Object tableContainer )
+        throws Exception
+    {
+        // 1) create attributes
+        // 1.1) Create class attributes.
+        CTTblPr tblPr = table.getTblPr();
+        AttributesImpl attributes = createClassAttribute( getStyleID( table ) );
+
+        // 1.2) Create "style" attributes.
+        CSSStyle cssStyle = getStylesDocument().createCSSStyle( tblPr );
+        if ( cssStyle != null )
+        {
+            cssStyle.addProperty( CSSStylePropertyConstants.BORDER_COLLAPSE,
+                                  CSSStylePropertyConstants.BORDER_COLLAPSE_COLLAPSE );
+        }
+        attributes = createStyleAttribute( cssStyle, attributes );
+
+        // 2) create element
+        startElement( TABLE_ELEMENT, attributes );
+        return null;
+    }
+
+    @Override
+    protected void endVisitTable( CTTbl table, Object parentContainer, Object tableContainer )
+        throws Exception
+    {
+        endElement( TABLE_ELEMENT );
+    }
+
+    @Override
+    protected void startVisitTableRow( CTRow row, Object tableContainer, boolean headerRow )
+        throws Exception
+    {
+        // 1) create attributes
+        // Create class attributes.
+        AttributesImpl attributes = createClassAttribute( getStyleID( getParentTable() ) );
+
+        // 2) create element
+        if ( headerRow )
+        {
+            startElement( TH_ELEMENT, attributes );
+        }
+        else
+        {
+            startElement( TR_ELEMENT, attributes );
+        }
+    }
+
+    @Override
+    protected void endVisitTableRow( CTRow row, Object tableContainer, boolean headerRow )
+        throws Exception
+    {
+        if ( headerRow )
+        {
+            endElement( TH_ELEMENT );
+        }
+        else
+        {
+            endElement( TR_ELEMENT );
+        }
+    }
+
+    @Override
+    protected Object startVisitTableCell( CTTc cell, Object tableContainer )
+        throws Exception
+    {
+        return startVisitTableCell( cell, tableContainer, null );
+    }
+
+    @Override
+    protected Object startVisitTableCell( CTTc cell, Object tableContainer, List<CTTc> vMergedCells )
+        throws Exception
+    {
+        // 1) create attributes
+        // 1.1) Create class attributes.
+        CTTbl table = getParentTable();
+        AttributesImpl attributes = createClassAttribute( getStyleID( table ) );
+
+        // 1.2) Create "style" attributes.
+        CTTcPr tcPr = cell.getTcPr();
+        CSSStyle cssStyle = getStylesDocument().createCSSStyle( tcPr );
+        if ( cssStyle != null )
+        {
+            XHTMLMapperHelper.addBorderProperties( cssStyle, getStylesDocument().getTableBorder( table, BorderSide.TOP ),
+                                                   getStylesDocument().getTableBorder( table, BorderSide.BOTTOM ),
+                                                   getStylesDocument().getTableBorder( table, BorderSide.LEFT ),
+                                                   getStylesDocument().getTableBorder( table, BorderSide.RIGHT ) );
+        }
+        attributes = createStyleAttribute( cssStyle, attributes );
+
+        // colspan attribute
+        BigInteger gridSpan = stylesDocument.getTableCellGridSpan( tcPr );
+        if ( gridSpan != null )
+        {
+            attributes = SAXHelper.addAttrValue( attributes, COLSPAN_ATTR, gridSpan.intValue() );
+        }
+
+        if ( vMergedCells != null )
+        {
+            attributes = SAXHelper.addAttrValue( attributes, ROWSPAN_ATTR, vMergedCells.size() );
+        }
+
+        // 2) create element
+        startElement( TD_ELEMENT, attributes );
+        return null;
+    }
+
+    @Override
+    protected void endVisitTableCell( CTTc cell, Object tableContainer, Object tableCellContainer )
+        throws Exception
+    {
+        endElement( TD_ELEMENT );
+    }
+
+    @Override
+    protected void visitHeader( CTHdrFtr currentHeader, CTHdrFtrRef headerRef, CTSectPr sectPr,
+                                XHTMLMasterPage masterPage )
+        throws Exception
+    {
+    }
+
+    @Override
+    protected void visitFooter( CTHdrFtr currentFooter, CTHdrFtrRef footerRef, CTSectPr sectPr,
+                                XHTMLMasterPage masterPage )
+        throws Exception
+    {
+    }
+
+    @Override
+    protected void visitPicture( CTPicture picture, Float offsetX, STRelFromH.Enum relativeFromH, Float offsetY,
+                                 STRelFromV.Enum relativeFromV, STWrapText.Enum wrapText, Object parentContainer )
+        throws Exception
+    {
+        AttributesImpl attributes = null;
+        String target = getPictureTarget( picture );
+        if ( target != null )
+        {
+            // img/@src
+            if ( resolver instanceof Base64EmbedImgManager )
+            {
+                // the base64 content is written by the content handler with streaming (see SimpleContentHandler)
+                byte[] pictureBytes = ( (Base64EmbedImgManager) resolver ).getPicture();
+                Base64Attributes base64Attributes = new Base64Attributes();
+                base64Attributes.addBase64Attribute( SRC_ATTR, Base64EmbedImgManager.EMBED_IMG_SRC_PREFIX,
+                                                     pictureBytes != null ? pictureBytes : getPictureBytes( picture ) );
+                attributes = base64Attributes;
+            }
+            else
+            {
+                String src = resolver.resolve( WORD_FOLDER + target );
+                attributes = SAXHelper.addAttrValue( attributes, SRC_ATTR, src );
+            }
+        }
+        else
+        {
+            // external link images inserted
+            String src = getPictureLink( picture );
+            if ( src != null )
+            {
+                attributes = SAXHelper.addAttrValue( attributes, SRC_ATTR, src );
+            }
+        }
+        if ( attributes != null )
+        {
+            attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR,
+                                                 XHTMLMapperHelper.createPictureStyle( picture, getStylesDocument() ).getInlineStyles() );
+            startElement( IMG_ELEMENT, attributes );
+            endElement( IMG_ELEMENT );
+        }
+    }
+
+    public void setActiveMasterPage( XHTMLMasterPage masterPage )
+    {
+        try
+        {
+            if ( pageDiv )
+            {
+                endElement( DIV_ELEMENT );
+            }
+            AttributesImpl attributes = new AttributesImpl();
+            String s = XHTMLMapperHelper.createMasterPageStyle( masterPage.getSectPr(), getStylesDocument() ).getInlineStyles();
+            if ( StringUtils.isNotEmpty( s ) )
+            {
+                SAXHelper.addAttrValue( attributes, STYLE_ATTR, s );
+            }
+            startElement( DIV_ELEMENT, attributes );
+        }
+        catch ( SAXException e )
+        {
+            throw new RuntimeException( e );
+        }
+        pageDiv = true;
+    }
+
+    public XHTMLMasterPage createMasterPage( CTSectPr sectPr )
+    {
+        return new XHTMLMasterPage( sectPr );
+    }
+
+    @Override
+    public CSSStylesDocument getStylesDocument()
+    {
+        return (CSSStylesDocument) super.getStylesDocument();
+    }
+
+    private static String getStyleID( CTTbl table )
+    {
+        CTTblPr tblPr = table != null ? table.getTblPr() : null;
+        return tblPr != null ? getStyleID( tblPr.getTblStyle() ) : null;
+    }
+
+    private static String getStyleID( CTString style )
+    {
+        return style != null ? style.getVal() : null;
+    }
+
+    private void startElement( String name )
+        throws SAXException
+    {
+        startElement( name, null );
+    }
+
+    private void startElement( String name, Attributes attributes )
+        throws SAXException
+    {
+        SAXHelper.startElement( contentHandler, name, attributes );
+    }
+
+    private void endElement( String name )
+        throws SAXException
+    {
+        SAXHelper.endElement( contentHandler, name );
+    }
+
+    private void characters( String content )
+        throws SAXException
+    {
+        SAXHelper.characters( contentHandler, content );
+    }
+
+    private AttributesImpl createClassAttribute( String styleID )
+    {
+        return XHTMLMapperHelper.createClassAttribute( getStylesDocument(), styleID );
+    }
+
+    private AttributesImpl createStyleAttribute( CSSStyle cssStyle, AttributesImpl attributes )
+    {
+        return XHTMLMapperHelper.createStyleAttribute( cssStyle, attributes );
+    }
+}
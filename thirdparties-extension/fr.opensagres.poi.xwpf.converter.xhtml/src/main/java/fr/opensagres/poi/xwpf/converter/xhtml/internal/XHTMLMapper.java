@@ -24,14 +24,7 @@
  */
 package fr.opensagres.poi.xwpf.converter.xhtml.internal;
 
-import static fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil.emu2points;
 import static fr.opensagres.poi.xwpf.converter.xhtml.internal.XHTMLConstants.*;
-import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.HEIGHT;
-import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_BOTTOM;
-import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_LEFT;
-import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_RIGHT;
-import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_TOP;
-import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.WIDTH;
 
 import java.io.IOException;
 import java.math.BigInteger;
@@ -39,7 +32,6 @@ import java.util.List;
 
 import org.apache.poi.xwpf.usermodel.*;
 import org.apache.xmlbeans.XmlException;
-import org.openxmlformats.schemas.drawingml.x2006.main.CTPositiveSize2D;
 import org.openxmlformats.schemas.drawingml.x2006.picture.CTPicture;
 import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.STRelFromH.Enum;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBookmark;
@@ -47,46 +39,37 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtrRef;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPTab;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageSz;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTabs;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STVerticalAlignRun;
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.AttributesImpl;
 
 import fr.opensagres.poi.xwpf.converter.core.BorderSide;
-import fr.opensagres.poi.xwpf.converter.core.Color;
 import fr.opensagres.poi.xwpf.converter.core.IURIResolver;
 import fr.opensagres.poi.xwpf.converter.core.ListItemContext;
-import fr.opensagres.poi.xwpf.converter.core.TableCellBorder;
 import fr.opensagres.poi.xwpf.converter.core.XWPFDocumentVisitor;
 import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
 import fr.opensagres.poi.xwpf.converter.core.styles.run.RunFontStyleStrikeValueProvider;
 import fr.opensagres.poi.xwpf.converter.core.styles.run.RunTextHighlightingValueProvider;
-import fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil;
 import fr.opensagres.poi.xwpf.converter.core.utils.StringUtils;
+import fr.opensagres.poi.xwpf.converter.xhtml.Base64EmbedImgManager;
 import fr.opensagres.poi.xwpf.converter.xhtml.XHTMLOptions;
 import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStyle;
 import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants;
 import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylesDocument;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.Base64Attributes;
 import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.SAXHelper;
 import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.StringEscapeUtils;
 
 public class XHTMLMapper
     extends XWPFDocumentVisitor<Object, XHTMLOptions, XHTMLMasterPage>
 {
-	
-	/**
-	 * There is no HTML representation for tab. So apply 4 spaces by default
-	 */
-	static final String TAB_CHAR_SEQUENCE = "&nbsp;&nbsp;&nbsp;&nbsp;";
 
     private static final String WORD_MEDIA = "word/media/";
 
@@ -250,9 +233,7 @@ public class XHTMLMapper
         if ( url != null )
         {
             // url is not null, generate a HTML a.
-            AttributesImpl hyperlinkAttributes = new AttributesImpl();
-            SAXHelper.addAttrValue( hyperlinkAttributes, HREF_ATTR, url );
-            startElement( A_ELEMENT, hyperlinkAttributes );
+            XHTMLMapperHelper.startHyperlink( contentHandler, url );
         }
 
         super.visitRun( run, pageNumber, url, paragraphContainer );
@@ -260,9 +241,7 @@ public class XHTMLMapper
         if ( url != null )
         {
             // url is not null, close the HTML a.
-            // TODO : for the moment generate space to be ensure that a has some content.
-            characters( " " );
-            endElement( A_ELEMENT );
+            XHTMLMapperHelper.endHyperlink( contentHandler );
         }
         this.currentRunAttributes = null;
         this.currentParagraph = null;
@@ -280,24 +259,7 @@ public class XHTMLMapper
     protected void visitText( CTText ctText, boolean pageNumber, Object paragraphContainer )
         throws Exception
     {
-        if ( currentRunAttributes != null )
-        {
-            startElement( SPAN_ELEMENT, currentRunAttributes );
-        }
-        String text = ctText.getStringValue();
-        if ( StringUtils.isNotEmpty( text ) )
-        {
-            // Escape with HTML characters
-            characters( StringEscapeUtils.escapeHtml( text ) );
-        }
-        // else
-        // {
-        // characters( SPACE_ENTITY );
-        // }
-        if ( currentRunAttributes != null )
-        {
-            endElement( SPAN_ELEMENT );
-        }
+        XHTMLMapperHelper.text( contentHandler, currentRunAttributes, ctText.getStringValue() );
     }
     
     @Override
@@ -321,35 +283,12 @@ public class XHTMLMapper
         // 1.2) Create "style" attributes.
         CSSStyle cssStyle = getStylesDocument().createCSSStyle( rPr );
         if(cssStyle != null) {
-        	Color color = RunTextHighlightingValueProvider.INSTANCE.getValue(rPr, getStylesDocument());
-        	if(color != null) cssStyle.addProperty(CSSStylePropertyConstants.BACKGROUND_COLOR, StringUtils.toHexString(color));
-        	if(Boolean.TRUE.equals(RunFontStyleStrikeValueProvider.INSTANCE.getValue(rPr, getStylesDocument())) ||
-        			rPr.getDstrike() != null)
-        		cssStyle.addProperty("text-decoration", "line-through");
-        	if(rPr.getVertAlign() != null) {
-        		int align = rPr.getVertAlign().getVal().intValue();
-        		if(STVerticalAlignRun.INT_SUPERSCRIPT == align) {
-        			cssStyle.addProperty("vertical-align", "super");
-        		}
-        		else if(STVerticalAlignRun.INT_SUBSCRIPT == align) {
-        			cssStyle.addProperty("vertical-align", "sub");
-        		}
-        	}	        		
+            XHTMLMapperHelper.addRunStyles( cssStyle, rPr,
+                                            RunTextHighlightingValueProvider.INSTANCE.getValue( rPr, getStylesDocument() ),
+                                            RunFontStyleStrikeValueProvider.INSTANCE.getValue( rPr, getStylesDocument() ) );
         }
         runAttributes = createStyleAttribute( cssStyle, runAttributes );
-        if ( runAttributes != null )
-        {
-            startElement( SPAN_ELEMENT, runAttributes );
-        }        
-        if ( StringUtils.isNotEmpty( text ) )
-        {
-            // Escape with HTML characters
-            characters( StringEscapeUtils.escapeHtml( text ) );
-        }
-        if ( runAttributes != null )
-        {
-            endElement( SPAN_ELEMENT );
-        } 
+        XHTMLMapperHelper.text( contentHandler, runAttributes, text );
     }
 
     @Override
@@ -366,10 +305,7 @@ public class XHTMLMapper
     	//Add equivalent spaces in html render as no tab in html world
     	if(currentParagraph != null && tabs == null)
     	{
-			startElement( SPAN_ELEMENT, null );
-			characters(TAB_CHAR_SEQUENCE);
-			endElement(SPAN_ELEMENT);
-			return;
+			XHTMLMapperHelper.tab( contentHandler );
 		}
     }
 
@@ -477,33 +413,10 @@ public class XHTMLMapper
         CSSStyle cssStyle = getStylesDocument().createCSSStyle( tcPr );
         //At lease support solid borders for now
         if(cssStyle != null) {
-        	TableCellBorder border = getStylesDocument().getTableBorder(table, BorderSide.TOP);
-        	if(border != null)
-        	{
-        		String style = border.getBorderSize() + "px solid " +StringUtils.toHexString(border.getBorderColor()); 
-            	cssStyle.addProperty(CSSStylePropertyConstants.BORDER_TOP, style);
-        	}        	
-        	
-        	border = getStylesDocument().getTableBorder(table, BorderSide.BOTTOM);
-        	if(border != null)
-        	{
-        		String style = border.getBorderSize() + "px solid " + StringUtils.toHexString(border.getBorderColor());         	
-            	cssStyle.addProperty(CSSStylePropertyConstants.BORDER_BOTTOM, style);
-        	}        	
-        	
-        	border = getStylesDocument().getTableBorder(table, BorderSide.LEFT);
-        	if(border != null)
-        	{
-        		String style = border.getBorderSize() + "px solid " + StringUtils.toHexString(border.getBorderColor());
-            	cssStyle.addProperty(CSSStylePropertyConstants.BORDER_LEFT, style);
-        	}        	
-        	
-        	border = getStylesDocument().getTableBorder(table, BorderSide.RIGHT);
-        	if(border != null)
-        	{
-        		String style = border.getBorderSize() + "px solid " + StringUtils.toHexString(border.getBorderColor());
-            	cssStyle.addProperty(CSSStylePropertyConstants.BORDER_RIGHT, style);
-        	}        	
+            XHTMLMapperHelper.addBorderProperties( cssStyle, getStylesDocument().getTableBorder( table, BorderSide.TOP ),
+                                                   getStylesDocument().getTableBorder( table, BorderSide.BOTTOM ),
+                                                   getStylesDocument().getTableBorder( table, BorderSide.LEFT ),
+                                                   getStylesDocument().getTableBorder( table, BorderSide.RIGHT ) );
         }
         attributes = createStyleAttribute( cssStyle, attributes );
 
@@ -566,21 +479,23 @@ public class XHTMLMapper
         {
             // img/@src
             String src = pictureData.getFileName();
-            if ( StringUtils.isNotEmpty( src ) )
+            if ( resolver instanceof Base64EmbedImgManager )
+            {
+                // the base64 content is written by the content handler with streaming (see SimpleContentHandler)
+                byte[] pictureBytes = ( (Base64EmbedImgManager) resolver ).getPicture();
+                Base64Attributes base64Attributes = new Base64Attributes();
+                base64Attributes.addBase64Attribute( SRC_ATTR, Base64EmbedImgManager.EMBED_IMG_SRC_PREFIX,
+                                                     pictureBytes != null ? pictureBytes : pictureData.getData() );
+                attributes = base64Attributes;
+            }
+            else if ( StringUtils.isNotEmpty( src ) )
             {
                 src = resolver.resolve( WORD_MEDIA + src );
                 attributes = SAXHelper.addAttrValue( attributes, SRC_ATTR, src );
             }
 
-            CTPositiveSize2D ext = picture.getSpPr().getXfrm().getExt();
-            CSSStyle style = new CSSStyle( IMG_ELEMENT, null );
-            // img/@width
-            float width = emu2points( ext.getCx() );
-            // img/@height
-            float height = emu2points( ext.getCy() );
-            style.addProperty(WIDTH, getStylesDocument().getValueAsPoint( width ) );
-            style.addProperty(HEIGHT, getStylesDocument().getValueAsPoint( height ) );
-            attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR, style.getInlineStyles() );
+            attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR,
+                                                 XHTMLMapperHelper.createPictureStyle( picture, getStylesDocument() ).getInlineStyles() );
         }
         else 
         {    
@@ -588,16 +503,8 @@ public class XHTMLMapper
         	String link = picture.getBlipFill().getBlip().getLink();
             String src = document.getPackagePart().getRelationships().getRelationshipByID(link).getTargetURI().toString();
         	attributes = SAXHelper.addAttrValue( null, SRC_ATTR, src );
-        	
-        	CTPositiveSize2D ext = picture.getSpPr().getXfrm().getExt();
-        	CSSStyle style = new CSSStyle( IMG_ELEMENT, null );
-            // img/@width
-            float width = emu2points( ext.getCx() );
-            // img/@height
-            float height = emu2points( ext.getCy() );
-            style.addProperty(WIDTH, getStylesDocument().getValueAsPoint( width ) );
-            style.addProperty(HEIGHT, getStylesDocument().getValueAsPoint( height ) );
-            attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR, style.getInlineStyles() );
+            attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR,
+                                                 XHTMLMapperHelper.createPictureStyle( picture, getStylesDocument() ).getInlineStyles() );
         }
         if ( attributes != null )
         {
@@ -620,52 +527,7 @@ public class XHTMLMapper
             }
         }
         AttributesImpl attributes = new AttributesImpl();
-        CSSStyle style = new CSSStyle( DIV_ELEMENT, null );
-        CTSectPr sectPr = masterPage.getSectPr();
-        CTPageSz pageSize = sectPr.getPgSz();
-        if ( pageSize != null )
-        {
-            // Width
-            BigInteger width = pageSize.getW();
-            if ( width != null )
-            {
-                style.addProperty( WIDTH, getStylesDocument().getValueAsPoint( DxaUtil.dxa2points( width ) ) );
-            }
-        }
-
-        CTPageMar pageMargin = sectPr.getPgMar();
-        if ( pageMargin != null )
-        {
-            // margin bottom
-            BigInteger marginBottom = pageMargin.getBottom();
-            if ( marginBottom != null )
-            {
-                float marginBottomPt = DxaUtil.dxa2points( marginBottom );
-                style.addProperty( MARGIN_BOTTOM, getStylesDocument().getValueAsPoint( marginBottomPt ) );
-            }
-            // margin top
-            BigInteger marginTop = pageMargin.getTop();
-            if ( marginTop != null )
-            {
-                float marginTopPt = DxaUtil.dxa2points( marginTop );
-                style.addProperty( MARGIN_TOP, getStylesDocument().getValueAsPoint( marginTopPt ) );
-            }
-            // margin left
-            BigInteger marginLeft = pageMargin.getLeft();
-            if ( marginLeft != null )
-            {
-                float marginLeftPt = DxaUtil.dxa2points( marginLeft );
-                style.addProperty( MARGIN_LEFT, getStylesDocument().getValueAsPoint( marginLeftPt ) );
-            }
-            // margin right
-            BigInteger marginRight = pageMargin.getRight();
-            if ( marginRight != null )
-            {
-                float marginRightPt = DxaUtil.dxa2points( marginRight );
-                style.addProperty( MARGIN_RIGHT, getStylesDocument().getValueAsPoint( marginRightPt ) );
-            }
-        }
-        String s = style.getInlineStyles();
+        String s = XHTMLMapperHelper.createMasterPageStyle( masterPage.getSectPr(), getStylesDocument() ).getInlineStyles();
         if ( StringUtils.isNotEmpty( s ) )
         {
             SAXHelper.addAttrValue( attributes, STYLE_ATTR, s );
@@ -721,24 +583,11 @@ public class XHTMLMapper
 
     private AttributesImpl createClassAttribute( String styleID )
     {
-        String classNames = getStylesDocument().getClassNames( styleID );
-        if ( StringUtils.isNotEmpty( classNames ) )
-        {
-            return SAXHelper.addAttrValue( null, CLASS_ATTR, classNames );
-        }
-        return null;
+        return XHTMLMapperHelper.createClassAttribute( getStylesDocument(), styleID );
     }
 
     private AttributesImpl createStyleAttribute( CSSStyle cssStyle, AttributesImpl attributes )
     {
-        if ( cssStyle != null )
-        {
-            String inlineStyles = cssStyle.getInlineStyles();
-            if ( StringUtils.isNotEmpty( inlineStyles ) )
-            {
-                attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR, inlineStyles );
-            }
-        }
-        return attributes;
+        return XHTMLMapperHelper.createStyleAttribute( cssStyle, attributes );
     }
 }
@@ -0,0 +1,275 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.xhtml.internal;
+
+import static fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil.emu2points;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.XHTMLConstants.*;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.HEIGHT;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_BOTTOM;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_LEFT;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_RIGHT;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.MARGIN_TOP;
+import static fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants.WIDTH;
+
+import java.math.BigInteger;
+
+import org.openxmlformats.schemas.drawingml.x2006.main.CTPositiveSize2D;
+import org.openxmlformats.schemas.drawingml.x2006.picture.CTPicture;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageSz;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STVerticalAlignRun;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.opensagres.poi.xwpf.converter.core.Color;
+import fr.opensagres.poi.xwpf.converter.core.TableCellBorder;
+import fr.opensagres.poi.xwpf.converter.core.utils.DxaUtil;
+import fr.opensagres.poi.xwpf.converter.core.utils.StringUtils;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStyle;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylePropertyConstants;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.styles.CSSStylesDocument;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.SAXHelper;
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.utils.StringEscapeUtils;
+
+/**
+ * Generation of the HTML shared by {@link XHTMLMapper} and {@link FastXHTMLMapper}.
+ */
+final class XHTMLMapperHelper
+{
+
+    /**
+     * There is no HTML representation for tab. So apply 4 spaces by default
+     */
+    static final String TAB_CHAR_SEQUENCE = "&nbsp;&nbsp;&nbsp;&nbsp;";
+
+    private XHTMLMapperHelper()
+    {
+    }
+
+    /**
+     * Returns the "class" attribute of the given style or null if the style has no class.
+     */
+    static AttributesImpl createClassAttribute( CSSStylesDocument stylesDocument, String styleID )
+    {
+        String classNames = stylesDocument.getClassNames( styleID );
+        if ( StringUtils.isNotEmpty( classNames ) )
+        {
+            return SAXHelper.addAttrValue( null, CLASS_ATTR, classNames );
+        }
+        return null;
+    }
+
+    /**
+     * Adds the "style" attribute of the given CSS style to the attributes.
+     */
+    static AttributesImpl createStyleAttribute( CSSStyle cssStyle, AttributesImpl attributes )
+    {
+        if ( cssStyle != null )
+        {
+            String inlineStyles = cssStyle.getInlineStyles();
+            if ( StringUtils.isNotEmpty( inlineStyles ) )
+            {
+                attributes = SAXHelper.addAttrValue( attributes, STYLE_ATTR, inlineStyles );
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Adds the highlighting, strike and vertical alignment of a run to the CSS style.
+     *
+     * @param highlighting the resolved highlighting of the run.
+     * @param strike the resolved strike of the run.
+     */
+    static void addRunStyles( CSSStyle cssStyle, CTRPr rPr, Color highlighting, Boolean strike )
+    {
+        if ( highlighting != null )
+        {
+            cssStyle.addProperty( CSSStylePropertyConstants.BACKGROUND_COLOR, StringUtils.toHexString( highlighting ) );
+        }
+        if ( Boolean.TRUE.equals( strike ) || rPr.getDstrike() != null )
+        {
+            cssStyle.addProperty( "text-decoration", "line-through" );
+        }
+        if ( rPr.getVertAlign() != null )
+        {
+            int align = rPr.getVertAlign().getVal().intValue();
+            if ( STVerticalAlignRun.INT_SUPERSCRIPT == align )
+            {
+                cssStyle.addProperty( "vertical-align", "super" );
+            }
+            else if ( STVerticalAlignRun.INT_SUBSCRIPT == align )
+            {
+                cssStyle.addProperty( "vertical-align", "sub" );
+            }
+        }
+    }
+
+    /**
+     * Starts the HTML a of a run with an hyperlink.
+     */
+    static void startHyperlink( ContentHandler contentHandler, String url )
+        throws SAXException
+    {
+        AttributesImpl hyperlinkAttributes = new AttributesImpl();
+        SAXHelper.addAttrValue( hyperlinkAttributes, HREF_ATTR, url );
+        SAXHelper.startElement( contentHandler, A_ELEMENT, hyperlinkAttributes );
+    }
+
+    /**
+     * Ends the HTML a started with {@link #startHyperlink(ContentHandler, String)}.
+     */
+    static void endHyperlink( ContentHandler contentHandler )
+        throws SAXException
+    {
+        // TODO : for the moment generate space to be ensure that a has some content.
+        SAXHelper.characters( contentHandler, " " );
+        SAXHelper.endElement( contentHandler, A_ELEMENT );
+    }
+
+    /**
+     * Generates the escaped text of a run in a HTML span with the given attributes (if any).
+     */
+    static void text( ContentHandler contentHandler, AttributesImpl runAttributes, String text )
+        throws SAXException
+    {
+        if ( runAttributes != null )
+        {
+            SAXHelper.startElement( contentHandler, SPAN_ELEMENT, runAttributes );
+        }
+        if ( StringUtils.isNotEmpty( text ) )
+        {
+            // Escape with HTML characters
+            SAXHelper.characters( contentHandler, StringEscapeUtils.escapeHtml( text ) );
+        }
+        if ( runAttributes != null )
+        {
+            SAXHelper.endElement( contentHandler, SPAN_ELEMENT );
+        }
+    }
+
+    /**
+     * Generates a tab : add equivalent spaces in html render as no tab in html world.
+     */
+    static void tab( ContentHandler contentHandler )
+        throws SAXException
+    {
+        SAXHelper.startElement( contentHandler, SPAN_ELEMENT, null );
+        SAXHelper.characters( contentHandler, TAB_CHAR_SEQUENCE );
+        SAXHelper.endElement( contentHandler, SPAN_ELEMENT );
+    }
+
+    /**
+     * Adds the borders (at least support solid borders for now) of a table cell to the CSS style.
+     */
+    static void addBorderProperties( CSSStyle cssStyle, TableCellBorder top, TableCellBorder bottom,
+                                     TableCellBorder left, TableCellBorder right )
+    {
+        addBorderProperty( cssStyle, CSSStylePropertyConstants.BORDER_TOP, top );
+        addBorderProperty( cssStyle, CSSStylePropertyConstants.BORDER_BOTTOM, bottom );
+        addBorderProperty( cssStyle, CSSStylePropertyConstants.BORDER_LEFT, left );
+        addBorderProperty( cssStyle, CSSStylePropertyConstants.BORDER_RIGHT, right );
+    }
+
+    /**
+     * Returns the CSS style (width, margins) of the page div of the given section.
+     */
+    static CSSStyle createMasterPageStyle( CTSectPr sectPr, CSSStylesDocument stylesDocument )
+    {
+        CSSStyle style = new CSSStyle( DIV_ELEMENT, null );
+        CTPageSz pageSize = sectPr.getPgSz();
+        if ( pageSize != null )
+        {
+            // Width
+            BigInteger width = pageSize.getW();
+            if ( width != null )
+            {
+                style.addProperty( WIDTH, stylesDocument.getValueAsPoint( DxaUtil.dxa2points( width ) ) );
+            }
+        }
+
+        CTPageMar pageMargin = sectPr.getPgMar();
+        if ( pageMargin != null )
+        {
+            // margin bottom
+            BigInteger marginBottom = pageMargin.getBottom();
+            if ( marginBottom != null )
+            {
+                float marginBottomPt = DxaUtil.dxa2points( marginBottom );
+                style.addProperty( MARGIN_BOTTOM, stylesDocument.getValueAsPoint( marginBottomPt ) );
+            }
+            // margin top
+            BigInteger marginTop = pageMargin.getTop();
+            if ( marginTop != null )
+            {
+                float marginTopPt = DxaUtil.dxa2points( marginTop );
+                style.addProperty( MARGIN_TOP, stylesDocument.getValueAsPoint( marginTopPt ) );
+            }
+            // margin left
+            BigInteger marginLeft = pageMargin.getLeft();
+            if ( marginLeft != null )
+            {
+                float marginLeftPt = DxaUtil.dxa2points( marginLeft );
+                style.addProperty( MARGIN_LEFT, stylesDocument.getValueAsPoint( marginLeftPt ) );
+            }
+            // margin right
+            BigInteger marginRight = pageMargin.getRight();
+            if ( marginRight != null )
+            {
+                float marginRightPt = DxaUtil.dxa2points( marginRight );
+                style.addProperty( MARGIN_RIGHT, stylesDocument.getValueAsPoint( marginRightPt ) );
+            }
+        }
+        return style;
+    }
+
+    /**
+     * Returns the CSS style (width, height) of the img of the given picture.
+     */
+    static CSSStyle createPictureStyle( CTPicture picture, CSSStylesDocument stylesDocument )
+    {
+        CTPositiveSize2D ext = picture.getSpPr().getXfrm().getExt();
+        CSSStyle style = new CSSStyle( IMG_ELEMENT, null );
+        // img/@width
+        float width = emu2points( ext.getCx() );
+        // img/@height
+        float height = emu2points( ext.getCy() );
+        style.addProperty( WIDTH, stylesDocument.getValueAsPoint( width ) );
+        style.addProperty( HEIGHT, stylesDocument.getValueAsPoint( height ) );
+        return style;
+    }
+
+    private static void addBorderProperty( CSSStyle cssStyle, String propertyName, TableCellBorder border )
+    {
+        if ( border != null )
+        {
+            String style = border.getBorderSize() + "px solid " + StringUtils.toHexString( border.getBorderColor() );
+            cssStyle.addProperty( propertyName, style );
+        }
+    }
+}
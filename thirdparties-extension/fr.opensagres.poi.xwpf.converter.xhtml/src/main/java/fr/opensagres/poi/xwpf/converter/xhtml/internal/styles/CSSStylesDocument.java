@@ -75,6 +75,7 @@ import org.xml.sax.SAXException;
 import fr.opensagres.poi.xwpf.converter.core.Color;
 import fr.opensagres.poi.xwpf.converter.core.TableHeight;
 import fr.opensagres.poi.xwpf.converter.core.TableWidth;
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.IOpenXMLFormatsPartProvider;
 import fr.opensagres.poi.xwpf.converter.core.styles.XWPFStylesDocument;
 import fr.opensagres.poi.xwpf.converter.core.utils.StringUtils;
 import fr.opensagres.poi.xwpf.converter.core.utils.XWPFUtils;
@@ -106,6 +107,15 @@ public class CSSStylesDocument
         this.initialize();
     }
 
+    public CSSStylesDocument( IOpenXMLFormatsPartProvider provider, boolean ignoreStylesIfUnused, Integer indent )
+        throws Exception
+    {
+        super( provider, false );
+        this.ignoreStylesIfUnused = ignoreStylesIfUnused;
+        this.indent = indent;
+        this.initialize();
+    }
+
     @Override
     protected void initialize()
         throws XmlException, IOException
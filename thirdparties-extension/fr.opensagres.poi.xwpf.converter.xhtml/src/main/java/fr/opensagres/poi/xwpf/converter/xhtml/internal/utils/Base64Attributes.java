@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.poi.xwpf.converter.xhtml.internal.utils;
+
+import org.xml.sax.helpers.AttributesImpl;
+
+import fr.opensagres.poi.xwpf.converter.xhtml.internal.XHTMLConstants;
+import fr.opensagres.xdocreport.core.utils.Base64Utility;
+
+/**
+ * SAX attributes which can contain an attribute whose value is binary data encoded in base64 (ex : img/@src with
+ * "data:" URI). The encoded value is computed only when {@link #getValue(int)} is called : a content handler which
+ * knows this class can write the encoded value with streaming by using {@link #getBase64Prefix()} and
+ * {@link #getBase64Data()}.
+ */
+public class Base64Attributes
+    extends AttributesImpl
+{
+
+    private int base64Index = -1;
+
+    private String base64Prefix;
+
+    private byte[] base64Data;
+
+    public void addBase64Attribute( String name, String prefix, byte[] data )
+    {
+        addAttribute( "", name, name, XHTMLConstants.CDATA_TYPE, "" );
+        this.base64Index = getLength() - 1;
+        this.base64Prefix = prefix;
+        this.base64Data = data;
+    }
+
+    public boolean isBase64( int index )
+    {
+        return index == base64Index;
+    }
+
+    public String getBase64Prefix()
+    {
+        return base64Prefix;
+    }
+
+    public byte[] getBase64Data()
+    {
+        return base64Data;
+    }
+
+    @Override
+    public String getValue( int index )
+    {
+        if ( isBase64( index ) )
+        {
+            StringBuilder value =
+                new StringBuilder( base64Prefix.length() + Base64Utility.getEncodedLength( base64Data.length ) );
+            value.append( base64Prefix );
+            Base64Utility.encode( base64Data, value );
+            return value.toString();
+        }
+        return super.getValue( index );
+    }
+
+    @Override
+    public String getValue( String qName )
+    {
+        int index = getIndex( qName );
+        return index != -1 ? getValue( index ) : null;
+    }
+
+    @Override
+    public String getValue( String uri, String localName )
+    {
+        int index = getIndex( uri, localName );
+        return index != -1 ? getValue( index ) : null;
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        base64Index = -1;
+        base64Prefix = null;
+        base64Data = null;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package org.apache.poi.xwpf.converter.xhtml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.xwpf.converter.core.AbstractXWPFPOIConverterTest;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.Test;
+
+import fr.opensagres.poi.xwpf.converter.core.ImageManager;
+import fr.opensagres.poi.xwpf.converter.core.openxmlformats.ZipArchive;
+import fr.opensagres.poi.xwpf.converter.xhtml.FastXHTMLConverter;
+import fr.opensagres.poi.xwpf.converter.xhtml.XHTMLConverter;
+import fr.opensagres.poi.xwpf.converter.xhtml.XHTMLOptions;
+
+public class FastXHTMLConverterTestCase
+    extends AbstractXWPFPOIConverterTest
+{
+
+    protected void doGenerate( String fileInName )
+        throws IOException
+    {
+        String root = "target/fast";
+        String fileOutName = root + "/" + fileInName + ".html";
+
+        long startTime = System.currentTimeMillis();
+
+        ZipArchive document = ZipArchive.readZip( AbstractXWPFPOIConverterTest.class.getResourceAsStream( fileInName ) );
+
+        File file = new File( fileOutName );
+        file.getParentFile().mkdirs();
+        XHTMLOptions options = XHTMLOptions.create();
+        // Extract image
+        options.setImageManager( new ImageManager( new File( root ), "images" ) );
+
+        OutputStream out = new FileOutputStream( file );
+        FastXHTMLConverter.getInstance().convert( document, out, options );
+
+        System.out.println( "Generate " + fileOutName + " with " + ( System.currentTimeMillis() - startTime ) + " ms." );
+    }
+
+    /**
+     * The visitor resolves the tabs of the paragraph (with its style and the table style) before visiting a tab : the
+     * tabs must be generated like with the XWPF converter, with and without tab stops.
+     */
+    @Test
+    public void tabsLikeXHTMLConverter()
+        throws IOException
+    {
+        int tabs = 0;
+        for ( String fileInName : new String[] { "TestTabulation.docx", "FormattingTests.docx", "Issue207.docx",
+            "AdvancedTable2.docx", "TemplateGeneral.docx" } )
+        {
+            XHTMLOptions options = XHTMLOptions.create().setFragment( true );
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            XHTMLConverter.getInstance().convert( new XWPFDocument( AbstractXWPFPOIConverterTest.class.getResourceAsStream( fileInName ) ),
+                                                  expected, options );
+
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            FastXHTMLConverter.getInstance().convert( ZipArchive.readZip( AbstractXWPFPOIConverterTest.class.getResourceAsStream( fileInName ) ),
+                                                      actual, options );
+
+            assertEquals( fileInName, countTabs( expected ), countTabs( actual ) );
+            tabs += countTabs( actual );
+        }
+        assertTrue( tabs > 0 );
+    }
+
+    private static int countTabs( ByteArrayOutputStream out )
+        throws IOException
+    {
+        String html = out.toString( "UTF-8" );
+        int count = 0;
+        for ( int index = html.indexOf( "nbsp;" ); index != -1; index = html.indexOf( "nbsp;", index + 1 ) )
+        {
+            count++;
+        }
+        return count;
+    }
+}
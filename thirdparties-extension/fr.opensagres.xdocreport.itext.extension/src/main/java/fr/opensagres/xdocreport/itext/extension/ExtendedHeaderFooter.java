@@ -24,8 +24,22 @@
  */
 package fr.opensagres.xdocreport.itext.extension;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.lowagie.text.Anchor;
+import com.lowagie.text.Chunk;
 import com.lowagie.text.Document;
+import com.lowagie.text.Image;
+import com.lowagie.text.List;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPRow;
+import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfPageEventHelper;
+import com.lowagie.text.pdf.PdfTemplate;
 import com.lowagie.text.pdf.PdfWriter;
 
 /**
@@ -38,6 +52,13 @@ public class ExtendedHeaderFooter
 
     private IMasterPage masterPage;
 
+    /**
+     * Templates of the headers/footers, drawn once and referenced by each page (null when the header/footer depends on
+     * the page).
+     */
+    private final Map<IMasterPageHeaderFooter, HeaderFooterTemplate> templates =
+        new HashMap<IMasterPageHeaderFooter, HeaderFooterTemplate>();
+
     public ExtendedHeaderFooter( ExtendedDocument document )
     {
         this.document = document;
@@ -70,7 +91,7 @@ public class ExtendedHeaderFooter
                 float x = document.getOriginMarginLeft();
                 float y = getHeaderY( header );
 
-                header.writeSelectedRows( 0, -1, x, y, writer.getDirectContentUnder() );
+                writeHeaderFooter( header, x, y, writer );
             }
 
             // Add footer
@@ -80,9 +101,123 @@ public class ExtendedHeaderFooter
                 float x = document.getOriginMarginLeft();
                 float y = getFooterY( footer );
 
-                footer.writeSelectedRows( 0, -1, x, y, writer.getDirectContentUnder() );
+                writeHeaderFooter( footer, x, y, writer );
+            }
+        }
+    }
+
+    /**
+     * Writes the given header/footer in the current page. A header/footer which doesn't depend on the page is laid out
+     * once in a template (XObject) which is referenced by the next pages.
+     * 
+     * @param headerFooter
+     * @param x
+     * @param y
+     * @param writer
+     */
+    protected void writeHeaderFooter( IMasterPageHeaderFooter headerFooter, float x, float y, PdfWriter writer )
+    {
+        PdfContentByte canvas = writer.getDirectContentUnder();
+        HeaderFooterTemplate template;
+        if ( templates.containsKey( headerFooter ) )
+        {
+            template = templates.get( headerFooter );
+        }
+        else
+        {
+            template = isPageDependent( headerFooter.getTableCell() ) ? null : new HeaderFooterTemplate();
+            templates.put( headerFooter, template );
+        }
+        if ( template == null )
+        {
+            // page number, link...: write the header/footer on each page
+            headerFooter.writeSelectedRows( 0, -1, x, y, canvas );
+            return;
+        }
+        Rectangle pageSize = document.getPageSize();
+        float width = document.right() - document.left();
+        if ( !template.isDrawnFor( x, y, width, pageSize ) )
+        {
+            // the template covers the page to keep the page coordinates and the clipping of the page
+            PdfTemplate xObject = canvas.createTemplate( pageSize.getWidth(), pageSize.getHeight() );
+            headerFooter.writeSelectedRows( 0, -1, x, y, xObject );
+            template.update( xObject, x, y, width, pageSize );
+        }
+        canvas.addTemplate( template.xObject, 0, 0 );
+    }
+
+    /**
+     * Returns true if the given element contains a page number or an element (link, destination...) which must be
+     * written in each page.
+     * 
+     * @param element
+     * @return
+     */
+    protected boolean isPageDependent( Object element )
+    {
+        if ( element instanceof ExtendedChunk && ( (ExtendedChunk) element ).isPageNumberChunk() )
+        {
+            return true;
+        }
+        if ( element instanceof Chunk )
+        {
+            // annotations are added to the page where the chunk is written
+            Map<?, ?> attributes = ( (Chunk) element ).getAttributes();
+            return attributes != null
+                && ( attributes.containsKey( Chunk.ACTION ) || attributes.containsKey( Chunk.LOCALGOTO )
+                    || attributes.containsKey( Chunk.LOCALDESTINATION ) || attributes.containsKey( Chunk.REMOTEGOTO )
+                    || attributes.containsKey( Chunk.GENERICTAG ) || attributes.containsKey( Chunk.PDFANNOTATION ) );
+        }
+        if ( element instanceof Anchor )
+        {
+            Anchor anchor = (Anchor) element;
+            if ( anchor.getName() != null || anchor.getReference() != null )
+            {
+                return true;
+            }
+        }
+        if ( element instanceof Image )
+        {
+            Image image = (Image) element;
+            return image.getUrl() != null || image.getAnnotation() != null;
+        }
+        if ( element instanceof PdfPTable )
+        {
+            for ( Object row : ( (PdfPTable) element ).getRows() )
+            {
+                PdfPCell[] cells = ( (PdfPRow) row ).getCells();
+                for ( int i = 0; i < cells.length; i++ )
+                {
+                    if ( isPageDependent( cells[i] ) )
+                    {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        if ( element instanceof PdfPCell )
+        {
+            PdfPCell cell = (PdfPCell) element;
+            return isPageDependent( cell.getCompositeElements() ) || isPageDependent( cell.getPhrase() )
+                || isPageDependent( cell.getTable() ) || isPageDependent( cell.getImage() );
+        }
+        if ( element instanceof List )
+        {
+            return isPageDependent( ( (List) element ).getItems() );
+        }
+        if ( element instanceof Collection )
+        {
+            // Phrase, Paragraph, Section...
+            for ( Object child : (Collection<?>) element )
+            {
+                if ( isPageDependent( child ) )
+                {
+                    return true;
+                }
             }
         }
+        return false;
     }
 
     protected float getFooterY( IMasterPageHeaderFooter footer )
@@ -125,4 +260,38 @@ public class ExtendedHeaderFooter
     {
         return masterPage;
     }
+
+    /**
+     * Template of a header/footer with the position and the page size it was drawn for.
+     */
+    private static class HeaderFooterTemplate
+    {
+        private PdfTemplate xObject;
+
+        private float x;
+
+        private float y;
+
+        private float width;
+
+        private float pageWidth;
+
+        private float pageHeight;
+
+        public boolean isDrawnFor( float x, float y, float width, Rectangle pageSize )
+        {
+            return xObject != null && this.x == x && this.y == y && this.width == width
+                && pageWidth == pageSize.getWidth() && pageHeight == pageSize.getHeight();
+        }
+
+        public void update( PdfTemplate xObject, float x, float y, float width, Rectangle pageSize )
+        {
+            this.xObject = xObject;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.pageWidth = pageSize.getWidth();
+            this.pageHeight = pageSize.getHeight();
+        }
+    }
 }
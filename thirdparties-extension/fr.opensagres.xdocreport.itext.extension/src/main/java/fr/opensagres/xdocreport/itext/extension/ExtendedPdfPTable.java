@@ -24,6 +24,10 @@
  */
 package fr.opensagres.xdocreport.itext.extension;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import com.lowagie.text.Element;
 import com.lowagie.text.Image;
 import com.lowagie.text.Phrase;
@@ -44,6 +48,29 @@ public class ExtendedPdfPTable
 
     private PdfPTable wrapperTable;
 
+    private static final int UNKNOWN = -2;
+
+    private static final int NULL_ROW = -1;
+
+    /**
+     * Memoized heights of the rows (see {@link #getRowHeight(int, boolean)}) : a height is valid while the row at the
+     * same index is the same instance and has the same max height.
+     */
+    private float[] rowHeights;
+
+    private PdfPRow[] rowHeightRows;
+
+    /**
+     * Span index : for each row and column, the index of the first row at or above with a non null cell (see
+     * {@link #rowSpanAbove(int, int)}).
+     */
+    private int[][] cellAboveRows;
+
+    /**
+     * Span index : for each row and column, the number of consecutive rows at or above which belong to a rowspan.
+     */
+    private int[][] rowSpanRuns;
+
     public ExtendedPdfPTable( int numColumns )
     {
         super( numColumns );
@@ -93,6 +120,10 @@ public class ExtendedPdfPTable
             return 0;
         if ( firsttime )
             row.setWidths( absoluteWidths );
+        else if ( rowHeightRows != null && idx < rowHeightRows.length && rowHeightRows[idx] == row
+            && row.getMaxHeights() == rowHeights[idx] )
+            // the height of the row is already computed.
+            return rowHeights[idx];
         float height = row.getMaxHeights();
         PdfPCell cell;
         PdfPRow tmprow;
@@ -100,11 +131,7 @@ public class ExtendedPdfPTable
         {
             if ( !rowSpanAbove( idx, i ) )
                 continue;
-            int rs = 1;
-            while ( rowSpanAbove( idx - rs, i ) )
-            {
-                rs++;
-            }
+            int rs = 1 + getRowSpanRun( idx - 1, i );
             tmprow = (PdfPRow) rows.get( idx - rs );
             cell = tmprow.getCells()[i];
             float tmp = 0;
@@ -115,6 +142,8 @@ public class ExtendedPdfPTable
             {
                 cell = new PdfPCell();
                 tmprow.getCells()[i] = cell;
+                // the cells have changed, the span index must be rebuilt.
+                clearSpanIndex();
             }
             if ( cell.getRowspan() == rs + 1 )
             {
@@ -129,9 +158,116 @@ public class ExtendedPdfPTable
                 height = tmp;
         }
         row.setMaxHeights( height );
+        setRowHeight( idx, row, height );
         return height;
     }
 
+    private void setRowHeight( int idx, PdfPRow row, float height )
+    {
+        if ( rowHeightRows == null || idx >= rowHeightRows.length )
+        {
+            int length = Math.max( idx + 1, rows.size() );
+            rowHeightRows = rowHeightRows == null ? new PdfPRow[length] : Arrays.copyOf( rowHeightRows, length );
+            rowHeights = rowHeights == null ? new float[length] : Arrays.copyOf( rowHeights, length );
+        }
+        rowHeightRows[idx] = row;
+        rowHeights[idx] = height;
+    }
+
+    /**
+     * Returns the number of consecutive rows from the given row (included) upward for which
+     * {@link #rowSpanAbove(int, int)} is true.
+     */
+    private int getRowSpanRun( int currRow, int currCol )
+    {
+        if ( currRow <= 0 || currCol < 0 || currCol >= getNumberOfColumns() )
+            return 0;
+        int[] runs = getSpanIndexRow( rowSpanRuns = ensureSpanIndex( rowSpanRuns ), currRow );
+        if ( runs[currCol] != UNKNOWN )
+            return runs[currCol];
+        // walk up to the first row with a known run, then fill the runs down to the current row.
+        int row = currRow;
+        while ( row > 0 && getSpanIndexRow( rowSpanRuns, row )[currCol] == UNKNOWN && rowSpanAbove( row, currCol ) )
+            row--;
+        int run;
+        if ( row == 0 )
+            run = 0;
+        else if ( getSpanIndexRow( rowSpanRuns, row )[currCol] != UNKNOWN )
+            run = getSpanIndexRow( rowSpanRuns, row )[currCol];
+        else
+        {
+            // rowSpanAbove is false for this row.
+            run = 0;
+            getSpanIndexRow( rowSpanRuns, row )[currCol] = 0;
+        }
+        for ( int r = row + 1; r <= currRow; r++ )
+            getSpanIndexRow( rowSpanRuns, r )[currCol] = ++run;
+        return run;
+    }
+
+    /**
+     * Returns the index of the first row at or above the given row which has a non null cell for the given column, 0
+     * if there is none and {@link #NULL_ROW} if a null row is found before.
+     */
+    private int getCellAboveRow( int fromRow, int currCol )
+    {
+        cellAboveRows = ensureSpanIndex( cellAboveRows );
+        int row = fromRow;
+        int result = UNKNOWN;
+        while ( result == UNKNOWN )
+        {
+            int known = getSpanIndexRow( cellAboveRows, row )[currCol];
+            if ( known != UNKNOWN )
+                result = known;
+            else if ( rows.get( row ) == null )
+                result = NULL_ROW;
+            else if ( ( (PdfPRow) rows.get( row ) ).getCells()[currCol] != null || row == 0 )
+                result = row;
+            else
+                row--;
+        }
+        for ( int r = row; r <= fromRow; r++ )
+            getSpanIndexRow( cellAboveRows, r )[currCol] = result;
+        return result;
+    }
+
+    private int[][] ensureSpanIndex( int[][] index )
+    {
+        if ( index == null || index.length < rows.size() )
+        {
+            int length = Math.max( rows.size(), index == null ? 16 : index.length * 2 );
+            return index == null ? new int[length][] : Arrays.copyOf( index, length );
+        }
+        return index;
+    }
+
+    private int[] getSpanIndexRow( int[][] index, int row )
+    {
+        int[] values = index[row];
+        if ( values == null )
+        {
+            values = new int[getNumberOfColumns()];
+            Arrays.fill( values, UNKNOWN );
+            index[row] = values;
+        }
+        return values;
+    }
+
+    /**
+     * Clear the span index. Must be called when the rows or the cells change.
+     */
+    private void clearSpanIndex()
+    {
+        cellAboveRows = null;
+        rowSpanRuns = null;
+    }
+
+    private void clearRowHeights()
+    {
+        rowHeightRows = null;
+        rowHeights = null;
+    }
+
     /**
      * Checks if there are rows above belonging to a rowspan.
      *
@@ -146,18 +282,12 @@ public class ExtendedPdfPTable
         if ( ( currCol >= getNumberOfColumns() ) || ( currCol < 0 ) || ( currRow == 0 ) )
             return false;
 
-        int row = currRow - 1;
-        PdfPRow aboveRow = (PdfPRow) rows.get( row );
-        if ( aboveRow == null )
+        // walk up through the null cells with the span index.
+        int row = getCellAboveRow( currRow - 1, currCol );
+        if ( row == NULL_ROW )
             return false;
+        PdfPRow aboveRow = (PdfPRow) rows.get( row );
         PdfPCell aboveCell = (PdfPCell) aboveRow.getCells()[currCol];
-        while ( ( aboveCell == null ) && ( row > 0 ) )
-        {
-            aboveRow = (PdfPRow) rows.get( --row );
-            if ( aboveRow == null )
-                return false;
-            aboveCell = (PdfPCell) aboveRow.getCells()[currCol];
-        }
 
         int distance = currRow - row;
 
@@ -223,6 +353,119 @@ public class ExtendedPdfPTable
         return empty;
     }
 
+    @Override
+    protected void calculateWidths()
+    {
+        // the heights of the rows depend on the widths.
+        clearRowHeights();
+        super.calculateWidths();
+    }
+
+    @Override
+    public ArrayList getRows()
+    {
+        // the returned list can be modified (ex : when a row is split).
+        clearSpanIndex();
+        clearRowHeights();
+        return super.getRows();
+    }
+
+    @Override
+    public boolean deleteRow( int rowNumber )
+    {
+        clearSpanIndex();
+        clearRowHeights();
+        return super.deleteRow( rowNumber );
+    }
+
+    @Override
+    public void deleteBodyRows()
+    {
+        clearSpanIndex();
+        clearRowHeights();
+        super.deleteBodyRows();
+    }
+
+    /**
+     * Removes the completed body rows from this table and returns them in a new table which has the same format and
+     * the same header rows, like {@link #flushContent()} does for a table which is added to a document as a large
+     * element. It allows to lay out a very large table while it is built instead of keeping all its rows in memory. The
+     * rows which belong to a rowspan continuing below the completed rows are kept in this table.
+     *
+     * @param minRows the minimum number of body rows to flush.
+     * @param heightLimit the height available to lay out the returned table (see
+     *            {@link #showHeaderRowsOnNewPage(float)}).
+     * @return the table with the flushed body rows or null if less than minRows body rows can be flushed.
+     */
+    public ExtendedPdfPTable flushCompletedRows( int minRows, float heightLimit )
+    {
+        if ( currentRowIdx != 0 )
+        {
+            // a row is being filled.
+            return null;
+        }
+        int headerRows = getHeaderRows();
+        int lastRow = headerRows;
+        int spanEnd = headerRows;
+        for ( int i = headerRows; i < rows.size(); i++ )
+        {
+            PdfPRow row = (PdfPRow) rows.get( i );
+            if ( row != null )
+            {
+                for ( PdfPCell cell : row.getCells() )
+                {
+                    if ( cell != null )
+                        spanEnd = Math.max( spanEnd, i + cell.getRowspan() );
+                }
+            }
+            if ( spanEnd <= i + 1 )
+                lastRow = i + 1;
+        }
+        if ( lastRow - headerRows < Math.max( minRows, 1 ) )
+            return null;
+
+        ExtendedPdfPTable table = new ExtendedPdfPTable( getNumberOfColumns() );
+        table.copyFormat( this );
+        table.empty = false;
+        if ( wrapperCell != null )
+        {
+            table.setPaddingLeft( wrapperCell.getPaddingLeft() );
+            table.setPaddingRight( wrapperCell.getPaddingRight() );
+            table.setPaddingTop( wrapperCell.getPaddingTop() );
+            // the rest of the table follows the flushed rows.
+            wrapperCell.setPaddingTop( 0f );
+        }
+        for ( int i = 0; i < headerRows; i++ )
+            table.rows.add( new PdfPRow( (PdfPRow) rows.get( i ) ) );
+        List flushedRows = rows.subList( headerRows, lastRow );
+        table.rows.addAll( flushedRows );
+        flushedRows.clear();
+        clearSpanIndex();
+        clearRowHeights();
+        table.showHeaderRowsOnNewPage( heightLimit );
+        table.calculateHeights( true );
+        calculateHeights( true );
+        // the next rows continue the flushed rows.
+        setSkipFirstHeader( true );
+        super.setSpacingBefore( 0f );
+        return table;
+    }
+
+    /**
+     * Shows the header rows which are skipped because this table continues flushed rows (see
+     * {@link #flushCompletedRows(int, float)}) when its first body row doesn't fit in the given height : the table
+     * starts on a new page.
+     *
+     * @param heightLimit the height available to lay out this table, or a negative value if unknown.
+     */
+    public void showHeaderRowsOnNewPage( float heightLimit )
+    {
+        int headerRows = getHeaderRows();
+        if ( isSkipFirstHeader() && heightLimit >= 0 && rows.size() > headerRows
+            && spacingBefore() + getRowHeight( headerRows ) > heightLimit )
+            setSkipFirstHeader( false );
+    }
+
     /**
      * Sets the padding of the contents in the cell (space between content and border).
      *
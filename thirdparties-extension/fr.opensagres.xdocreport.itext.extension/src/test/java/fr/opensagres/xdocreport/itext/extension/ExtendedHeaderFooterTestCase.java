@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.itext.extension;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Font;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfDictionary;
+import com.lowagie.text.pdf.PdfName;
+import com.lowagie.text.pdf.PdfObject;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+public class ExtendedHeaderFooterTestCase
+    extends TestCase
+{
+
+    public void testStaticHeaderIsSharedByPages()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExtendedDocument document = new ExtendedDocument( out, null );
+
+        // static header
+        MasterPageHeaderFooter header = new MasterPageHeaderFooter();
+        header.getTableCell().addElement( new Paragraph( "My Header" ) );
+        header.flush();
+
+        // footer with page number
+        MasterPageHeaderFooter footer = new MasterPageHeaderFooter();
+        ExtendedParagraph footerParagraph = new ExtendedParagraph();
+        footerParagraph.addElement( new Chunk( "Page " ) );
+        footerParagraph.addElement( new ExtendedChunk( document, true, new Font() ) );
+        footer.getTableCell().addElement( footerParagraph );
+        footer.flush();
+
+        MasterPage masterPage = new MasterPage( "MP" );
+        masterPage.setHeader( header );
+        masterPage.setFooter( footer );
+        document.addMasterPage( masterPage );
+
+        for ( int i = 1; i <= 3; i++ )
+        {
+            if ( i > 1 )
+            {
+                document.newPage();
+            }
+            document.add( new Paragraph( "My Body " + i ) );
+        }
+        document.close();
+
+        PdfReader reader = new PdfReader( out.toByteArray() );
+        assertEquals( 3, reader.getNumberOfPages() );
+        PdfTextExtractor extractor = new PdfTextExtractor( reader );
+        Set<String> xObjects = null;
+        for ( int i = 1; i <= 3; i++ )
+        {
+            // the footer is written on each page
+            String text = extractor.getTextFromPage( i );
+            assertTrue( text, text.contains( "Page " + i ) );
+            assertTrue( text, text.contains( "My Body " + i ) );
+
+            // the header is the same XObject on each page
+            Set<String> pageXObjects = getXObjects( reader, i );
+            assertEquals( 1, pageXObjects.size() );
+            if ( xObjects == null )
+            {
+                xObjects = pageXObjects;
+            }
+            assertEquals( xObjects, pageXObjects );
+        }
+    }
+
+    private static Set<String> getXObjects( PdfReader reader, int page )
+    {
+        Set<String> xObjects = new HashSet<String>();
+        PdfDictionary resources = reader.getPageN( page ).getAsDict( PdfName.RESOURCES );
+        PdfDictionary xObjectsDict = resources.getAsDict( PdfName.XOBJECT );
+        if ( xObjectsDict != null )
+        {
+            for ( Object key : xObjectsDict.getKeys() )
+            {
+                PdfObject ref = xObjectsDict.get( (PdfName) key );
+                xObjects.add( ref.toString() );
+            }
+        }
+        return xObjects;
+    }
+}
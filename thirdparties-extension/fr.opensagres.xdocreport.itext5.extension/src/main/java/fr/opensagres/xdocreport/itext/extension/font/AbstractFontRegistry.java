@@ -39,7 +39,7 @@ public abstract class AbstractFontRegistry
 
     private String systemEncoding;
 
-    private static boolean fontRegistryInitialized = false;
+    private static volatile boolean fontRegistryInitialized = false;
 
     public Font getFont( String familyName, String encoding, float size, int style, BaseColor color )
     {
@@ -61,15 +61,31 @@ public abstract class AbstractFontRegistry
         }
     }
 
-    private void initFontRegistryIfNeeded()
+    /**
+     * Register the fonts of the system directories if it's not already done. This scan is costly, so this method can be
+     * called at startup to avoid paying it on the first PDF conversion.
+     */
+    public void initialize()
+    {
+        initFontRegistryIfNeeded();
+    }
+
+    private static void initFontRegistryIfNeeded()
     {
-        if ( !fontRegistryInitialized )
+        if ( fontRegistryInitialized )
+        {
+            return;
+        }
+        synchronized ( AbstractFontRegistry.class )
         {
-            // clear built-in fonts which may clash with document fonts
-            ExtendedBaseFont.clearBuiltinFonts();
-            // register fonts from files (ex : for windows, load files from C:\WINDOWS\Fonts)
-            FontFactory.registerDirectories();
-            fontRegistryInitialized = true;
+            if ( !fontRegistryInitialized )
+            {
+                // clear built-in fonts which may clash with document fonts
+                ExtendedBaseFont.clearBuiltinFonts();
+                // register fonts from files (ex : for windows, load files from C:\WINDOWS\Fonts)
+                FontFactory.registerDirectories();
+                fontRegistryInitialized = true;
+            }
         }
     }
 
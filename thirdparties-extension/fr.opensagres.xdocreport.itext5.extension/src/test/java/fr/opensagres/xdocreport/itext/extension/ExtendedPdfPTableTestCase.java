@@ -0,0 +1,349 @@
+/**
+ * Copyright (C) 2011-2015 The XDocReport Team <xdocreport@googlegroups.com>
+ *
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free  of charge, to any person obtaining
+ * a  copy  of this  software  and  associated  documentation files  (the
+ * "Software"), to  deal in  the Software without  restriction, including
+ * without limitation  the rights to  use, copy, modify,  merge, publish,
+ * distribute,  sublicense, and/or sell  copies of  the Software,  and to
+ * permit persons to whom the Software  is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The  above  copyright  notice  and  this permission  notice  shall  be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE  SOFTWARE IS  PROVIDED  "AS  IS", WITHOUT  WARRANTY  OF ANY  KIND,
+ * EXPRESS OR  IMPLIED, INCLUDING  BUT NOT LIMITED  TO THE  WARRANTIES OF
+ * MERCHANTABILITY,    FITNESS    FOR    A   PARTICULAR    PURPOSE    AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE,  ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package fr.opensagres.xdocreport.itext.extension;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPRow;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+public class ExtendedPdfPTableTestCase
+    extends TestCase
+{
+
+    public void testFlushCompletedRows()
+    {
+        ExtendedPdfPTable table = new ExtendedPdfPTable( 2 );
+        table.setTotalWidth( 200f );
+        table.setHeaderRows( 1 );
+        table.addCell( "H1" );
+        table.addCell( "H2" );
+        for ( int i = 0; i < 3; i++ )
+        {
+            table.addCell( "A" + i );
+            table.addCell( "B" + i );
+        }
+        // row 4 starts a rowspan which continues in row 5
+        PdfPCell cell = new PdfPCell( new Phrase( "A3" ) );
+        cell.setRowspan( 2 );
+        table.addCell( cell );
+        table.addCell( "B3" );
+
+        // not enough rows
+        assertNull( table.flushCompletedRows( 4, -1f ) );
+
+        ExtendedPdfPTable flushed = table.flushCompletedRows( 2, -1f );
+        assertNotNull( flushed );
+        // header row + 3 body rows, the rowspan is kept
+        assertEquals( 4, flushed.size() );
+        assertEquals( 1, flushed.getHeaderRows() );
+        assertFalse( flushed.isSkipFirstHeader() );
+        assertEquals( 2, table.size() );
+        assertTrue( table.isSkipFirstHeader() );
+
+        table.addCell( "B4" );
+        ExtendedPdfPTable flushed2 = table.flushCompletedRows( 1, -1f );
+        assertNotNull( flushed2 );
+        assertEquals( 3, flushed2.size() );
+        // the flushed rows continue the previous ones
+        assertTrue( flushed2.isSkipFirstHeader() );
+        assertEquals( 1, table.size() );
+    }
+
+    public void testShowHeaderRowsOnNewPage()
+    {
+        ExtendedPdfPTable table = new ExtendedPdfPTable( 1 );
+        table.setTotalWidth( 200f );
+        table.setHeaderRows( 1 );
+        table.addCell( "H" );
+        table.addCell( "A" );
+        table.addCell( "B" );
+        assertNotNull( table.flushCompletedRows( 1, -1f ) );
+        table.addCell( "C" );
+
+        table.showHeaderRowsOnNewPage( 1000f );
+        assertTrue( table.isSkipFirstHeader() );
+        table.showHeaderRowsOnNewPage( 1f );
+        assertFalse( table.isSkipFirstHeader() );
+    }
+
+    public void testNestedAndOverlappingRowspans()
+        throws Exception
+    {
+        // column 0 : a rowspan of 6 rows which contains the rowspans of column 1, the second one overlaps the end of
+        // the first rowspan of column 0. Column 2 and 3 : a colspan with rowspan in the middle.
+        int[][] cells = { { 0, 0, 1, 6, 8 }, { 0, 1, 1, 2, 5 }, { 0, 2, 1, 1, 1 }, { 0, 3, 1, 1, 1 }, //
+            { 1, 2, 2, 3, 12 }, //
+            { 2, 1, 1, 1, 1 }, //
+            { 3, 1, 1, 4, 10 }, //
+            { 4, 2, 1, 1, 1 }, { 4, 3, 1, 1, 2 }, //
+            { 5, 2, 1, 1, 1 }, { 5, 3, 1, 1, 1 }, //
+            { 6, 0, 1, 3, 1 }, { 6, 2, 1, 1, 3 }, { 6, 3, 1, 1, 1 }, //
+            { 7, 1, 3, 1, 1 }, //
+            { 8, 1, 1, 1, 1 }, { 8, 2, 1, 1, 1 }, { 8, 3, 1, 1, 1 } };
+        assertEquals( 9, assertSameRowHeightsAndPages( cells, 4 ) );
+    }
+
+    public void testRandomRowspans()
+        throws Exception
+    {
+        Random random = new Random( 41 );
+        for ( int i = 0; i < 20; i++ )
+        {
+            int columns = 2 + random.nextInt( 4 );
+            int rows = 10 + random.nextInt( 40 );
+            assertEquals( rows, assertSameRowHeightsAndPages( createRandomCells( random, columns, rows ), columns ) );
+        }
+    }
+
+    /**
+     * Checks that the row heights and the rows written on each page are the same as with the previous algorithm.
+     *
+     * @param cells the cells as { row, column, colspan, rowspan, lines }.
+     * @return the number of rows.
+     */
+    private static int assertSameRowHeightsAndPages( int[][] cells, int columns )
+        throws Exception
+    {
+        ExtendedPdfPTable table = createTable( new ExtendedPdfPTable( columns ), cells );
+        ExtendedPdfPTable expected = createTable( new PreviousRowHeightTable( columns ), cells );
+        int rows = expected.size();
+        assertEquals( rows, table.size() );
+        assertEquals( expected.getTotalHeight(), table.getTotalHeight(), 0f );
+        for ( int i = 0; i < rows; i++ )
+        {
+            assertEquals( "row " + i, expected.getRowHeight( i ), table.getRowHeight( i ), 0f );
+        }
+        // the heights are memoized, compute them in an other order.
+        for ( int i = rows - 1; i >= 0; i-- )
+        {
+            assertEquals( "row " + i, expected.getRowHeight( i ), table.getRowHeight( i ), 0f );
+        }
+
+        List<String> expectedPages = getPages( createTable( new PreviousRowHeightTable( columns ), cells ) );
+        List<String> pages = getPages( createTable( new ExtendedPdfPTable( columns ), cells ) );
+        assertEquals( expectedPages, pages );
+        return rows;
+    }
+
+    private static ExtendedPdfPTable createTable( ExtendedPdfPTable table, int[][] cells )
+    {
+        table.setTotalWidth( 400f );
+        table.setLockedWidth( true );
+        for ( int[] c : cells )
+        {
+            StringBuilder text = new StringBuilder( "R" + c[0] + "C" + c[1] );
+            for ( int i = 1; i < c[4]; i++ )
+            {
+                text.append( "\nline " ).append( i );
+            }
+            PdfPCell cell = new PdfPCell( new Phrase( text.toString() ) );
+            cell.setColspan( c[2] );
+            cell.setRowspan( c[3] );
+            table.addCell( cell );
+        }
+        return table;
+    }
+
+    /**
+     * Generates cells with random colspans or rowspans and heights. iText loops when it places the cells after a
+     * colspan with rowspan or when a whole row is covered by rowspans, so a cell has either a colspan or a rowspan and
+     * the last column has no rowspan.
+     */
+    private static int[][] createRandomCells( Random random, int columns, int rows )
+    {
+        boolean[][] used = new boolean[rows][columns];
+        List<int[]> cells = new ArrayList<int[]>();
+        for ( int r = 0; r < rows; r++ )
+        {
+            for ( int c = 0; c < columns; c++ )
+            {
+                if ( used[r][c] )
+                {
+                    continue;
+                }
+                int colspan = 1;
+                int maxColspan = 1;
+                while ( c + maxColspan < columns && !used[r][c + maxColspan] )
+                {
+                    maxColspan++;
+                }
+                if ( random.nextInt( 4 ) == 0 )
+                {
+                    colspan = 1 + random.nextInt( maxColspan );
+                }
+                int rowspan = 1;
+                if ( colspan == 1 && c < columns - 1 && random.nextInt( 3 ) == 0 )
+                {
+                    rowspan = 1 + random.nextInt( Math.min( 8, rows - r ) );
+                }
+                for ( int i = r; i < r + rowspan; i++ )
+                {
+                    for ( int j = c; j < c + colspan; j++ )
+                    {
+                        used[i][j] = true;
+                    }
+                }
+                cells.add( new int[] { r, c, colspan, rowspan, 1 + random.nextInt( 12 ) } );
+            }
+        }
+        return cells.toArray( new int[cells.size()][] );
+    }
+
+    /**
+     * Writes the table on small pages and returns the text of each page.
+     */
+    private static List<String> getPages( ExtendedPdfPTable table )
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document( new Rectangle( 450f, 300f ), 20f, 20f, 20f, 20f );
+        PdfWriter.getInstance( document, out );
+        document.open();
+        document.add( table );
+        document.close();
+
+        PdfReader reader = new PdfReader( out.toByteArray() );
+        List<String> pages = new ArrayList<String>();
+        for ( int i = 1; i <= reader.getNumberOfPages(); i++ )
+        {
+            pages.add( PdfTextExtractor.getTextFromPage( reader, i ) );
+        }
+        reader.close();
+        return pages;
+    }
+
+    /**
+     * Table which computes the row heights with the algorithm used before the span index and the memoized heights.
+     */
+    private static class PreviousRowHeightTable
+        extends ExtendedPdfPTable
+    {
+
+        public PreviousRowHeightTable( int numColumns )
+        {
+            super( numColumns );
+        }
+
+        @Override
+        public float getRowHeight( int idx, boolean firsttime )
+        {
+            if ( totalWidth <= 0 || idx < 0 || idx >= rows.size() )
+                return 0;
+            PdfPRow row = rows.get( idx );
+            if ( row == null )
+                return 0;
+            if ( firsttime )
+                row.setWidths( absoluteWidths );
+            float height = row.getMaxHeights();
+            PdfPCell cell;
+            PdfPRow tmprow;
+            for ( int i = 0; i < relativeWidths.length; i++ )
+            {
+                if ( !previousRowSpanAbove( idx, i ) )
+                    continue;
+                int rs = 1;
+                while ( previousRowSpanAbove( idx - rs, i ) )
+                {
+                    rs++;
+                }
+                tmprow = rows.get( idx - rs );
+                cell = tmprow.getCells()[i];
+                float tmp = 0;
+                if ( cell == null )
+                {
+                    cell = new PdfPCell();
+                    tmprow.getCells()[i] = cell;
+                }
+                if ( cell.getRowspan() == rs + 1 )
+                {
+                    tmp = cell.getMaxHeight();
+                    while ( rs > 0 )
+                    {
+                        tmp -= getRowHeight( idx - rs );
+                        rs--;
+                    }
+                }
+                if ( tmp > height )
+                    height = tmp;
+            }
+            row.setMaxHeights( height );
+            return height;
+        }
+
+        private boolean previousRowSpanAbove( int currRow, int currCol )
+        {
+            if ( ( currCol >= getNumberOfColumns() ) || ( currCol < 0 ) || ( currRow == 0 ) )
+                return false;
+
+            int row = currRow - 1;
+            PdfPRow aboveRow = rows.get( row );
+            if ( aboveRow == null )
+                return false;
+            PdfPCell aboveCell = aboveRow.getCells()[currCol];
+            while ( ( aboveCell == null ) && ( row > 0 ) )
+            {
+                aboveRow = rows.get( --row );
+                if ( aboveRow == null )
+                    return false;
+                aboveCell = aboveRow.getCells()[currCol];
+            }
+
+            int distance = currRow - row;
+
+            if ( aboveCell == null )
+            {
+                int col = currCol - 1;
+                aboveCell = aboveRow.getCells()[col];
+                while ( ( aboveCell == null ) && ( row > 0 ) )
+                    aboveCell = aboveRow.getCells()[--col];
+                return aboveCell != null && aboveCell.getRowspan() > distance;
+            }
+
+            if ( ( aboveCell.getRowspan() == 1 ) && ( distance > 1 ) )
+            {
+                int col = currCol - 1;
+                aboveRow = rows.get( row + 1 );
+                distance--;
+                aboveCell = aboveRow.getCells()[col];
+                while ( ( aboveCell == null ) && ( col > 0 ) )
+                    aboveCell = aboveRow.getCells()[--col];
+            }
+
+            return aboveCell != null && aboveCell.getRowspan() > distance;
+        }
+    }
+}